@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.actuate.store.CompactEncoding;
+import org.springframework.boot.actuate.store.SegmentedFileStore;
+import org.springframework.boot.actuate.store.SegmentedFileStore.RecordCallback;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link AuditEventRepository} implementation that stores events in rolling
+ * memory-mapped segment files so that they survive a restart. Event data is stored
+ * using a {@link CompactEncoding compact binary encoding}; values that are not simple
+ * types are stored as strings. Events that cannot be written (for example because the
+ * disk is full) are logged and dropped rather than failing the caller.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see SegmentedFileStore
+ */
+public class FileAuditEventRepository implements AuditEventRepository, Closeable {
+
+	private static final Log logger = LogFactory.getLog(FileAuditEventRepository.class);
+
+	private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+	private static final int DEFAULT_MAX_SEGMENTS = 16;
+
+	private final SegmentedFileStore store;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Create a new {@link FileAuditEventRepository} instance using default segment
+	 * settings.
+	 * @param directory the directory used to store the events
+	 */
+	public FileAuditEventRepository(File directory) {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+	}
+
+	/**
+	 * Create a new {@link FileAuditEventRepository} instance.
+	 * @param directory the directory used to store the events
+	 * @param segmentSize the size of each segment file in bytes
+	 * @param maxSegments the maximum number of segment files to retain
+	 */
+	public FileAuditEventRepository(File directory, int segmentSize, int maxSegments) {
+		try {
+			this.store = new SegmentedFileStore(directory, "audit", segmentSize,
+					maxSegments);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to open audit event store in "
+					+ directory, ex);
+		}
+	}
+
+	@Override
+	public List<AuditEvent> find(final String principal, final Date after) {
+		final List<AuditEvent> events = new ArrayList<AuditEvent>();
+		try {
+			this.store.read((after == null ? Long.MIN_VALUE : after.getTime()),
+					new RecordCallback() {
+
+						@Override
+						public boolean record(long timestamp, DataInput data)
+								throws IOException {
+							if (after == null || timestamp >= after.getTime()) {
+								AuditEvent event = read(timestamp, principal, data);
+								if (event != null) {
+									events.add(event);
+								}
+							}
+							return true;
+						}
+
+					});
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to read audit events", ex);
+		}
+		return events;
+	}
+
+	private AuditEvent read(long timestamp, String principal, DataInput data)
+			throws IOException {
+		String eventPrincipal = CompactEncoding.readString(data);
+		if (principal != null && !ObjectUtils.nullSafeEquals(principal, eventPrincipal)) {
+			return null;
+		}
+		String type = CompactEncoding.readString(data);
+		return new AuditEvent(new Date(timestamp), eventPrincipal, type,
+				CompactEncoding.readMap(data));
+	}
+
+	@Override
+	public void add(AuditEvent event) {
+		Assert.notNull(event, "AuditEvent must not be null");
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			CompactEncoding.writeString(out, event.getPrincipal());
+			CompactEncoding.writeString(out, event.getType());
+			CompactEncoding.writeMap(out, event.getData());
+			out.flush();
+			if (bytes.size() > this.store.getMaxRecordSize()) {
+				dropped(event, "event of " + bytes.size() + " bytes is too large", null);
+				return;
+			}
+			this.store.append(event.getTimestamp().getTime(), bytes.toByteArray());
+		}
+		catch (Exception ex) {
+			dropped(event, ex.getMessage(), ex);
+		}
+	}
+
+	private void dropped(AuditEvent event, String reason, Exception ex) {
+		String message = "Dropping audit event " + event + " (" + reason + ")";
+		if (this.dropped.getAndIncrement() == 0) {
+			logger.warn(message, ex);
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug(message, ex);
+		}
+	}
+
+	/**
+	 * Return the number of audit events that could not be written.
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.store.close();
+	}
+
+}
@@ -16,12 +16,22 @@
 
 package org.springframework.boot.actuate.audit;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
 
 /**
- * In-memory {@link AuditEventRepository} implementation.
+ * In-memory {@link AuditEventRepository} implementation. Events are held in a bounded
+ * circular buffer that can be appended to concurrently without a global lock. Events
+ * are additionally indexed by principal and, since they are appended (mostly) in time
+ * order, queries locate their first candidate using a binary search on the timestamp.
  *
  * @author Dave Syer
  * @author Phillip Webb
@@ -30,53 +40,403 @@ public class InMemoryAuditEventRepository implements AuditEventRepository {
 
 	private static final int DEFAULT_CAPACITY = 4000;
 
-	/**
-	 * Circular buffer of the event with tail pointing to the last element.
-	 */
-	private AuditEvent[] events;
-
-	private volatile int tail = -1;
+	private volatile Events events;
 
 	public InMemoryAuditEventRepository() {
 		this(DEFAULT_CAPACITY);
 	}
 
 	public InMemoryAuditEventRepository(int capacity) {
-		this.events = new AuditEvent[capacity];
+		this.events = new Events(capacity);
 	}
 
 	/**
+	 * Set the capacity of the repository. Any events that have already been added are
+	 * discarded.
 	 * @param capacity the capacity to set
 	 */
-	public synchronized void setCapacity(int capacity) {
-		this.events = new AuditEvent[capacity];
+	public void setCapacity(int capacity) {
+		this.events = new Events(capacity);
+	}
+
+	@Override
+	public List<AuditEvent> find(String principal, Date after) {
+		return find(principal, after, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Find a page of the audit events relating to the specified principal since the
+	 * time provided. Events are returned oldest first.
+	 * @param principal the principal name to search for or {@code null} for any
+	 * principal
+	 * @param after timestamp of earliest result required or {@code null}
+	 * @param offset the number of matching events to skip
+	 * @param limit the maximum number of events to return
+	 * @return audit events relating to the principal
+	 */
+	public List<AuditEvent> find(String principal, Date after, int offset, int limit) {
+		Assert.isTrue(offset >= 0, "Offset must not be negative");
+		Assert.isTrue(limit >= 0, "Limit must not be negative");
+		return this.events.find(principal, after, offset, limit);
 	}
 
 	@Override
-	public synchronized List<AuditEvent> find(String principal, Date after) {
-		LinkedList<AuditEvent> events = new LinkedList<AuditEvent>();
-		for (int i = 0; i < this.events.length; i++) {
-			int index = ((this.tail + this.events.length - i) % this.events.length);
-			AuditEvent event = this.events[index];
-			if (event == null) {
-				break;
+	public void add(AuditEvent event) {
+		Assert.notNull(event, "AuditEvent must not be null");
+		this.events.add(event);
+	}
+
+	/**
+	 * The events held by the repository. Each event is assigned an increasing sequence
+	 * number that determines its slot in the buffer.
+	 */
+	private static class Events {
+
+		private final int capacity;
+
+		private final AtomicReferenceArray<Entry> entries;
+
+		private final AtomicReference<Head> head = new AtomicReference<Head>(
+				new Head(0, Long.MIN_VALUE));
+
+		/**
+		 * The largest amount of time that an event has been added behind an earlier
+		 * event. Used to keep the binary search correct when events are not added in
+		 * strict timestamp order.
+		 */
+		private final AtomicLong maxSkew = new AtomicLong();
+
+		private final ConcurrentMap<String, PrincipalIndex> principals = new ConcurrentHashMap<String, PrincipalIndex>();
+
+		Events(int capacity) {
+			Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+			this.capacity = capacity;
+			this.entries = new AtomicReferenceArray<Entry>(capacity);
+		}
+
+		public void add(AuditEvent event) {
+			long timestamp = event.getTimestamp().getTime();
+			long sequence = nextSequence(timestamp);
+			Entry entry = new Entry(sequence, timestamp, event);
+			int slot = getSlot(sequence);
+			Entry previous = this.entries.get(slot);
+			while (previous == null || previous.sequence < sequence) {
+				if (this.entries.compareAndSet(slot, previous, entry)) {
+					if (previous != null) {
+						evicted(previous);
+					}
+					if (event.getPrincipal() != null) {
+						index(event.getPrincipal(), entry);
+					}
+					return;
+				}
+				previous = this.entries.get(slot);
+			}
+		}
+
+		private long nextSequence(long timestamp) {
+			while (true) {
+				Head current = this.head.get();
+				Head next = new Head(current.sequence + 1,
+						Math.max(current.latestTimestamp, timestamp));
+				if (this.head.compareAndSet(current, next)) {
+					if (timestamp < current.latestTimestamp) {
+						updateMaxSkew(current.latestTimestamp - timestamp);
+					}
+					return current.sequence;
+				}
+			}
+		}
+
+		private void updateMaxSkew(long skew) {
+			long current = this.maxSkew.get();
+			while (skew > current && !this.maxSkew.compareAndSet(current, skew)) {
+				current = this.maxSkew.get();
 			}
-			if (isMatch(event, principal, after)) {
-				events.addFirst(event);
+		}
+
+		private void evicted(Entry entry) {
+			String principal = entry.event.getPrincipal();
+			PrincipalIndex index = (principal == null ? null : this.principals
+					.get(principal));
+			if (index != null && index.removeBefore(entry.sequence + 1)) {
+				this.principals.remove(principal, index);
 			}
 		}
-		return events;
+
+		private void index(String principal, Entry entry) {
+			while (true) {
+				PrincipalIndex index = this.principals.get(principal);
+				if (index == null) {
+					index = new PrincipalIndex();
+					PrincipalIndex existing = this.principals.putIfAbsent(principal,
+							index);
+					index = (existing == null ? index : existing);
+				}
+				if (index.add(entry.sequence)) {
+					if (this.entries.get(getSlot(entry.sequence)) != entry
+							&& index.remove(entry.sequence)) {
+						// Evicted before it was indexed so eviction could not remove it
+						this.principals.remove(principal, index);
+					}
+					return;
+				}
+				this.principals.remove(principal, index);
+			}
+		}
+
+		public List<AuditEvent> find(String principal, Date after, int offset,
+				int limit) {
+			Sequences sequences = getSequences(principal);
+			List<AuditEvent> result = new ArrayList<AuditEvent>();
+			int skip = offset;
+			for (int i = getFirstCandidate(sequences, after); i < sequences.size()
+					&& result.size() < limit; i++) {
+				Entry entry = getEntry(sequences.get(i));
+				if (entry != null && entry.isMatch(principal, after)) {
+					if (skip > 0) {
+						skip--;
+					}
+					else {
+						result.add(entry.event);
+					}
+				}
+			}
+			return result;
+		}
+
+		private Sequences getSequences(String principal) {
+			if (principal == null) {
+				long end = this.head.get().sequence;
+				return new RangeSequences(Math.max(0, end - this.capacity), end);
+			}
+			PrincipalIndex index = this.principals.get(principal);
+			return new ArraySequences(index == null ? new long[0] : index.toArray());
+		}
+
+		private int getFirstCandidate(Sequences sequences, Date after) {
+			if (after == null) {
+				return 0;
+			}
+			long threshold = after.getTime() - this.maxSkew.get();
+			int low = 0;
+			int high = sequences.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				long sequence = sequences.get(mid);
+				Entry entry = this.entries.get(getSlot(sequence));
+				if (entry != null && entry.sequence > sequence) {
+					// Evicted, so everything before it is no longer available either
+					low = mid + 1;
+				}
+				else if (entry == null || entry.sequence < sequence) {
+					// Not yet written, search earlier to be safe
+					high = mid;
+				}
+				else if (entry.timestamp < threshold) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private Entry getEntry(long sequence) {
+			Entry entry = this.entries.get(getSlot(sequence));
+			return (entry != null && entry.sequence == sequence ? entry : null);
+		}
+
+		private int getSlot(long sequence) {
+			return (int) (sequence % this.capacity);
+		}
+
 	}
 
-	private boolean isMatch(AuditEvent auditEvent, String principal, Date after) {
-		return (principal == null || auditEvent.getPrincipal().equals(principal))
-				&& (after == null || auditEvent.getTimestamp().compareTo(after) >= 0);
+	/**
+	 * The next sequence number to allocate along with the latest timestamp seen.
+	 */
+	private static class Head {
+
+		private final long sequence;
+
+		private final long latestTimestamp;
+
+		Head(long sequence, long latestTimestamp) {
+			this.sequence = sequence;
+			this.latestTimestamp = latestTimestamp;
+		}
+
 	}
 
-	@Override
-	public synchronized void add(AuditEvent event) {
-		this.tail = (this.tail + 1) % this.events.length;
-		this.events[this.tail] = event;
+	/**
+	 * An event held in a buffer slot.
+	 */
+	private static class Entry {
+
+		private final long sequence;
+
+		private final long timestamp;
+
+		private final AuditEvent event;
+
+		Entry(long sequence, long timestamp, AuditEvent event) {
+			this.sequence = sequence;
+			this.timestamp = timestamp;
+			this.event = event;
+		}
+
+		public boolean isMatch(String principal, Date after) {
+			return (principal == null || principal.equals(this.event.getPrincipal()))
+					&& (after == null || this.timestamp >= after.getTime());
+		}
+
+	}
+
+	/**
+	 * Sorted sequence numbers of the events for a single principal. Each index is
+	 * guarded by its own lock so that different principals never contend.
+	 */
+	private static class PrincipalIndex {
+
+		private long[] sequences = new long[8];
+
+		private int start;
+
+		private int size;
+
+		private boolean removed;
+
+		public synchronized boolean add(long sequence) {
+			if (this.removed) {
+				return false;
+			}
+			if (this.size == this.sequences.length) {
+				long[] sequences = new long[this.sequences.length * 2];
+				System.arraycopy(toArray(), 0, sequences, 0, this.size);
+				this.sequences = sequences;
+				this.start = 0;
+			}
+			int index = this.size++;
+			// Concurrent adds may arrive slightly out of order
+			while (index > 0 && get(index - 1) > sequence) {
+				set(index, get(index - 1));
+				index--;
+			}
+			set(index, sequence);
+			return true;
+		}
+
+		/**
+		 * Remove all sequence numbers before the given value.
+		 * @param sequence the earliest sequence number to keep
+		 * @return {@code true} if the index is now empty and has been removed
+		 */
+		public synchronized boolean removeBefore(long sequence) {
+			while (this.size > 0 && get(0) < sequence) {
+				this.start = (this.start + 1) % this.sequences.length;
+				this.size--;
+			}
+			this.removed = (this.size == 0);
+			return this.removed;
+		}
+
+		/**
+		 * Remove a single sequence number.
+		 * @param sequence the sequence number to remove
+		 * @return {@code true} if the index is now empty and has been removed
+		 */
+		public synchronized boolean remove(long sequence) {
+			for (int i = 0; i < this.size; i++) {
+				if (get(i) == sequence) {
+					for (int j = i + 1; j < this.size; j++) {
+						set(j - 1, get(j));
+					}
+					this.size--;
+					break;
+				}
+			}
+			this.removed = (this.size == 0);
+			return this.removed;
+		}
+
+		public synchronized long[] toArray() {
+			long[] result = new long[this.size];
+			for (int i = 0; i < this.size; i++) {
+				result[i] = get(i);
+			}
+			return result;
+		}
+
+		private long get(int index) {
+			return this.sequences[(this.start + index) % this.sequences.length];
+		}
+
+		private void set(int index, long sequence) {
+			this.sequences[(this.start + index) % this.sequences.length] = sequence;
+		}
+
+	}
+
+	/**
+	 * Ordered sequence numbers to search.
+	 */
+	private interface Sequences {
+
+		int size();
+
+		long get(int index);
+
+	}
+
+	/**
+	 * {@link Sequences} covering a contiguous range.
+	 */
+	private static class RangeSequences implements Sequences {
+
+		private final long start;
+
+		private final int size;
+
+		RangeSequences(long start, long end) {
+			this.start = start;
+			this.size = (int) (end - start);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		@Override
+		public long get(int index) {
+			return this.start + index;
+		}
+
+	}
+
+	/**
+	 * {@link Sequences} backed by an array.
+	 */
+	private static class ArraySequences implements Sequences {
+
+		private final long[] sequences;
+
+		ArraySequences(long[] sequences) {
+			this.sequences = sequences;
+		}
+
+		@Override
+		public int size() {
+			return this.sequences.length;
+		}
+
+		@Override
+		public long get(int index) {
+			return this.sequences[index];
+		}
+
 	}
 
 }
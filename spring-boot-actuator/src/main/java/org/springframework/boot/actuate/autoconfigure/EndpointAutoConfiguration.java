@@ -30,6 +30,7 @@ import liquibase.integration.spring.SpringLiquibase;
 import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.StartupTimeline;
 import org.springframework.boot.actuate.endpoint.AutoConfigurationReportEndpoint;
 import org.springframework.boot.actuate.endpoint.BeansEndpoint;
 import org.springframework.boot.actuate.endpoint.ConfigurationPropertiesReportEndpoint;
@@ -41,12 +42,15 @@ import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.endpoint.InfoEndpoint;
 import org.springframework.boot.actuate.endpoint.LiquibaseEndpoint;
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.endpoint.RequestMappingEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
+import org.springframework.boot.actuate.endpoint.StartupEndpoint;
 import org.springframework.boot.actuate.endpoint.TraceEndpoint;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.HealthMonitor;
 import org.springframework.boot.actuate.health.OrderedHealthAggregator;
 import org.springframework.boot.actuate.trace.InMemoryTraceRepository;
 import org.springframework.boot.actuate.trace.TraceRepository;
@@ -93,6 +97,9 @@ public class EndpointAutoConfiguration {
 	@Autowired(required = false)
 	private Map<String, HealthIndicator> healthIndicators = new HashMap<String, HealthIndicator>();
 
+	@Autowired(required = false)
+	private HealthMonitor healthMonitor;
+
 	@Autowired(required = false)
 	private Collection<PublicMetrics> publicMetrics;
 
@@ -108,7 +115,16 @@ public class EndpointAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public HealthEndpoint healthEndpoint() {
-		return new HealthEndpoint(this.healthAggregator, this.healthIndicators);
+		Map<String, HealthIndicator> healthIndicators = this.healthIndicators;
+		if (this.healthMonitor != null) {
+			healthIndicators = new LinkedHashMap<String, HealthIndicator>();
+			for (Map.Entry<String, HealthIndicator> entry : this.healthIndicators
+					.entrySet()) {
+				healthIndicators.put(entry.getKey(),
+						this.healthMonitor.monitor(entry.getKey(), entry.getValue()));
+			}
+		}
+		return new HealthEndpoint(this.healthAggregator, healthIndicators);
 	}
 
 	@Bean
@@ -152,6 +168,12 @@ public class EndpointAutoConfiguration {
 		return new DumpEndpoint();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public ProfileEndpoint profileEndpoint() {
+		return new ProfileEndpoint();
+	}
+
 	@Bean
 	@ConditionalOnBean(ConditionEvaluationReport.class)
 	@ConditionalOnMissingBean(search = SearchStrategy.CURRENT)
@@ -171,6 +193,13 @@ public class EndpointAutoConfiguration {
 		return new ConfigurationPropertiesReportEndpoint();
 	}
 
+	@Bean
+	@ConditionalOnBean(StartupTimeline.class)
+	@ConditionalOnMissingBean(search = SearchStrategy.CURRENT)
+	public StartupEndpoint startupEndpoint(StartupTimeline timeline) {
+		return new StartupEndpoint(timeline);
+	}
+
 	@Configuration
 	@ConditionalOnBean(Flyway.class)
 	@ConditionalOnClass(Flyway.class)
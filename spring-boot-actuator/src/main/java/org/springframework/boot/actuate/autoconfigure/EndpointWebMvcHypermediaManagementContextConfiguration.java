@@ -66,6 +66,7 @@ import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.databind.JsonSerializable;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 
@@ -243,6 +244,10 @@ public class EndpointWebMvcHypermediaManagementContextConfiguration {
 				// Assume it already was handled or it already has its links
 				return body;
 			}
+			if (body instanceof JsonSerializable) {
+				// Streamed directly to the response so cannot be enhanced with links
+				return body;
+			}
 			HttpMessageConverter<Object> converter = findConverter(selectedConverterType,
 					selectedContentType);
 			if (converter == null || isHypermediaDisabled(returnType)) {
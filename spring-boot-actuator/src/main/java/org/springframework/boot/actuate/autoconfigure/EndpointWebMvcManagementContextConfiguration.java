@@ -26,6 +26,7 @@ import org.springframework.boot.actuate.endpoint.Endpoint;
 import org.springframework.boot.actuate.endpoint.EnvironmentEndpoint;
 import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.EndpointHandlerMapping;
 import org.springframework.boot.actuate.endpoint.mvc.EndpointHandlerMappingCustomizer;
@@ -35,9 +36,18 @@ import org.springframework.boot.actuate.endpoint.mvc.LogFileMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MetricsMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MvcEndpoints;
+import org.springframework.boot.actuate.endpoint.mvc.ProfileMvcEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.PrometheusMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.ShutdownMvcEndpoint;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
+import org.springframework.boot.actuate.metrics.prometheus.PrometheusNamingStrategy;
+import org.springframework.boot.actuate.metrics.prometheus.PrometheusTextWriter;
+import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
 import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava.JavaVersion;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -45,6 +55,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.util.CollectionUtils;
@@ -156,6 +167,13 @@ public class EndpointWebMvcManagementContextConfiguration {
 		return new MetricsMvcEndpoint(delegate);
 	}
 
+	@Bean
+	@ConditionalOnBean(ProfileEndpoint.class)
+	@ConditionalOnEnabledEndpoint(value = "profile", enabledByDefault = false)
+	public ProfileMvcEndpoint profileMvcEndpoint(ProfileEndpoint delegate) {
+		return new ProfileMvcEndpoint(delegate);
+	}
+
 	@Bean
 	@ConditionalOnEnabledEndpoint("logfile")
 	@Conditional(LogFileCondition.class)
@@ -170,6 +188,32 @@ public class EndpointWebMvcManagementContextConfiguration {
 		return new ShutdownMvcEndpoint(delegate);
 	}
 
+	@Configuration
+	@ConditionalOnJava(JavaVersion.EIGHT)
+	@ConditionalOnBean({ CounterBuffers.class, GaugeBuffers.class })
+	protected static class PrometheusEndpointConfiguration {
+
+		@Autowired(required = false)
+		private RichGaugeReader richGaugeReader;
+
+		@Autowired(required = false)
+		private PrometheusNamingStrategy namingStrategy;
+
+		@Bean
+		@ConditionalOnMissingBean
+		@ConditionalOnEnabledEndpoint("prometheus")
+		public PrometheusMvcEndpoint prometheusMvcEndpoint(CounterBuffers counters,
+				GaugeBuffers gauges) {
+			PrometheusTextWriter writer = new PrometheusTextWriter(counters, gauges);
+			writer.setRichGaugeReader(this.richGaugeReader);
+			if (this.namingStrategy != null) {
+				writer.setNamingStrategy(this.namingStrategy);
+			}
+			return new PrometheusMvcEndpoint(writer);
+		}
+
+	}
+
 	private static class LogFileCondition extends SpringBootCondition {
 
 		@Override
@@ -36,6 +36,7 @@ import org.springframework.boot.actuate.health.ElasticsearchHealthIndicator;
 import org.springframework.boot.actuate.health.ElasticsearchHealthIndicatorProperties;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.HealthMonitor;
 import org.springframework.boot.actuate.health.JmsHealthIndicator;
 import org.springframework.boot.actuate.health.MailHealthIndicator;
 import org.springframework.boot.actuate.health.MongoHealthIndicator;
@@ -43,12 +44,14 @@ import org.springframework.boot.actuate.health.OrderedHealthAggregator;
 import org.springframework.boot.actuate.health.RabbitHealthIndicator;
 import org.springframework.boot.actuate.health.RedisHealthIndicator;
 import org.springframework.boot.actuate.health.SolrHealthIndicator;
+import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.elasticsearch.ElasticsearchAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
@@ -60,6 +63,7 @@ import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
 import org.springframework.boot.autoconfigure.mongo.MongoDataAutoConfiguration;
 import org.springframework.boot.autoconfigure.redis.RedisAutoConfiguration;
 import org.springframework.boot.autoconfigure.solr.SolrAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -106,6 +110,24 @@ public class HealthIndicatorAutoConfiguration {
 		return new ApplicationHealthIndicator();
 	}
 
+	@Configuration
+	@ConditionalOnProperty(prefix = "management.health.monitor", name = "enabled", havingValue = "true")
+	protected static class HealthMonitorConfiguration {
+
+		@Autowired(required = false)
+		private CounterService counterService;
+
+		@Bean
+		@ConditionalOnMissingBean
+		@ConfigurationProperties("management.health.monitor")
+		public HealthMonitor healthMonitor() {
+			HealthMonitor healthMonitor = new HealthMonitor();
+			healthMonitor.setCounterService(this.counterService);
+			return healthMonitor;
+		}
+
+	}
+
 	/**
 	 * Base class for configurations that can combine source beans using a
 	 * {@link CompositeHealthIndicator}.
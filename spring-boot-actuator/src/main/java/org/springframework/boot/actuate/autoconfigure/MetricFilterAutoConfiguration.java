@@ -16,6 +16,9 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.servlet.Servlet;
 import javax.servlet.ServletRegistration;
 
@@ -27,6 +30,7 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -34,7 +38,10 @@ import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} that records Servlet interactions
- * with a {@link CounterService} and {@link GaugeService}.
+ * with a {@link CounterService} and {@link GaugeService}. The number of distinct request
+ * paths recorded for requests without a matching handler pattern can be limited using
+ * {@code endpoints.metrics.filter.max-paths} and
+ * {@code endpoints.metrics.filter.path-limits.<prefix>}.
  *
  * @author Dave Syer
  * @author Phillip Webb
@@ -46,6 +53,7 @@ import org.springframework.web.servlet.HandlerMapping;
 		OncePerRequestFilter.class, HandlerMapping.class })
 @AutoConfigureAfter(MetricRepositoryAutoConfiguration.class)
 @ConditionalOnProperty(name = "endpoints.metrics.filter.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(MetricFilterProperties.class)
 public class MetricFilterAutoConfiguration {
 
 	@Autowired
@@ -54,9 +62,22 @@ public class MetricFilterAutoConfiguration {
 	@Autowired
 	private GaugeService gaugeService;
 
+	@Autowired
+	private MetricFilterProperties properties;
+
 	@Bean
 	public MetricsFilter metricFilter() {
-		return new MetricsFilter(this.counterService, this.gaugeService);
+		MetricsFilter filter = new MetricsFilter(this.counterService, this.gaugeService);
+		filter.setMaxPaths(this.properties.getMaxPaths());
+		Map<String, Integer> pathLimits = new LinkedHashMap<String, Integer>();
+		for (Map.Entry<String, Integer> entry : this.properties.getPathLimits()
+				.entrySet()) {
+			String prefix = entry.getKey();
+			pathLimits.put(prefix.startsWith("/") ? prefix : "/" + prefix,
+					entry.getValue());
+		}
+		filter.setPathLimits(pathLimits);
+		return filter;
 	}
 
 }
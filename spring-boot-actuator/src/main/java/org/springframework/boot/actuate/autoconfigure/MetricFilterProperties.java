@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.validation.constraints.Min;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the {@link MetricsFilter}.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+@ConfigurationProperties(prefix = "endpoints.metrics.filter")
+public class MetricFilterProperties {
+
+	/**
+	 * Enable recording metrics for all HTTP requests.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of distinct request paths recorded for requests without a matching
+	 * handler. Requests for other paths are recorded against 'overflow'.
+	 */
+	@Min(1)
+	private int maxPaths = MetricsFilter.DEFAULT_MAX_PATHS;
+
+	/**
+	 * Maximum number of distinct request paths recorded for requests without a matching
+	 * handler, keyed by path prefix (e.g. 'api' for '/api' and the paths below it).
+	 */
+	private Map<String, Integer> pathLimits = new LinkedHashMap<String, Integer>();
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxPaths() {
+		return this.maxPaths;
+	}
+
+	public void setMaxPaths(int maxPaths) {
+		this.maxPaths = maxPaths;
+	}
+
+	public Map<String, Integer> getPathLimits() {
+		return this.pathLimits;
+	}
+
+	public void setPathLimits(Map<String, Integer> pathLimits) {
+		this.pathLimits = pathLimits;
+	}
+
+}
@@ -17,6 +17,11 @@
 package org.springframework.boot.actuate.autoconfigure;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -27,6 +32,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.MetricName;
+import org.springframework.boot.actuate.metrics.MetricNameTemplate;
+import org.springframework.boot.actuate.metrics.util.CardinalityLimiter;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
@@ -37,7 +45,10 @@ import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
 
 /**
- * Filter that counts requests and measures processing times.
+ * Filter that counts requests and measures processing times. Requests are recorded
+ * against the matching handler pattern where there is one, otherwise against the request
+ * path. Since request paths are not under the control of the application, the number of
+ * distinct paths that are recorded is limited.
  */
 @Order(Ordered.HIGHEST_PRECEDENCE)
 final class MetricsFilter extends OncePerRequestFilter {
@@ -46,17 +57,70 @@ final class MetricsFilter extends OncePerRequestFilter {
 
 	private static final String UNKNOWN_PATH_SUFFIX = "/unmapped";
 
+	private static final String OVERFLOW_PATH_SUFFIX = "/overflow";
+
+	private static final String OVERFLOW_METRIC_NAME = "metrics.filter.overflow";
+
+	static final int DEFAULT_MAX_PATHS = 1000;
+
+	private static final int MAX_CACHED_NAMES = 1000;
+
+	private static final MetricNameTemplate GAUGE_TEMPLATE = new MetricNameTemplate(
+			"response.{path}");
+
+	private static final MetricNameTemplate COUNTER_TEMPLATE = new MetricNameTemplate(
+			"status.{status}.{path}");
+
 	private static final Log logger = LogFactory.getLog(MetricsFilter.class);
 
 	private final CounterService counterService;
 
 	private final GaugeService gaugeService;
 
+	private final ConcurrentMap<String, String> patternSuffixes = new ConcurrentHashMap<String, String>();
+
+	private final ConcurrentMap<String, MetricNames> metricNames = new ConcurrentHashMap<String, MetricNames>();
+
+	private int maxPaths = DEFAULT_MAX_PATHS;
+
+	private Map<String, Integer> pathLimits = Collections.emptyMap();
+
+	private CardinalityLimiter pathLimiter = createPathLimiter();
+
 	public MetricsFilter(CounterService counterService, GaugeService gaugeService) {
 		this.counterService = counterService;
 		this.gaugeService = gaugeService;
 	}
 
+	/**
+	 * Set the maximum number of distinct request paths that are recorded when there is
+	 * no matching handler pattern. Requests for further paths are recorded against
+	 * {@value #OVERFLOW_PATH_SUFFIX} and counted in
+	 * {@code counter.metrics.filter.overflow}.
+	 * @param maxPaths the maximum number of paths (default 1000)
+	 */
+	public void setMaxPaths(int maxPaths) {
+		this.maxPaths = maxPaths;
+		this.pathLimiter = createPathLimiter();
+	}
+
+	/**
+	 * Set the maximum number of distinct request paths that are recorded for specific
+	 * path prefixes (e.g. "/api"), when there is no matching handler pattern. A prefix
+	 * only matches whole path segments.
+	 * @param pathLimits the limits keyed by path prefix
+	 */
+	public void setPathLimits(Map<String, Integer> pathLimits) {
+		this.pathLimits = pathLimits;
+		this.pathLimiter = createPathLimiter();
+	}
+
+	private CardinalityLimiter createPathLimiter() {
+		CardinalityLimiter limiter = new CardinalityLimiter(this.maxPaths, "/");
+		limiter.setLimits(this.pathLimits);
+		return limiter;
+	}
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request,
 			HttpServletResponse response, FilterChain chain) throws ServletException,
@@ -87,23 +151,51 @@ final class MetricsFilter extends OncePerRequestFilter {
 	private void recordMetrics(HttpServletRequest request, String path, int status,
 			long time) {
 		String suffix = getFinalStatus(request, path, status);
-		submitToGauge(getKey("response" + suffix), time);
-		incrementCounter(getKey("status." + status + suffix));
+		MetricNames names = getMetricNames(suffix);
+		submitToGauge(names.getGaugeName(), time);
+		incrementCounter(names.getCounterName(status));
+	}
+
+	private MetricNames getMetricNames(String suffix) {
+		MetricNames names = this.metricNames.get(suffix);
+		if (names == null) {
+			names = new MetricNames(suffix);
+			if (this.metricNames.size() < MAX_CACHED_NAMES) {
+				MetricNames existing = this.metricNames.putIfAbsent(suffix, names);
+				names = (existing == null ? names : existing);
+			}
+		}
+		return names;
 	}
 
 	private String getFinalStatus(HttpServletRequest request, String path, int status) {
 		Object bestMatchingPattern = request
 				.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
 		if (bestMatchingPattern != null) {
-			return fixSpecialCharacters(bestMatchingPattern.toString());
+			return getPatternSuffix(bestMatchingPattern.toString());
 		}
 		Series series = getSeries(status);
 		if (Series.CLIENT_ERROR.equals(series) || Series.REDIRECTION.equals(series)) {
 			return UNKNOWN_PATH_SUFFIX;
 		}
+		if (!this.pathLimiter.accept(path)) {
+			incrementCounter(OVERFLOW_METRIC_NAME);
+			return OVERFLOW_PATH_SUFFIX;
+		}
 		return path;
 	}
 
+	private String getPatternSuffix(String pattern) {
+		String suffix = this.patternSuffixes.get(pattern);
+		if (suffix == null) {
+			suffix = fixSpecialCharacters(pattern);
+			if (this.patternSuffixes.size() < MAX_CACHED_NAMES) {
+				this.patternSuffixes.put(pattern, suffix);
+			}
+		}
+		return suffix;
+	}
+
 	private String fixSpecialCharacters(String value) {
 		String result = value.replaceAll("[{}]", "-");
 		result = result.replace("**", "-star-star-");
@@ -129,7 +221,15 @@ final class MetricsFilter extends OncePerRequestFilter {
 
 	}
 
-	private String getKey(String string) {
+	private static String getPath(String suffix) {
+		String path = getKey(suffix);
+		while (path.startsWith(".")) {
+			path = path.substring(1);
+		}
+		return (path.length() > 0 ? path : "root");
+	}
+
+	private static String getKey(String string) {
 		// graphite compatible metric names
 		String value = string.replace("/", ".");
 		value = value.replace("..", ".");
@@ -160,4 +260,78 @@ final class MetricsFilter extends OncePerRequestFilter {
 		}
 	}
 
+	/**
+	 * The metric names for requests with a given path suffix. The names are tagged with
+	 * the path (and status) and mapped onto dotted names using the templates. They are
+	 * only computed once, so recording metrics for a request doesn't create new strings.
+	 */
+	private static class MetricNames {
+
+		private final String path;
+
+		private final String gaugeName;
+
+		private volatile CounterNames counterNames = new CounterNames(new int[0],
+				new String[0]);
+
+		MetricNames(String suffix) {
+			this.path = getPath(suffix);
+			this.gaugeName = GAUGE_TEMPLATE.format(MetricName.of(
+					GAUGE_TEMPLATE.getName(), "path", this.path));
+		}
+
+		public String getGaugeName() {
+			return this.gaugeName;
+		}
+
+		public String getCounterName(int status) {
+			CounterNames counterNames = this.counterNames;
+			String name = counterNames.get(status);
+			if (name == null) {
+				name = COUNTER_TEMPLATE.format(MetricName.of(COUNTER_TEMPLATE.getName(),
+						"status", String.valueOf(status), "path", this.path));
+				this.counterNames = counterNames.add(status, name);
+			}
+			return name;
+		}
+
+	}
+
+	/**
+	 * Copy-on-write lookup of counter names by status. There are normally only a few
+	 * distinct statuses for each path.
+	 */
+	private static class CounterNames {
+
+		private final int[] statuses;
+
+		private final String[] names;
+
+		CounterNames(int[] statuses, String[] names) {
+			this.statuses = statuses;
+			this.names = names;
+		}
+
+		public String get(int status) {
+			for (int i = 0; i < this.statuses.length; i++) {
+				if (this.statuses[i] == status) {
+					return this.names[i];
+				}
+			}
+			return null;
+		}
+
+		public CounterNames add(int status, String name) {
+			if (get(status) != null || this.statuses.length >= 16) {
+				return this;
+			}
+			int[] statuses = Arrays.copyOf(this.statuses, this.statuses.length + 1);
+			String[] names = Arrays.copyOf(this.names, this.names.length + 1);
+			statuses[this.statuses.length] = status;
+			names[this.names.length] = name;
+			return new CounterNames(statuses, names);
+		}
+
+	}
+
 }
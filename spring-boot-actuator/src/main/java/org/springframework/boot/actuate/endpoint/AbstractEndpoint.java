@@ -19,6 +19,7 @@ package org.springframework.boot.actuate.endpoint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.core.env.Environment;
 
@@ -53,6 +54,9 @@ public abstract class AbstractEndpoint<T> implements Endpoint<T>, EnvironmentAwa
 	 */
 	private Boolean enabled;
 
+	@NestedConfigurationProperty
+	private final EndpointCache cache = new EndpointCache();
+
 	/**
 	 * Create a new sensitive endpoint instance. The enpoint will enabled flag will be
 	 * based on the spring {@link Environment} unless explicitly set.
@@ -128,4 +132,14 @@ public abstract class AbstractEndpoint<T> implements Endpoint<T>, EnvironmentAwa
 		this.sensitive = sensitive;
 	}
 
+	/**
+	 * Return the cache used for the result of the endpoint when it is invoked over HTTP
+	 * or JMX (disabled unless a time to live is set).
+	 * @return the cache
+	 * @since 1.3.0
+	 */
+	public EndpointCache getCache() {
+		return this.cache;
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -26,7 +27,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionEvaluationRepor
 import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport.ConditionAndOutcomes;
 import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Condition;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -35,9 +38,12 @@ import org.springframework.util.StringUtils;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 /**
- * {@link Endpoint} to expose the {@link ConditionEvaluationReport}.
+ * {@link Endpoint} to expose the {@link ConditionEvaluationReport}. Since the report does
+ * not change once the application context has been refreshed it can be
+ * {@link #getCache() cached} until the next refresh.
  *
  * @author Greg Turnquist
  * @author Phillip Webb
@@ -45,20 +51,46 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * @author Andy Wilkinson
  */
 @ConfigurationProperties(prefix = "endpoints.autoconfig", ignoreUnknownFields = false)
-public class AutoConfigurationReportEndpoint extends AbstractEndpoint<Report> {
+public class AutoConfigurationReportEndpoint extends AbstractEndpoint<Report> implements
+		JsonStreamingEndpoint<Report>, ApplicationListener<ContextRefreshedEvent> {
 
 	@Autowired
 	private ConditionEvaluationReport autoConfigurationReport;
 
+	/**
+	 * Write the response directly as JSON rather than building it in memory first.
+	 */
+	private boolean streaming;
+
 	public AutoConfigurationReportEndpoint() {
 		super("autoconfig");
 	}
 
+	@Override
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		getCache().clear();
+	}
+
 	@Override
 	public Report invoke() {
 		return new Report(this.autoConfigurationReport);
 	}
 
+	@Override
+	public void writeJson(JsonGenerator generator) throws IOException {
+		// The report is already a lightweight view of the condition evaluation report
+		generator.writeObject(invoke());
+	}
+
 	/**
 	 * Adapts {@link ConditionEvaluationReport} to a JSON friendly structure.
 	 */
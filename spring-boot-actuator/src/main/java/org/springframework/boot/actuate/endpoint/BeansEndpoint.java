@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.BeansException;
@@ -24,25 +25,40 @@ import org.springframework.boot.json.JsonParser;
 import org.springframework.boot.json.JsonParserFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.support.LiveBeansView;
 import org.springframework.core.env.Environment;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
  * Exposes JSON view of Spring beans. If the {@link Environment} contains a key setting
  * the {@link LiveBeansView#MBEAN_DOMAIN_PROPERTY_NAME} then all application contexts in
  * the JVM will be shown (and the corresponding MBeans will be registered per the standard
- * behavior of LiveBeansView). Otherwise only the current application context.
+ * behavior of LiveBeansView). Otherwise only the current application context. Any
+ * {@link #getCache() cached} bean graph is discarded when the application context is
+ * refreshed.
  *
  * @author Dave Syer
  */
 @ConfigurationProperties(prefix = "endpoints.beans", ignoreUnknownFields = false)
 public class BeansEndpoint extends AbstractEndpoint<List<Object>> implements
-		ApplicationContextAware {
+		JsonStreamingEndpoint<List<Object>>, ApplicationContextAware,
+		ApplicationListener<ContextRefreshedEvent> {
 
 	private final LiveBeansView liveBeansView = new LiveBeansView();
 
 	private final JsonParser parser = JsonParserFactory.getJsonParser();
 
+	private final JsonFactory jsonFactory = new JsonFactory();
+
+	/**
+	 * Write the response directly as JSON rather than building it in memory first.
+	 */
+	private boolean streaming;
+
 	public BeansEndpoint() {
 		super("beans");
 	}
@@ -55,8 +71,36 @@ public class BeansEndpoint extends AbstractEndpoint<List<Object>> implements
 		}
 	}
 
+	@Override
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		getCache().clear();
+	}
+
 	@Override
 	public List<Object> invoke() {
 		return this.parser.parseList(this.liveBeansView.getSnapshotAsJson());
 	}
+
+	@Override
+	public void writeJson(JsonGenerator generator) throws IOException {
+		// The snapshot is already JSON so it can be copied without parsing it into a tree
+		com.fasterxml.jackson.core.JsonParser parser = this.jsonFactory
+				.createParser(this.liveBeansView.getSnapshotAsJson());
+		try {
+			parser.nextToken();
+			generator.copyCurrentStructure(parser);
+		}
+		finally {
+			parser.close();
+		}
+	}
 }
@@ -16,20 +16,29 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.BeansException;
 import org.springframework.boot.context.properties.ConfigurationBeanFactoryMetaData;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationConfig;
@@ -44,6 +53,7 @@ import com.fasterxml.jackson.databind.ser.PropertyWriter;
 import com.fasterxml.jackson.databind.ser.SerializerFactory;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 /**
  * {@link Endpoint} to expose application properties from {@link ConfigurationProperties}
@@ -55,17 +65,42 @@ import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
  * Configure property names by using {@code endpoints.configprops.keys_to_sanitize} in
  * your Spring Boot application configuration.
  *
+ * <p>
+ * When {@link #setStreaming(boolean) streaming} each bean is serialized and sanitized
+ * straight to the response, so only one bean's properties are held in memory at a time.
+ *
+ * <p>
+ * Any {@link #getCache() cached} report is {@link #invalidate() invalidated} when the
+ * context is refreshed or when an event indicating that the environment has changed (and
+ * the beans might have been rebound) is published, so the report can be cached until
+ * then by setting a negative time to live.
+ *
  * @author Christian Dupuis
  * @author Dave Syer
  */
 @ConfigurationProperties(prefix = "endpoints.configprops", ignoreUnknownFields = false)
 public class ConfigurationPropertiesReportEndpoint extends
-		AbstractEndpoint<Map<String, Object>> implements ApplicationContextAware {
+		AbstractEndpoint<Map<String, Object>> implements
+		JsonStreamingEndpoint<Map<String, Object>>, ApplicationContextAware,
+		ApplicationListener<ApplicationEvent> {
 
 	private static final String CGLIB_FILTER_ID = "cglibFilter";
 
+	private static final String[] ENVIRONMENT_CHANGE_EVENTS = {
+			"org.springframework.cloud.context.environment.EnvironmentChangeEvent",
+			"org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent" };
+
 	private final Sanitizer sanitizer = new Sanitizer();
 
+	/**
+	 * Write the response directly as JSON rather than building it in memory first.
+	 */
+	private boolean streaming;
+
+	private final Set<Class<?>> environmentChangeEvents = getEnvironmentChangeEvents();
+
+	private volatile ObjectMapper objectMapper;
+
 	private ApplicationContext context;
 
 	public ConfigurationPropertiesReportEndpoint() {
@@ -79,6 +114,39 @@ public class ConfigurationPropertiesReportEndpoint extends
 
 	public void setKeysToSanitize(String... keysToSanitize) {
 		this.sanitizer.setKeysToSanitize(keysToSanitize);
+		invalidate();
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Discard any cached report so that it is calculated again on the next invocation.
+	 */
+	public void invalidate() {
+		getCache().clear();
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof ContextRefreshedEvent || isEnvironmentChangeEvent(event)) {
+			invalidate();
+		}
+	}
+
+	private boolean isEnvironmentChangeEvent(ApplicationEvent event) {
+		for (Class<?> type : this.environmentChangeEvents) {
+			if (type.isInstance(event)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
@@ -86,6 +154,34 @@ public class ConfigurationPropertiesReportEndpoint extends
 		return extract(this.context);
 	}
 
+	@Override
+	public void writeJson(JsonGenerator generator) throws IOException {
+		writeJson(generator, this.context, getObjectMapper());
+	}
+
+	private void writeJson(JsonGenerator generator, ApplicationContext context,
+			ObjectMapper mapper) throws IOException {
+		generator.writeStartObject();
+		ConfigurationBeanFactoryMetaData beanFactoryMetaData = getBeanFactoryMetaData(context);
+		Map<String, Object> beans = getConfigurationPropertiesBeans(context,
+				beanFactoryMetaData);
+		for (Map.Entry<String, Object> entry : beans.entrySet()) {
+			String beanName = entry.getKey();
+			Object bean = entry.getValue();
+			String prefix = extractPrefix(context, beanFactoryMetaData, beanName, bean);
+			generator.writeObjectFieldStart(beanName);
+			generator.writeStringField("prefix", prefix);
+			generator.writeFieldName("properties");
+			writeSanitized(generator, safeSerialize(mapper, bean), prefix);
+			generator.writeEndObject();
+		}
+		if (context.getParent() != null) {
+			generator.writeFieldName("parent");
+			writeJson(generator, context.getParent(), mapper);
+		}
+		generator.writeEndObject();
+	}
+
 	/**
 	 * Extract beans annotated {@link ConfigurationProperties} and serialize into
 	 * {@link Map}.
@@ -94,9 +190,18 @@ public class ConfigurationPropertiesReportEndpoint extends
 	 */
 	protected Map<String, Object> extract(ApplicationContext context) {
 		// Serialize beans into map structure and sanitize values
-		ObjectMapper mapper = new ObjectMapper();
-		configureObjectMapper(mapper);
-		return extract(context, mapper);
+		return extract(context, getObjectMapper());
+	}
+
+	private ObjectMapper getObjectMapper() {
+		// The mapper caches the serializers it creates so it is worth keeping
+		ObjectMapper mapper = this.objectMapper;
+		if (mapper == null) {
+			mapper = new ObjectMapper();
+			configureObjectMapper(mapper);
+			this.objectMapper = mapper;
+		}
+		return mapper;
 	}
 
 	private Map<String, Object> extract(ApplicationContext context, ObjectMapper mapper) {
@@ -141,6 +246,17 @@ public class ConfigurationPropertiesReportEndpoint extends
 		return beans;
 	}
 
+	private Set<Class<?>> getEnvironmentChangeEvents() {
+		Set<Class<?>> events = new LinkedHashSet<Class<?>>();
+		ClassLoader classLoader = getClass().getClassLoader();
+		for (String name : ENVIRONMENT_CHANGE_EVENTS) {
+			if (ClassUtils.isPresent(name, classLoader)) {
+				events.add(ClassUtils.resolveClassName(name, classLoader));
+			}
+		}
+		return events;
+	}
+
 	/**
 	 * Cautiously serialize the bean to a map (returning a map with an error message
 	 * instead of throwing an exception if there is a problem).
@@ -159,6 +275,67 @@ public class ConfigurationPropertiesReportEndpoint extends
 		}
 	}
 
+	/**
+	 * Cautiously serialize the bean to a {@link TokenBuffer} (returning an error message
+	 * instead of throwing an exception if there is a problem).
+	 */
+	private TokenBuffer safeSerialize(ObjectMapper mapper, Object bean) {
+		TokenBuffer buffer = new TokenBuffer(mapper, false);
+		try {
+			mapper.writeValue(buffer, bean);
+			if (buffer.firstToken() == JsonToken.START_OBJECT) {
+				return buffer;
+			}
+		}
+		catch (Exception ex) {
+			// Fall through to the error
+		}
+		return null;
+	}
+
+	/**
+	 * Copy serialized properties to the generator, sanitizing values in the same way as
+	 * {@link #sanitize(Map)}.
+	 */
+	private void writeSanitized(JsonGenerator generator, TokenBuffer buffer,
+			String prefix) throws IOException {
+		if (buffer == null) {
+			generator.writeStartObject();
+			generator.writeStringField("error", "Cannot serialize '" + prefix + "'");
+			generator.writeEndObject();
+			return;
+		}
+		JsonParser parser = buffer.asParser();
+		try {
+			parser.nextToken();
+			writeSanitized(generator, parser);
+		}
+		finally {
+			parser.close();
+		}
+	}
+
+	private void writeSanitized(JsonGenerator generator, JsonParser parser)
+			throws IOException {
+		generator.writeStartObject();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			generator.writeFieldName(name);
+			if (token == JsonToken.START_OBJECT) {
+				writeSanitized(generator, parser);
+			}
+			else if (token != JsonToken.VALUE_NULL && this.sanitizer.isSensitive(name)) {
+				generator.writeObject(this.sanitizer.sanitize(name, parser.getText()));
+				parser.skipChildren();
+			}
+			else {
+				generator.copyCurrentStructure(parser);
+			}
+		}
+		generator.writeEndObject();
+	}
+
 	/**
 	 * Configure Jackson's {@link ObjectMapper} to be used to serialize the
 	 * {@link ConfigurationProperties} objects into a {@link Map} structure.
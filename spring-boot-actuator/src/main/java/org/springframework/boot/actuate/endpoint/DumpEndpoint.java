@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,13 +24,25 @@ import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
- * {@link Endpoint} to expose thread info.
+ * {@link Endpoint} to expose thread info. Collecting locked monitor and synchronizer
+ * information is relatively expensive for applications with many threads so it can be
+ * switched off.
  *
  * @author Dave Syer
  */
 @ConfigurationProperties(prefix = "endpoints.dump", ignoreUnknownFields = false)
 public class DumpEndpoint extends AbstractEndpoint<List<ThreadInfo>> {
 
+	/**
+	 * Include the monitors locked by each thread.
+	 */
+	private boolean lockedMonitors = true;
+
+	/**
+	 * Include the ownable synchronizers locked by each thread.
+	 */
+	private boolean lockedSynchronizers = true;
+
 	/**
 	 * Create a new {@link DumpEndpoint} instance.
 	 */
@@ -38,10 +50,26 @@ public class DumpEndpoint extends AbstractEndpoint<List<ThreadInfo>> {
 		super("dump");
 	}
 
+	public boolean isLockedMonitors() {
+		return this.lockedMonitors;
+	}
+
+	public void setLockedMonitors(boolean lockedMonitors) {
+		this.lockedMonitors = lockedMonitors;
+	}
+
+	public boolean isLockedSynchronizers() {
+		return this.lockedSynchronizers;
+	}
+
+	public void setLockedSynchronizers(boolean lockedSynchronizers) {
+		this.lockedSynchronizers = lockedSynchronizers;
+	}
+
 	@Override
 	public List<ThreadInfo> invoke() {
-		return Arrays.asList(ManagementFactory.getThreadMXBean().dumpAllThreads(true,
-				true));
+		return Arrays.asList(ManagementFactory.getThreadMXBean().dumpAllThreads(
+				this.lockedMonitors, this.lockedSynchronizers));
 	}
 
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Cache for the result of invoking an {@link Endpoint}, used when the endpoint is exposed
+ * over HTTP or JMX. Caching is disabled unless a {@link #setTimeToLive(long) time to
+ * live} is set. A negative time to live keeps the result until the cache is
+ * {@link #clear() cleared} (some endpoints do that when the application context is
+ * refreshed). Concurrent callers that find no usable result share a single invocation
+ * of the endpoint. If a {@link #setStaleWhileRevalidate(long) stale-while-revalidate}
+ * period is set, a result that has expired less than that long ago is still returned
+ * while a fresh one is computed in the background.
+ * <p>
+ * Caching should only be enabled for endpoints that have no side effects.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see AbstractEndpoint#getCache()
+ */
+public class EndpointCache {
+
+	/**
+	 * Executor with a few daemon threads that stop when idle, shared by all caches to
+	 * compute fresh results in the background. When it is busy the stale result is
+	 * returned without starting a refresh.
+	 */
+	private static final ThreadPoolExecutor refreshExecutor = createRefreshExecutor();
+
+	private final Object monitor = new Object();
+
+	/**
+	 * Time to live for a cached result in milliseconds (0 to disable caching, negative
+	 * to keep the result until the cache is cleared).
+	 */
+	private volatile long timeToLive = 0;
+
+	/**
+	 * Time in milliseconds after a cached result expires during which it is still
+	 * returned while a fresh result is computed in the background.
+	 */
+	private volatile long staleWhileRevalidate = 0;
+
+	private volatile Result result;
+
+	private FutureTask<Object> pending;
+
+	private int generation;
+
+	public long getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	public long getStaleWhileRevalidate() {
+		return this.staleWhileRevalidate;
+	}
+
+	public void setStaleWhileRevalidate(long staleWhileRevalidate) {
+		this.staleWhileRevalidate = staleWhileRevalidate;
+	}
+
+	/**
+	 * Return if results are cached, i.e. if a time to live is set.
+	 * @return if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return this.timeToLive != 0;
+	}
+
+	/**
+	 * Return the result of invoking the given endpoint, using the cached result if there
+	 * is a usable one.
+	 * @param endpoint the endpoint
+	 * @return the result
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Endpoint<T> endpoint) {
+		long timeToLive = this.timeToLive;
+		if (timeToLive == 0) {
+			return endpoint.invoke();
+		}
+		Result result = this.result;
+		if (result != null) {
+			long age = System.currentTimeMillis() - result.timestamp;
+			if (timeToLive < 0 || age < timeToLive) {
+				return (T) result.value;
+			}
+			if (age - timeToLive < this.staleWhileRevalidate) {
+				refresh(endpoint, true);
+				return (T) result.value;
+			}
+		}
+		return (T) await(refresh(endpoint, false));
+	}
+
+	/**
+	 * Discard any cached result. An invocation that is already in progress will not
+	 * cache its result.
+	 */
+	public void clear() {
+		synchronized (this.monitor) {
+			this.generation++;
+			this.pending = null;
+			this.result = null;
+		}
+	}
+
+	private FutureTask<Object> refresh(Endpoint<?> endpoint, boolean background) {
+		FutureTask<Object> task;
+		boolean owner = false;
+		synchronized (this.monitor) {
+			task = this.pending;
+			if (task == null) {
+				task = new FutureTask<Object>(new Invocation(endpoint, this.generation));
+				this.pending = task;
+				owner = true;
+			}
+		}
+		if (owner) {
+			if (background) {
+				try {
+					refreshExecutor.execute(task);
+				}
+				catch (RejectedExecutionException ex) {
+					// Too busy, keep serving the stale result and try again later
+					completed(task);
+				}
+			}
+			else {
+				task.run();
+			}
+		}
+		return task;
+	}
+
+	private void completed(FutureTask<Object> task) {
+		synchronized (this.monitor) {
+			if (this.pending == task) {
+				this.pending = null;
+			}
+		}
+	}
+
+	private Object await(FutureTask<Object> task) {
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for endpoint", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Unable to invoke endpoint", cause);
+		}
+	}
+
+	/**
+	 * Invoke the given endpoint, using its {@link AbstractEndpoint#getCache() cache} if
+	 * it has one.
+	 * @param endpoint the endpoint to invoke
+	 * @return the result
+	 */
+	public static <T> T invoke(Endpoint<T> endpoint) {
+		if (endpoint instanceof AbstractEndpoint) {
+			return ((AbstractEndpoint<T>) endpoint).getCache().get(endpoint);
+		}
+		return endpoint.invoke();
+	}
+
+	/**
+	 * Return if the result of the given endpoint is cached.
+	 * @param endpoint the endpoint
+	 * @return if the endpoint has an {@link #isEnabled() enabled} cache
+	 */
+	public static boolean isCached(Endpoint<?> endpoint) {
+		return (endpoint instanceof AbstractEndpoint && ((AbstractEndpoint<?>) endpoint)
+				.getCache().isEnabled());
+	}
+
+	private static ThreadPoolExecutor createRefreshExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"endpoint-cache-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 10,
+				TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * An invocation of the endpoint that caches its result unless the cache has been
+	 * cleared in the meantime.
+	 */
+	private class Invocation implements Callable<Object> {
+
+		private final Endpoint<?> endpoint;
+
+		private final int generation;
+
+		Invocation(Endpoint<?> endpoint, int generation) {
+			this.endpoint = endpoint;
+			this.generation = generation;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			try {
+				Object value = this.endpoint.invoke();
+				synchronized (EndpointCache.this.monitor) {
+					if (EndpointCache.this.generation == this.generation) {
+						EndpointCache.this.result = new Result(value);
+					}
+				}
+				return value;
+			}
+			finally {
+				synchronized (EndpointCache.this.monitor) {
+					if (EndpointCache.this.generation == this.generation) {
+						EndpointCache.this.pending = null;
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * A cached result.
+	 */
+	private static class Result {
+
+		private final Object value;
+
+		private final long timestamp;
+
+		Result(Object value) {
+			this.value = value;
+			this.timestamp = System.currentTimeMillis();
+		}
+
+	}
+
+}
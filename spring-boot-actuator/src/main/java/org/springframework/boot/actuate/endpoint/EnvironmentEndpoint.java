@@ -16,6 +16,7 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,6 +30,8 @@ import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.StandardEnvironment;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
  * {@link Endpoint} to expose {@link ConfigurableEnvironment environment} information.
  *
@@ -37,10 +40,16 @@ import org.springframework.core.env.StandardEnvironment;
  * @author Christian Dupuis
  */
 @ConfigurationProperties(prefix = "endpoints.env", ignoreUnknownFields = false)
-public class EnvironmentEndpoint extends AbstractEndpoint<Map<String, Object>> {
+public class EnvironmentEndpoint extends AbstractEndpoint<Map<String, Object>> implements
+		JsonStreamingEndpoint<Map<String, Object>> {
 
 	private final Sanitizer sanitizer = new Sanitizer();
 
+	/**
+	 * Write the response directly as JSON rather than building it in memory first.
+	 */
+	private boolean streaming;
+
 	/**
 	 * Create a new {@link EnvironmentEndpoint} instance.
 	 */
@@ -52,6 +61,15 @@ public class EnvironmentEndpoint extends AbstractEndpoint<Map<String, Object>> {
 		this.sanitizer.setKeysToSanitize(keysToSanitize);
 	}
 
+	@Override
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
 	@Override
 	public Map<String, Object> invoke() {
 		Map<String, Object> result = new LinkedHashMap<String, Object>();
@@ -71,6 +89,29 @@ public class EnvironmentEndpoint extends AbstractEndpoint<Map<String, Object>> {
 		return result;
 	}
 
+	@Override
+	public void writeJson(JsonGenerator generator) throws IOException {
+		generator.writeStartObject();
+		generator.writeArrayFieldStart("profiles");
+		for (String profile : getEnvironment().getActiveProfiles()) {
+			generator.writeString(profile);
+		}
+		generator.writeEndArray();
+		for (Entry<String, PropertySource<?>> entry : getPropertySources().entrySet()) {
+			PropertySource<?> source = entry.getValue();
+			if (source instanceof EnumerablePropertySource) {
+				EnumerablePropertySource<?> enumerable = (EnumerablePropertySource<?>) source;
+				generator.writeObjectFieldStart(entry.getKey());
+				for (String name : enumerable.getPropertyNames()) {
+					generator.writeObjectField(name,
+							sanitize(name, enumerable.getProperty(name)));
+				}
+				generator.writeEndObject();
+			}
+		}
+		generator.writeEndObject();
+	}
+
 	private Map<String, PropertySource<?>> getPropertySources() {
 		Map<String, PropertySource<?>> map = new LinkedHashMap<String, PropertySource<?>>();
 		MutablePropertySources sources = null;
@@ -23,6 +23,8 @@ import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.Assert;
 
 /**
@@ -35,13 +37,26 @@ import org.springframework.util.Assert;
 @ConfigurationProperties(prefix = "endpoints.health", ignoreUnknownFields = true)
 public class HealthEndpoint extends AbstractEndpoint<Health> {
 
-	private final HealthIndicator healthIndicator;
+	private final CompositeHealthIndicator healthIndicator;
+
+	private final int healthIndicatorCount;
 
 	/**
 	 * Time to live for cached result, in milliseconds.
 	 */
 	private long timeToLive = 1000;
 
+	/**
+	 * Time to wait for each health indicator when they are called concurrently, in
+	 * milliseconds.
+	 */
+	private long indicatorTimeout = 10000;
+
+	/**
+	 * Call the health indicators concurrently rather than one after another.
+	 */
+	private boolean parallel;
+
 	/**
 	 * Create a new {@link HealthIndicator} instance.
 	 * @param healthAggregator the health aggregator
@@ -57,12 +72,16 @@ public class HealthEndpoint extends AbstractEndpoint<Health> {
 		for (Map.Entry<String, HealthIndicator> entry : healthIndicators.entrySet()) {
 			healthIndicator.addHealthIndicator(getKey(entry.getKey()), entry.getValue());
 		}
+		healthIndicator.setTimeout(this.indicatorTimeout);
 		this.healthIndicator = healthIndicator;
+		this.healthIndicatorCount = healthIndicators.size();
 	}
 
 	/**
 	 * Time to live for cached result. This is particularly useful to cache the result of
-	 * this endpoint to prevent a DOS attack if it is accessed anonymously.
+	 * this endpoint to prevent a DOS attack if it is accessed anonymously. Only applies
+	 * over HTTP, JMX access uses the {@link #getCache() cache} settings which are
+	 * disabled by default.
 	 * @return time to live in milliseconds (default 1000)
 	 */
 	public long getTimeToLive() {
@@ -73,6 +92,58 @@ public class HealthEndpoint extends AbstractEndpoint<Health> {
 		this.timeToLive = ttl;
 	}
 
+	public boolean isParallel() {
+		return this.parallel;
+	}
+
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+		this.healthIndicator.setExecutor(parallel ? createExecutor() : null);
+	}
+
+	public long getIndicatorTimeout() {
+		return this.indicatorTimeout;
+	}
+
+	public void setIndicatorTimeout(long indicatorTimeout) {
+		this.indicatorTimeout = indicatorTimeout;
+		this.healthIndicator.setTimeout(indicatorTimeout);
+	}
+
+	/**
+	 * Time to wait for specific health indicators when they are called concurrently, in
+	 * milliseconds. Keyed by the name used in the health information (e.g. "db").
+	 * @return the timeouts
+	 */
+	public Map<String, Long> getIndicatorTimeouts() {
+		return this.healthIndicator.getTimeouts();
+	}
+
+	/**
+	 * Set the executor used to call the {@link HealthIndicator} delegates concurrently,
+	 * so that a slow or hung indicator cannot hold up the endpoint for longer than its
+	 * timeout.
+	 * @param executor the executor or {@code null} to call the delegates sequentially
+	 * @see CompositeHealthIndicator#setExecutor(AsyncTaskExecutor)
+	 */
+	public void setExecutor(AsyncTaskExecutor executor) {
+		this.healthIndicator.setExecutor(executor);
+	}
+
+	private AsyncTaskExecutor createExecutor() {
+		// Idle threads time out so the pool needs no explicit shutdown
+		int poolSize = Math.max(1, this.healthIndicatorCount);
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(poolSize);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setDaemon(true);
+		executor.setThreadNamePrefix("health-");
+		executor.initialize();
+		return executor;
+	}
+
 	/**
 	 * Invoke all {@link HealthIndicator} delegates and collect their health information.
 	 */
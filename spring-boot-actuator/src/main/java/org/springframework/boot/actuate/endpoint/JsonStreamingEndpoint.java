@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * An {@link Endpoint} that can write its result directly to a {@link JsonGenerator}
+ * rather than returning a fully built object tree. Useful for endpoints that can produce
+ * large responses since the result does not need to be held in memory before it is
+ * serialized.
+ *
+ * @param <T> the endpoint data type
+ * @author agent
+ * @since 1.3.0
+ */
+public interface JsonStreamingEndpoint<T> extends Endpoint<T> {
+
+	/**
+	 * Return if the endpoint should be streamed when exposed over HTTP.
+	 * @return if streaming is enabled
+	 */
+	boolean isStreaming();
+
+	/**
+	 * Write the result of invoking the endpoint to the given generator. The JSON written
+	 * must be equivalent to the serialized result of {@link #invoke()}.
+	 * @param generator the generator to write to
+	 * @throws IOException on write error
+	 */
+	void writeJson(JsonGenerator generator) throws IOException;
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint.StackSamples;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Endpoint} to expose aggregated thread stack samples. Rather than taking a single
+ * full thread dump, the stacks of all threads are sampled repeatedly over a short window
+ * (without locked monitor or synchronizer information) and identical stacks are counted.
+ * The result uses the "collapsed" stack format understood by flame graph tools: one entry
+ * per distinct stack with its frames listed from the root, separated by {@code ;}.
+ * <p>
+ * Each invocation blocks for the sampling duration so the endpoint is disabled by
+ * default.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see DumpEndpoint
+ */
+@ConfigurationProperties(prefix = "endpoints.profile", ignoreUnknownFields = false)
+public class ProfileEndpoint extends AbstractEndpoint<StackSamples> {
+
+	/**
+	 * Time in milliseconds to take samples for.
+	 */
+	private long duration = 1000;
+
+	/**
+	 * Maximum time in milliseconds that a single request can take samples for.
+	 */
+	private long maxDuration = 30000;
+
+	/**
+	 * Time in milliseconds between samples.
+	 */
+	private long interval = 10;
+
+	/**
+	 * Maximum number of frames recorded for each stack.
+	 */
+	private int maxDepth = 128;
+
+	/**
+	 * Include threads that are blocked or waiting rather than only runnable threads.
+	 */
+	private boolean includeWaiting;
+
+	/**
+	 * Create a new {@link ProfileEndpoint} instance.
+	 */
+	public ProfileEndpoint() {
+		super("profile", true, false);
+	}
+
+	public long getDuration() {
+		return this.duration;
+	}
+
+	public void setDuration(long duration) {
+		this.duration = duration;
+	}
+
+	public long getMaxDuration() {
+		return this.maxDuration;
+	}
+
+	public void setMaxDuration(long maxDuration) {
+		this.maxDuration = maxDuration;
+	}
+
+	public long getInterval() {
+		return this.interval;
+	}
+
+	public void setInterval(long interval) {
+		this.interval = interval;
+	}
+
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	public boolean isIncludeWaiting() {
+		return this.includeWaiting;
+	}
+
+	public void setIncludeWaiting(boolean includeWaiting) {
+		this.includeWaiting = includeWaiting;
+	}
+
+	@Override
+	public StackSamples invoke() {
+		return sample(this.duration, this.interval);
+	}
+
+	/**
+	 * Sample the stacks of all threads (other than the calling thread).
+	 * @param duration the time in milliseconds to take samples for (limited to the
+	 * {@link #setMaxDuration(long) maximum duration})
+	 * @param interval the time in milliseconds between samples
+	 * @return the aggregated samples
+	 */
+	public StackSamples sample(long duration, long interval) {
+		Assert.isTrue(duration >= 0, "Duration must not be negative");
+		Assert.isTrue(interval > 0, "Interval must be greater than 0");
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long self = Thread.currentThread().getId();
+		Map<List<StackTraceElement>, int[]> counts = new HashMap<List<StackTraceElement>, int[]>();
+		long start = System.nanoTime();
+		long end = start + TimeUnit.MILLISECONDS.toNanos(Math.min(duration,
+				this.maxDuration));
+		int samples = 0;
+		try {
+			while (true) {
+				sample(threads, self, counts);
+				samples++;
+				if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(interval) > end) {
+					break;
+				}
+				Thread.sleep(interval);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		return new StackSamples(elapsed, samples, collapse(counts));
+	}
+
+	private void sample(ThreadMXBean threads, long self,
+			Map<List<StackTraceElement>, int[]> counts) {
+		// Stacks only: locked monitors and synchronizers are expensive to collect
+		for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(),
+				this.maxDepth)) {
+			if (info != null && info.getThreadId() != self && isIncluded(info)) {
+				StackTraceElement[] stack = info.getStackTrace();
+				if (stack.length > 0) {
+					// StackTraceElement implements equals and hashCode so identical
+					// stacks can be counted without formatting them
+					List<StackTraceElement> key = Arrays.asList(stack);
+					int[] count = counts.get(key);
+					if (count == null) {
+						counts.put(key, new int[] { 1 });
+					}
+					else {
+						count[0]++;
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isIncluded(ThreadInfo info) {
+		return this.includeWaiting || info.getThreadState() == Thread.State.RUNNABLE;
+	}
+
+	private Map<String, Integer> collapse(Map<List<StackTraceElement>, int[]> counts) {
+		Map<String, Integer> collapsed = new HashMap<String, Integer>();
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<List<StackTraceElement>, int[]> entry : counts.entrySet()) {
+			List<StackTraceElement> stack = entry.getKey();
+			builder.setLength(0);
+			for (int i = stack.size() - 1; i >= 0; i--) {
+				StackTraceElement frame = stack.get(i);
+				builder.append(frame.getClassName()).append('.')
+						.append(frame.getMethodName());
+				if (i > 0) {
+					builder.append(';');
+				}
+			}
+			// Stacks that only differ by line number are merged
+			String key = builder.toString();
+			Integer count = collapsed.get(key);
+			collapsed.put(key, entry.getValue()[0] + (count == null ? 0 : count));
+		}
+		List<Entry<String, Integer>> entries = new ArrayList<Entry<String, Integer>>(
+				collapsed.entrySet());
+		Collections.sort(entries, new Comparator<Entry<String, Integer>>() {
+
+			@Override
+			public int compare(Entry<String, Integer> o1, Entry<String, Integer> o2) {
+				return o2.getValue().compareTo(o1.getValue());
+			}
+
+		});
+		Map<String, Integer> sorted = new LinkedHashMap<String, Integer>();
+		for (Entry<String, Integer> entry : entries) {
+			sorted.put(entry.getKey(), entry.getValue());
+		}
+		return sorted;
+	}
+
+	/**
+	 * Aggregated stack samples.
+	 */
+	public static class StackSamples {
+
+		private final long duration;
+
+		private final int samples;
+
+		private final Map<String, Integer> stacks;
+
+		StackSamples(long duration, int samples, Map<String, Integer> stacks) {
+			this.duration = duration;
+			this.samples = samples;
+			this.stacks = Collections.unmodifiableMap(stacks);
+		}
+
+		/**
+		 * Return the time in milliseconds that samples were taken for.
+		 * @return the duration
+		 */
+		public long getDuration() {
+			return this.duration;
+		}
+
+		/**
+		 * Return the number of times that the threads were sampled.
+		 * @return the number of samples
+		 */
+		public int getSamples() {
+			return this.samples;
+		}
+
+		/**
+		 * Return the number of times each distinct stack was seen, most frequent first.
+		 * Keys are in collapsed stack format.
+		 * @return the stack counts
+		 */
+		public Map<String, Integer> getStacks() {
+			return this.stacks;
+		}
+
+		/**
+		 * Return the samples in the collapsed stack format, with one line per stack
+		 * followed by a space and its count.
+		 * @return the collapsed stacks
+		 */
+		public String toCollapsedFormat() {
+			StringBuilder builder = new StringBuilder();
+			for (Map.Entry<String, Integer> entry : this.stacks.entrySet()) {
+				builder.append(entry.getKey()).append(' ').append(entry.getValue())
+						.append('\n');
+			}
+			return builder.toString();
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -27,18 +28,24 @@ import org.springframework.beans.BeansException;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
- * {@link Endpoint} to expose Spring MVC mappings.
+ * {@link Endpoint} to expose Spring MVC mappings. Any {@link #getCache() cached}
+ * mappings are discarded when the application context is refreshed.
  *
  * @author Dave Syer
  */
 @ConfigurationProperties(prefix = "endpoints.mappings", ignoreUnknownFields = false)
 public class RequestMappingEndpoint extends AbstractEndpoint<Map<String, Object>>
-		implements ApplicationContextAware {
+		implements JsonStreamingEndpoint<Map<String, Object>>, ApplicationContextAware,
+		ApplicationListener<ContextRefreshedEvent> {
 
 	private List<AbstractUrlHandlerMapping> handlerMappings = Collections.emptyList();
 
@@ -47,6 +54,11 @@ public class RequestMappingEndpoint extends AbstractEndpoint<Map<String, Object>
 
 	private ApplicationContext applicationContext;
 
+	/**
+	 * Write the response directly as JSON rather than building it in memory first.
+	 */
+	private boolean streaming;
+
 	public RequestMappingEndpoint() {
 		super("mappings");
 	}
@@ -71,8 +83,37 @@ public class RequestMappingEndpoint extends AbstractEndpoint<Map<String, Object>
 		this.methodMappings = methodMappings;
 	}
 
+	@Override
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		getCache().clear();
+	}
+
 	@Override
 	public Map<String, Object> invoke() {
+		return extractMappings();
+	}
+
+	@Override
+	public void writeJson(JsonGenerator generator) throws IOException {
+		// Later mappings replace earlier ones with the same key so the map is still
+		// needed, but each entry is written without copying it into a response tree
+		generator.writeStartObject();
+		for (Map.Entry<String, Object> entry : invoke().entrySet()) {
+			generator.writeObjectField(entry.getKey(), entry.getValue());
+		}
+		generator.writeEndObject();
+	}
+
+	private Map<String, Object> extractMappings() {
 		Map<String, Object> result = new LinkedHashMap<String, Object>();
 		extractHandlerMappings(this.handlerMappings, result);
 		extractHandlerMappings(this.applicationContext, result);
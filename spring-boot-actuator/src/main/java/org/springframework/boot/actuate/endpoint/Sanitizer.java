@@ -16,6 +16,10 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.springframework.util.Assert;
@@ -32,7 +36,15 @@ class Sanitizer {
 
 	private static final String[] REGEX_PARTS = { "*", "$", "^", "+" };
 
-	private Pattern[] keysToSanitize;
+	private static final Pattern SIMPLE_KEY = Pattern.compile("[\\w-]+");
+
+	private static final int MAX_CACHED_KEYS = 4096;
+
+	private String[] suffixes;
+
+	private Pattern pattern;
+
+	private final Map<String, Boolean> cache = new ConcurrentHashMap<String, Boolean>();
 
 	public Sanitizer() {
 		setKeysToSanitize("password", "secret", "key", ".*credentials.*", "vcap_services");
@@ -45,17 +57,30 @@ class Sanitizer {
 	 */
 	public void setKeysToSanitize(String... keysToSanitize) {
 		Assert.notNull(keysToSanitize, "KeysToSanitize must not be null");
-		this.keysToSanitize = new Pattern[keysToSanitize.length];
-		for (int i = 0; i < keysToSanitize.length; i++) {
-			this.keysToSanitize[i] = getPattern(keysToSanitize[i]);
+		// Simple suffixes are matched without a regex and all other keys are combined
+		// into a single pattern so that each key is only scanned once
+		List<String> suffixes = new ArrayList<String>();
+		StringBuilder regex = new StringBuilder();
+		for (String key : keysToSanitize) {
+			if (!isRegex(key) && SIMPLE_KEY.matcher(key).matches()) {
+				suffixes.add(key);
+			}
+			else {
+				regex.append(regex.length() == 0 ? "" : "|");
+				regex.append("(?:").append(getRegex(key)).append(")");
+			}
 		}
+		this.suffixes = suffixes.toArray(new String[suffixes.size()]);
+		this.pattern = (regex.length() == 0 ? null : Pattern.compile(regex.toString(),
+				Pattern.CASE_INSENSITIVE));
+		this.cache.clear();
 	}
 
-	private Pattern getPattern(String value) {
+	private String getRegex(String value) {
 		if (isRegex(value)) {
-			return Pattern.compile(value, Pattern.CASE_INSENSITIVE);
+			return value;
 		}
-		return Pattern.compile(".*" + value + "$", Pattern.CASE_INSENSITIVE);
+		return ".*" + value + "$";
 	}
 
 	private boolean isRegex(String value) {
@@ -74,12 +99,36 @@ class Sanitizer {
 	 * @return the potentially sanitized value
 	 */
 	public Object sanitize(String key, Object value) {
-		for (Pattern pattern : this.keysToSanitize) {
-			if (pattern.matcher(key).matches()) {
-				return (value == null ? null : "******");
-			}
+		if (isSensitive(key)) {
+			return (value == null ? null : "******");
 		}
 		return value;
 	}
 
+	/**
+	 * Return if values of the given key should be sanitized.
+	 * @param key the key to check
+	 * @return if the key is sensitive
+	 */
+	public boolean isSensitive(String key) {
+		Boolean sensitive = this.cache.get(key);
+		if (sensitive == null) {
+			sensitive = matches(key);
+			if (this.cache.size() < MAX_CACHED_KEYS) {
+				this.cache.put(key, sensitive);
+			}
+		}
+		return sensitive;
+	}
+
+	private boolean matches(String key) {
+		for (String suffix : this.suffixes) {
+			if (key.regionMatches(true, key.length() - suffix.length(), suffix, 0,
+					suffix.length())) {
+				return true;
+			}
+		}
+		return (this.pattern != null && this.pattern.matcher(key).matches());
+	}
+
 }
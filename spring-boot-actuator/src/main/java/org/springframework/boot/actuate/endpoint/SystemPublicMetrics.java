@@ -17,20 +17,34 @@
 package org.springframework.boot.actuate.endpoint;
 
 import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.CompilationMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
 import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
  * A {@link PublicMetrics} implementation that provides various system-related metrics.
+ * The platform MX beans (and the names of the metrics derived from them) are resolved
+ * once, when metrics are first requested, so that frequent calls only need to read the
+ * current values.
  *
  * @author Dave Syer
  * @author Christian Dupuis
@@ -40,8 +54,16 @@ import org.springframework.util.StringUtils;
  */
 public class SystemPublicMetrics implements PublicMetrics, Ordered {
 
+	private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^A-Za-z0-9]+");
+
 	private long timestamp;
 
+	private volatile ManagementBeans managementBeans;
+
+	private volatile boolean managementAvailable = true;
+
+	private volatile int lastSize = 32;
+
 	public SystemPublicMetrics() {
 		this.timestamp = System.currentTimeMillis();
 	}
@@ -53,9 +75,10 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 
 	@Override
 	public Collection<Metric<?>> metrics() {
-		Collection<Metric<?>> result = new LinkedHashSet<Metric<?>>();
+		Collection<Metric<?>> result = new ArrayList<Metric<?>>(this.lastSize);
 		addBasicMetrics(result);
 		addManagementMetrics(result);
+		this.lastSize = result.size();
 		return result;
 	}
 
@@ -78,20 +101,37 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * available on Google App Engine.
 	 */
 	private void addManagementMetrics(Collection<Metric<?>> result) {
+		if (!this.managementAvailable) {
+			return;
+		}
 		try {
+			ManagementBeans beans = getManagementBeans();
 			// Add JVM up time in ms
-			result.add(new Metric<Long>("uptime", ManagementFactory.getRuntimeMXBean()
-					.getUptime()));
-			result.add(new Metric<Double>("systemload.average", ManagementFactory
-					.getOperatingSystemMXBean().getSystemLoadAverage()));
+			result.add(new Metric<Long>("uptime", beans.runtime.getUptime()));
+			result.add(new Metric<Double>("systemload.average", beans.operatingSystem
+					.getSystemLoadAverage()));
 			addHeapMetrics(result);
+			addNonHeapMetrics(result);
+			addMemoryPoolMetrics(result);
+			addBufferPoolMetrics(result);
 			addThreadMetrics(result);
 			addClassLoadingMetrics(result);
 			addGarbageCollectionMetrics(result);
+			addRuntimeMetrics(result);
 		}
 		catch (NoClassDefFoundError ex) {
 			// Expected on Google App Engine
+			this.managementAvailable = false;
+		}
+	}
+
+	private ManagementBeans getManagementBeans() {
+		ManagementBeans beans = this.managementBeans;
+		if (beans == null) {
+			beans = new ManagementBeans();
+			this.managementBeans = beans;
 		}
+		return beans;
 	}
 
 	/**
@@ -99,20 +139,62 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	protected void addHeapMetrics(Collection<Metric<?>> result) {
-		MemoryUsage memoryUsage = ManagementFactory.getMemoryMXBean()
-				.getHeapMemoryUsage();
+		MemoryUsage memoryUsage = getManagementBeans().memory.getHeapMemoryUsage();
 		result.add(new Metric<Long>("heap.committed", memoryUsage.getCommitted() / 1024));
 		result.add(new Metric<Long>("heap.init", memoryUsage.getInit() / 1024));
 		result.add(new Metric<Long>("heap.used", memoryUsage.getUsed() / 1024));
 		result.add(new Metric<Long>("heap", memoryUsage.getMax() / 1024));
 	}
 
+	/**
+	 * Add JVM non-heap metrics.
+	 * @param result the result
+	 */
+	protected void addNonHeapMetrics(Collection<Metric<?>> result) {
+		MemoryUsage memoryUsage = getManagementBeans().memory.getNonHeapMemoryUsage();
+		result.add(new Metric<Long>("nonheap.committed",
+				memoryUsage.getCommitted() / 1024));
+		result.add(new Metric<Long>("nonheap.init", memoryUsage.getInit() / 1024));
+		result.add(new Metric<Long>("nonheap.used", memoryUsage.getUsed() / 1024));
+		result.add(new Metric<Long>("nonheap", memoryUsage.getMax() / 1024));
+	}
+
+	/**
+	 * Add metrics for each heap and non-heap memory pool (e.g. the young and old
+	 * generations).
+	 * @param result the result
+	 */
+	protected void addMemoryPoolMetrics(Collection<Metric<?>> result) {
+		for (MemoryPool pool : getManagementBeans().memoryPools) {
+			MemoryUsage memoryUsage = pool.bean.getUsage();
+			if (memoryUsage != null) {
+				result.add(new Metric<Long>(pool.committedName,
+						memoryUsage.getCommitted() / 1024));
+				result.add(new Metric<Long>(pool.usedName, memoryUsage.getUsed() / 1024));
+			}
+		}
+	}
+
+	/**
+	 * Add metrics for the direct and mapped buffer pools (when running on Java 7 or
+	 * later).
+	 * @param result the result
+	 */
+	protected void addBufferPoolMetrics(Collection<Metric<?>> result) {
+		for (BufferPool pool : getManagementBeans().bufferPools) {
+			result.add(new Metric<Long>(pool.countName, pool.getCount()));
+			result.add(new Metric<Long>(pool.usedName, pool.getMemoryUsed() / 1024));
+			result.add(new Metric<Long>(pool.capacityName,
+					pool.getTotalCapacity() / 1024));
+		}
+	}
+
 	/**
 	 * Add thread metrics.
 	 * @param result the result
 	 */
 	protected void addThreadMetrics(Collection<Metric<?>> result) {
-		ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+		ThreadMXBean threadMxBean = getManagementBeans().thread;
 		result.add(new Metric<Long>("threads.peak", (long) threadMxBean
 				.getPeakThreadCount()));
 		result.add(new Metric<Long>("threads.daemon", (long) threadMxBean
@@ -125,7 +207,7 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	protected void addClassLoadingMetrics(Collection<Metric<?>> result) {
-		ClassLoadingMXBean classLoadingMxBean = ManagementFactory.getClassLoadingMXBean();
+		ClassLoadingMXBean classLoadingMxBean = getManagementBeans().classLoading;
 		result.add(new Metric<Long>("classes", (long) classLoadingMxBean
 				.getLoadedClassCount()));
 		result.add(new Metric<Long>("classes.loaded", classLoadingMxBean
@@ -139,23 +221,196 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	protected void addGarbageCollectionMetrics(Collection<Metric<?>> result) {
-		List<GarbageCollectorMXBean> garbageCollectorMxBeans = ManagementFactory
-				.getGarbageCollectorMXBeans();
-		for (GarbageCollectorMXBean garbageCollectorMXBean : garbageCollectorMxBeans) {
-			String name = beautifyGcName(garbageCollectorMXBean.getName());
-			result.add(new Metric<Long>("gc." + name + ".count", garbageCollectorMXBean
+		for (GarbageCollector collector : getManagementBeans().garbageCollectors) {
+			result.add(new Metric<Long>(collector.countName, collector.bean
 					.getCollectionCount()));
-			result.add(new Metric<Long>("gc." + name + ".time", garbageCollectorMXBean
+			result.add(new Metric<Long>(collector.timeName, collector.bean
 					.getCollectionTime()));
 		}
 	}
 
+	/**
+	 * Add JIT compilation metrics.
+	 * @param result the result
+	 */
+	protected void addRuntimeMetrics(Collection<Metric<?>> result) {
+		ManagementBeans beans = getManagementBeans();
+		if (beans.compilation != null) {
+			result.add(new Metric<Long>("compilation.time", beans.compilation
+					.getTotalCompilationTime()));
+		}
+	}
+
 	/**
 	 * Turn GC names like 'PS Scavenge' or 'PS MarkSweep' into something that is more
 	 * metrics friendly.
 	 */
-	private String beautifyGcName(String name) {
+	private static String beautifyGcName(String name) {
 		return StringUtils.replace(name, " ", "_").toLowerCase();
 	}
 
+	/**
+	 * Turn pool names like 'PS Eden Space' or 'CodeHeap 'non-nmethods'' into something
+	 * that is more metrics friendly.
+	 */
+	private static String beautifyPoolName(String name) {
+		String beautified = NON_WORD_CHARACTERS.matcher(name).replaceAll("_");
+		return StringUtils.trimTrailingCharacter(
+				StringUtils.trimLeadingCharacter(beautified, '_'), '_').toLowerCase();
+	}
+
+	/**
+	 * The platform MX beans used to provide the metrics.
+	 */
+	private static class ManagementBeans {
+
+		private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+
+		private final OperatingSystemMXBean operatingSystem = ManagementFactory
+				.getOperatingSystemMXBean();
+
+		private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+		private final ThreadMXBean thread = ManagementFactory.getThreadMXBean();
+
+		private final ClassLoadingMXBean classLoading = ManagementFactory
+				.getClassLoadingMXBean();
+
+		private final CompilationMXBean compilation = getCompilation();
+
+		private final List<MemoryPool> memoryPools = new ArrayList<MemoryPool>();
+
+		private final List<GarbageCollector> garbageCollectors;
+
+		private final List<BufferPool> bufferPools = BufferPool.getAll();
+
+		ManagementBeans() {
+			for (MemoryPoolMXBean bean : ManagementFactory.getMemoryPoolMXBeans()) {
+				this.memoryPools.add(new MemoryPool(bean));
+			}
+			List<GarbageCollectorMXBean> beans = ManagementFactory
+					.getGarbageCollectorMXBeans();
+			this.garbageCollectors = new ArrayList<GarbageCollector>(beans.size());
+			for (GarbageCollectorMXBean bean : beans) {
+				this.garbageCollectors.add(new GarbageCollector(bean));
+			}
+		}
+
+		private static CompilationMXBean getCompilation() {
+			CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+			if (compilation != null
+					&& compilation.isCompilationTimeMonitoringSupported()) {
+				return compilation;
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * A memory pool and its metric names.
+	 */
+	private static class MemoryPool {
+
+		private final MemoryPoolMXBean bean;
+
+		private final String committedName;
+
+		private final String usedName;
+
+		MemoryPool(MemoryPoolMXBean bean) {
+			this.bean = bean;
+			String prefix = (bean.getType() == MemoryType.HEAP ? "heap." : "nonheap.")
+					+ beautifyPoolName(bean.getName());
+			this.committedName = prefix + ".committed";
+			this.usedName = prefix + ".used";
+		}
+
+	}
+
+	/**
+	 * A garbage collector and its metric names.
+	 */
+	private static class GarbageCollector {
+
+		private final GarbageCollectorMXBean bean;
+
+		private final String countName;
+
+		private final String timeName;
+
+		GarbageCollector(GarbageCollectorMXBean bean) {
+			this.bean = bean;
+			String name = beautifyGcName(bean.getName());
+			this.countName = "gc." + name + ".count";
+			this.timeName = "gc." + name + ".time";
+		}
+
+	}
+
+	/**
+	 * A {@code BufferPoolMXBean} and its metric names. Accessed reflectively since the
+	 * type is only available on Java 7 and later.
+	 */
+	private static class BufferPool {
+
+		private static final String TYPE = "java.lang.management.BufferPoolMXBean";
+
+		private final Object bean;
+
+		private final Method[] methods;
+
+		private final String countName;
+
+		private final String usedName;
+
+		private final String capacityName;
+
+		BufferPool(Object bean, String name, Method[] methods) {
+			this.bean = bean;
+			this.methods = methods;
+			String prefix = "buffers." + beautifyPoolName(name);
+			this.countName = prefix + ".count";
+			this.usedName = prefix + ".used";
+			this.capacityName = prefix + ".capacity";
+		}
+
+		public long getCount() {
+			return (Long) ReflectionUtils.invokeMethod(this.methods[0], this.bean);
+		}
+
+		public long getMemoryUsed() {
+			return (Long) ReflectionUtils.invokeMethod(this.methods[1], this.bean);
+		}
+
+		public long getTotalCapacity() {
+			return (Long) ReflectionUtils.invokeMethod(this.methods[2], this.bean);
+		}
+
+		static List<BufferPool> getAll() {
+			if (!ClassUtils.isPresent(TYPE, null)) {
+				return Collections.emptyList();
+			}
+			try {
+				Class<?> type = ClassUtils.forName(TYPE, null);
+				Method getPlatformMXBeans = ManagementFactory.class.getMethod(
+						"getPlatformMXBeans", Class.class);
+				Method getName = type.getMethod("getName");
+				Method[] methods = { type.getMethod("getCount"),
+						type.getMethod("getMemoryUsed"),
+						type.getMethod("getTotalCapacity") };
+				List<BufferPool> pools = new ArrayList<BufferPool>();
+				for (Object bean : (List<?>) getPlatformMXBeans.invoke(null, type)) {
+					String name = (String) getName.invoke(bean);
+					pools.add(new BufferPool(bean, name, methods));
+				}
+				return pools;
+			}
+			catch (Exception ex) {
+				return Collections.emptyList();
+			}
+		}
+
+	}
+
 }
@@ -17,6 +17,7 @@
 package org.springframework.boot.actuate.endpoint.jmx;
 
 import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.actuate.endpoint.EndpointCache;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedResource;
 
@@ -57,7 +58,7 @@ public class DataEndpointMBean extends EndpointMBean {
 
 	@ManagedAttribute(description = "Invoke the underlying endpoint")
 	public Object getData() {
-		return convert(getEndpoint().invoke());
+		return convert(EndpointCache.invoke(getEndpoint()));
 	}
 
 }
@@ -17,6 +17,8 @@
 package org.springframework.boot.actuate.endpoint.mvc;
 
 import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.actuate.endpoint.EndpointCache;
+import org.springframework.boot.actuate.endpoint.JsonStreamingEndpoint;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -49,7 +51,13 @@ public class EndpointMvcAdapter implements MvcEndpoint {
 			// Shouldn't happen - shouldn't be registered when delegate's disabled
 			return getDisabledResponse();
 		}
-		return this.delegate.invoke();
+		// A cached result is held in memory anyway so there is no point streaming it
+		if (this.delegate instanceof JsonStreamingEndpoint
+				&& ((JsonStreamingEndpoint<?>) this.delegate).isStreaming()
+				&& !EndpointCache.isCached(this.delegate)) {
+			return new JsonStreamingResult((JsonStreamingEndpoint<?>) this.delegate);
+		}
+		return EndpointCache.invoke(this.delegate);
 	}
 
 	public Endpoint<?> getDelegate() {
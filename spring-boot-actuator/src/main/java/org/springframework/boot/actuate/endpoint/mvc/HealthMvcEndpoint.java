@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.actuate.endpoint.EndpointCache;
 import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Status;
@@ -53,9 +54,11 @@ public class HealthMvcEndpoint implements MvcEndpoint, EnvironmentAware {
 
 	private RelaxedPropertyResolver propertyResolver;
 
-	private long lastAccess = 0;
-
-	private Health cached;
+	/**
+	 * Cache for HTTP access, using the {@link HealthEndpoint#getTimeToLive() time to
+	 * live} of the delegate rather than its own cache so that JMX access is unaffected.
+	 */
+	private final EndpointCache cache = new EndpointCache();
 
 	public HealthMvcEndpoint(HealthEndpoint delegate) {
 		this(delegate, true);
@@ -136,22 +139,12 @@ public class HealthMvcEndpoint implements MvcEndpoint, EnvironmentAware {
 	}
 
 	private Health getHealth(Principal principal) {
-		long accessTime = System.currentTimeMillis();
-		if (isCacheStale(accessTime)) {
-			this.lastAccess = accessTime;
-			this.cached = this.delegate.invoke();
-		}
+		this.cache.setTimeToLive(this.delegate.getTimeToLive());
+		Health health = this.cache.get(this.delegate);
 		if (exposeHealthDetails(principal)) {
-			return this.cached;
-		}
-		return Health.status(this.cached.getStatus()).build();
-	}
-
-	private boolean isCacheStale(long accessTime) {
-		if (this.cached == null) {
-			return true;
+			return health;
 		}
-		return (accessTime - this.lastAccess) >= this.delegate.getTimeToLive();
+		return Health.status(health.getStatus()).build();
 	}
 
 	private boolean exposeHealthDetails(Principal principal) {
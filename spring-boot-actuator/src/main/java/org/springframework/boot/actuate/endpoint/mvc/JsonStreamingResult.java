@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.io.IOException;
+
+import org.springframework.boot.actuate.endpoint.JsonStreamingEndpoint;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * Response body used to stream the result of a {@link JsonStreamingEndpoint} straight to
+ * the Jackson {@link JsonGenerator} used by the message converter.
+ *
+ * @author agent
+ */
+class JsonStreamingResult implements JsonSerializable {
+
+	private final JsonStreamingEndpoint<?> endpoint;
+
+	JsonStreamingResult(JsonStreamingEndpoint<?> endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	@Override
+	public void serialize(JsonGenerator generator, SerializerProvider serializers)
+			throws IOException {
+		this.endpoint.writeJson(generator);
+	}
+
+	@Override
+	public void serializeWithType(JsonGenerator generator,
+			SerializerProvider serializers, TypeSerializer typeSerializer)
+			throws IOException {
+		serialize(generator, serializers);
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.boot.actuate.endpoint.mvc;
 
 import java.util.Map;
 
+import org.springframework.boot.actuate.endpoint.EndpointCache;
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -51,7 +52,8 @@ public class MetricsMvcEndpoint extends EndpointMvcAdapter {
 			// disabled
 			return getDisabledResponse();
 		}
-		return new NamePatternMapFilter(this.delegate.invoke()).getResults(name);
+		return new NamePatternMapFilter(EndpointCache.invoke(this.delegate))
+				.getResults(name);
 	}
 
 	/**
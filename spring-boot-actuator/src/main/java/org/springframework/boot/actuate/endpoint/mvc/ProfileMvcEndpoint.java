@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint.StackSamples;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Adapter to expose {@link ProfileEndpoint} as an {@link MvcEndpoint}. In addition to
+ * the JSON representation, the samples are available in plain text collapsed stack
+ * format (suitable for generating flame graphs) from {@code /collapsed}. The
+ * {@code duration} and {@code interval} of the sampling can be set using request
+ * parameters.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class ProfileMvcEndpoint extends EndpointMvcAdapter {
+
+	private final ProfileEndpoint delegate;
+
+	public ProfileMvcEndpoint(ProfileEndpoint delegate) {
+		super(delegate);
+		this.delegate = delegate;
+	}
+
+	@RequestMapping(method = RequestMethod.GET, params = "duration")
+	@ResponseBody
+	public Object sample(@RequestParam long duration,
+			@RequestParam(required = false) Long interval) {
+		if (!this.delegate.isEnabled()) {
+			// Shouldn't happen - MVC endpoint shouldn't be registered when delegate's
+			// disabled
+			return getDisabledResponse();
+		}
+		return takeSamples(duration, interval);
+	}
+
+	@RequestMapping(value = "/collapsed", method = RequestMethod.GET, produces = MediaType.TEXT_PLAIN_VALUE)
+	@ResponseBody
+	@HypermediaDisabled
+	public Object collapsed(@RequestParam(required = false) Long duration,
+			@RequestParam(required = false) Long interval) {
+		if (!this.delegate.isEnabled()) {
+			// Shouldn't happen - MVC endpoint shouldn't be registered when delegate's
+			// disabled
+			return getDisabledResponse();
+		}
+		Object samples = takeSamples(duration, interval);
+		if (samples instanceof StackSamples) {
+			return ((StackSamples) samples).toCollapsedFormat();
+		}
+		return samples;
+	}
+
+	private Object takeSamples(Long duration, Long interval) {
+		long actualDuration = (duration == null ? this.delegate.getDuration() : duration);
+		long actualInterval = (interval == null ? this.delegate.getInterval() : interval);
+		if (actualDuration < 0 || actualInterval <= 0) {
+			return new ResponseEntity<String>(
+					"Duration must not be negative and interval must be positive",
+					HttpStatus.BAD_REQUEST);
+		}
+		return this.delegate.sample(actualDuration, actualInterval);
+	}
+
+}
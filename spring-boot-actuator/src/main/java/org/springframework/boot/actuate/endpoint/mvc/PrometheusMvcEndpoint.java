@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.actuate.metrics.prometheus.PrometheusTextWriter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.UsesJava8;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * Controller that exposes metrics in the Prometheus text exposition format, for cheap
+ * high-frequency scraping. The response is written directly from the metric buffers
+ * using a {@link PrometheusTextWriter} and is compressed if the client accepts gzip.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+@UsesJava8
+@ConfigurationProperties(prefix = "endpoints.prometheus")
+public class PrometheusMvcEndpoint implements MvcEndpoint {
+
+	private final PrometheusTextWriter writer;
+
+	/**
+	 * Endpoint URL path.
+	 */
+	@NotNull
+	@Pattern(regexp = "/[^/]*", message = "Path must start with /")
+	private String path = "/prometheus";
+
+	/**
+	 * Enable security on the endpoint.
+	 */
+	private boolean sensitive = true;
+
+	/**
+	 * Enable the endpoint.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Compress the response if the client accepts gzip.
+	 */
+	private boolean compress = true;
+
+	public PrometheusMvcEndpoint(PrometheusTextWriter writer) {
+		Assert.notNull(writer, "Writer must not be null");
+		this.writer = writer;
+	}
+
+	@Override
+	public String getPath() {
+		return this.path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	@Override
+	public boolean isSensitive() {
+		return this.sensitive;
+	}
+
+	public void setSensitive(boolean sensitive) {
+		this.sensitive = sensitive;
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isCompress() {
+		return this.compress;
+	}
+
+	public void setCompress(boolean compress) {
+		this.compress = compress;
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Class<? extends Endpoint> getEndpointType() {
+		return null;
+	}
+
+	@RequestMapping(method = RequestMethod.GET)
+	public void invoke(HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		if (!isEnabled()) {
+			response.sendError(HttpStatus.NOT_FOUND.value(), "This endpoint is disabled");
+			return;
+		}
+		response.setContentType(PrometheusTextWriter.CONTENT_TYPE);
+		OutputStream stream = response.getOutputStream();
+		if (this.compress) {
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+		if (this.compress && acceptsGzip(request)) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+			stream = new GZIPOutputStream(stream, 8192);
+		}
+		Writer writer = new OutputStreamWriter(stream, "UTF-8");
+		this.writer.write(writer);
+		writer.close();
+	}
+
+	private boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding != null) {
+			for (String encoding : StringUtils
+					.commaDelimitedListToStringArray(acceptEncoding)) {
+				String coding = StringUtils.split(encoding + ";", ";")[0].trim();
+				if ("gzip".equalsIgnoreCase(coding)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -45,6 +45,7 @@ public class ShutdownMvcEndpoint extends EndpointMvcAdapter {
 			return new ResponseEntity<Map<String, String>>(Collections.singletonMap(
 					"message", "This endpoint is disabled"), HttpStatus.NOT_FOUND);
 		}
-		return super.invoke();
+		// Not cached, shutting down is a side effect
+		return getDelegate().invoke();
 	}
 }
@@ -18,11 +18,25 @@ package org.springframework.boot.actuate.health;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.util.Assert;
 
 /**
  * {@link HealthIndicator} that returns health indications from all registered delegates.
+ * <p>
+ * By default delegates are called one after another on the calling thread. If an
+ * {@link #setExecutor(AsyncTaskExecutor) executor} is set they are instead called
+ * concurrently so that the overall time taken is that of the slowest delegate, and any
+ * delegate that does not respond within its {@link #setTimeout(long) timeout} is
+ * reported with the {@link #setTimeoutStatus(Status) timeout status}.
  *
  * @author Tyler J. Frederick
  * @author Phillip Webb
@@ -35,6 +49,14 @@ public class CompositeHealthIndicator implements HealthIndicator {
 
 	private final HealthAggregator healthAggregator;
 
+	private final Map<String, Long> timeouts = new LinkedHashMap<String, Long>();
+
+	private AsyncTaskExecutor executor;
+
+	private long timeout = 10000;
+
+	private Status timeoutStatus = Status.DOWN;
+
 	/**
 	 * Create a new {@link CompositeHealthIndicator}.
 	 * @param healthAggregator the health aggregator
@@ -61,13 +83,136 @@ public class CompositeHealthIndicator implements HealthIndicator {
 		this.indicators.put(name, indicator);
 	}
 
+	/**
+	 * Set the executor used to call the delegates concurrently. A delegate that is
+	 * rejected by the executor (for example because earlier calls are still hung) is
+	 * reported as {@link Status#UNKNOWN}.
+	 * @param executor the executor or {@code null} to call delegates sequentially on the
+	 * calling thread
+	 * @since 1.3.0
+	 */
+	public void setExecutor(AsyncTaskExecutor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the time in milliseconds to wait for each delegate when an
+	 * {@link #setExecutor(AsyncTaskExecutor) executor} is used.
+	 * @param timeout the timeout (default 10000)
+	 * @since 1.3.0
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Set the time in milliseconds to wait for a specific delegate when an
+	 * {@link #setExecutor(AsyncTaskExecutor) executor} is used.
+	 * @param name the name of the delegate
+	 * @param timeout the timeout
+	 * @since 1.3.0
+	 */
+	public void setTimeout(String name, long timeout) {
+		this.timeouts.put(name, timeout);
+	}
+
+	/**
+	 * Return the timeouts that apply to specific delegates, keyed by name. The returned
+	 * map can be modified to add timeouts.
+	 * @return the timeouts
+	 * @since 1.3.0
+	 */
+	public Map<String, Long> getTimeouts() {
+		return this.timeouts;
+	}
+
+	/**
+	 * Set the status used for a delegate that does not respond within its timeout.
+	 * @param timeoutStatus the timeout status (default {@link Status#DOWN})
+	 * @since 1.3.0
+	 */
+	public void setTimeoutStatus(Status timeoutStatus) {
+		Assert.notNull(timeoutStatus, "TimeoutStatus must not be null");
+		this.timeoutStatus = timeoutStatus;
+	}
+
 	@Override
 	public Health health() {
 		Map<String, Health> healths = new LinkedHashMap<String, Health>();
-		for (Map.Entry<String, HealthIndicator> entry : this.indicators.entrySet()) {
-			healths.put(entry.getKey(), entry.getValue().health());
+		if (this.executor == null) {
+			for (Map.Entry<String, HealthIndicator> entry : this.indicators.entrySet()) {
+				healths.put(entry.getKey(), entry.getValue().health());
+			}
+		}
+		else {
+			long start = System.currentTimeMillis();
+			Map<String, Future<Health>> futures = new LinkedHashMap<String, Future<Health>>();
+			for (Map.Entry<String, HealthIndicator> entry : this.indicators.entrySet()) {
+				futures.put(entry.getKey(), submit(entry.getValue()));
+			}
+			for (Map.Entry<String, Future<Health>> entry : futures.entrySet()) {
+				healths.put(entry.getKey(),
+						getHealth(entry.getKey(), entry.getValue(), start));
+			}
 		}
 		return this.healthAggregator.aggregate(healths);
 	}
 
+	private Future<Health> submit(final HealthIndicator indicator) {
+		Callable<Health> task = new Callable<Health>() {
+
+			@Override
+			public Health call() throws Exception {
+				return indicator.health();
+			}
+
+		};
+		try {
+			return this.executor.submit(task);
+		}
+		catch (TaskRejectedException ex) {
+			FutureTask<Health> future = new FutureTask<Health>(new Callable<Health>() {
+
+				@Override
+				public Health call() throws Exception {
+					return Health.unknown()
+							.withDetail("error", "Health check could not be started")
+							.build();
+				}
+
+			});
+			future.run();
+			return future;
+		}
+	}
+
+	private Health getHealth(String name, Future<Health> future, long start) {
+		long timeout = getTimeout(name);
+		try {
+			long remaining = start + timeout - System.currentTimeMillis();
+			return future.get(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex) {
+			future.cancel(true);
+			return Health.status(this.timeoutStatus)
+					.withDetail("error", "Timed out waiting for health")
+					.withDetail("timeout", timeout).build();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			return Health.down(cause instanceof Exception ? (Exception) cause : ex)
+					.build();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			return Health.unknown().withException(ex).build();
+		}
+	}
+
+	private long getTimeout(String name) {
+		Long timeout = this.timeouts.get(name);
+		return (timeout == null ? this.timeout : timeout);
+	}
+
 }
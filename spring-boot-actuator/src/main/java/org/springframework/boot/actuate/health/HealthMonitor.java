@@ -0,0 +1,307 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * Monitors {@link HealthIndicator}s in the background so that health can be reported
+ * without calling them on the request thread. Each
+ * {@link #monitor(String, HealthIndicator) monitored} indicator is refreshed on its own
+ * {@link #setInterval(String, long) interval} and reports the most recent result in
+ * constant time. Changes in the
+ * {@link Status} reported by an indicator are published as
+ * {@link HealthStatusChangedEvent}s and, if a {@link CounterService} is available,
+ * counted using a {@code health.<name>.<status>} counter.
+ * <p>
+ * Indicator names ending in {@code HealthIndicator} are shortened in the same way as in
+ * the health endpoint, so {@code dbHealthIndicator} becomes {@code db}.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class HealthMonitor implements SmartLifecycle, ApplicationEventPublisherAware {
+
+	private static final Log logger = LogFactory.getLog(HealthMonitor.class);
+
+	private final Map<String, MonitoredHealthIndicator> indicators = new LinkedHashMap<String, MonitoredHealthIndicator>();
+
+	private final Map<String, Long> intervals = new LinkedHashMap<String, Long>();
+
+	private final List<ScheduledFuture<?>> scheduled = new ArrayList<ScheduledFuture<?>>();
+
+	private long interval = 10000;
+
+	private int poolSize = 2;
+
+	private TaskScheduler scheduler;
+
+	private ThreadPoolTaskScheduler defaultScheduler;
+
+	private ApplicationEventPublisher publisher;
+
+	private CounterService counterService;
+
+	private boolean running;
+
+	/**
+	 * Set the default time in milliseconds between checks of each indicator.
+	 * @param interval the interval (default 10000)
+	 */
+	public void setInterval(long interval) {
+		Assert.isTrue(interval > 0, "Interval must be greater than 0");
+		this.interval = interval;
+	}
+
+	/**
+	 * Set the time in milliseconds between checks of a specific indicator. Must be
+	 * called before the monitor is started.
+	 * @param name the name of the indicator (e.g. "db")
+	 * @param interval the interval
+	 */
+	public void setInterval(String name, long interval) {
+		Assert.isTrue(interval > 0, "Interval must be greater than 0");
+		this.intervals.put(name, interval);
+	}
+
+	/**
+	 * Return the intervals that apply to specific indicators, keyed by name. The returned
+	 * map can be modified to add intervals before the monitor is started.
+	 * @return the intervals
+	 */
+	public Map<String, Long> getIntervals() {
+		return this.intervals;
+	}
+
+	/**
+	 * Set the number of threads used to check indicators when no
+	 * {@link #setScheduler(TaskScheduler) scheduler} has been set.
+	 * @param poolSize the pool size (default 2)
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "PoolSize must be greater than 0");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Set the scheduler used to check indicators. If not set a dedicated scheduler is
+	 * created when the monitor starts and shut down when it stops.
+	 * @param scheduler the scheduler
+	 */
+	public void setScheduler(TaskScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Set the counter service used to count status changes.
+	 * @param counterService the counter service (may be {@code null})
+	 */
+	public void setCounterService(CounterService counterService) {
+		this.counterService = counterService;
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	/**
+	 * Monitor the given indicator.
+	 * @param name the name of the indicator
+	 * @param indicator the indicator to monitor
+	 * @return a {@link HealthIndicator} that reports the most recent health of the
+	 * monitored indicator
+	 */
+	public synchronized HealthIndicator monitor(String name, HealthIndicator indicator) {
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(indicator, "Indicator must not be null");
+		MonitoredHealthIndicator monitored = new MonitoredHealthIndicator(getKey(name),
+				indicator);
+		this.indicators.put(monitored.name, monitored);
+		if (this.running) {
+			schedule(monitored);
+		}
+		return monitored;
+	}
+
+	/**
+	 * Check all monitored indicators immediately on the calling thread.
+	 */
+	public void refresh() {
+		List<MonitoredHealthIndicator> indicators;
+		synchronized (this) {
+			indicators = new ArrayList<MonitoredHealthIndicator>(
+					this.indicators.values());
+		}
+		for (MonitoredHealthIndicator indicator : indicators) {
+			indicator.run();
+		}
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.running) {
+			return;
+		}
+		if (this.scheduler == null) {
+			this.defaultScheduler = new ThreadPoolTaskScheduler();
+			this.defaultScheduler.setPoolSize(this.poolSize);
+			this.defaultScheduler.setDaemon(true);
+			this.defaultScheduler.setThreadNamePrefix("health-monitor-");
+			this.defaultScheduler.initialize();
+		}
+		for (MonitoredHealthIndicator indicator : this.indicators.values()) {
+			schedule(indicator);
+		}
+		this.running = true;
+	}
+
+	private void schedule(MonitoredHealthIndicator indicator) {
+		TaskScheduler scheduler = (this.scheduler != null ? this.scheduler
+				: this.defaultScheduler);
+		this.scheduled.add(scheduler.scheduleWithFixedDelay(indicator,
+				getInterval(indicator.name)));
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (!this.running) {
+			return;
+		}
+		for (ScheduledFuture<?> future : this.scheduled) {
+			future.cancel(true);
+		}
+		this.scheduled.clear();
+		if (this.defaultScheduler != null) {
+			this.defaultScheduler.shutdown();
+			this.defaultScheduler = null;
+		}
+		this.running = false;
+	}
+
+	@Override
+	public void stop(Runnable callback) {
+		stop();
+		callback.run();
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		return true;
+	}
+
+	@Override
+	public int getPhase() {
+		return Integer.MAX_VALUE;
+	}
+
+	private long getInterval(String name) {
+		Long interval = this.intervals.get(name);
+		return (interval == null ? this.interval : interval);
+	}
+
+	private String getKey(String name) {
+		int index = name.toLowerCase().indexOf("healthindicator");
+		if (index > 0) {
+			return name.substring(0, index);
+		}
+		return name;
+	}
+
+	private void statusChanged(String name, Health previous, Health current) {
+		if (logger.isInfoEnabled()) {
+			logger.info("Health of '" + name + "' changed from " + previous.getStatus()
+					+ " to " + current.getStatus());
+		}
+		if (this.publisher != null) {
+			this.publisher.publishEvent(new HealthStatusChangedEvent(this, name,
+					previous, current));
+		}
+		if (this.counterService != null) {
+			this.counterService.increment("health." + name + "."
+					+ current.getStatus().getCode().toLowerCase());
+		}
+	}
+
+	/**
+	 * A monitored {@link HealthIndicator} holding the most recent result.
+	 */
+	private class MonitoredHealthIndicator implements HealthIndicator, Runnable {
+
+		private final String name;
+
+		private final HealthIndicator delegate;
+
+		private volatile Health health;
+
+		MonitoredHealthIndicator(String name, HealthIndicator delegate) {
+			this.name = name;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Health health() {
+			Health health = this.health;
+			if (health == null) {
+				// Not checked yet so there is nothing better to do than check now
+				run();
+				health = this.health;
+			}
+			return health;
+		}
+
+		@Override
+		public synchronized void run() {
+			Health current = check();
+			Health previous = this.health;
+			this.health = current;
+			if (previous != null && !previous.getStatus().equals(current.getStatus())) {
+				statusChanged(this.name, previous, current);
+			}
+		}
+
+		private Health check() {
+			try {
+				return this.delegate.health();
+			}
+			catch (Exception ex) {
+				return Health.down(ex).build();
+			}
+		}
+
+	}
+
+}
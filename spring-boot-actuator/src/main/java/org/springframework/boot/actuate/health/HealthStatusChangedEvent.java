@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.util.Assert;
+
+/**
+ * Event published by a {@link HealthMonitor} when the {@link Status} reported by one of
+ * its {@link HealthIndicator}s changes.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class HealthStatusChangedEvent extends ApplicationEvent {
+
+	private final String name;
+
+	private final Health previous;
+
+	private final Health current;
+
+	/**
+	 * Create a new {@link HealthStatusChangedEvent} instance.
+	 * @param source the monitor that published the event
+	 * @param name the name of the health indicator
+	 * @param previous the previous health
+	 * @param current the current health
+	 */
+	public HealthStatusChangedEvent(HealthMonitor source, String name, Health previous,
+			Health current) {
+		super(source);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(previous, "Previous must not be null");
+		Assert.notNull(current, "Current must not be null");
+		this.name = name;
+		this.previous = previous;
+		this.current = current;
+	}
+
+	/**
+	 * @return the name of the health indicator
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return the health before the change
+	 */
+	public Health getPrevious() {
+		return this.previous;
+	}
+
+	/**
+	 * @return the health after the change
+	 */
+	public Health getCurrent() {
+		return this.current;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [name=" + this.name + ", previous="
+				+ this.previous.getStatus() + ", current=" + this.current.getStatus()
+				+ "]";
+	}
+
+}
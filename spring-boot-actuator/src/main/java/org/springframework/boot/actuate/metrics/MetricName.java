@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * The identity of a dimensional metric: a name together with a set of
+ * {@link MetricTags tags}, e.g. {@code counter.status} with the tags
+ * {@code status=200} and {@code path=home}. Instances are interned, so they are cheap to
+ * use as map keys and repeated lookups of the same metric share a single instance.
+ * Tagged names can be mapped to and from the traditional dotted names (e.g.
+ * {@code counter.status.200.home}) using a {@link MetricNameTemplate}.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see MetricNameTemplate
+ */
+public final class MetricName implements Comparable<MetricName> {
+
+	private static final ConcurrentMap<MetricName, MetricName> interned = new ConcurrentReferenceHashMap<MetricName, MetricName>();
+
+	private final String name;
+
+	private final MetricTags tags;
+
+	private final int hash;
+
+	private MetricName(String name, MetricTags tags) {
+		this.name = name;
+		this.tags = tags;
+		this.hash = 31 * name.hashCode() + tags.hashCode();
+	}
+
+	/**
+	 * Return the name (without tags).
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the tags.
+	 * @return the tags (never {@code null})
+	 */
+	public MetricTags getTags() {
+		return this.tags;
+	}
+
+	/**
+	 * Return a metric name with the same name and an additional tag.
+	 * @param key the tag key
+	 * @param value the tag value
+	 * @return the metric name
+	 */
+	public MetricName withTag(String key, String value) {
+		return of(this.name, this.tags.and(key, value));
+	}
+
+	@Override
+	public int compareTo(MetricName other) {
+		int result = this.name.compareTo(other.name);
+		return (result != 0 ? result : this.tags.toString().compareTo(
+				other.tags.toString()));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		MetricName other = (MetricName) obj;
+		return this.hash == other.hash && this.name.equals(other.name)
+				&& this.tags.equals(other.tags);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Override
+	public String toString() {
+		return (this.tags.isEmpty() ? this.name : this.name + this.tags);
+	}
+
+	/**
+	 * Return the metric name with the given name and no tags.
+	 * @param name the name
+	 * @return the metric name
+	 */
+	public static MetricName of(String name) {
+		return of(name, MetricTags.empty());
+	}
+
+	/**
+	 * Return the metric name with the given name and tags specified as alternating keys
+	 * and values.
+	 * @param name the name
+	 * @param keysAndValues the tag keys and values
+	 * @return the metric name
+	 */
+	public static MetricName of(String name, String... keysAndValues) {
+		return of(name, MetricTags.of(keysAndValues));
+	}
+
+	/**
+	 * Return the metric name with the given name and tags.
+	 * @param name the name
+	 * @param tags the tags
+	 * @return the metric name
+	 */
+	public static MetricName of(String name, MetricTags tags) {
+		Assert.hasLength(name, "Name must not be empty");
+		Assert.notNull(tags, "Tags must not be null");
+		MetricName candidate = new MetricName(name, tags);
+		MetricName existing = interned.putIfAbsent(candidate, candidate);
+		return (existing == null ? candidate : existing);
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A template that maps between dotted metric names and {@link MetricName tagged names}.
+ * A template is a dotted name in which segments of the form {@code {tag}} hold tag
+ * values, e.g. the template {@code counter.status.{status}.{path}} maps
+ * {@code counter.status.200.home} to the name {@code counter.status} with the tags
+ * {@code status=200} and {@code path=home}. A tag segment matches a single segment of
+ * the dotted name, unless it is the last segment of the template in which case it
+ * matches all the remaining segments (so the value may itself contain periods).
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public final class MetricNameTemplate {
+
+	private final String template;
+
+	private final String[] segments;
+
+	private final boolean[] tags;
+
+	private final String name;
+
+	/**
+	 * Create a new {@link MetricNameTemplate} instance.
+	 * @param template the template, e.g. {@code counter.status.{status}.{path}}
+	 */
+	public MetricNameTemplate(String template) {
+		Assert.hasText(template, "Template must not be empty");
+		this.template = template;
+		this.segments = StringUtils.delimitedListToStringArray(template, ".");
+		this.tags = new boolean[this.segments.length];
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < this.segments.length; i++) {
+			String segment = this.segments[i];
+			if (segment.startsWith("{") && segment.endsWith("}")) {
+				Assert.isTrue(segment.length() > 2, "Invalid template '" + template
+						+ "' (tag keys must not be empty)");
+				this.segments[i] = segment.substring(1, segment.length() - 1);
+				this.tags[i] = true;
+			}
+			else {
+				name.append(name.length() > 0 ? "." : "").append(segment);
+			}
+		}
+		Assert.isTrue(name.length() > 0, "Invalid template '" + template
+				+ "' (at least one segment must not be a tag)");
+		this.name = name.toString();
+	}
+
+	/**
+	 * Return the name (without tags) of the metrics that match this template, i.e. the
+	 * segments that are not tags.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Parse the given dotted name.
+	 * @param dottedName the dotted name
+	 * @return the tagged name or {@code null} if the dotted name does not match
+	 */
+	public MetricName parse(String dottedName) {
+		return parse(StringUtils.delimitedListToStringArray(dottedName, "."));
+	}
+
+	/**
+	 * Parse a dotted name that has already been split into segments.
+	 * @param segments the segments of the dotted name
+	 * @return the tagged name or {@code null} if the segments do not match
+	 */
+	public MetricName parse(String[] segments) {
+		int last = this.segments.length - 1;
+		if (segments.length < this.segments.length
+				|| (segments.length > this.segments.length && !this.tags[last])) {
+			return null;
+		}
+		Map<String, String> tags = new TreeMap<String, String>();
+		for (int i = 0; i < this.segments.length; i++) {
+			if (!this.tags[i]) {
+				if (!this.segments[i].equals(segments[i])) {
+					return null;
+				}
+			}
+			else if (i == last) {
+				tags.put(this.segments[i], StringUtils.arrayToDelimitedString(
+						Arrays.copyOfRange(segments, i, segments.length), "."));
+			}
+			else {
+				tags.put(this.segments[i], segments[i]);
+			}
+		}
+		return MetricName.of(this.name, MetricTags.of(tags));
+	}
+
+	/**
+	 * Format the given tagged name as a dotted name.
+	 * @param metricName the tagged name
+	 * @return the dotted name
+	 * @throws IllegalArgumentException if the name or tags do not match the template
+	 */
+	public String format(MetricName metricName) {
+		Assert.isTrue(this.name.equals(metricName.getName()), "Metric name '"
+				+ metricName + "' does not match template '" + this.template + "'");
+		MetricTags tags = metricName.getTags();
+		StringBuilder result = new StringBuilder();
+		int count = 0;
+		for (int i = 0; i < this.segments.length; i++) {
+			String segment = this.segments[i];
+			if (this.tags[i]) {
+				segment = tags.get(segment);
+				Assert.isTrue(segment != null, "Metric name '" + metricName
+						+ "' has no tag '" + this.segments[i] + "' required by template '"
+						+ this.template + "'");
+				count++;
+			}
+			result.append(i > 0 ? "." : "").append(segment);
+		}
+		Assert.isTrue(count == tags.size(), "Metric name '" + metricName
+				+ "' has tags that are not in template '" + this.template + "'");
+		return result.toString();
+	}
+
+	/**
+	 * Return the dotted name prefix (of whole segments) shared by all the metrics that
+	 * match this template and have the given tags, e.g. {@code counter.status.200.} for
+	 * the template {@code counter.status.{status}.{path}} and the tag
+	 * {@code status=200}. Useful to narrow a
+	 * {@link org.springframework.boot.actuate.metrics.reader.PrefixMetricReader#findAll(String)
+	 * prefix scan}.
+	 * @param tags the tags that the metrics must have (may be a subset of the tags in
+	 * the template)
+	 * @return the dotted name prefix
+	 */
+	public String getPrefix(MetricTags tags) {
+		Assert.notNull(tags, "Tags must not be null");
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < this.segments.length - 1; i++) {
+			String segment = (this.tags[i] ? tags.get(this.segments[i])
+					: this.segments[i]);
+			if (segment == null) {
+				break;
+			}
+			result.append(segment).append(".");
+		}
+		return result.toString();
+	}
+
+	@Override
+	public String toString() {
+		return this.template;
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * An immutable set of tags (key-value pairs) that qualify a {@link MetricName}. Tags
+ * are sorted by key and instances are interned, so equal tag sets are normally the same
+ * instance and can be compared and hashed cheaply.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see MetricName
+ */
+public final class MetricTags {
+
+	private static final ConcurrentMap<MetricTags, MetricTags> interned = new ConcurrentReferenceHashMap<MetricTags, MetricTags>();
+
+	private static final MetricTags EMPTY = intern(new MetricTags(new String[0],
+			new String[0]));
+
+	private final String[] keys;
+
+	private final String[] values;
+
+	private final int hash;
+
+	private final Map<String, String> map;
+
+	private MetricTags(String[] keys, String[] values) {
+		this.keys = keys;
+		this.values = values;
+		this.hash = 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+		Map<String, String> map = new LinkedHashMap<String, String>();
+		for (int i = 0; i < keys.length; i++) {
+			map.put(keys[i], values[i]);
+		}
+		this.map = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Return the value of the given tag.
+	 * @param key the tag key
+	 * @return the value or {@code null} if there is no such tag
+	 */
+	public String get(String key) {
+		int index = Arrays.binarySearch(this.keys, key);
+		return (index < 0 ? null : this.values[index]);
+	}
+
+	/**
+	 * Return the number of tags.
+	 * @return the number of tags
+	 */
+	public int size() {
+		return this.keys.length;
+	}
+
+	/**
+	 * Return {@code true} if there are no tags.
+	 * @return if the tag set is empty
+	 */
+	public boolean isEmpty() {
+		return this.keys.length == 0;
+	}
+
+	/**
+	 * Return {@code true} if these tags include all the given tags (with the same
+	 * values).
+	 * @param tags the tags to check
+	 * @return if all the tags are present
+	 */
+	public boolean containsAll(MetricTags tags) {
+		for (int i = 0; i < tags.keys.length; i++) {
+			if (!tags.values[i].equals(get(tags.keys[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the tags as a map, sorted by key.
+	 * @return the tags
+	 */
+	public Map<String, String> asMap() {
+		return this.map;
+	}
+
+	/**
+	 * Return a tag set containing these tags and the given one (which replaces any
+	 * existing tag with the same key).
+	 * @param key the tag key
+	 * @param value the tag value
+	 * @return the tag set
+	 */
+	public MetricTags and(String key, String value) {
+		Map<String, String> tags = new TreeMap<String, String>(this.map);
+		tags.put(key, value);
+		return of(tags);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		MetricTags other = (MetricTags) obj;
+		return this.hash == other.hash && Arrays.equals(this.keys, other.keys)
+				&& Arrays.equals(this.values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Override
+	public String toString() {
+		return this.map.toString();
+	}
+
+	/**
+	 * Return the empty tag set.
+	 * @return the empty tag set
+	 */
+	public static MetricTags empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Return the tag set made from alternating keys and values, e.g.
+	 * {@code of("status", "200", "path", "home")}.
+	 * @param keysAndValues the keys and values
+	 * @return the tag set
+	 */
+	public static MetricTags of(String... keysAndValues) {
+		Assert.isTrue(keysAndValues.length % 2 == 0,
+				"Tags must be specified as key-value pairs");
+		Map<String, String> tags = new TreeMap<String, String>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			tags.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return of(tags);
+	}
+
+	/**
+	 * Return the tag set with the contents of the given map.
+	 * @param tags the tags
+	 * @return the tag set
+	 */
+	public static MetricTags of(Map<String, String> tags) {
+		Assert.notNull(tags, "Tags must not be null");
+		if (tags.isEmpty()) {
+			return EMPTY;
+		}
+		Map<String, String> sorted = (tags instanceof TreeMap
+				&& ((TreeMap<String, String>) tags).comparator() == null ? tags
+				: new TreeMap<String, String>(tags));
+		String[] keys = new String[sorted.size()];
+		String[] values = new String[sorted.size()];
+		int i = 0;
+		for (Map.Entry<String, String> entry : sorted.entrySet()) {
+			Assert.hasLength(entry.getKey(), "Tag keys must not be empty");
+			Assert.notNull(entry.getValue(), "Tag values must not be null");
+			keys[i] = entry.getKey();
+			values[i] = entry.getValue();
+			i++;
+		}
+		return intern(new MetricTags(keys, values));
+	}
+
+	private static MetricTags intern(MetricTags tags) {
+		MetricTags existing = interned.putIfAbsent(tags, tags);
+		return (existing == null ? tags : existing);
+	}
+
+}
@@ -16,12 +16,24 @@
 
 package org.springframework.boot.actuate.metrics.aggregate;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
-import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
 import org.springframework.util.StringUtils;
 
 /**
@@ -31,11 +43,17 @@ import org.springframework.util.StringUtils;
  * {@code *.*.[anything].**}, and the result has metric names in the form
  * {@code aggregate.count.**} and {@code aggregate.[anything].**}. Counters are summed and
  * anything else (i.e. gauges) are aggregated by choosing the most recent value.
+ * <p>
+ * Aggregates are maintained incrementally: each refresh reads the source once, and only
+ * the aggregates with a source metric that has changed (or disappeared) since the
+ * previous refresh are recalculated. Results can optionally be cached for a
+ * {@link #setTimeToLive(long) time to live} so that several reads in the same export
+ * cycle share a single refresh.
  *
  * @author Dave Syer
  * @since 1.3.0
  */
-public class AggregateMetricReader implements MetricReader {
+public class AggregateMetricReader implements MetricReader, PrefixMetricReader {
 
 	private MetricReader source;
 
@@ -43,6 +61,18 @@ public class AggregateMetricReader implements MetricReader {
 
 	private String prefix = "aggregate.";
 
+	private long timeToLive = 0;
+
+	private final Object monitor = new Object();
+
+	private final Map<String, Source> sources = new HashMap<String, Source>();
+
+	private final ConcurrentMap<String, Aggregate> aggregates = new ConcurrentHashMap<String, Aggregate>();
+
+	private long generation;
+
+	private volatile long lastRefresh;
+
 	public AggregateMetricReader(MetricReader source) {
 		this.source = source;
 	}
@@ -62,7 +92,10 @@ public class AggregateMetricReader implements MetricReader {
 	 * @param keyPattern the keyPattern to set
 	 */
 	public void setKeyPattern(String keyPattern) {
-		this.keyPattern = keyPattern;
+		synchronized (this.monitor) {
+			this.keyPattern = keyPattern;
+			reset();
+		}
 	}
 
 	/**
@@ -74,7 +107,20 @@ public class AggregateMetricReader implements MetricReader {
 		if (StringUtils.hasText(prefix) && !prefix.endsWith(".")) {
 			prefix = prefix + ".";
 		}
-		this.prefix = prefix;
+		synchronized (this.monitor) {
+			this.prefix = prefix;
+			reset();
+		}
+	}
+
+	/**
+	 * Time to live in milliseconds for the aggregated values. Reads within this period
+	 * of the last refresh are served without reading the source again. Default is 0
+	 * which means that the source is read on every call.
+	 * @param timeToLive the time to live in milliseconds
+	 */
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
 	}
 
 	@Override
@@ -82,57 +128,117 @@ public class AggregateMetricReader implements MetricReader {
 		if (!metricName.startsWith(this.prefix)) {
 			return null;
 		}
-		InMemoryMetricRepository result = new InMemoryMetricRepository();
-		String baseName = metricName.substring(this.prefix.length());
-		for (Metric<?> metric : this.source.findAll()) {
-			String name = getSourceKey(metric.getName());
-			if (baseName.equals(name)) {
-				update(result, name, metric);
-			}
-		}
-		return result.findOne(metricName);
+		refreshIfNecessary();
+		Aggregate aggregate = this.aggregates.get(metricName);
+		return (aggregate == null ? null : aggregate.getMetric());
 	}
 
 	@Override
 	public Iterable<Metric<?>> findAll() {
-		InMemoryMetricRepository result = new InMemoryMetricRepository();
-		for (Metric<?> metric : this.source.findAll()) {
-			String key = getSourceKey(metric.getName());
-			if (key != null) {
-				update(result, key, metric);
+		refreshIfNecessary();
+		final Collection<Aggregate> aggregates = this.aggregates.values();
+		return new Iterable<Metric<?>>() {
+
+			@Override
+			public Iterator<Metric<?>> iterator() {
+				return new MetricIterator(aggregates.iterator());
+			}
+
+		};
+	}
+
+	@Override
+	public Iterable<Metric<?>> findAll(String prefix) {
+		if (!prefix.startsWith(this.prefix) && !this.prefix.startsWith(prefix)) {
+			return Collections.emptyList();
+		}
+		refreshIfNecessary();
+		List<Metric<?>> result = new ArrayList<Metric<?>>();
+		for (Aggregate aggregate : this.aggregates.values()) {
+			Metric<?> metric = aggregate.getMetric();
+			if (metric != null && aggregate.name.startsWith(prefix)) {
+				result.add(metric);
 			}
 		}
-		return result.findAll();
+		return result;
 	}
 
 	@Override
 	public long count() {
-		Set<String> names = new HashSet<String>();
-		for (Metric<?> metric : this.source.findAll()) {
-			String name = getSourceKey(metric.getName());
-			if (name != null) {
-				names.add(name);
-			}
+		refreshIfNecessary();
+		return this.aggregates.size();
+	}
+
+	private void refreshIfNecessary() {
+		if (this.timeToLive <= 0
+				|| System.currentTimeMillis() - this.lastRefresh >= this.timeToLive) {
+			refresh();
 		}
-		return names.size();
 	}
 
-	private void update(InMemoryMetricRepository result, String key, Metric<?> metric) {
-		String name = this.prefix + key;
-		Metric<?> aggregate = result.findOne(name);
-		if (aggregate == null) {
-			aggregate = new Metric<Number>(name, metric.getValue(), metric.getTimestamp());
+	/**
+	 * Read the source and update any aggregates that have changed.
+	 */
+	public void refresh() {
+		synchronized (this.monitor) {
+			long generation = ++this.generation;
+			Set<Aggregate> changed = new LinkedHashSet<Aggregate>();
+			for (Metric<?> metric : this.source.findAll()) {
+				Source source = this.sources.get(metric.getName());
+				if (source == null) {
+					source = new Source(this.prefix + getSourceKey(metric.getName()));
+					this.sources.put(metric.getName(), source);
+				}
+				source.generation = generation;
+				if (!metric.equals(source.metric)) {
+					source.metric = metric;
+					Aggregate aggregate = getAggregate(source.aggregateName);
+					aggregate.values.put(metric.getName(), metric);
+					changed.add(aggregate);
+				}
+			}
+			removeStaleSources(generation, changed);
+			for (Aggregate aggregate : changed) {
+				if (aggregate.values.isEmpty()) {
+					this.aggregates.remove(aggregate.name);
+				}
+				else {
+					aggregate.recalculate();
+				}
+			}
+			this.lastRefresh = System.currentTimeMillis();
 		}
-		else if (key.contains("counter.")) {
-			// accumulate all values
-			aggregate = new Metric<Number>(name, metric.increment(
-					aggregate.getValue().intValue()).getValue(), metric.getTimestamp());
+	}
+
+	private void removeStaleSources(long generation, Set<Aggregate> changed) {
+		Iterator<Map.Entry<String, Source>> iterator = this.sources.entrySet()
+				.iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Source> entry = iterator.next();
+			if (entry.getValue().generation != generation) {
+				iterator.remove();
+				Aggregate aggregate = this.aggregates.get(entry.getValue().aggregateName);
+				if (aggregate != null) {
+					aggregate.values.remove(entry.getKey());
+					changed.add(aggregate);
+				}
+			}
 		}
-		else if (aggregate.getTimestamp().before(metric.getTimestamp())) {
-			// sort by timestamp and only take the latest
-			aggregate = new Metric<Number>(name, metric.getValue(), metric.getTimestamp());
+	}
+
+	private Aggregate getAggregate(String name) {
+		Aggregate aggregate = this.aggregates.get(name);
+		if (aggregate == null) {
+			aggregate = new Aggregate(name, name.contains("counter."));
+			this.aggregates.put(name, aggregate);
 		}
-		result.set(aggregate);
+		return aggregate;
+	}
+
+	private void reset() {
+		this.sources.clear();
+		this.aggregates.clear();
+		this.lastRefresh = 0;
 	}
 
 	private String getSourceKey(String name) {
@@ -152,4 +258,110 @@ public class AggregateMetricReader implements MetricReader {
 		return builder.toString();
 	}
 
+	/**
+	 * The last seen state of a source metric.
+	 */
+	private static class Source {
+
+		private final String aggregateName;
+
+		private Metric<?> metric;
+
+		private long generation;
+
+		Source(String aggregateName) {
+			this.aggregateName = aggregateName;
+		}
+
+	}
+
+	/**
+	 * An aggregated metric along with the source values that contribute to it.
+	 */
+	private static class Aggregate {
+
+		private final String name;
+
+		private final boolean counter;
+
+		private final Map<String, Metric<?>> values = new LinkedHashMap<String, Metric<?>>();
+
+		private volatile Metric<?> metric;
+
+		Aggregate(String name, boolean counter) {
+			this.name = name;
+			this.counter = counter;
+		}
+
+		public Metric<?> getMetric() {
+			return this.metric;
+		}
+
+		public void recalculate() {
+			Metric<?> result = null;
+			for (Metric<?> value : this.values.values()) {
+				if (result == null) {
+					result = new Metric<Number>(this.name, value.getValue(),
+							value.getTimestamp());
+				}
+				else if (this.counter) {
+					// accumulate all values
+					long total = result.getValue().longValue()
+							+ value.getValue().longValue();
+					result = new Metric<Long>(this.name, total, latest(result, value));
+				}
+				else if (result.getTimestamp().before(value.getTimestamp())) {
+					// sort by timestamp and only take the latest
+					result = new Metric<Number>(this.name, value.getValue(),
+							value.getTimestamp());
+				}
+			}
+			this.metric = result;
+		}
+
+		private Date latest(Metric<?> result, Metric<?> value) {
+			return (result.getTimestamp().before(value.getTimestamp()) ? value
+					.getTimestamp() : result.getTimestamp());
+		}
+
+	}
+
+	/**
+	 * Iterator over the current aggregate values.
+	 */
+	private static class MetricIterator implements Iterator<Metric<?>> {
+
+		private final Iterator<Aggregate> aggregates;
+
+		private Metric<?> next;
+
+		MetricIterator(Iterator<Aggregate> aggregates) {
+			this.aggregates = aggregates;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null && this.aggregates.hasNext()) {
+				this.next = this.aggregates.next().getMetric();
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Metric<?> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Metric<?> next = this.next;
+			this.next = null;
+			return next;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("remove");
+		}
+
+	}
+
 }
@@ -16,7 +16,7 @@
 
 package org.springframework.boot.actuate.metrics.opentsdb;
 
-import java.util.ArrayList;
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -25,27 +25,29 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.MetricBatchSender;
+import org.springframework.boot.actuate.metrics.writer.MetricBatchSender.BatchCallback;
 import org.springframework.boot.actuate.metrics.writer.MetricWriter;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * A {@link MetricWriter} for the Open TSDB database (version 2.0), writing metrics to the
- * HTTP endpoint provided by the server. Data are buffered according to the
- * {@link #setBufferSize(int) bufferSize} property, and only flushed automatically when
- * the buffer size is reached. Users should either manually {@link #flush()} after writing
- * a batch of data if that makes sense, or consider adding a {@link Scheduled
- * Scheduled} task to flush periodically.
+ * HTTP endpoint provided by the server. Data are posted asynchronously from a background
+ * thread (so a slow server never blocks the caller) in batches of up to
+ * {@link #setBufferSize(int) bufferSize} values. A partial batch is posted once it has
+ * waited for {@link #setMaxDelay(long) maxDelay} milliseconds or when {@link #flush()}
+ * is called. If the server cannot keep up, values are dropped once
+ * {@link #setQueueCapacity(int) queueCapacity} values are waiting.
  *
  * @author Dave Syer
  * @since 1.3.0
  */
-public class OpenTsdbMetricWriter implements MetricWriter {
+public class OpenTsdbMetricWriter implements MetricWriter, Closeable {
 
 	private static final Log logger = LogFactory.getLog(OpenTsdbMetricWriter.class);
 
@@ -56,18 +58,21 @@ public class OpenTsdbMetricWriter implements MetricWriter {
 	 */
 	private String url = "http://localhost:4242/api/put";
 
-	/**
-	 * Buffer size to fill before posting data to server.
-	 */
-	private int bufferSize = 64;
-
 	/**
 	 * The media type to use to serialize and accept responses from the server. Defaults
 	 * to "application/json".
 	 */
 	private MediaType mediaType = MediaType.APPLICATION_JSON;
 
-	private List<OpenTsdbData> buffer = new ArrayList<OpenTsdbData>(this.bufferSize);
+	private final MetricBatchSender<OpenTsdbData> sender = new MetricBatchSender<OpenTsdbData>(
+			"opentsdb", new BatchCallback<OpenTsdbData>() {
+
+				@Override
+				public void send(List<OpenTsdbData> batch) {
+					post(batch);
+				}
+
+			});
 
 	private OpenTsdbNamingStrategy namingStrategy = new DefaultOpenTsdbNamingStrategy();
 
@@ -83,8 +88,39 @@ public class OpenTsdbMetricWriter implements MetricWriter {
 		this.url = url;
 	}
 
+	/**
+	 * Set the maximum number of values posted to the server in a single request.
+	 * @param bufferSize the buffer size (default 64)
+	 */
 	public void setBufferSize(int bufferSize) {
-		this.bufferSize = bufferSize;
+		this.sender.setBatchSize(bufferSize);
+	}
+
+	/**
+	 * Set the maximum time in milliseconds that a value is held back waiting for a batch
+	 * to fill.
+	 * @param maxDelay the maximum delay (default 1000)
+	 */
+	public void setMaxDelay(long maxDelay) {
+		this.sender.setMaxDelay(maxDelay);
+	}
+
+	/**
+	 * Set the maximum number of values that can be waiting to be posted before new
+	 * values are dropped.
+	 * @param queueCapacity the queue capacity (default 10000)
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this.sender.setQueueCapacity(queueCapacity);
+	}
+
+	/**
+	 * Return the number of values that have been dropped because the server could not
+	 * keep up.
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return this.sender.getDroppedCount();
 	}
 
 	public void setMediaType(MediaType mediaType) {
@@ -105,34 +141,28 @@ public class OpenTsdbMetricWriter implements MetricWriter {
 		OpenTsdbData data = new OpenTsdbData(
 				this.namingStrategy.getName(value.getName()), value.getValue(), value
 						.getTimestamp().getTime());
-		this.buffer.add(data);
-		if (this.buffer.size() >= this.bufferSize) {
-			flush();
-		}
+		this.sender.add(data);
 	}
 
 	/**
-	 * Flush the buffer without waiting for it to fill any further.
+	 * Post any buffered values without waiting for the buffer to fill any further. The
+	 * values are posted asynchronously.
 	 */
 	public void flush() {
-		if (this.buffer.isEmpty()) {
-			return;
-		}
-		List<OpenTsdbData> temp = new ArrayList<OpenTsdbData>();
-		synchronized (this.buffer) {
-			temp.addAll(this.buffer);
-			this.buffer.clear();
-		}
+		this.sender.flush();
+	}
+
+	private void post(List<OpenTsdbData> batch) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.setAccept(Arrays.asList(this.mediaType));
 		headers.setContentType(this.mediaType);
-		HttpEntity<List<OpenTsdbData>> request = new HttpEntity<List<OpenTsdbData>>(temp,
-				headers);
+		HttpEntity<List<OpenTsdbData>> request = new HttpEntity<List<OpenTsdbData>>(
+				batch, headers);
 		@SuppressWarnings("rawtypes")
 		ResponseEntity<Map> response = this.restTemplate.postForEntity(this.url, request,
 				Map.class);
 		if (!response.getStatusCode().is2xxSuccessful()) {
-			logger.warn("Cannot write metrics (discarded " + temp.size() + " values): "
+			logger.warn("Cannot write metrics (discarded " + batch.size() + " values): "
 					+ response.getBody());
 		}
 	}
@@ -142,4 +172,12 @@ public class OpenTsdbMetricWriter implements MetricWriter {
 		set(new Metric<Long>(metricName, 0L));
 	}
 
+	/**
+	 * Post any buffered values and stop the background thread.
+	 */
+	@Override
+	public void close() {
+		this.sender.close();
+	}
+
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.prometheus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.boot.actuate.metrics.MetricName;
+import org.springframework.boot.actuate.metrics.MetricNameTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A naming strategy that maps dotted metric names onto Prometheus names using a list of
+ * {@link MetricNameTemplate templates}. The tags of a template become labels, e.g. the
+ * template {@code counter.status.{status}.{path}} maps {@code counter.status.200.metrics}
+ * onto {@code counter_status} with the labels {@code path="metrics"} and
+ * {@code status="200"}. The first matching template wins and metric names that match no
+ * template are used as they are (with no labels, other than the
+ * {@link #setLabels(Map) common labels}).
+ * <p>
+ * By default there are templates for the request metrics recorded by the actuator's
+ * {@code MetricsFilter}. Results are cached, so each metric name is only parsed once.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class DefaultPrometheusNamingStrategy implements PrometheusNamingStrategy {
+
+	private static final List<String> DEFAULT_TEMPLATES = Arrays.asList(
+			"counter.status.{status}.{path}", "gauge.response.{path}");
+
+	private static final int MAX_CACHE_SIZE = 10000;
+
+	private final ConcurrentMap<String, PrometheusName> cache = new ConcurrentHashMap<String, PrometheusName>();
+
+	private volatile List<MetricNameTemplate> templates;
+
+	private volatile Map<String, String> labels = new LinkedHashMap<String, String>();
+
+	public DefaultPrometheusNamingStrategy() {
+		setTemplates(DEFAULT_TEMPLATES);
+	}
+
+	/**
+	 * Set the templates used to extract labels from metric names (replacing the
+	 * defaults).
+	 * @param templates the templates
+	 */
+	public void setTemplates(Collection<String> templates) {
+		Assert.notNull(templates, "Templates must not be null");
+		List<MetricNameTemplate> compiled = new ArrayList<MetricNameTemplate>(
+				templates.size());
+		for (String template : templates) {
+			compiled.add(new MetricNameTemplate(template));
+		}
+		this.templates = compiled;
+		this.cache.clear();
+	}
+
+	/**
+	 * Set labels that are added to every series, e.g. an application or instance
+	 * identifier.
+	 * @param labels the common labels
+	 */
+	public void setLabels(Map<String, String> labels) {
+		Assert.notNull(labels, "Labels must not be null");
+		this.labels = new LinkedHashMap<String, String>(labels);
+		this.cache.clear();
+	}
+
+	@Override
+	public PrometheusName getName(String metricName) {
+		PrometheusName name = this.cache.get(metricName);
+		if (name == null) {
+			name = createName(metricName);
+			if (this.cache.size() < MAX_CACHE_SIZE) {
+				this.cache.put(metricName, name);
+			}
+		}
+		return name;
+	}
+
+	private PrometheusName createName(String metricName) {
+		String[] segments = StringUtils.delimitedListToStringArray(metricName, ".");
+		for (MetricNameTemplate template : this.templates) {
+			MetricName tagged = template.parse(segments);
+			if (tagged != null) {
+				Map<String, String> labels = new LinkedHashMap<String, String>(
+						this.labels);
+				labels.putAll(tagged.getTags().asMap());
+				return new PrometheusName(tagged.getName(), labels);
+			}
+		}
+		return new PrometheusName(metricName, this.labels);
+	}
+
+}
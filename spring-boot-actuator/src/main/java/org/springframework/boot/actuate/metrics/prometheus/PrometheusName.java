@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.prometheus;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * The name of a Prometheus time series: a metric name together with a set of labels.
+ * Names and label names are sanitized on construction and the label text is rendered
+ * once, so an instance can be reused cheaply every time the series is written.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public final class PrometheusName {
+
+	private final String name;
+
+	private final Map<String, String> labels;
+
+	private final String labelText;
+
+	/**
+	 * Create a new {@link PrometheusName} with no labels.
+	 * @param name the metric name
+	 */
+	public PrometheusName(String name) {
+		this(name, Collections.<String, String>emptyMap());
+	}
+
+	/**
+	 * Create a new {@link PrometheusName}.
+	 * @param name the metric name
+	 * @param labels the labels of the series
+	 */
+	public PrometheusName(String name, Map<String, String> labels) {
+		Assert.hasLength(name, "Name must not be empty");
+		Assert.notNull(labels, "Labels must not be null");
+		this.name = sanitize(name, true);
+		Map<String, String> sanitized = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, String> entry : labels.entrySet()) {
+			Assert.hasLength(entry.getKey(), "Label names must not be empty");
+			sanitized.put(sanitize(entry.getKey(), false),
+					(entry.getValue() == null ? "" : entry.getValue()));
+		}
+		this.labels = Collections.unmodifiableMap(sanitized);
+		this.labelText = renderLabels(this.labels);
+	}
+
+	/**
+	 * Return the metric name, i.e. the name shared by all series in the same family.
+	 * @return the metric name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the labels of the series.
+	 * @return the labels (never {@code null})
+	 */
+	public Map<String, String> getLabels() {
+		return this.labels;
+	}
+
+	/**
+	 * Return the series identifier in the text exposition format, e.g.
+	 * {@code counter_status{status="200"}}.
+	 * @return the series identifier
+	 */
+	public String getSeries() {
+		return getSeries("");
+	}
+
+	/**
+	 * Return the identifier of a series derived from this one by adding a suffix to the
+	 * metric name, e.g. {@code _count}.
+	 * @param suffix the suffix to add
+	 * @return the series identifier
+	 */
+	public String getSeries(String suffix) {
+		return this.name + suffix + this.labelText;
+	}
+
+	@Override
+	public String toString() {
+		return getSeries();
+	}
+
+	private static String renderLabels(Map<String, String> labels) {
+		if (labels.isEmpty()) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder("{");
+		for (Map.Entry<String, String> entry : labels.entrySet()) {
+			if (result.length() > 1) {
+				result.append(",");
+			}
+			result.append(entry.getKey()).append("=\"");
+			appendEscaped(result, entry.getValue());
+			result.append("\"");
+		}
+		return result.append("}").toString();
+	}
+
+	private static void appendEscaped(StringBuilder result, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			if (ch == '\\' || ch == '"') {
+				result.append('\\').append(ch);
+			}
+			else if (ch == '\n') {
+				result.append("\\n");
+			}
+			else {
+				result.append(ch);
+			}
+		}
+	}
+
+	private static String sanitize(String name, boolean allowColon) {
+		StringBuilder result = new StringBuilder(name.length() + 1);
+		if (Character.isDigit(name.charAt(0))) {
+			result.append('_');
+		}
+		for (int i = 0; i < name.length(); i++) {
+			char ch = name.charAt(i);
+			boolean valid = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')
+					|| (ch >= '0' && ch <= '9') || ch == '_' || (allowColon && ch == ':');
+			result.append(valid ? ch : '_');
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.prometheus;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import org.springframework.boot.actuate.metrics.buffer.BufferMetricReader;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffer;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffer;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
+import org.springframework.boot.actuate.metrics.rich.RichGauge;
+import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
+import org.springframework.lang.UsesJava8;
+import org.springframework.util.Assert;
+
+/**
+ * Writes metrics in the Prometheus text exposition format, reading the values directly
+ * from {@link CounterBuffers} and {@link GaugeBuffers} (the stores behind a
+ * {@link BufferMetricReader}) and, optionally, a {@link RichGaugeReader}. No
+ * intermediate {@code Metric} objects are created. Counters are written with type
+ * {@code counter} and gauges with type {@code gauge}. Each rich gauge is written as a
+ * gauge with its current value, plus {@code _count}, {@code _avg}, {@code _min} and
+ * {@code _max} series.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see PrometheusNamingStrategy
+ */
+@UsesJava8
+public class PrometheusTextWriter {
+
+	/**
+	 * The content type of the text exposition format.
+	 */
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static final Predicate<String> ALL = new Predicate<String>() {
+
+		@Override
+		public boolean test(String name) {
+			return true;
+		}
+
+	};
+
+	private final CounterBuffers counters;
+
+	private final GaugeBuffers gauges;
+
+	private RichGaugeReader richGaugeReader;
+
+	private PrometheusNamingStrategy namingStrategy = new DefaultPrometheusNamingStrategy();
+
+	/**
+	 * Create a new {@link PrometheusTextWriter} instance.
+	 * @param counters the counter buffers
+	 * @param gauges the gauge buffers
+	 */
+	public PrometheusTextWriter(CounterBuffers counters, GaugeBuffers gauges) {
+		Assert.notNull(counters, "Counters must not be null");
+		Assert.notNull(gauges, "Gauges must not be null");
+		this.counters = counters;
+		this.gauges = gauges;
+	}
+
+	/**
+	 * Set the reader used to include rich gauges.
+	 * @param richGaugeReader the rich gauge reader (may be {@code null})
+	 */
+	public void setRichGaugeReader(RichGaugeReader richGaugeReader) {
+		this.richGaugeReader = richGaugeReader;
+	}
+
+	/**
+	 * Set the naming strategy used to convert metric names into Prometheus names.
+	 * @param namingStrategy the naming strategy
+	 */
+	public void setNamingStrategy(PrometheusNamingStrategy namingStrategy) {
+		Assert.notNull(namingStrategy, "NamingStrategy must not be null");
+		this.namingStrategy = namingStrategy;
+	}
+
+	/**
+	 * Write all the metrics to the given writer. Series are grouped by metric name (as
+	 * required by the format) and metric names are written in alphabetical order. The
+	 * writer is flushed but not closed.
+	 * @param writer the writer
+	 * @throws IOException on write error
+	 */
+	public void write(Writer writer) throws IOException {
+		final Map<String, Family> families = new TreeMap<String, Family>();
+		this.counters.forEach(ALL, new BiConsumer<String, CounterBuffer>() {
+
+			@Override
+			public void accept(String name, CounterBuffer buffer) {
+				PrometheusName prometheusName = getName(name);
+				getFamily(families, prometheusName.getName(), "counter").add(
+						prometheusName.getSeries(), buffer.getValue());
+			}
+
+		});
+		this.gauges.forEach(ALL, new BiConsumer<String, GaugeBuffer>() {
+
+			@Override
+			public void accept(String name, GaugeBuffer buffer) {
+				PrometheusName prometheusName = getName(name);
+				getFamily(families, prometheusName.getName(), "gauge").add(
+						prometheusName.getSeries(), buffer.getValue());
+			}
+
+		});
+		if (this.richGaugeReader != null) {
+			for (RichGauge gauge : this.richGaugeReader.findAll()) {
+				addRichGauge(families, gauge);
+			}
+		}
+		for (Map.Entry<String, Family> entry : families.entrySet()) {
+			writer.write("# TYPE ");
+			writer.write(entry.getKey());
+			writer.write(' ');
+			writer.write(entry.getValue().type);
+			writer.write('\n');
+			writer.append(entry.getValue().samples);
+		}
+		writer.flush();
+	}
+
+	private void addRichGauge(Map<String, Family> families, RichGauge gauge) {
+		PrometheusName name = getName(gauge.getName());
+		String prefix = name.getName();
+		getFamily(families, prefix, "gauge").add(name.getSeries(), gauge.getValue());
+		getFamily(families, prefix + "_count", "counter").add(
+				name.getSeries("_count"), gauge.getCount());
+		getFamily(families, prefix + "_avg", "gauge").add(name.getSeries("_avg"),
+				gauge.getAverage());
+		getFamily(families, prefix + "_min", "gauge").add(name.getSeries("_min"),
+				gauge.getMin());
+		getFamily(families, prefix + "_max", "gauge").add(name.getSeries("_max"),
+				gauge.getMax());
+	}
+
+	private PrometheusName getName(String name) {
+		return this.namingStrategy.getName(name);
+	}
+
+	private Family getFamily(Map<String, Family> families, String name, String type) {
+		Family family = families.get(name);
+		if (family == null) {
+			family = new Family(type);
+			families.put(name, family);
+		}
+		else if (!family.type.equals(type)) {
+			family.type = "untyped";
+		}
+		return family;
+	}
+
+	/**
+	 * The series that share a metric name.
+	 */
+	private static class Family {
+
+		private String type;
+
+		private final StringBuilder samples = new StringBuilder();
+
+		Family(String type) {
+			this.type = type;
+		}
+
+		public void add(String series, long value) {
+			this.samples.append(series).append(' ').append(value).append('\n');
+		}
+
+		public void add(String series, double value) {
+			this.samples.append(series).append(' ');
+			if (Double.isNaN(value)) {
+				this.samples.append("NaN");
+			}
+			else if (Double.isInfinite(value)) {
+				this.samples.append(value > 0 ? "+Inf" : "-Inf");
+			}
+			else {
+				this.samples.append(value);
+			}
+			this.samples.append('\n');
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.reader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.MetricName;
+import org.springframework.boot.actuate.metrics.MetricNameTemplate;
+import org.springframework.boot.actuate.metrics.MetricTags;
+import org.springframework.util.Assert;
+
+/**
+ * A reader for the metrics that match a {@link MetricNameTemplate} in a
+ * {@link PrefixMetricReader}, keyed by their {@link MetricName tagged names}. For
+ * example, with the template {@code counter.status.{status}.{path}} the counters for all
+ * the paths with a 404 status can be read with {@code findAll(MetricTags.of("status",
+ * "404"))}, which only scans the source for the prefix {@code counter.status.404.}. The
+ * tagged names of the source metrics are cached, so each dotted name is only parsed
+ * once.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class TaggedMetricReader {
+
+	private static final int MAX_CACHE_SIZE = 10000;
+
+	private static final MetricName UNMATCHED = MetricName.of(TaggedMetricReader.class
+			.getName());
+
+	private final PrefixMetricReader reader;
+
+	private final MetricNameTemplate template;
+
+	private final ConcurrentMap<String, MetricName> names = new ConcurrentHashMap<String, MetricName>();
+
+	/**
+	 * Create a new {@link TaggedMetricReader} instance.
+	 * @param reader the source of the metrics
+	 * @param template the template that maps the dotted names of the metrics onto tagged
+	 * names
+	 */
+	public TaggedMetricReader(PrefixMetricReader reader, MetricNameTemplate template) {
+		Assert.notNull(reader, "Reader must not be null");
+		Assert.notNull(template, "Template must not be null");
+		this.reader = reader;
+		this.template = template;
+	}
+
+	/**
+	 * Return the template used to map dotted names onto tagged names.
+	 * @return the template
+	 */
+	public MetricNameTemplate getTemplate() {
+		return this.template;
+	}
+
+	/**
+	 * Find the metric with the given tagged name. If the source is a
+	 * {@link MetricReader} the metric is looked up directly by its dotted name.
+	 * @param metricName the tagged name
+	 * @return the metric or {@code null} if there is none
+	 * @throws IllegalArgumentException if the name does not match the template
+	 */
+	public Metric<?> findOne(MetricName metricName) {
+		String dottedName = this.template.format(metricName);
+		if (this.reader instanceof MetricReader) {
+			return ((MetricReader) this.reader).findOne(dottedName);
+		}
+		for (Metric<?> metric : this.reader.findAll(dottedName)) {
+			if (dottedName.equals(metric.getName())) {
+				return metric;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find all the metrics that match the template.
+	 * @return the metrics keyed by tagged name
+	 */
+	public Map<MetricName, Metric<?>> findAll() {
+		return findAll(MetricTags.empty());
+	}
+
+	/**
+	 * Find all the metrics that match the template and have the given tags.
+	 * @param tags the tags (a subset of the tags in the template)
+	 * @return the metrics keyed by tagged name
+	 */
+	public Map<MetricName, Metric<?>> findAll(MetricTags tags) {
+		Assert.notNull(tags, "Tags must not be null");
+		Map<MetricName, Metric<?>> result = new LinkedHashMap<MetricName, Metric<?>>();
+		for (Metric<?> metric : this.reader.findAll(this.template.getPrefix(tags))) {
+			MetricName name = getName(metric.getName());
+			if (name != UNMATCHED && name.getTags().containsAll(tags)) {
+				result.put(name, metric);
+			}
+		}
+		return result;
+	}
+
+	private MetricName getName(String dottedName) {
+		MetricName name = this.names.get(dottedName);
+		if (name == null) {
+			name = this.template.parse(dottedName);
+			name = (name != null ? name : UNMATCHED);
+			if (this.names.size() < MAX_CACHE_SIZE) {
+				this.names.put(dottedName, name);
+			}
+		}
+		return name;
+	}
+
+}
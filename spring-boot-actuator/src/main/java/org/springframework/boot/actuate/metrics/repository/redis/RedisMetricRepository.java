@@ -17,17 +17,24 @@
 package org.springframework.boot.actuate.metrics.repository.redis;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.repository.MetricRepository;
 import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundZSetOperations;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.util.Assert;
 
 /**
@@ -37,6 +44,12 @@ import org.springframework.util.Assert;
  * multiple metrics repositories all point at the same instance of Redis, it may be useful
  * to change the prefix to be unique (but not if you want them to contribute to the same
  * metrics).
+ * <p>
+ * Reads and writes are pipelined so that each operation costs a constant number of
+ * round trips regardless of the number of metrics. Writes can also be buffered according
+ * to the {@link #setBufferSize(int) bufferSize} property, in which case they are sent in
+ * a single pipeline when the buffer is full or when the repository is
+ * {@link #flush() flushed}.
  *
  * @author Dave Syer
  */
@@ -54,6 +67,12 @@ public class RedisMetricRepository implements MetricRepository {
 
 	private final RedisOperations<String, String> redisOperations;
 
+	private final Queue<Metric<?>> buffer = new ConcurrentLinkedQueue<Metric<?>>();
+
+	private final AtomicInteger bufferCount = new AtomicInteger();
+
+	private volatile int bufferSize = 1;
+
 	/**
 	 * Create a RedisMetricRepository with a default prefix to apply to all metric names.
 	 * If multiple repositories share a redis instance they will feed into the same global
@@ -113,25 +132,56 @@ public class RedisMetricRepository implements MetricRepository {
 		this.zSetOperations = this.redisOperations.boundZSetOps(this.key);
 	}
 
+	/**
+	 * Set the number of writes to buffer before they are sent to redis in a single
+	 * pipeline. Defaults to 1 (no buffering). When buffering, users should either
+	 * manually {@link #flush()} after writing a batch of data or rely on a
+	 * {@code MetricCopyExporter} to do so after each export.
+	 * @param bufferSize the buffer size
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "BufferSize must be greater than 0");
+		this.bufferSize = bufferSize;
+	}
+
 	@Override
 	public Metric<?> findOne(String metricName) {
-		String redisKey = keyFor(metricName);
-		String raw = this.redisOperations.opsForValue().get(redisKey);
-		return deserialize(redisKey, raw, this.zSetOperations.score(redisKey));
+		final String redisKey = keyFor(metricName);
+		List<Object> results = this.redisOperations
+				.executePipelined(new SessionCallback<Object>() {
+
+					@Override
+					public <K, V> Object execute(RedisOperations<K, V> operations)
+							throws DataAccessException {
+						RedisOperations<String, String> ops = stringOperations(
+								operations);
+						ops.opsForValue().get(redisKey);
+						ops.opsForZSet().score(RedisMetricRepository.this.key, redisKey);
+						return null;
+					}
+
+				});
+		return deserialize(redisKey, (String) results.get(0), (Double) results.get(1));
 	}
 
 	@Override
 	public Iterable<Metric<?>> findAll() {
 
 		// This set is sorted
-		Set<String> keys = this.zSetOperations.range(0, -1);
-		Iterator<String> keysIt = keys.iterator();
-
+		Set<TypedTuple<String>> tuples = this.zSetOperations.rangeWithScores(0, -1);
+		List<String> keys = new ArrayList<String>(tuples.size());
+		for (TypedTuple<String> tuple : tuples) {
+			keys.add(tuple.getValue());
+		}
 		List<Metric<?>> result = new ArrayList<Metric<?>>(keys.size());
+		if (keys.isEmpty()) {
+			return result;
+		}
+		Iterator<TypedTuple<String>> tuplesIt = tuples.iterator();
 		List<String> values = this.redisOperations.opsForValue().multiGet(keys);
 		for (String v : values) {
-			String key = keysIt.next();
-			Metric<?> value = deserialize(key, v, this.zSetOperations.score(key));
+			TypedTuple<String> tuple = tuplesIt.next();
+			Metric<?> value = deserialize(tuple.getValue(), v, tuple.getScore());
 			if (value != null) {
 				result.add(value);
 			}
@@ -147,27 +197,84 @@ public class RedisMetricRepository implements MetricRepository {
 
 	@Override
 	public void increment(Delta<?> delta) {
-		String name = delta.getName();
-		String key = keyFor(name);
-		trackMembership(key);
-		double value = this.zSetOperations.incrementScore(key, delta.getValue()
-				.doubleValue());
-		String raw = serialize(new Metric<Double>(name, value, delta.getTimestamp()));
-		this.redisOperations.opsForValue().set(key, raw);
+		write(delta);
 	}
 
 	@Override
 	public void set(Metric<?> value) {
-		String name = value.getName();
-		String key = keyFor(name);
-		trackMembership(key);
-		this.zSetOperations.add(key, value.getValue().doubleValue());
-		String raw = serialize(value);
-		this.redisOperations.opsForValue().set(key, raw);
+		write(value);
+	}
+
+	private void write(Metric<?> value) {
+		if (this.bufferSize <= 1) {
+			writePipelined(Collections.<Metric<?>> singletonList(value));
+			return;
+		}
+		this.buffer.add(value);
+		if (this.bufferCount.incrementAndGet() >= this.bufferSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Flush any buffered writes without waiting for the buffer to fill any further.
+	 */
+	public void flush() {
+		List<Metric<?>> values = new ArrayList<Metric<?>>();
+		Metric<?> value = this.buffer.poll();
+		while (value != null) {
+			this.bufferCount.decrementAndGet();
+			values.add(value);
+			value = this.buffer.poll();
+		}
+		if (!values.isEmpty()) {
+			writePipelined(values);
+		}
+	}
+
+	private void writePipelined(final List<Metric<?>> values) {
+		this.redisOperations.executePipelined(new SessionCallback<Object>() {
+
+			@Override
+			public <K, V> Object execute(RedisOperations<K, V> operations)
+					throws DataAccessException {
+				RedisOperations<String, String> ops = stringOperations(operations);
+				for (Metric<?> value : values) {
+					if (value instanceof Delta) {
+						doIncrement(ops, (Delta<?>) value);
+					}
+					else {
+						doSet(ops, value);
+					}
+				}
+				return null;
+			}
+
+		});
+	}
+
+	private void doIncrement(RedisOperations<String, String> operations, Delta<?> delta) {
+		String key = keyFor(delta.getName());
+		operations.opsForZSet().incrementScore(this.key, key,
+				delta.getValue().doubleValue());
+		operations.opsForValue().set(key, serialize(delta));
+	}
+
+	private void doSet(RedisOperations<String, String> operations, Metric<?> value) {
+		String key = keyFor(value.getName());
+		operations.opsForZSet().add(this.key, key, value.getValue().doubleValue());
+		operations.opsForValue().set(key, serialize(value));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static RedisOperations<String, String> stringOperations(
+			RedisOperations<?, ?> operations) {
+		return (RedisOperations<String, String>) operations;
 	}
 
 	@Override
 	public void reset(String metricName) {
+		flush();
 		String key = keyFor(metricName);
 		if (this.zSetOperations.remove(key) == 1) {
 			this.redisOperations.delete(key);
@@ -194,8 +301,4 @@ public class RedisMetricRepository implements MetricRepository {
 		return redisKey.substring(this.prefix.length());
 	}
 
-	private void trackMembership(String redisKey) {
-		this.zSetOperations.incrementScore(redisKey, 0.0D);
-	}
-
 }
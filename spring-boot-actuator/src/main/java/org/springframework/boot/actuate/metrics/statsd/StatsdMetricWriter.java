@@ -16,18 +16,26 @@
 
 package org.springframework.boot.actuate.metrics.statsd;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.MetricBatchSender;
+import org.springframework.boot.actuate.metrics.writer.MetricBatchSender.BatchCallback;
 import org.springframework.boot.actuate.metrics.writer.MetricWriter;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
-import com.timgroup.statsd.NonBlockingStatsDClient;
-import com.timgroup.statsd.StatsDClientErrorHandler;
-
 /**
  * A {@link MetricWriter} that pushes data to statsd. Statsd has the concept of counters
  * and gauges, but only supports gauges with data type Long, so values will be truncated
@@ -35,6 +43,10 @@ import com.timgroup.statsd.StatsDClientErrorHandler;
  * will be treated as execution times (in statsd terms). Anything incremented is treated
  * as a counter, and anything with a snapshot value in {@link #set(Metric)} is treated as
  * a gauge.
+ * <p>
+ * Data are sent asynchronously from a background thread. Metrics written close together
+ * are combined into multi-metric packets (one metric per line) of up to
+ * {@link #setMaxPacketSize(int) maxPacketSize} bytes.
  *
  * @author Dave Syer
  * @since 1.3.0
@@ -43,7 +55,27 @@ public class StatsdMetricWriter implements MetricWriter, Closeable {
 
 	private static final Log logger = LogFactory.getLog(StatsdMetricWriter.class);
 
-	private final NonBlockingStatsDClient client;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int DEFAULT_MAX_DELAY = 100;
+
+	private final String prefix;
+
+	private final InetSocketAddress address;
+
+	private final DatagramSocket socket;
+
+	private final MetricBatchSender<byte[]> sender = new MetricBatchSender<byte[]>(
+			"statsd", new BatchCallback<byte[]>() {
+
+				@Override
+				public void send(List<byte[]> batch) throws IOException {
+					StatsdMetricWriter.this.send(batch);
+				}
+
+			});
+
+	private int maxPacketSize = 1432;
 
 	/**
 	 * Create a new writer instance with the given parameters.
@@ -65,13 +97,58 @@ public class StatsdMetricWriter implements MetricWriter, Closeable {
 		while (prefix != null && prefix.endsWith(".")) {
 			prefix = prefix.substring(0, prefix.length() - 1);
 		}
-		this.client = new NonBlockingStatsDClient(prefix, host, port,
-				new LoggingStatsdErrorHandler());
+		this.prefix = (prefix == null ? "" : prefix + ".");
+		this.address = new InetSocketAddress(host, port);
+		try {
+			this.socket = new DatagramSocket();
+		}
+		catch (SocketException ex) {
+			throw new IllegalStateException("Unable to open statsd socket", ex);
+		}
+		this.sender.setMaxDelay(DEFAULT_MAX_DELAY);
+	}
+
+	/**
+	 * Set the maximum size in bytes of each packet sent to the server. Should be small
+	 * enough to avoid fragmentation on the network between the application and the
+	 * server.
+	 * @param maxPacketSize the maximum packet size (default 1432)
+	 */
+	public void setMaxPacketSize(int maxPacketSize) {
+		Assert.isTrue(maxPacketSize > 0, "MaxPacketSize must be greater than 0");
+		this.maxPacketSize = maxPacketSize;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds that a metric is held back so that it can be
+	 * sent in the same packet as others.
+	 * @param maxDelay the maximum delay (default 100)
+	 */
+	public void setMaxDelay(long maxDelay) {
+		this.sender.setMaxDelay(maxDelay);
+	}
+
+	/**
+	 * Set the maximum number of metrics that can be waiting to be sent before new
+	 * metrics are dropped.
+	 * @param queueCapacity the queue capacity (default 10000)
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this.sender.setQueueCapacity(queueCapacity);
+	}
+
+	/**
+	 * Return the number of metrics that have been dropped because they could not be sent
+	 * quickly enough.
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return this.sender.getDroppedCount();
 	}
 
 	@Override
 	public void increment(Delta<?> delta) {
-		this.client.count(delta.getName(), delta.getValue().longValue());
+		write(delta.getName(), delta.getValue().longValue(), "c");
 	}
 
 	@Override
@@ -79,34 +156,63 @@ public class StatsdMetricWriter implements MetricWriter, Closeable {
 		String name = value.getName();
 		if (name.contains("timer.") && !name.contains("gauge.")
 				&& !name.contains("counter.")) {
-			this.client.recordExecutionTime(name, value.getValue().longValue());
+			write(name, value.getValue().longValue(), "ms");
 		}
 		else {
-			this.client.gauge(name, value.getValue().longValue());
+			write(name, value.getValue().longValue(), "g");
 		}
 	}
 
 	@Override
 	public void reset(String name) {
 		if (name.contains("counter.")) {
-			this.client.gauge(name, 0L);
+			write(name, 0L, "g");
 		}
 	}
 
-	@Override
-	public void close() {
-		this.client.stop();
+	/**
+	 * Send any pending metrics without waiting for more to arrive. The metrics are sent
+	 * asynchronously.
+	 */
+	public void flush() {
+		this.sender.flush();
 	}
 
-	private static final class LoggingStatsdErrorHandler implements
-			StatsDClientErrorHandler {
+	private void write(String name, long value, String type) {
+		this.sender.add((this.prefix + name + ":" + value + "|" + type).getBytes(UTF_8));
+	}
 
-		@Override
-		public void handle(Exception e) {
-			logger.debug("Failed to write metric. Exception: " + e.getClass()
-					+ ", message: " + e.getMessage());
+	private void send(List<byte[]> batch) throws IOException {
+		ByteArrayOutputStream packet = new ByteArrayOutputStream(this.maxPacketSize);
+		for (byte[] line : batch) {
+			if (packet.size() > 0
+					&& packet.size() + 1 + line.length > this.maxPacketSize) {
+				send(packet);
+			}
+			if (packet.size() > 0) {
+				packet.write('\n');
+			}
+			packet.write(line);
 		}
+		send(packet);
+	}
 
+	private void send(ByteArrayOutputStream packet) throws IOException {
+		try {
+			byte[] bytes = packet.toByteArray();
+			this.socket.send(new DatagramPacket(bytes, bytes.length, this.address));
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to write metric. Exception: " + ex.getClass()
+					+ ", message: " + ex.getMessage());
+		}
+		packet.reset();
+	}
+
+	@Override
+	public void close() {
+		this.sender.close();
+		this.socket.close();
 	}
 
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+/**
+ * Guard that limits the number of distinct names (e.g. metric names or the parts of
+ * them that come from user input) that are accepted, so that the memory used by
+ * in-memory metric stores stays bounded however many distinct values are presented.
+ * Names are grouped by prefix and each group has its own limit (names that match no
+ * configured prefix share the default limit). If a separator is specified a prefix only
+ * matches whole segments, e.g. with the separator {@code /} the prefix {@code /api}
+ * matches {@code /api} and {@code /api/users} but not {@code /apix}. Once a group is
+ * full, new names in that group are rejected, so callers can record them against an
+ * overflow name instead. Names that have been accepted once are always accepted.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class CardinalityLimiter {
+
+	private final Group defaultGroup;
+
+	private final String separator;
+
+	private volatile List<Group> groups = Collections.emptyList();
+
+	private final ConcurrentMap<String, Boolean> accepted = new ConcurrentHashMap<String, Boolean>();
+
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * Create a new {@link CardinalityLimiter} instance.
+	 * @param defaultLimit the maximum number of names accepted that match no prefix
+	 */
+	public CardinalityLimiter(int defaultLimit) {
+		this(defaultLimit, null);
+	}
+
+	/**
+	 * Create a new {@link CardinalityLimiter} instance for names made of segments.
+	 * @param defaultLimit the maximum number of names accepted that match no prefix
+	 * @param separator the separator between the segments of a name (or {@code null} if
+	 * a prefix can match part of a segment)
+	 */
+	public CardinalityLimiter(int defaultLimit, String separator) {
+		Assert.isTrue(defaultLimit >= 0, "DefaultLimit must not be negative");
+		Assert.isTrue(separator == null || separator.length() > 0,
+				"Separator must not be empty");
+		this.defaultGroup = new Group("", defaultLimit);
+		this.separator = separator;
+	}
+
+	/**
+	 * Set the limits for names that start with specific prefixes. When a name matches
+	 * more than one prefix the longest wins. Should be called before any names are
+	 * accepted.
+	 * @param limits the limits keyed by prefix
+	 */
+	public void setLimits(Map<String, Integer> limits) {
+		Assert.notNull(limits, "Limits must not be null");
+		List<Group> groups = new ArrayList<Group>();
+		for (Map.Entry<String, Integer> entry : limits.entrySet()) {
+			Assert.hasLength(entry.getKey(), "Prefix must not be empty");
+			Assert.isTrue(entry.getValue() != null && entry.getValue() >= 0,
+					"Limit for '" + entry.getKey() + "' must not be negative");
+			groups.add(new Group(entry.getKey(), entry.getValue()));
+		}
+		Collections.sort(groups, new Comparator<Group>() {
+
+			@Override
+			public int compare(Group o1, Group o2) {
+				return o2.prefix.length() - o1.prefix.length();
+			}
+
+		});
+		this.groups = groups;
+	}
+
+	/**
+	 * Return whether the given name is accepted, registering it if its group is not yet
+	 * full.
+	 * @param name the name
+	 * @return {@code true} if the name is accepted
+	 */
+	public boolean accept(String name) {
+		if (this.accepted.containsKey(name)) {
+			return true;
+		}
+		if (getGroup(name).reserve()) {
+			if (this.accepted.putIfAbsent(name, Boolean.TRUE) != null) {
+				// Another thread registered the same name first
+				getGroup(name).release();
+			}
+			return true;
+		}
+		this.rejected.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Return the number of names that have been accepted.
+	 * @return the number of accepted names
+	 */
+	public int getAcceptedCount() {
+		return this.accepted.size();
+	}
+
+	/**
+	 * Return the number of times a name was rejected because its group was full.
+	 * @return the number of rejections
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	private Group getGroup(String name) {
+		for (Group group : this.groups) {
+			if (matches(name, group.prefix)) {
+				return group;
+			}
+		}
+		return this.defaultGroup;
+	}
+
+	private boolean matches(String name, String prefix) {
+		if (!name.startsWith(prefix)) {
+			return false;
+		}
+		if (this.separator == null || name.length() == prefix.length()
+				|| prefix.endsWith(this.separator)) {
+			return true;
+		}
+		return name.startsWith(this.separator, prefix.length());
+	}
+
+	/**
+	 * The names that share a prefix.
+	 */
+	private static class Group {
+
+		private final String prefix;
+
+		private final int limit;
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		Group(String prefix, int limit) {
+			this.prefix = prefix;
+			this.limit = limit;
+		}
+
+		public boolean reserve() {
+			while (true) {
+				int count = this.count.get();
+				if (count >= this.limit) {
+					return false;
+				}
+				if (this.count.compareAndSet(count, count + 1)) {
+					return true;
+				}
+			}
+		}
+
+		public void release() {
+			this.count.decrementAndGet();
+		}
+
+	}
+
+}
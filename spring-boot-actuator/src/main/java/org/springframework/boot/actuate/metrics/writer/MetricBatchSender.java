@@ -0,0 +1,260 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Asynchronous sender used by {@link MetricWriter} implementations that push data to a
+ * remote system. Items are added to a bounded queue and sent in batches from a single
+ * dedicated thread, so a slow or unavailable server never blocks the caller. A batch is
+ * sent when it reaches the {@link #setBatchSize(int) batch size}, when the
+ * {@link #setMaxDelay(long) maximum delay} has elapsed since its first item was taken
+ * from the queue, or when {@link #flush()} is called. Items that arrive while the queue
+ * is full are dropped and {@link #getDroppedCount() counted}.
+ *
+ * @param <T> the item type
+ * @author agent
+ * @since 1.3.0
+ */
+public class MetricBatchSender<T> implements Closeable {
+
+	private static final Log logger = LogFactory.getLog(MetricBatchSender.class);
+
+	private static final Object FLUSH = new Object();
+
+	private final String name;
+
+	private final BatchCallback<T> callback;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private int queueCapacity = 10000;
+
+	private int batchSize = 64;
+
+	private long maxDelay = 1000;
+
+	private volatile BlockingQueue<Object> queue;
+
+	private volatile Thread thread;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Create a new {@link MetricBatchSender} instance.
+	 * @param name the name of the sender (used to name the sending thread)
+	 * @param callback the callback used to send each batch
+	 */
+	public MetricBatchSender(String name, BatchCallback<T> callback) {
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(callback, "Callback must not be null");
+		this.name = name;
+		this.callback = callback;
+	}
+
+	/**
+	 * Set the maximum number of items that can be waiting to be sent. Must be called
+	 * before the first item is added.
+	 * @param queueCapacity the queue capacity (default 10000)
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "QueueCapacity must be greater than 0");
+		Assert.state(this.queue == null, "QueueCapacity cannot be changed once started");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of items to send in a single batch.
+	 * @param batchSize the batch size (default 64)
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	/**
+	 * Set the maximum time in milliseconds that an item is held back waiting for a batch
+	 * to fill. A value of 0 sends whatever is queued as soon as it arrives.
+	 * @param maxDelay the maximum delay (default 1000)
+	 */
+	public void setMaxDelay(long maxDelay) {
+		this.maxDelay = Math.max(0, maxDelay);
+	}
+
+	/**
+	 * Add an item to be sent. Never blocks.
+	 * @param item the item to add
+	 * @return {@code true} if the item was queued or {@code false} if it was dropped
+	 * because the queue is full or the sender has been closed
+	 */
+	public boolean add(T item) {
+		Assert.notNull(item, "Item must not be null");
+		if (this.running && getQueue().offer(item)) {
+			return true;
+		}
+		if (this.dropped.getAndIncrement() == 0) {
+			logger.warn("Dropping metrics for " + this.name
+					+ " (the sender cannot keep up or has been closed)");
+		}
+		return false;
+	}
+
+	/**
+	 * Request that any queued items are sent without waiting for the current batch to
+	 * fill. Returns immediately.
+	 */
+	public void flush() {
+		BlockingQueue<Object> queue = this.queue;
+		if (queue != null) {
+			queue.offer(FLUSH);
+		}
+	}
+
+	/**
+	 * Return the number of items that have been dropped.
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Stop the sender, sending any items that are already queued.
+	 */
+	@Override
+	public void close() {
+		this.running = false;
+		Thread thread = this.thread;
+		if (thread != null) {
+			flush();
+			try {
+				thread.join(this.maxDelay + 1000);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			if (thread.isAlive()) {
+				thread.interrupt();
+			}
+		}
+	}
+
+	private BlockingQueue<Object> getQueue() {
+		BlockingQueue<Object> queue = this.queue;
+		if (queue == null) {
+			synchronized (this) {
+				queue = this.queue;
+				if (queue == null) {
+					queue = new LinkedBlockingQueue<Object>(this.queueCapacity);
+					this.queue = queue;
+					this.thread = new Thread(new Sender(queue), this.name
+							+ "-metric-sender");
+					this.thread.setDaemon(true);
+					this.thread.start();
+				}
+			}
+		}
+		return queue;
+	}
+
+	/**
+	 * Callback used to send a batch of items.
+	 * @param <T> the item type
+	 */
+	public interface BatchCallback<T> {
+
+		/**
+		 * Send the given batch.
+		 * @param batch the items to send (never empty)
+		 * @throws Exception on error (the batch is discarded)
+		 */
+		void send(List<T> batch) throws Exception;
+
+	}
+
+	/**
+	 * The task run by the sending thread.
+	 */
+	private class Sender implements Runnable {
+
+		private final BlockingQueue<Object> queue;
+
+		Sender(BlockingQueue<Object> queue) {
+			this.queue = queue;
+		}
+
+		@Override
+		public void run() {
+			List<T> batch = new ArrayList<T>();
+			try {
+				while (MetricBatchSender.this.running || !this.queue.isEmpty()) {
+					collect(batch);
+					if (!batch.isEmpty()) {
+						send(batch);
+						batch.clear();
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void collect(List<T> batch) throws InterruptedException {
+			long maxDelay = MetricBatchSender.this.maxDelay;
+			// Without a delay a timed poll would return at once and spin while idle
+			Object item = (maxDelay > 0 ? this.queue.poll(maxDelay,
+					TimeUnit.MILLISECONDS) : this.queue.take());
+			long deadline = System.currentTimeMillis() + maxDelay;
+			while (item != null && item != FLUSH) {
+				batch.add((T) item);
+				if (batch.size() >= MetricBatchSender.this.batchSize) {
+					return;
+				}
+				item = this.queue.poll();
+				if (item == null && MetricBatchSender.this.running) {
+					long remaining = deadline - System.currentTimeMillis();
+					item = this.queue.poll(Math.max(0, remaining),
+							TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+
+		private void send(List<T> batch) {
+			try {
+				MetricBatchSender.this.callback.send(batch);
+			}
+			catch (Exception ex) {
+				logger.warn("Cannot write metrics for " + MetricBatchSender.this.name
+						+ " (discarded " + batch.size() + " values): " + ex.getMessage());
+			}
+		}
+
+	}
+
+}
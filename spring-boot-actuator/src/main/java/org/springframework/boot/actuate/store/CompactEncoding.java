@@ -0,0 +1,231 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Compact binary encoding for the simple values held in audit events and traces.
+ * Strings, numbers, booleans, dates, maps, collections and arrays are supported. Any
+ * other value is encoded using its {@code toString()} form.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public abstract class CompactEncoding {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int NULL = 0;
+
+	private static final int STRING = 1;
+
+	private static final int LONG = 2;
+
+	private static final int INTEGER = 3;
+
+	private static final int DOUBLE = 4;
+
+	private static final int BOOLEAN = 5;
+
+	private static final int DATE = 6;
+
+	private static final int MAP = 7;
+
+	private static final int LIST = 8;
+
+	/**
+	 * Write a value.
+	 * @param out the output to write to
+	 * @param value the value to write (may be {@code null})
+	 * @throws IOException on write error
+	 */
+	public static void writeValue(DataOutput out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Integer || value instanceof Short
+				|| value instanceof Byte) {
+			out.writeByte(INTEGER);
+			writeVarInt(out, ((Number) value).intValue());
+		}
+		else if (value instanceof Double || value instanceof Float) {
+			out.writeByte(DOUBLE);
+			out.writeDouble(((Number) value).doubleValue());
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Date) {
+			out.writeByte(DATE);
+			out.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof Map) {
+			out.writeByte(MAP);
+			writeMap(out, (Map<?, ?>) value);
+		}
+		else if (value instanceof Collection || value.getClass().isArray()) {
+			Collection<?> collection = (value instanceof Collection
+					? (Collection<?>) value : CollectionUtils.arrayToList(value));
+			out.writeByte(LIST);
+			writeVarInt(out, collection.size());
+			for (Object element : collection) {
+				writeValue(out, element);
+			}
+		}
+		else {
+			out.writeByte(STRING);
+			writeString(out, value.toString());
+		}
+	}
+
+	/**
+	 * Read a value previously written using {@link #writeValue(DataOutput, Object)}.
+	 * @param in the input to read from
+	 * @return the value
+	 * @throws IOException on read error
+	 */
+	public static Object readValue(DataInput in) throws IOException {
+		int type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case STRING:
+			return readString(in);
+		case LONG:
+			return in.readLong();
+		case INTEGER:
+			return readVarInt(in);
+		case DOUBLE:
+			return in.readDouble();
+		case BOOLEAN:
+			return in.readBoolean();
+		case DATE:
+			return new Date(in.readLong());
+		case MAP:
+			return readMap(in);
+		case LIST:
+			int size = readVarInt(in);
+			List<Object> list = new ArrayList<Object>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(readValue(in));
+			}
+			return list;
+		}
+		throw new IOException("Unknown value type " + type);
+	}
+
+	/**
+	 * Write a map with {@link String} keys.
+	 * @param out the output to write to
+	 * @param map the map to write
+	 * @throws IOException on write error
+	 */
+	public static void writeMap(DataOutput out, Map<?, ?> map) throws IOException {
+		writeVarInt(out, map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			writeString(out, String.valueOf(entry.getKey()));
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	/**
+	 * Read a map previously written using {@link #writeMap(DataOutput, Map)}.
+	 * @param in the input to read from
+	 * @return the map
+	 * @throws IOException on read error
+	 */
+	public static Map<String, Object> readMap(DataInput in) throws IOException {
+		int size = readVarInt(in);
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		for (int i = 0; i < size; i++) {
+			String key = readString(in);
+			map.put(key, readValue(in));
+		}
+		return map;
+	}
+
+	/**
+	 * Write a (possibly {@code null}) string.
+	 * @param out the output to write to
+	 * @param value the value to write
+	 * @throws IOException on write error
+	 */
+	public static void writeString(DataOutput out, String value) throws IOException {
+		if (value == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(UTF_8);
+		writeVarInt(out, bytes.length + 1);
+		out.write(bytes);
+	}
+
+	/**
+	 * Read a string previously written using {@link #writeString(DataOutput, String)}.
+	 * @param in the input to read from
+	 * @return the string or {@code null}
+	 * @throws IOException on read error
+	 */
+	public static String readString(DataInput in) throws IOException {
+		int length = readVarInt(in);
+		if (length == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length - 1];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			out.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.writeByte(remaining);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+}
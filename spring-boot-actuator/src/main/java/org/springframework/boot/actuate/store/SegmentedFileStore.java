@@ -0,0 +1,506 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.store;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Append-only store of timestamped binary records held in a rolling set of
+ * memory-mapped segment files. When the current segment is full a new one is started
+ * and, once more than {@code maxSegments} exist, the oldest is deleted. Only the offsets
+ * of the records are held on the heap, so heap usage is bounded by the number of
+ * records that fit in the retained segments.
+ * <p>
+ * Records are expected to be appended in (approximately) timestamp order. Each segment
+ * tracks its timestamp range so that time-based reads can skip whole segments and,
+ * when the records of a segment are in order, binary search within it.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class SegmentedFileStore implements Closeable {
+
+	private static final int MAGIC = 0x53424653;
+
+	private static final int HEADER_SIZE = 8;
+
+	private static final int RECORD_HEADER_SIZE = 12;
+
+	private static final String SUFFIX = ".seg";
+
+	private final File directory;
+
+	private final String prefix;
+
+	private final int segmentSize;
+
+	private final int maxSegments;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final LinkedList<Segment> segments = new LinkedList<Segment>();
+
+	private boolean syncOnWrite;
+
+	private long nextSegmentNumber;
+
+	/**
+	 * Create a new {@link SegmentedFileStore} instance, recovering any records already
+	 * held in the directory.
+	 * @param directory the directory to hold the segment files
+	 * @param prefix the prefix used for segment file names
+	 * @param segmentSize the size of each segment file in bytes
+	 * @param maxSegments the maximum number of segment files to retain
+	 * @throws IOException if the existing segments cannot be read
+	 */
+	public SegmentedFileStore(File directory, String prefix, int segmentSize,
+			int maxSegments) throws IOException {
+		Assert.notNull(directory, "Directory must not be null");
+		Assert.hasLength(prefix, "Prefix must not be empty");
+		Assert.isTrue(segmentSize > HEADER_SIZE + RECORD_HEADER_SIZE,
+				"SegmentSize is too small");
+		Assert.isTrue(maxSegments > 0, "MaxSegments must be greater than 0");
+		this.directory = directory;
+		this.prefix = prefix;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IOException("Unable to create directory " + directory);
+		}
+		recover();
+	}
+
+	/**
+	 * Set if the current segment should be forced to disk after each write. Segments are
+	 * always forced when they are completed and when the store is closed.
+	 * @param syncOnWrite if segments should be synced on each write
+	 */
+	public void setSyncOnWrite(boolean syncOnWrite) {
+		this.syncOnWrite = syncOnWrite;
+	}
+
+	private void recover() throws IOException {
+		File[] files = this.directory.listFiles(new FilenameFilter() {
+
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith(SegmentedFileStore.this.prefix + "-")
+						&& name.endsWith(SUFFIX);
+			}
+
+		});
+		if (files == null) {
+			throw new IOException("Unable to list segment files in " + this.directory);
+		}
+		Arrays.sort(files);
+		for (File file : files) {
+			long number = getSegmentNumber(file);
+			if (number >= 0) {
+				this.segments.add(Segment.open(file, this.segmentSize));
+				this.nextSegmentNumber = number + 1;
+			}
+		}
+		trimSegments();
+	}
+
+	private long getSegmentNumber(File file) {
+		String name = file.getName();
+		String number = name.substring(this.prefix.length() + 1, name.length()
+				- SUFFIX.length());
+		try {
+			return Long.parseLong(number);
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Return the largest record that can be appended to the store.
+	 * @return the maximum record size in bytes
+	 */
+	public int getMaxRecordSize() {
+		return this.segmentSize - HEADER_SIZE - RECORD_HEADER_SIZE;
+	}
+
+	/**
+	 * Append a record to the store.
+	 * @param timestamp the timestamp of the record
+	 * @param data the record data
+	 * @throws IOException if the record cannot be written
+	 */
+	public void append(long timestamp, byte[] data) throws IOException {
+		Assert.isTrue(data.length > 0, "Data must not be empty");
+		Assert.isTrue(data.length <= getMaxRecordSize(),
+				"Data is too large for a single segment");
+		this.lock.writeLock().lock();
+		try {
+			Segment segment = (this.segments.isEmpty() ? null : this.segments.getLast());
+			if (segment == null || !segment.append(timestamp, data)) {
+				if (segment != null) {
+					segment.force();
+				}
+				segment = Segment.create(getSegmentFile(this.nextSegmentNumber++),
+						this.segmentSize);
+				this.segments.add(segment);
+				trimSegments();
+				segment.append(timestamp, data);
+			}
+			if (this.syncOnWrite) {
+				segment.force();
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private File getSegmentFile(long number) {
+		return new File(this.directory, String.format("%s-%019d%s", this.prefix, number,
+				SUFFIX));
+	}
+
+	private void trimSegments() throws IOException {
+		while (this.segments.size() > this.maxSegments) {
+			this.segments.removeFirst().delete();
+		}
+	}
+
+	/**
+	 * Read records, oldest first, starting with the first record with a timestamp
+	 * equal to or after the given value. Records appended out of timestamp order may
+	 * also be passed to the callback so callers should filter if necessary.
+	 * @param after the earliest timestamp required
+	 * @param callback the callback used to process records
+	 * @throws IOException if records cannot be read
+	 */
+	public void read(long after, RecordCallback callback) throws IOException {
+		this.lock.readLock().lock();
+		try {
+			for (Segment segment : this.segments) {
+				if (segment.getMaxTimestamp() >= after
+						&& !segment.read(after, callback)) {
+					return;
+				}
+			}
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Read all records, newest first.
+	 * @param callback the callback used to process records
+	 * @throws IOException if records cannot be read
+	 */
+	public void readReverse(RecordCallback callback) throws IOException {
+		this.lock.readLock().lock();
+		try {
+			List<Segment> segments = new ArrayList<Segment>(this.segments);
+			for (int i = segments.size() - 1; i >= 0; i--) {
+				if (!segments.get(i).readReverse(callback)) {
+					return;
+				}
+			}
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.lock.writeLock().lock();
+		try {
+			for (Segment segment : this.segments) {
+				segment.close();
+			}
+			this.segments.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Callback used to process records.
+	 */
+	public interface RecordCallback {
+
+		/**
+		 * Process a single record.
+		 * @param timestamp the timestamp of the record
+		 * @param data the record data
+		 * @return {@code true} if further records should be read
+		 * @throws IOException on read error
+		 */
+		boolean record(long timestamp, DataInput data) throws IOException;
+
+	}
+
+	/**
+	 * A single segment file. Each segment starts with a header, followed by records
+	 * consisting of an {@code int} length, a {@code long} timestamp and the data. The
+	 * length is written last so a zero length marks the end of the segment.
+	 */
+	private static final class Segment {
+
+		private final File file;
+
+		private final RandomAccessFile randomAccessFile;
+
+		private final MappedByteBuffer buffer;
+
+		private int position;
+
+		private int[] offsets = new int[64];
+
+		private int count;
+
+		private long minTimestamp = Long.MAX_VALUE;
+
+		private long maxTimestamp = Long.MIN_VALUE;
+
+		private boolean ordered = true;
+
+		private Segment(File file, int size) throws IOException {
+			this.file = file;
+			this.randomAccessFile = new RandomAccessFile(file, "rw");
+			if (this.randomAccessFile.length() < size) {
+				this.randomAccessFile.setLength(size);
+			}
+			this.buffer = this.randomAccessFile.getChannel().map(MapMode.READ_WRITE, 0,
+					size);
+		}
+
+		public static Segment create(File file, int size) throws IOException {
+			Segment segment = new Segment(file, size);
+			segment.buffer.putInt(0, MAGIC);
+			segment.buffer.putInt(4, 0);
+			segment.position = HEADER_SIZE;
+			return segment;
+		}
+
+		public static Segment open(File file, int size) throws IOException {
+			Segment segment = new Segment(file, (int) Math.max(size, file.length()));
+			if (segment.buffer.getInt(0) != MAGIC) {
+				segment.close();
+				throw new IOException("Invalid segment file " + file);
+			}
+			segment.recover();
+			return segment;
+		}
+
+		private void recover() {
+			int position = HEADER_SIZE;
+			while (position + RECORD_HEADER_SIZE <= this.buffer.capacity()) {
+				int length = this.buffer.getInt(position);
+				int end = position + RECORD_HEADER_SIZE + length;
+				if (length <= 0 || end > this.buffer.capacity()) {
+					break;
+				}
+				index(position, this.buffer.getLong(position + 4));
+				position = end;
+			}
+			this.position = position;
+		}
+
+		public boolean append(long timestamp, byte[] data) {
+			int end = this.position + RECORD_HEADER_SIZE + data.length;
+			if (end > this.buffer.capacity()) {
+				return false;
+			}
+			ByteBuffer buffer = this.buffer.duplicate();
+			buffer.position(this.position + 4);
+			buffer.putLong(timestamp);
+			buffer.put(data);
+			this.buffer.putInt(this.position, data.length);
+			index(this.position, timestamp);
+			this.position = end;
+			return true;
+		}
+
+		private void index(int offset, long timestamp) {
+			if (this.count == this.offsets.length) {
+				this.offsets = Arrays.copyOf(this.offsets, this.count * 2);
+			}
+			this.offsets[this.count++] = offset;
+			this.ordered = this.ordered && timestamp >= this.maxTimestamp;
+			this.minTimestamp = Math.min(this.minTimestamp, timestamp);
+			this.maxTimestamp = Math.max(this.maxTimestamp, timestamp);
+		}
+
+		public long getMaxTimestamp() {
+			return this.maxTimestamp;
+		}
+
+		public boolean read(long after, RecordCallback callback) throws IOException {
+			boolean search = this.ordered && after > this.minTimestamp;
+			int start = (search ? findFirst(after) : 0);
+			for (int i = start; i < this.count; i++) {
+				if (!readRecord(i, callback)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int findFirst(long after) {
+			int low = 0;
+			int high = this.count;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (getTimestamp(mid) < after) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		public boolean readReverse(RecordCallback callback) throws IOException {
+			for (int i = this.count - 1; i >= 0; i--) {
+				if (!readRecord(i, callback)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private long getTimestamp(int index) {
+			return this.buffer.getLong(this.offsets[index] + 4);
+		}
+
+		private boolean readRecord(int index, RecordCallback callback)
+				throws IOException {
+			int offset = this.offsets[index];
+			ByteBuffer data = this.buffer.duplicate();
+			data.position(offset + RECORD_HEADER_SIZE);
+			data.limit(offset + RECORD_HEADER_SIZE + this.buffer.getInt(offset));
+			return callback.record(getTimestamp(index), new DataInputStream(
+					new ByteBufferInputStream(data.slice())));
+		}
+
+		public void force() {
+			this.buffer.force();
+		}
+
+		public void close() throws IOException {
+			force();
+			unmap(this.buffer);
+			this.randomAccessFile.close();
+		}
+
+		public void delete() throws IOException {
+			unmap(this.buffer);
+			this.randomAccessFile.close();
+			if (!this.file.delete()) {
+				this.file.deleteOnExit();
+			}
+		}
+
+		/**
+		 * Release the mapping of the given buffer rather than waiting for it to be
+		 * garbage collected. Until then the file cannot be deleted on some platforms
+		 * (notably Windows) and holds a file handle. The buffer must not be used again.
+		 * Unmapping is best-effort since it relies on JDK internals.
+		 * @param buffer the buffer to unmap
+		 */
+		private static void unmap(MappedByteBuffer buffer) {
+			try {
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Method invokeCleaner = ReflectionUtils.findMethod(unsafeClass,
+						"invokeCleaner", ByteBuffer.class);
+				if (invokeCleaner != null) {
+					// Java 9 and later
+					Field field = unsafeClass.getDeclaredField("theUnsafe");
+					field.setAccessible(true);
+					invokeCleaner.invoke(field.get(null), buffer);
+					return;
+				}
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+			catch (Throwable ex) {
+				// Leave the mapping to be released when the buffer is collected
+			}
+		}
+
+	}
+
+	/**
+	 * {@link InputStream} backed by a {@link ByteBuffer}.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int read = Math.min(length, this.buffer.remaining());
+			this.buffer.get(bytes, offset, read);
+			return read;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return this.buffer.remaining();
+		}
+
+	}
+
+}
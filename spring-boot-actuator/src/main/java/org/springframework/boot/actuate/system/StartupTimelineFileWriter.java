@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.system;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.StartupTimeline;
+import org.springframework.boot.actuate.endpoint.StartupEndpoint;
+import org.springframework.boot.bind.RelaxedPropertyResolver;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * An {@link ApplicationListener} that saves the {@link StartupTimeline} of the
+ * application as JSON once it has started. The file name can be overridden using a
+ * {@code spring.startup-timeline.file} property in the Spring {@link Environment}.
+ * Nothing is written unless the timeline has been recorded (see
+ * {@code spring.main.record-startup-timeline}).
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class StartupTimelineFileWriter implements
+		ApplicationListener<ApplicationReadyEvent> {
+
+	private static final Log logger = LogFactory.getLog(StartupTimelineFileWriter.class);
+
+	private static final String DEFAULT_FILE_NAME = "startup-timeline.json";
+
+	private final File file;
+
+	/**
+	 * Create a new {@link StartupTimelineFileWriter} instance using the filename
+	 * 'startup-timeline.json'.
+	 */
+	public StartupTimelineFileWriter() {
+		this(new File(DEFAULT_FILE_NAME));
+	}
+
+	/**
+	 * Create a new {@link StartupTimelineFileWriter} instance with a specified filename.
+	 * @param filename the name of the file
+	 */
+	public StartupTimelineFileWriter(String filename) {
+		this(new File(filename));
+	}
+
+	/**
+	 * Create a new {@link StartupTimelineFileWriter} instance with a specified file.
+	 * @param file the file
+	 */
+	public StartupTimelineFileWriter(File file) {
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		ConfigurableApplicationContext context = event.getApplicationContext();
+		StartupTimeline timeline = StartupTimeline.get(context.getBeanFactory());
+		if (timeline == null) {
+			return;
+		}
+		File file = getFile(context.getEnvironment());
+		try {
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file,
+					new StartupEndpoint(timeline).invoke());
+		}
+		catch (IOException ex) {
+			logger.warn("Cannot write startup timeline file " + file, ex);
+		}
+	}
+
+	private File getFile(Environment environment) {
+		String override = new RelaxedPropertyResolver(environment,
+				"spring.startup-timeline.").getProperty("file");
+		return (override == null ? this.file : new File(override));
+	}
+
+}
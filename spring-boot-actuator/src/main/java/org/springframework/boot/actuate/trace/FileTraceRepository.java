@@ -0,0 +1,203 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.trace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.actuate.store.CompactEncoding;
+import org.springframework.boot.actuate.store.SegmentedFileStore;
+import org.springframework.boot.actuate.store.SegmentedFileStore.RecordCallback;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TraceRepository} implementation that stores traces in rolling memory-mapped
+ * segment files so that they survive a restart. Since the repository may hold many more
+ * traces than can sensibly be returned at once, {@link #findAll()} is limited to the
+ * most recent {@link #setCapacity(int) capacity} traces and {@link #find(Date, int)}
+ * can be used to query a specific time range. Traces that cannot be written (for
+ * example because the disk is full) are logged and dropped rather than failing the
+ * request being traced.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see SegmentedFileStore
+ */
+public class FileTraceRepository implements TraceRepository, Closeable {
+
+	private static final Log logger = LogFactory.getLog(FileTraceRepository.class);
+
+	private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+	private static final int DEFAULT_MAX_SEGMENTS = 16;
+
+	private final SegmentedFileStore store;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private int capacity = 100;
+
+	private boolean reverse = true;
+
+	/**
+	 * Create a new {@link FileTraceRepository} instance using default segment settings.
+	 * @param directory the directory used to store the traces
+	 */
+	public FileTraceRepository(File directory) {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+	}
+
+	/**
+	 * Create a new {@link FileTraceRepository} instance.
+	 * @param directory the directory used to store the traces
+	 * @param segmentSize the size of each segment file in bytes
+	 * @param maxSegments the maximum number of segment files to retain
+	 */
+	public FileTraceRepository(File directory, int segmentSize, int maxSegments) {
+		try {
+			this.store = new SegmentedFileStore(directory, "trace", segmentSize,
+					maxSegments);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to open trace store in "
+					+ directory, ex);
+		}
+	}
+
+	/**
+	 * Flag to say that the repository lists traces in reverse order.
+	 * @param reverse flag value (default true)
+	 */
+	public void setReverse(boolean reverse) {
+		this.reverse = reverse;
+	}
+
+	/**
+	 * Set the maximum number of traces returned from {@link #findAll()}.
+	 * @param capacity the capacity to set
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	public List<Trace> findAll() {
+		final List<Trace> traces = new ArrayList<Trace>();
+		try {
+			this.store.readReverse(new RecordCallback() {
+
+				@Override
+				public boolean record(long timestamp, DataInput data) throws IOException {
+					traces.add(new Trace(new Date(timestamp), CompactEncoding
+							.readMap(data)));
+					return traces.size() < FileTraceRepository.this.capacity;
+				}
+
+			});
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to read traces", ex);
+		}
+		if (!this.reverse) {
+			Collections.reverse(traces);
+		}
+		return Collections.unmodifiableList(traces);
+	}
+
+	/**
+	 * Find traces, oldest first, that were added at or after the given time.
+	 * @param after timestamp of earliest result required
+	 * @param limit the maximum number of traces to return
+	 * @return the traces
+	 */
+	public List<Trace> find(final Date after, final int limit) {
+		Assert.notNull(after, "After must not be null");
+		Assert.isTrue(limit > 0, "Limit must be greater than 0");
+		final List<Trace> traces = new ArrayList<Trace>();
+		try {
+			this.store.read(after.getTime(), new RecordCallback() {
+
+				@Override
+				public boolean record(long timestamp, DataInput data) throws IOException {
+					if (timestamp >= after.getTime()) {
+						traces.add(new Trace(new Date(timestamp), CompactEncoding
+								.readMap(data)));
+					}
+					return traces.size() < limit;
+				}
+
+			});
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to read traces", ex);
+		}
+		return Collections.unmodifiableList(traces);
+	}
+
+	@Override
+	public void add(Map<String, Object> traceInfo) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			CompactEncoding.writeMap(out, traceInfo);
+			out.flush();
+			if (bytes.size() > this.store.getMaxRecordSize()) {
+				dropped("trace of " + bytes.size() + " bytes is too large", null);
+				return;
+			}
+			this.store.append(System.currentTimeMillis(), bytes.toByteArray());
+		}
+		catch (Exception ex) {
+			dropped(ex.getMessage(), ex);
+		}
+	}
+
+	private void dropped(String reason, Exception ex) {
+		if (this.dropped.getAndIncrement() == 0) {
+			logger.warn("Dropping trace (" + reason + ")", ex);
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("Dropping trace (" + reason + ")", ex);
+		}
+	}
+
+	/**
+	 * Return the number of traces that could not be written.
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.store.close();
+	}
+
+}
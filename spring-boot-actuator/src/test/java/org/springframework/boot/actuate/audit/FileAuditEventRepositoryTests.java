@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.boot.actuate.audit;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link FileAuditEventRepository}.
+ *
+ * @author agent
+ */
+public class FileAuditEventRepositoryTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File directory;
+
+	private FileAuditEventRepository repository;
+
+	@Before
+	public void setup() throws Exception {
+		this.directory = this.temporaryFolder.newFolder();
+		this.repository = new FileAuditEventRepository(this.directory);
+	}
+
+	@After
+	public void close() throws Exception {
+		this.repository.close();
+	}
+
+	@Test
+	public void findByPrincipal() throws Exception {
+		this.repository.add(new AuditEvent("dave", "a"));
+		this.repository.add(new AuditEvent("phil", "b"));
+		this.repository.add(new AuditEvent("dave", "c"));
+		List<AuditEvent> events = this.repository.find("dave", null);
+		assertThat(events.size(), equalTo(2));
+		assertThat(events.get(0).getType(), equalTo("a"));
+		assertThat(events.get(1).getType(), equalTo("c"));
+	}
+
+	@Test
+	public void findByDate() throws Exception {
+		Map<String, Object> data = new LinkedHashMap<String, Object>();
+		this.repository.add(new AuditEvent(new Date(1000), "dave", "a", data));
+		this.repository.add(new AuditEvent(new Date(2000), "phil", "b", data));
+		this.repository.add(new AuditEvent(new Date(3000), "dave", "c", data));
+		List<AuditEvent> events = this.repository.find(null, new Date(2000));
+		assertThat(events.size(), equalTo(2));
+		assertThat(events.get(0).getType(), equalTo("b"));
+		assertThat(events.get(1).getType(), equalTo("c"));
+	}
+
+	@Test
+	public void oversizedEventIsDropped() throws Exception {
+		this.repository.close();
+		this.repository = new FileAuditEventRepository(this.directory, 128, 2);
+		Map<String, Object> data = new LinkedHashMap<String, Object>();
+		data.put("details", new String(new char[1000]).replace('\0', 'x'));
+		this.repository.add(new AuditEvent(new Date(1000), "dave", "a", data));
+		this.repository.add(new AuditEvent("dave", "b"));
+		List<AuditEvent> events = this.repository.find("dave", null);
+		assertThat(events.size(), equalTo(1));
+		assertThat(events.get(0).getType(), equalTo("b"));
+		assertThat(this.repository.getDroppedCount(), equalTo(1L));
+	}
+
+	@Test
+	public void eventDataSurvivesRestart() throws Exception {
+		Map<String, Object> data = new LinkedHashMap<String, Object>();
+		data.put("count", 3);
+		data.put("remote", "127.0.0.1");
+		data.put("roles", Arrays.asList("USER", "ADMIN"));
+		data.put("details", new StringBuilder("details"));
+		this.repository.add(new AuditEvent(new Date(1000), "dave", "a", data));
+		this.repository.close();
+		this.repository = new FileAuditEventRepository(this.directory);
+		List<AuditEvent> events = this.repository.find("dave", null);
+		assertThat(events.size(), equalTo(1));
+		AuditEvent event = events.get(0);
+		assertThat(event.getTimestamp(), equalTo(new Date(1000)));
+		assertThat(event.getData().get("count"), equalTo((Object) 3));
+		assertThat(event.getData().get("remote"), equalTo((Object) "127.0.0.1"));
+		assertThat(event.getData().get("roles"),
+				equalTo((Object) Arrays.asList("USER", "ADMIN")));
+		assertThat(event.getData().get("details"), equalTo((Object) "details"));
+	}
+
+}
@@ -21,8 +21,13 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -97,4 +102,113 @@ public class InMemoryAuditEventRepositoryTests {
 		assertThat(events.get(0).getType(), equalTo("c"));
 	}
 
+	@Test
+	public void findByPrincipalAfterEviction() throws Exception {
+		InMemoryAuditEventRepository repository = new InMemoryAuditEventRepository(2);
+		repository.add(new AuditEvent("dave", "a"));
+		repository.add(new AuditEvent("phil", "b"));
+		repository.add(new AuditEvent("phil", "c"));
+		assertThat(repository.find("dave", null).size(), equalTo(0));
+		List<AuditEvent> events = repository.find("phil", null);
+		assertThat(events.size(), equalTo(2));
+		assertThat(events.get(0).getType(), equalTo("b"));
+		assertThat(events.get(1).getType(), equalTo("c"));
+	}
+
+	@Test
+	public void findByDateWhenAddedOutOfOrder() throws Exception {
+		Calendar calendar = Calendar.getInstance();
+		calendar.set(2000, 1, 1, 0, 0, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+		Map<String, Object> data = new HashMap<String, Object>();
+		InMemoryAuditEventRepository repository = new InMemoryAuditEventRepository();
+		calendar.add(Calendar.DAY_OF_YEAR, 2);
+		Date after = calendar.getTime();
+		repository.add(new AuditEvent(calendar.getTime(), "dave", "a", data));
+		calendar.add(Calendar.DAY_OF_YEAR, -1);
+		repository.add(new AuditEvent(calendar.getTime(), "dave", "b", data));
+		calendar.add(Calendar.DAY_OF_YEAR, 2);
+		repository.add(new AuditEvent(calendar.getTime(), "dave", "c", data));
+		calendar.add(Calendar.DAY_OF_YEAR, -3);
+		repository.add(new AuditEvent(calendar.getTime(), "dave", "d", data));
+		List<AuditEvent> events = repository.find("dave", after);
+		assertThat(events.size(), equalTo(2));
+		assertThat(events.get(0).getType(), equalTo("a"));
+		assertThat(events.get(1).getType(), equalTo("c"));
+	}
+
+	@Test
+	public void findPage() throws Exception {
+		InMemoryAuditEventRepository repository = new InMemoryAuditEventRepository();
+		for (int i = 0; i < 10; i++) {
+			repository.add(new AuditEvent((i % 2 == 0 ? "dave" : "phil"), "" + i));
+		}
+		List<AuditEvent> events = repository.find(null, null, 2, 3);
+		assertThat(events.size(), equalTo(3));
+		assertThat(events.get(0).getType(), equalTo("2"));
+		assertThat(events.get(2).getType(), equalTo("4"));
+		events = repository.find("phil", null, 3, 5);
+		assertThat(events.size(), equalTo(2));
+		assertThat(events.get(0).getType(), equalTo("7"));
+		assertThat(events.get(1).getType(), equalTo("9"));
+	}
+
+	@Test
+	public void concurrentAdd() throws Exception {
+		final InMemoryAuditEventRepository repository = new InMemoryAuditEventRepository(
+				1000);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		final CountDownLatch latch = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			final String principal = "user" + i;
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 500; j++) {
+						repository.add(new AuditEvent(principal, "" + j));
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		assertThat(latch.await(10, TimeUnit.SECONDS), equalTo(true));
+		executor.shutdown();
+		assertThat(repository.find(null, null).size(), equalTo(1000));
+		int total = 0;
+		for (int i = 0; i < 4; i++) {
+			total += repository.find("user" + i, null).size();
+		}
+		assertThat(total, equalTo(1000));
+	}
+
+	@Test
+	public void concurrentAddDoesNotRetainEvictedPrincipals() throws Exception {
+		final InMemoryAuditEventRepository repository = new InMemoryAuditEventRepository(
+				2);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		final CountDownLatch latch = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			final String prefix = "user" + i + "-";
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 20000; j++) {
+						repository.add(new AuditEvent(prefix + j, "a"));
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		assertThat(latch.await(30, TimeUnit.SECONDS), equalTo(true));
+		executor.shutdown();
+		Object events = ReflectionTestUtils.getField(repository, "events");
+		Map<?, ?> principals = (Map<?, ?>) ReflectionTestUtils.getField(events,
+				"principals");
+		assertThat(principals.size() <= 2, equalTo(true));
+	}
+
 }
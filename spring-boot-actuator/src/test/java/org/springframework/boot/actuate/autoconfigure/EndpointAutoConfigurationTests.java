@@ -22,6 +22,7 @@ import java.util.Map;
 
 import org.junit.After;
 import org.junit.Test;
+import org.springframework.boot.StartupTimeline;
 import org.springframework.boot.actuate.endpoint.AutoConfigurationReportEndpoint;
 import org.springframework.boot.actuate.endpoint.BeansEndpoint;
 import org.springframework.boot.actuate.endpoint.DumpEndpoint;
@@ -31,9 +32,11 @@ import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.endpoint.InfoEndpoint;
 import org.springframework.boot.actuate.endpoint.LiquibaseEndpoint;
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.endpoint.RequestMappingEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
+import org.springframework.boot.actuate.endpoint.StartupEndpoint;
 import org.springframework.boot.actuate.endpoint.TraceEndpoint;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.metrics.Metric;
@@ -77,6 +80,7 @@ public class EndpointAutoConfigurationTests {
 		load(EndpointAutoConfiguration.class);
 		assertNotNull(this.context.getBean(BeansEndpoint.class));
 		assertNotNull(this.context.getBean(DumpEndpoint.class));
+		assertNotNull(this.context.getBean(ProfileEndpoint.class));
 		assertNotNull(this.context.getBean(EnvironmentEndpoint.class));
 		assertNotNull(this.context.getBean(HealthEndpoint.class));
 		assertNotNull(this.context.getBean(InfoEndpoint.class));
@@ -137,6 +141,22 @@ public class EndpointAutoConfigurationTests {
 		assertNotNull(this.context.getBean(AutoConfigurationReportEndpoint.class));
 	}
 
+	@Test
+	public void startupEndpoint() {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.getBeanFactory().registerSingleton(StartupTimeline.BEAN_NAME,
+				new StartupTimeline());
+		this.context.register(EndpointAutoConfiguration.class);
+		this.context.refresh();
+		assertNotNull(this.context.getBean(StartupEndpoint.class));
+	}
+
+	@Test
+	public void noStartupEndpointWithoutTimeline() {
+		load(EndpointAutoConfiguration.class);
+		assertEquals(0, this.context.getBeansOfType(StartupEndpoint.class).size());
+	}
+
 	@Test
 	public void testInfoEndpointConfiguration() throws Exception {
 		this.context = new AnnotationConfigApplicationContext();
@@ -37,7 +37,10 @@ import org.springframework.boot.actuate.endpoint.mvc.EnvironmentMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.HealthMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MetricsMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MvcEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.PrometheusMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.ShutdownMvcEndpoint;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
 import org.springframework.boot.autoconfigure.PropertyPlaceholderAutoConfiguration;
 import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.DispatcherServletAutoConfiguration;
@@ -338,6 +341,25 @@ public class EndpointWebMvcAutoConfigurationTests {
 		endpointEnabledOverride("health", HealthMvcEndpoint.class);
 	}
 
+	@Test
+	public void prometheusEndpointRegisteredWhenBuffersExist() {
+		this.applicationContext.register(RootConfig.class, BaseConfiguration.class,
+				ServerPortConfig.class, BuffersConfig.class,
+				EndpointWebMvcAutoConfiguration.class);
+		this.applicationContext.refresh();
+		assertThat(this.applicationContext.getBeansOfType(PrometheusMvcEndpoint.class)
+				.size(), is(equalTo(1)));
+	}
+
+	@Test
+	public void prometheusEndpointNotRegisteredWithoutBuffers() {
+		this.applicationContext.register(RootConfig.class, BaseConfiguration.class,
+				ServerPortConfig.class, EndpointWebMvcAutoConfiguration.class);
+		this.applicationContext.refresh();
+		assertThat(this.applicationContext.getBeansOfType(PrometheusMvcEndpoint.class)
+				.size(), is(equalTo(0)));
+	}
+
 	@Test
 	public void shutdownEndpointEnabled() {
 		this.applicationContext.register(RootConfig.class, BaseConfiguration.class,
@@ -450,6 +472,21 @@ public class EndpointWebMvcAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	public static class BuffersConfig {
+
+		@Bean
+		public CounterBuffers counterBuffers() {
+			return new CounterBuffers();
+		}
+
+		@Bean
+		public GaugeBuffers gaugeBuffers() {
+			return new GaugeBuffers();
+		}
+
+	}
+
 	@Configuration
 	public static class ServerPortConfig {
 
@@ -28,6 +28,7 @@ import org.springframework.boot.actuate.health.DiskSpaceHealthIndicator;
 import org.springframework.boot.actuate.health.ElasticsearchHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.HealthMonitor;
 import org.springframework.boot.actuate.health.JmsHealthIndicator;
 import org.springframework.boot.actuate.health.MailHealthIndicator;
 import org.springframework.boot.actuate.health.MongoHealthIndicator;
@@ -55,6 +56,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertSame;
 
 /**
@@ -419,6 +421,27 @@ public class HealthIndicatorAutoConfigurationTests {
 				.getClass());
 	}
 
+	@Test
+	public void healthMonitor() {
+		this.context.register(HealthIndicatorAutoConfiguration.class,
+				ManagementServerProperties.class);
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"management.health.monitor.enabled:true",
+				"management.health.monitor.intervals.db:60000");
+		this.context.refresh();
+		HealthMonitor monitor = this.context.getBean(HealthMonitor.class);
+		assertEquals(Long.valueOf(60000), monitor.getIntervals().get("db"));
+		assertTrue(monitor.isRunning());
+	}
+
+	@Test
+	public void noHealthMonitorByDefault() {
+		this.context.register(HealthIndicatorAutoConfiguration.class,
+				ManagementServerProperties.class);
+		this.context.refresh();
+		assertEquals(0, this.context.getBeansOfType(HealthMonitor.class).size());
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	protected static class DataSourceConfig {
@@ -29,11 +29,13 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.stereotype.Component;
@@ -55,6 +57,7 @@ import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -202,6 +205,64 @@ public class MetricFilterAutoConfigurationTests {
 		context.close();
 	}
 
+	@Test
+	public void limitsNumberOfRecordedPaths() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context,
+				"endpoints.metrics.filter.max-paths:2");
+		context.register(Config.class, MetricFilterAutoConfiguration.class);
+		context.refresh();
+		Filter filter = context.getBean(Filter.class);
+		for (String path : new String[] { "/a", "/b", "/c", "/a", "/d" }) {
+			filter.doFilter(new MockHttpServletRequest("GET", path),
+					new MockHttpServletResponse(), new MockFilterChain());
+		}
+		CounterService counterService = context.getBean(CounterService.class);
+		verify(counterService, times(2)).increment("status.200.a");
+		verify(counterService).increment("status.200.b");
+		verify(counterService, times(2)).increment("status.200.overflow");
+		verify(counterService, never()).increment("status.200.c");
+		verify(counterService, times(2)).increment("metrics.filter.overflow");
+		verify(context.getBean(GaugeService.class), times(2)).submit(
+				eq("response.overflow"), anyDouble());
+		context.close();
+	}
+
+	@Test
+	public void maxPathsUsesRelaxedBinding() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context,
+				"endpoints.metrics.filter.maxPaths:1");
+		context.register(Config.class, MetricFilterAutoConfiguration.class);
+		context.refresh();
+		assertThat(context.getBean(MetricFilterProperties.class).getMaxPaths(),
+				equalTo(1));
+		context.close();
+	}
+
+	@Test
+	public void limitsNumberOfRecordedPathsWithPrefix() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context,
+				"endpoints.metrics.filter.path-limits.api:1");
+		context.register(Config.class, MetricFilterAutoConfiguration.class);
+		context.refresh();
+		Filter filter = context.getBean(Filter.class);
+		for (String path : new String[] { "/api/1", "/api/2", "/other/1", "/other/2",
+				"/apix/1" }) {
+			filter.doFilter(new MockHttpServletRequest("GET", path),
+					new MockHttpServletResponse(), new MockFilterChain());
+		}
+		CounterService counterService = context.getBean(CounterService.class);
+		verify(counterService).increment("status.200.api.1");
+		verify(counterService).increment("status.200.overflow");
+		verify(counterService).increment("status.200.other.1");
+		verify(counterService).increment("status.200.other.2");
+		verify(counterService).increment("status.200.apix.1");
+		verify(counterService).increment("metrics.filter.overflow");
+		context.close();
+	}
+
 	@Configuration
 	public static class Config {
 
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -29,7 +30,9 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.PropertySource;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -171,6 +174,13 @@ public abstract class AbstractEndpointTests<T extends Endpoint<?>> {
 		}
 	}
 
+	protected JsonNode writeJson(JsonStreamingEndpoint<?> endpoint) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		TokenBuffer buffer = new TokenBuffer(mapper, false);
+		endpoint.writeJson(buffer);
+		return mapper.readTree(buffer.asParser());
+	}
+
 	@SuppressWarnings("unchecked")
 	protected T getEndpointBean() {
 		return (T) this.context.getBean(this.type);
@@ -31,7 +31,13 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -61,6 +67,24 @@ public class AutoConfigurationReportEndpointTests extends
 		assertTrue(report.getExclusions().contains("com.foo.Bar"));
 	}
 
+	@Test
+	public void cachedUntilRefresh() throws Exception {
+		AutoConfigurationReportEndpoint endpoint = getEndpointBean();
+		assertNotSame(endpoint.invoke(), endpoint.invoke());
+		endpoint.getCache().setTimeToLive(-1);
+		Report report = EndpointCache.invoke(endpoint);
+		assertSame(report, EndpointCache.invoke(endpoint));
+		endpoint.onApplicationEvent(new ContextRefreshedEvent(this.context));
+		assertNotSame(report, EndpointCache.invoke(endpoint));
+	}
+
+	@Test
+	public void writeJson() throws Exception {
+		AutoConfigurationReportEndpoint endpoint = getEndpointBean();
+		assertEquals(new ObjectMapper().valueToTree(endpoint.invoke()),
+				writeJson(endpoint));
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
@@ -20,9 +20,13 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -45,6 +49,24 @@ public class BeansEndpointTests extends AbstractEndpointTests<BeansEndpoint> {
 		assertTrue(result.get(0) instanceof Map);
 	}
 
+	@Test
+	public void writeJson() throws Exception {
+		BeansEndpoint endpoint = getEndpointBean();
+		assertEquals(new ObjectMapper().valueToTree(endpoint.invoke()),
+				writeJson(endpoint));
+	}
+
+	@Test
+	public void cachedUntilRefresh() throws Exception {
+		BeansEndpoint endpoint = getEndpointBean();
+		endpoint.getCache().setTimeToLive(-1);
+		String before = EndpointCache.invoke(endpoint).toString();
+		this.context.registerBeanDefinition("foo", new RootBeanDefinition(Object.class));
+		assertEquals(before, EndpointCache.invoke(endpoint).toString());
+		endpoint.onApplicationEvent(new ContextRefreshedEvent(this.context));
+		assertTrue(EndpointCache.invoke(endpoint).toString().contains("foo"));
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
@@ -25,11 +25,17 @@ import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -162,6 +168,45 @@ public class ConfigurationPropertiesReportEndpointTests extends
 		assertThat(nestedProperties.get("mixedBoolean"), equalTo((Object) true));
 	}
 
+	@Test
+	public void cached() throws Exception {
+		ConfigurationPropertiesReportEndpoint report = getEndpointBean();
+		report.getCache().setTimeToLive(-1);
+		Map<String, Object> properties = EndpointCache.invoke(report);
+		assertSame(properties, EndpointCache.invoke(report));
+		report.invalidate();
+		assertNotSame(properties, EndpointCache.invoke(report));
+		properties = EndpointCache.invoke(report);
+		this.context.publishEvent(new ContextRefreshedEvent(this.context));
+		assertNotSame(properties, EndpointCache.invoke(report));
+	}
+
+	@Test
+	public void writeJson() throws Exception {
+		ConfigurationPropertiesReportEndpoint report = getEndpointBean();
+		JsonNode json = writeJson(report);
+		assertEquals(new ObjectMapper().valueToTree(report.invoke()), json);
+		JsonNode nestedProperties = json.get("testProperties").get("properties");
+		assertEquals("******", nestedProperties.get("dbPassword").asText());
+		assertEquals("654321", nestedProperties.get("myTestProperty").asText());
+	}
+
+	@Test
+	public void writeJsonWithParent() throws Exception {
+		AnnotationConfigApplicationContext parent = new AnnotationConfigApplicationContext();
+		parent.register(Parent.class);
+		parent.refresh();
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.setParent(parent);
+		this.context.register(Config.class);
+		this.context.refresh();
+		ConfigurationPropertiesReportEndpoint report = getEndpointBean();
+		JsonNode json = writeJson(report);
+		assertEquals(new ObjectMapper().valueToTree(report.invoke()), json);
+		assertNotNull(json.get("parent").get("testProperties"));
+		parent.close();
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Parent {
@@ -24,6 +24,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertThat;
 
@@ -44,6 +45,17 @@ public class DumpEndpointTests extends AbstractEndpointTests<DumpEndpoint> {
 		assertThat(threadInfo.size(), greaterThan(0));
 	}
 
+	@Test
+	public void invokeWithoutLockInformation() throws Exception {
+		DumpEndpoint endpoint = getEndpointBean();
+		endpoint.setLockedMonitors(false);
+		endpoint.setLockedSynchronizers(false);
+		for (ThreadInfo info : endpoint.invoke()) {
+			assertThat(info.getLockedMonitors().length, equalTo(0));
+			assertThat(info.getLockedSynchronizers().length, equalTo(0));
+		}
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link EndpointCache}.
+ *
+ * @author agent
+ */
+public class EndpointCacheTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final CountingEndpoint endpoint = new CountingEndpoint();
+
+	private final EndpointCache cache = this.endpoint.getCache();
+
+	@Test
+	public void disabledByDefault() {
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		assertEquals(2, this.cache.get(this.endpoint).intValue());
+	}
+
+	@Test
+	public void cachedForTimeToLive() throws Exception {
+		this.cache.setTimeToLive(50);
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		Thread.sleep(100);
+		assertEquals(2, this.cache.get(this.endpoint).intValue());
+	}
+
+	@Test
+	public void clear() {
+		this.cache.setTimeToLive(10000);
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		this.cache.clear();
+		assertEquals(2, this.cache.get(this.endpoint).intValue());
+	}
+
+	@Test
+	public void cachedUntilClearedWhenTimeToLiveIsNegative() throws Exception {
+		this.cache.setTimeToLive(-1);
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		Thread.sleep(20);
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		this.cache.clear();
+		assertEquals(2, this.cache.get(this.endpoint).intValue());
+	}
+
+	@Test
+	public void resultOfInvocationInProgressWhenClearedIsNotCached() throws Exception {
+		this.cache.setTimeToLive(10000);
+		this.endpoint.delay = 200;
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> future = executor.submit(new Callable<Integer>() {
+
+				@Override
+				public Integer call() throws Exception {
+					return EndpointCacheTests.this.cache
+							.get(EndpointCacheTests.this.endpoint);
+				}
+
+			});
+			Thread.sleep(50);
+			this.cache.clear();
+			assertEquals(1, future.get().intValue());
+		}
+		finally {
+			executor.shutdown();
+		}
+		this.endpoint.delay = 0;
+		assertEquals(2, this.cache.get(this.endpoint).intValue());
+	}
+
+	@Test
+	public void staleResultReturnedWhileRevalidating() throws Exception {
+		this.cache.setTimeToLive(20);
+		this.cache.setStaleWhileRevalidate(10000);
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		Thread.sleep(50);
+		this.endpoint.latch = new CountDownLatch(1);
+		assertEquals(1, this.cache.get(this.endpoint).intValue());
+		assertTrue(this.endpoint.latch.await(5, TimeUnit.SECONDS));
+		assertTrue(this.endpoint.thread.startsWith("endpoint-cache-"));
+		for (int i = 0; i < 100 && this.cache.get(this.endpoint) == 1; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(2, this.cache.get(this.endpoint).intValue());
+	}
+
+	@Test
+	public void concurrentCallersShareOneInvocation() throws Exception {
+		this.cache.setTimeToLive(10000);
+		this.endpoint.delay = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(new Runnable() {
+
+					@Override
+					public void run() {
+						EndpointCacheTests.this.cache
+								.get(EndpointCacheTests.this.endpoint);
+					}
+
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals(1, this.endpoint.count.get());
+	}
+
+	@Test
+	public void exceptionIsPropagated() {
+		this.cache.setTimeToLive(10000);
+		this.endpoint.fail = true;
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("Failed");
+		this.cache.get(this.endpoint);
+	}
+
+	@Test
+	public void invokeUsesCache() {
+		this.cache.setTimeToLive(10000);
+		assertEquals(1, EndpointCache.invoke(this.endpoint).intValue());
+		assertEquals(1, EndpointCache.invoke(this.endpoint).intValue());
+	}
+
+	private static class CountingEndpoint extends AbstractEndpoint<Integer> {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		private volatile long delay;
+
+		private volatile boolean fail;
+
+		private volatile CountDownLatch latch;
+
+		private volatile String thread;
+
+		CountingEndpoint() {
+			super("counting");
+		}
+
+		@Override
+		public Integer invoke() {
+			if (this.fail) {
+				throw new IllegalStateException("Failed");
+			}
+			if (this.delay > 0) {
+				try {
+					Thread.sleep(this.delay);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			int result = this.count.incrementAndGet();
+			this.thread = Thread.currentThread().getName();
+			if (this.latch != null) {
+				this.latch.countDown();
+			}
+			return result;
+		}
+
+	}
+
+}
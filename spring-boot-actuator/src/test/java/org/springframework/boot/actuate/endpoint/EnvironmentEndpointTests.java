@@ -28,6 +28,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.CompositePropertySource;
 import org.springframework.core.env.MapPropertySource;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -194,6 +197,15 @@ public class EnvironmentEndpointTests extends AbstractEndpointTests<EnvironmentE
 				((Map<String, Object>) env.get("systemProperties")).get("apiKey"));
 	}
 
+	@Test
+	public void writeJson() throws Exception {
+		System.setProperty("dbPassword", "123456");
+		EnvironmentEndpoint report = getEndpointBean();
+		JsonNode json = writeJson(report);
+		assertEquals(new ObjectMapper().valueToTree(report.invoke()), json);
+		assertEquals("******", json.get("systemProperties").get("dbPassword").asText());
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
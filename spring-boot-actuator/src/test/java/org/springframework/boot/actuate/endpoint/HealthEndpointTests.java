@@ -49,6 +49,31 @@ public class HealthEndpointTests extends AbstractEndpointTests<HealthEndpoint> {
 		assertThat(getEndpointBean().invoke().getStatus(), equalTo(Status.UNKNOWN));
 	}
 
+	@Test
+	public void timeToLiveDoesNotConfigureCache() throws Exception {
+		HealthEndpoint endpoint = getEndpointBean();
+		assertThat(endpoint.getTimeToLive(), equalTo(1000L));
+		endpoint.setTimeToLive(5000);
+		assertThat(endpoint.getTimeToLive(), equalTo(5000L));
+		assertThat(endpoint.getCache().getTimeToLive(), equalTo(0L));
+	}
+
+	@Test
+	public void parallelInvoke() throws Exception {
+		HealthEndpoint endpoint = getEndpointBean();
+		endpoint.setParallel(true);
+		try {
+			Health health = endpoint.invoke();
+			// As FINE isn't configured in the order we get UNKNOWN
+			assertThat(health.getStatus(), equalTo(Status.UNKNOWN));
+			assertThat(((Health) health.getDetails().get("status")).getStatus(),
+					equalTo(new Status("FINE")));
+		}
+		finally {
+			endpoint.setParallel(false);
+		}
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
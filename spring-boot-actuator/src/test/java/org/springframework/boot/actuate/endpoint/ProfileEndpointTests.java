@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint.StackSamples;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ProfileEndpoint}.
+ *
+ * @author agent
+ */
+public class ProfileEndpointTests extends AbstractEndpointTests<ProfileEndpoint> {
+
+	public ProfileEndpointTests() {
+		super(Config.class, ProfileEndpoint.class, "profile", true, "endpoints.profile");
+	}
+
+	@Override
+	public void isEnabledByDefault() throws Exception {
+		// Sampling blocks the caller so it is disabled by default
+		assertThat(getEndpointBean().isEnabled(), equalTo(false));
+	}
+
+	@Test
+	public void invoke() throws Exception {
+		ProfileEndpoint endpoint = getEndpointBean();
+		endpoint.setDuration(50);
+		endpoint.setIncludeWaiting(true);
+		StackSamples samples = endpoint.invoke();
+		assertThat(samples.getSamples(), greaterThan(0));
+		assertThat(samples.getStacks().size(), greaterThan(0));
+	}
+
+	@Test
+	public void aggregatesIdenticalStacks() throws Exception {
+		ProfileEndpoint endpoint = new ProfileEndpoint();
+		CountDownLatch latch = new CountDownLatch(1);
+		Thread thread = new Thread(new Spinner(latch));
+		thread.setDaemon(true);
+		thread.start();
+		try {
+			StackSamples samples = endpoint.sample(200, 5);
+			int spinning = 0;
+			for (Map.Entry<String, Integer> entry : samples.getStacks().entrySet()) {
+				assertThat(entry.getValue(), lessThanOrEqualTo(samples.getSamples()));
+				if (entry.getKey().contains(Spinner.class.getName() + ".run;"
+						+ Spinner.class.getName() + ".spin")) {
+					spinning += entry.getValue();
+				}
+			}
+			assertThat(spinning, greaterThan(1));
+			assertThat(samples.toCollapsedFormat(), containsString(".spin"));
+		}
+		finally {
+			latch.countDown();
+		}
+	}
+
+	@Test
+	public void durationIsLimited() throws Exception {
+		ProfileEndpoint endpoint = new ProfileEndpoint();
+		endpoint.setMaxDuration(10);
+		StackSamples samples = endpoint.sample(10000, 5);
+		assertThat(samples.getDuration(), lessThanOrEqualTo(1000L));
+	}
+
+	@Configuration
+	@EnableConfigurationProperties
+	public static class Config {
+
+		@Bean
+		public ProfileEndpoint endpoint() {
+			return new ProfileEndpoint();
+		}
+
+	}
+
+	private static class Spinner implements Runnable {
+
+		private final CountDownLatch latch;
+
+		Spinner(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void run() {
+			spin();
+		}
+
+		private void spin() {
+			while (this.latch.getCount() > 0) {
+				Thread.yield();
+			}
+		}
+
+	}
+
+}
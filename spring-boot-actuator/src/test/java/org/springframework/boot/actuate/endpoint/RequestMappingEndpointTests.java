@@ -29,11 +29,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
 import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -124,6 +128,37 @@ public class RequestMappingEndpointTests {
 		assertTrue(handler.containsKey("method"));
 	}
 
+	@Test
+	public void cachedUntilRefresh() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		this.endpoint.setApplicationContext(context);
+		this.endpoint.getCache().setTimeToLive(-1);
+		assertEquals(0, EndpointCache.invoke(this.endpoint).size());
+		SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping();
+		mapping.setUrlMap(Collections.singletonMap("/foo", new Object()));
+		mapping.setApplicationContext(context);
+		mapping.initApplicationContext();
+		context.getDefaultListableBeanFactory().registerSingleton("mapping", mapping);
+		assertEquals(0, EndpointCache.invoke(this.endpoint).size());
+		this.endpoint.onApplicationEvent(new ContextRefreshedEvent(context));
+		assertEquals(1, EndpointCache.invoke(this.endpoint).size());
+	}
+
+	@Test
+	public void writeJson() throws Exception {
+		SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping();
+		mapping.setUrlMap(Collections.singletonMap("/foo", new Object()));
+		mapping.setApplicationContext(new StaticApplicationContext());
+		mapping.initApplicationContext();
+		this.endpoint.setHandlerMappings(Collections
+				.<AbstractUrlHandlerMapping> singletonList(mapping));
+		ObjectMapper mapper = new ObjectMapper();
+		TokenBuffer buffer = new TokenBuffer(mapper, false);
+		this.endpoint.writeJson(buffer);
+		assertEquals(mapper.valueToTree(this.endpoint.invoke()),
+				mapper.readTree(buffer.asParser()));
+	}
+
 	@Configuration
 	protected static class MappingConfiguration {
 		@Bean
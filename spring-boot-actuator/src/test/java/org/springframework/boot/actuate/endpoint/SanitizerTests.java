@@ -46,4 +46,21 @@ public class SanitizerTests {
 		assertEquals(this.sanitizer.sanitize("veryokish", "secret"), "secret");
 	}
 
+	@Test
+	public void suffixesAndRegex() throws Exception {
+		this.sanitizer.setKeysToSanitize("token", "my.key", "^admin.*");
+		assertEquals(this.sanitizer.sanitize("accessTOKEN", "secret"), "******");
+		assertEquals(this.sanitizer.sanitize("tokens", "secret"), "secret");
+		assertEquals(this.sanitizer.sanitize("foo.my-key", "secret"), "******");
+		assertEquals(this.sanitizer.sanitize("administrator", "secret"), "******");
+		assertEquals(this.sanitizer.sanitize("password", "secret"), "secret");
+	}
+
+	@Test
+	public void changingKeysClearsCachedMatches() throws Exception {
+		assertEquals(this.sanitizer.sanitize("password", "secret"), "******");
+		this.sanitizer.setKeysToSanitize("foo");
+		assertEquals(this.sanitizer.sanitize("password", "secret"), "secret");
+	}
+
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.boot.StartupTimeline;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Tests for {@link StartupEndpoint}.
+ *
+ * @author agent
+ */
+public class StartupEndpointTests extends AbstractEndpointTests<StartupEndpoint> {
+
+	public StartupEndpointTests() {
+		super(Config.class, StartupEndpoint.class, "startup", true, "endpoints.startup");
+	}
+
+	@Test
+	public void invoke() throws Exception {
+		Map<String, Object> result = getEndpointBean().invoke();
+		assertNotNull(result.get("startTime"));
+		assertNotNull(result.get("duration"));
+		List<?> steps = (List<?>) result.get("steps");
+		assertEquals(1, steps.size());
+		assertEquals("foo", ((StartupTimeline.Step) steps.get(0)).getName());
+	}
+
+	@Configuration
+	@EnableConfigurationProperties
+	public static class Config {
+
+		@Bean
+		public StartupEndpoint endpoint() {
+			StartupTimeline timeline = new StartupTimeline();
+			timeline.record("test", "foo", System.nanoTime());
+			timeline.stop();
+			return new StartupEndpoint(timeline);
+		}
+
+	}
+
+}
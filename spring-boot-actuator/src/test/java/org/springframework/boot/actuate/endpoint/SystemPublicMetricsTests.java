@@ -17,11 +17,14 @@
 package org.springframework.boot.actuate.endpoint;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -56,6 +59,40 @@ public class SystemPublicMetricsTests {
 		assertTrue(results.containsKey("classes.loaded"));
 		assertTrue(results.containsKey("classes.unloaded"));
 		assertTrue(results.containsKey("classes"));
+
+		assertTrue(results.containsKey("nonheap.committed"));
+		assertTrue(results.containsKey("nonheap.init"));
+		assertTrue(results.containsKey("nonheap.used"));
+		assertTrue(results.containsKey("nonheap"));
+	}
+
+	@Test
+	public void testPoolMetrics() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		boolean heapPool = false;
+		boolean directBuffers = false;
+		for (Metric<?> metric : publicMetrics.metrics()) {
+			String name = metric.getName();
+			heapPool |= (name.startsWith("heap.") && name.endsWith(".used") && !name
+					.equals("heap.used"));
+			directBuffers |= name.equals("buffers.direct.used");
+		}
+		assertTrue(heapPool);
+		assertTrue(directBuffers);
+	}
+
+	@Test
+	public void testRepeatedCallsReturnSameMetrics() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		Set<String> first = new HashSet<String>();
+		for (Metric<?> metric : publicMetrics.metrics()) {
+			first.add(metric.getName());
+		}
+		Set<String> second = new HashSet<String>();
+		for (Metric<?> metric : publicMetrics.metrics()) {
+			second.add(metric.getName());
+		}
+		assertEquals(first, second);
 	}
 
 }
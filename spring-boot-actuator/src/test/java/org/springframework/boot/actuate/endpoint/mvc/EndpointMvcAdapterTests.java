@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.RequestMappingEndpoint;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link EndpointMvcAdapter}.
+ *
+ * @author agent
+ */
+public class EndpointMvcAdapterTests {
+
+	private final RequestMappingEndpoint endpoint = new RequestMappingEndpoint();
+
+	private final EndpointMvcAdapter mvc = new EndpointMvcAdapter(this.endpoint);
+
+	@Before
+	public void init() {
+		SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping();
+		mapping.setUrlMap(Collections.singletonMap("/foo", new Object()));
+		mapping.setApplicationContext(new StaticApplicationContext());
+		mapping.initApplicationContext();
+		this.endpoint.setHandlerMappings(Collections
+				.<AbstractUrlHandlerMapping> singletonList(mapping));
+	}
+
+	@Test
+	public void invoke() {
+		assertThat(this.mvc.invoke(), instanceOf(Map.class));
+	}
+
+	@Test
+	public void cached() {
+		this.endpoint.getCache().setTimeToLive(10000);
+		Object result = this.mvc.invoke();
+		assertThat(this.mvc.invoke(), sameInstance(result));
+		this.endpoint.getCache().clear();
+		assertThat(this.mvc.invoke(), not(sameInstance(result)));
+	}
+
+	@Test
+	public void streaming() throws Exception {
+		MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+		MockHttpOutputMessage expected = new MockHttpOutputMessage();
+		converter.write(this.mvc.invoke(), MediaType.APPLICATION_JSON, expected);
+		this.endpoint.setStreaming(true);
+		Object result = this.mvc.invoke();
+		assertThat(result, instanceOf(JsonStreamingResult.class));
+		MockHttpOutputMessage streamed = new MockHttpOutputMessage();
+		converter.write(result, MediaType.APPLICATION_JSON, streamed);
+		ObjectMapper mapper = new ObjectMapper();
+		assertEquals(mapper.readTree(expected.getBodyAsString()),
+				mapper.readTree(streamed.getBodyAsString()));
+	}
+
+	@Test
+	public void cachedResultIsNotStreamed() {
+		this.endpoint.setStreaming(true);
+		this.endpoint.getCache().setTimeToLive(10000);
+		Object result = this.mvc.invoke();
+		assertThat(result, instanceOf(Map.class));
+		assertThat(this.mvc.invoke(), sameInstance(result));
+	}
+
+}
@@ -189,6 +189,17 @@ public class HealthMvcEndpointTests {
 		assertTrue(health.getStatus() == Status.DOWN);
 	}
 
+	@Test
+	public void cachedIndefinitelyWhenTimeToLiveIsNegative() {
+		given(this.endpoint.getTimeToLive()).willReturn(-1L);
+		given(this.endpoint.invoke()).willReturn(new Health.Builder().up().build());
+		Object result = this.mvc.invoke(null);
+		assertTrue(((Health) result).getStatus() == Status.UP);
+		given(this.endpoint.invoke()).willReturn(new Health.Builder().down().build());
+		result = this.mvc.invoke(null);
+		assertTrue(((Health) result).getStatus() == Status.UP);
+	}
+
 	@Test
 	public void newValueIsReturnedOnceTtlExpires() throws InterruptedException {
 		given(this.endpoint.getTimeToLive()).willReturn(50L);
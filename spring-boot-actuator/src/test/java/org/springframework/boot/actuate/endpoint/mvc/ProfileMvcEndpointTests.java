@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint;
+import org.springframework.boot.actuate.endpoint.ProfileEndpoint.StackSamples;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ProfileMvcEndpoint}.
+ *
+ * @author agent
+ */
+public class ProfileMvcEndpointTests {
+
+	private final ProfileEndpoint endpoint = new ProfileEndpoint();
+
+	private final ProfileMvcEndpoint mvc = new ProfileMvcEndpoint(this.endpoint);
+
+	@Before
+	public void init() {
+		this.endpoint.setEnabled(true);
+	}
+
+	@Test
+	public void sampleWithDuration() {
+		Object result = this.mvc.sample(0, null);
+		assertThat(result, instanceOf(StackSamples.class));
+		assertThat(((StackSamples) result).getDuration(), lessThan(1000L));
+	}
+
+	@Test
+	public void collapsed() {
+		this.endpoint.setIncludeWaiting(true);
+		Object result = this.mvc.collapsed(20L, 5L);
+		assertThat(result, instanceOf(String.class));
+		assertThat(((String) result).length(), greaterThan(0));
+	}
+
+	@Test
+	public void invalidInterval() {
+		ResponseEntity<?> response = (ResponseEntity<?>) this.mvc.collapsed(20L, 0L);
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+	}
+
+	@Test
+	public void disabled() {
+		this.endpoint.setEnabled(false);
+		ResponseEntity<?> response = (ResponseEntity<?>) this.mvc.collapsed(null, null);
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+	}
+
+}
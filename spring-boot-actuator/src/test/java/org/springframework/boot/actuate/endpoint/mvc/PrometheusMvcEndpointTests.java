@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
+import org.springframework.boot.actuate.metrics.prometheus.PrometheusTextWriter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link PrometheusMvcEndpoint}.
+ *
+ * @author agent
+ */
+public class PrometheusMvcEndpointTests {
+
+	private final CounterBuffers counters = new CounterBuffers();
+
+	private final PrometheusMvcEndpoint mvc = new PrometheusMvcEndpoint(
+			new PrometheusTextWriter(this.counters, new GaugeBuffers()));
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	public void plainText() throws Exception {
+		this.counters.increment("counter.foo", 1);
+		this.mvc.invoke(this.request, this.response);
+		assertEquals(PrometheusTextWriter.CONTENT_TYPE, this.response.getContentType());
+		assertNull(this.response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", this.response.getHeader("Vary"));
+		assertEquals("# TYPE counter_foo counter\ncounter_foo 1\n",
+				this.response.getContentAsString());
+	}
+
+	@Test
+	public void gzip() throws Exception {
+		this.counters.increment("counter.foo", 1);
+		this.request.addHeader("Accept-Encoding", "deflate, gzip;q=1.0");
+		this.mvc.invoke(this.request, this.response);
+		assertEquals("gzip", this.response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", this.response.getHeader("Vary"));
+		assertEquals("# TYPE counter_foo counter\ncounter_foo 1\n",
+				unzip(this.response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void compressDisabled() throws Exception {
+		this.mvc.setCompress(false);
+		this.request.addHeader("Accept-Encoding", "gzip");
+		this.mvc.invoke(this.request, this.response);
+		assertNull(this.response.getHeader("Content-Encoding"));
+		assertNull(this.response.getHeader("Vary"));
+	}
+
+	@Test
+	public void disabled() throws Exception {
+		this.mvc.setEnabled(false);
+		this.mvc.invoke(this.request, this.response);
+		assertEquals(404, this.response.getStatus());
+	}
+
+	private String unzip(byte[] content) throws Exception {
+		return FileCopyUtils.copyToString(new InputStreamReader(new GZIPInputStream(
+				new ByteArrayInputStream(content)), "UTF-8"));
+	}
+
+}
@@ -17,12 +17,17 @@
 package org.springframework.boot.actuate.health;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -30,6 +35,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 
 /**
@@ -52,6 +58,10 @@ public class CompositeHealthIndicatorTests {
 	@Mock
 	private HealthIndicator three;
 
+	private ThreadPoolTaskExecutor executor;
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
@@ -63,6 +73,17 @@ public class CompositeHealthIndicatorTests {
 				new Health.Builder().unknown().withDetail("3", "3").build());
 
 		this.healthAggregator = new OrderedHealthAggregator();
+		this.executor = new ThreadPoolTaskExecutor();
+		this.executor.setCorePoolSize(2);
+		this.executor.setMaxPoolSize(2);
+		this.executor.setQueueCapacity(0);
+		this.executor.initialize();
+	}
+
+	@After
+	public void close() {
+		this.latch.countDown();
+		this.executor.shutdown();
 	}
 
 	@Test
@@ -153,4 +174,113 @@ public class CompositeHealthIndicatorTests {
 				mapper.writeValueAsString(result));
 	}
 
+	@Test
+	public void parallelHealth() throws Exception {
+		Map<String, HealthIndicator> indicators = new LinkedHashMap<String, HealthIndicator>();
+		indicators.put("slow1", new SlowHealthIndicator(200));
+		indicators.put("slow2", new SlowHealthIndicator(200));
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator, indicators);
+		composite.setExecutor(this.executor);
+		long start = System.currentTimeMillis();
+		Health result = composite.health();
+		assertTrue(System.currentTimeMillis() - start < 400);
+		assertThat(result.getStatus(), equalTo(Status.UP));
+		assertThat(result.getDetails().keySet().toString(), equalTo("[slow1, slow2]"));
+	}
+
+	@Test
+	public void parallelHealthWithTimeout() throws Exception {
+		Map<String, HealthIndicator> indicators = new LinkedHashMap<String, HealthIndicator>();
+		indicators.put("one", this.one);
+		indicators.put("hung", new HungHealthIndicator());
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator, indicators);
+		composite.setExecutor(this.executor);
+		composite.setTimeout("hung", 50);
+		Health result = composite.health();
+		assertThat(result.getStatus(), equalTo(Status.DOWN));
+		Health hung = (Health) result.getDetails().get("hung");
+		assertThat(hung.getStatus(), equalTo(Status.DOWN));
+		assertThat(hung.getDetails().get("timeout"), equalTo((Object) 50L));
+		assertThat(result.getDetails().get("one"), equalTo((Object) this.one.health()));
+	}
+
+	@Test
+	public void parallelHealthWithCustomTimeoutStatus() throws Exception {
+		Map<String, HealthIndicator> indicators = new LinkedHashMap<String, HealthIndicator>();
+		indicators.put("hung", new HungHealthIndicator());
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator, indicators);
+		composite.setExecutor(this.executor);
+		composite.setTimeout(50);
+		composite.setTimeoutStatus(Status.UNKNOWN);
+		assertThat(composite.health().getStatus(), equalTo(Status.UNKNOWN));
+	}
+
+	@Test
+	public void parallelHealthWithException() throws Exception {
+		given(this.one.health()).willThrow(new IllegalStateException("Planned"));
+		Map<String, HealthIndicator> indicators = new LinkedHashMap<String, HealthIndicator>();
+		indicators.put("one", this.one);
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator, indicators);
+		composite.setExecutor(this.executor);
+		Health one = (Health) composite.health().getDetails().get("one");
+		assertThat(one.getStatus(), equalTo(Status.DOWN));
+		assertThat(one.getDetails().get("error"),
+				equalTo((Object) "java.lang.IllegalStateException: Planned"));
+	}
+
+	@Test
+	public void parallelHealthWhenExecutorIsBusy() throws Exception {
+		Map<String, HealthIndicator> indicators = new LinkedHashMap<String, HealthIndicator>();
+		indicators.put("hung1", new HungHealthIndicator());
+		indicators.put("hung2", new HungHealthIndicator());
+		indicators.put("one", this.one);
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator, indicators);
+		composite.setExecutor(this.executor);
+		composite.setTimeout(50);
+		Health one = (Health) composite.health().getDetails().get("one");
+		assertThat(one.getStatus(), equalTo(Status.UNKNOWN));
+		assertTrue(one.getDetails().containsKey("error"));
+	}
+
+	private static class SlowHealthIndicator implements HealthIndicator {
+
+		private final long delay;
+
+		SlowHealthIndicator(long delay) {
+			this.delay = delay;
+		}
+
+		@Override
+		public Health health() {
+			try {
+				Thread.sleep(this.delay);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return Health.up().build();
+		}
+
+	}
+
+	private class HungHealthIndicator implements HealthIndicator {
+
+		@Override
+		public Health health() {
+			try {
+				CompositeHealthIndicatorTests.this.latch.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return Health.up().build();
+		}
+
+	}
+
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link HealthMonitor}.
+ *
+ * @author agent
+ */
+public class HealthMonitorTests {
+
+	private final HealthMonitor monitor = new HealthMonitor();
+
+	private final CountingHealthIndicator indicator = new CountingHealthIndicator();
+
+	private final List<ApplicationEvent> events = new ArrayList<ApplicationEvent>();
+
+	@After
+	public void close() {
+		this.monitor.stop();
+	}
+
+	@Test
+	public void reportsMostRecentHealth() throws Exception {
+		HealthIndicator monitored = this.monitor.monitor("db", this.indicator);
+		assertThat(monitored.health().getStatus(), equalTo(Status.UP));
+		assertThat(monitored.health().getStatus(), equalTo(Status.UP));
+		assertThat(this.indicator.count.get(), equalTo(1));
+		this.indicator.status = Status.DOWN;
+		assertThat(monitored.health().getStatus(), equalTo(Status.UP));
+		this.monitor.refresh();
+		assertThat(monitored.health().getStatus(), equalTo(Status.DOWN));
+		assertThat(this.indicator.count.get(), equalTo(2));
+	}
+
+	@Test
+	public void refreshesInBackground() throws Exception {
+		this.monitor.setInterval(10000);
+		this.monitor.setInterval("db", 10);
+		HealthIndicator monitored = this.monitor.monitor("dbHealthIndicator",
+				this.indicator);
+		this.monitor.start();
+		waitForCount(3);
+		this.indicator.status = Status.DOWN;
+		waitForCount(this.indicator.count.get() + 2);
+		assertThat(monitored.health().getStatus(), equalTo(Status.DOWN));
+		this.monitor.stop();
+		int count = this.indicator.count.get();
+		Thread.sleep(50);
+		assertThat(this.indicator.count.get(), equalTo(count));
+	}
+
+	@Test
+	public void exceptionReportedAsDown() throws Exception {
+		HealthIndicator monitored = this.monitor.monitor("db", new HealthIndicator() {
+
+			@Override
+			public Health health() {
+				throw new IllegalStateException("Planned");
+			}
+
+		});
+		assertThat(monitored.health().getStatus(), equalTo(Status.DOWN));
+	}
+
+	@Test
+	public void publishesStatusChanges() throws Exception {
+		CounterService counterService = mock(CounterService.class);
+		this.monitor.setCounterService(counterService);
+		this.monitor.setApplicationEventPublisher(new ApplicationEventPublisher() {
+
+			@Override
+			public void publishEvent(ApplicationEvent event) {
+				HealthMonitorTests.this.events.add(event);
+			}
+
+			@Override
+			public void publishEvent(Object event) {
+			}
+
+		});
+		this.monitor.monitor("dbHealthIndicator", this.indicator);
+		this.monitor.refresh();
+		this.monitor.refresh();
+		assertThat(this.events.size(), equalTo(0));
+		this.indicator.status = Status.DOWN;
+		this.monitor.refresh();
+		assertThat(this.events.size(), equalTo(1));
+		HealthStatusChangedEvent event = (HealthStatusChangedEvent) this.events.get(0);
+		assertThat(event.getName(), equalTo("db"));
+		assertThat(event.getPrevious().getStatus(), equalTo(Status.UP));
+		assertThat(event.getCurrent().getStatus(), equalTo(Status.DOWN));
+		verify(counterService).increment("health.db.down");
+	}
+
+	private void waitForCount(int count) throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+		while (this.indicator.count.get() < count && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertThat(this.indicator.count.get(), greaterThan(count - 1));
+	}
+
+	private static class CountingHealthIndicator implements HealthIndicator {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		private volatile Status status = Status.UP;
+
+		@Override
+		public Health health() {
+			this.count.incrementAndGet();
+			return Health.status(this.status).build();
+		}
+
+	}
+
+}
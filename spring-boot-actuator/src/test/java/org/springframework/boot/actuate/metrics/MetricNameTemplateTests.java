@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link MetricNameTemplate}.
+ *
+ * @author agent
+ */
+public class MetricNameTemplateTests {
+
+	private final MetricNameTemplate template = new MetricNameTemplate(
+			"counter.status.{status}.{path}");
+
+	@Test
+	public void name() {
+		assertEquals("counter.status", this.template.getName());
+	}
+
+	@Test
+	public void parse() {
+		assertThat(this.template.parse("counter.status.200.home"),
+				sameInstance(MetricName.of("counter.status", "status", "200", "path",
+						"home")));
+	}
+
+	@Test
+	public void parseWithPeriodsInLastTag() {
+		assertEquals("api.users.-id-",
+				this.template.parse("counter.status.200.api.users.-id-").getTags()
+						.get("path"));
+	}
+
+	@Test
+	public void parseNoMatch() {
+		assertNull(this.template.parse("counter.status.200"));
+		assertNull(this.template.parse("counter.foo.200.home"));
+		assertNull(new MetricNameTemplate("cache.{name}.size")
+				.parse("cache.users.size.max"));
+	}
+
+	@Test
+	public void parseTagInTheMiddle() {
+		assertEquals("users", new MetricNameTemplate("cache.{name}.size")
+				.parse("cache.users.size").getTags().get("name"));
+	}
+
+	@Test
+	public void format() {
+		assertEquals("counter.status.404.api.users", this.template.format(MetricName.of(
+				"counter.status", "path", "api.users", "status", "404")));
+	}
+
+	@Test
+	public void roundTrip() {
+		String name = "counter.status.200.api.users.-id-";
+		assertEquals(name, this.template.format(this.template.parse(name)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void formatWrongName() {
+		this.template.format(MetricName.of("counter.foo", "path", "a", "status", "1"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void formatMissingTag() {
+		this.template.format(MetricName.of("counter.status", "status", "200"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void formatExtraTag() {
+		this.template.format(MetricName.of("counter.status", "status", "200", "path",
+				"home", "foo", "bar"));
+	}
+
+	@Test
+	public void prefix() {
+		assertEquals("counter.status.", this.template.getPrefix(MetricTags.empty()));
+		assertEquals("counter.status.404.",
+				this.template.getPrefix(MetricTags.of("status", "404")));
+		assertEquals("counter.status.404.", this.template.getPrefix(MetricTags.of(
+				"status", "404", "path", "home")));
+		assertEquals("counter.status.",
+				this.template.getPrefix(MetricTags.of("path", "home")));
+	}
+
+	@Test
+	public void prefixWithTagInTheMiddle() {
+		MetricNameTemplate template = new MetricNameTemplate("cache.{name}.size");
+		assertEquals("cache.", template.getPrefix(MetricTags.empty()));
+		assertEquals("cache.users.", template.getPrefix(MetricTags.of("name", "users")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void templateWithOnlyTags() {
+		new MetricNameTemplate("{foo}.{bar}");
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link MetricName}.
+ *
+ * @author agent
+ */
+public class MetricNameTests {
+
+	@Test
+	public void interned() {
+		MetricName name = MetricName.of("counter.status", "status", "200", "path",
+				"home");
+		assertThat(name, sameInstance(MetricName.of("counter.status", "path", "home",
+				"status", "200")));
+		assertThat(name, sameInstance(MetricName.of("counter.status")
+				.withTag("status", "200").withTag("path", "home")));
+		assertThat(name, not(sameInstance(MetricName.of("counter.status"))));
+	}
+
+	@Test
+	public void tags() {
+		MetricName name = MetricName.of("counter.status", "status", "200");
+		assertEquals("counter.status", name.getName());
+		assertThat(name.getTags(), sameInstance(MetricTags.of("status", "200")));
+	}
+
+	@Test
+	public void string() {
+		assertEquals("foo", MetricName.of("foo").toString());
+		assertEquals("foo{a=1, b=2}", MetricName.of("foo", "b", "2", "a", "1")
+				.toString());
+	}
+
+	@Test
+	public void compare() {
+		assertThat(MetricName.of("a").compareTo(MetricName.of("b")), lessThan(0));
+		assertThat(MetricName.of("a", "x", "2").compareTo(MetricName.of("a", "x", "1")),
+				greaterThan(0));
+		assertEquals(0, MetricName.of("a", "x", "1")
+				.compareTo(MetricName.of("a", "x", "1")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyName() {
+		MetricName.of("");
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MetricTags}.
+ *
+ * @author agent
+ */
+public class MetricTagsTests {
+
+	@Test
+	public void empty() {
+		assertTrue(MetricTags.of().isEmpty());
+		assertThat(MetricTags.of(), sameInstance(MetricTags.empty()));
+		assertThat(MetricTags.of(Collections.<String, String>emptyMap()),
+				sameInstance(MetricTags.empty()));
+	}
+
+	@Test
+	public void sortedByKey() {
+		MetricTags tags = MetricTags.of("status", "200", "path", "home");
+		assertThat(tags.asMap().keySet(), contains("path", "status"));
+		assertEquals("{path=home, status=200}", tags.toString());
+	}
+
+	@Test
+	public void get() {
+		MetricTags tags = MetricTags.of("status", "200", "path", "home");
+		assertEquals("200", tags.get("status"));
+		assertEquals("home", tags.get("path"));
+		assertNull(tags.get("foo"));
+		assertEquals(2, tags.size());
+	}
+
+	@Test
+	public void containsAll() {
+		MetricTags tags = MetricTags.of("status", "200", "path", "home");
+		assertTrue(tags.containsAll(MetricTags.empty()));
+		assertTrue(tags.containsAll(MetricTags.of("status", "200")));
+		assertTrue(tags.containsAll(tags));
+		assertFalse(tags.containsAll(MetricTags.of("status", "404")));
+		assertFalse(tags.containsAll(MetricTags.of("foo", "bar")));
+		assertFalse(MetricTags.empty().containsAll(tags));
+	}
+
+	@Test
+	public void interned() {
+		assertThat(MetricTags.of("a", "1", "b", "2"),
+				sameInstance(MetricTags.of("b", "2", "a", "1")));
+		assertThat(MetricTags.of("a", "1").and("b", "2"),
+				sameInstance(MetricTags.of("a", "1", "b", "2")));
+	}
+
+	@Test
+	public void andReplacesExistingTag() {
+		assertThat(MetricTags.of("a", "1").and("a", "2"),
+				sameInstance(MetricTags.of("a", "2")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void oddNumberOfArguments() {
+		MetricTags.of("a", "1", "b");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullValue() {
+		MetricTags.of("a", null);
+	}
+
+}
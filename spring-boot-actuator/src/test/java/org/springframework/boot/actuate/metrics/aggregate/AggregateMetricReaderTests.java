@@ -16,7 +16,11 @@
 
 package org.springframework.boot.actuate.metrics.aggregate;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
@@ -24,7 +28,9 @@ import org.springframework.boot.actuate.metrics.repository.InMemoryMetricReposit
 import org.springframework.boot.actuate.metrics.writer.Delta;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link AggregateMetricReader}.
@@ -66,6 +72,21 @@ public class AggregateMetricReaderTests {
 		assertEquals(2, this.reader.count());
 	}
 
+	@Test
+	public void findAllWithPrefix() {
+		this.source.set(new Metric<Double>("foo.bar.spam.bucket", 2.3));
+		this.source.set(new Metric<Double>("foo.bar.spam.wham", 2.4));
+		this.source.set(new Metric<Double>("foo.bar.other", 2.5));
+		Iterator<Metric<?>> metrics = this.reader.findAll("aggregate.spam.").iterator();
+		Set<String> names = new HashSet<String>();
+		names.add(metrics.next().getName());
+		names.add(metrics.next().getName());
+		assertFalse(metrics.hasNext());
+		assertEquals(new HashSet<String>(Arrays.asList("aggregate.spam.bucket",
+				"aggregate.spam.wham")), names);
+		assertFalse(this.reader.findAll("foo.").iterator().hasNext());
+	}
+
 	@Test
 	public void writeAndReadExtraLong() {
 		this.source.set(new Metric<Double>("blee.foo.bar.spam", 2.3));
@@ -109,4 +130,51 @@ public class AggregateMetricReaderTests {
 		assertEquals(2, this.reader.count());
 	}
 
+	@Test
+	public void updatesChangedCounter() {
+		this.source.increment(new Delta<Long>("foo.bar.counter.spam", 2L));
+		this.source.increment(new Delta<Long>("oof.rab.counter.spam", 3L));
+		assertEquals(5L, this.reader.findOne("aggregate.counter.spam").getValue());
+		this.source.increment(new Delta<Long>("foo.bar.counter.spam", 4L));
+		assertEquals(9L, this.reader.findOne("aggregate.counter.spam").getValue());
+	}
+
+	@Test
+	public void removesStaleSource() {
+		this.source.increment(new Delta<Long>("foo.bar.counter.spam", 2L));
+		this.source.increment(new Delta<Long>("oof.rab.counter.spam", 3L));
+		this.source.set(new Metric<Double>("foo.bar.spam", 2.3));
+		assertEquals(2, this.reader.count());
+		this.source.reset("oof.rab.counter.spam");
+		this.source.reset("foo.bar.spam");
+		assertEquals(2L, this.reader.findOne("aggregate.counter.spam").getValue());
+		assertNull(this.reader.findOne("aggregate.spam"));
+		assertEquals(1, this.reader.count());
+	}
+
+	@Test
+	public void timeToLiveCachesAggregates() {
+		this.reader.setTimeToLive(10000);
+		this.source.set(new Metric<Double>("foo.bar.spam", 2.3));
+		assertEquals(2.3, this.reader.findOne("aggregate.spam").getValue());
+		this.source.set(new Metric<Double>("foo.bar.spam", 2.4, new Date(
+				System.currentTimeMillis() + 1000)));
+		assertEquals(2.3, this.reader.findOne("aggregate.spam").getValue());
+		this.reader.refresh();
+		assertEquals(2.4, this.reader.findOne("aggregate.spam").getValue());
+	}
+
+	@Test
+	public void findAll() {
+		this.source.set(new Metric<Double>("foo.bar.spam", 2.3));
+		this.source.set(new Metric<Double>("oof.rab.spam", 2.4));
+		this.source.increment(new Delta<Long>("foo.bar.counter.spam", 2L));
+		int count = 0;
+		for (Metric<?> metric : this.reader.findAll()) {
+			assertTrue(metric.getName().startsWith("aggregate."));
+			count++;
+		}
+		assertEquals(2, count);
+	}
+
 }
@@ -18,18 +18,24 @@ package org.springframework.boot.actuate.metrics.opentsdb;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestOperations;
 
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -48,13 +54,19 @@ public class OpenTsdbMetricWriterTests {
 		this.writer.setRestTemplate(this.restTemplate);
 	}
 
+	@After
+	public void close() {
+		this.writer.close();
+	}
+
 	@Test
 	public void postSuccessfullyOnFlush() {
 		this.writer.set(new Metric<Double>("foo", 2.4));
 		given(this.restTemplate.postForEntity(anyString(), any(Object.class), anyMap()))
 				.willReturn(emptyResponse());
 		this.writer.flush();
-		verify(this.restTemplate).postForEntity(anyString(), any(Object.class), anyMap());
+		verify(this.restTemplate, timeout(5000)).postForEntity(anyString(),
+				any(Object.class), anyMap());
 	}
 
 	@Test
@@ -63,7 +75,46 @@ public class OpenTsdbMetricWriterTests {
 				.willReturn(emptyResponse());
 		this.writer.setBufferSize(0);
 		this.writer.set(new Metric<Double>("foo", 2.4));
-		verify(this.restTemplate).postForEntity(anyString(), any(Object.class), anyMap());
+		verify(this.restTemplate, timeout(5000)).postForEntity(anyString(),
+				any(Object.class), anyMap());
+	}
+
+	@Test
+	public void postInBatches() {
+		given(this.restTemplate.postForEntity(anyString(), any(Object.class), anyMap()))
+				.willReturn(emptyResponse());
+		this.writer.setBufferSize(2);
+		this.writer.setMaxDelay(60000);
+		this.writer.set(new Metric<Double>("foo", 2.4));
+		this.writer.set(new Metric<Double>("bar", 2.4));
+		this.writer.set(new Metric<Double>("spam", 2.4));
+		verify(this.restTemplate, timeout(5000)).postForEntity(anyString(),
+				any(Object.class), anyMap());
+		this.writer.flush();
+		verify(this.restTemplate, timeout(5000).times(2)).postForEntity(anyString(),
+				any(Object.class), anyMap());
+	}
+
+	@Test
+	public void slowServerDoesNotBlockWriter() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		given(this.restTemplate.postForEntity(anyString(), any(Object.class), anyMap()))
+				.willAnswer(new Answer<Object>() {
+
+					@Override
+					public Object answer(InvocationOnMock invocation) throws Throwable {
+						latch.await();
+						return emptyResponse();
+					}
+
+				});
+		this.writer.setBufferSize(1);
+		this.writer.setQueueCapacity(2);
+		for (int i = 0; i < 10; i++) {
+			this.writer.set(new Metric<Double>("foo", 2.4));
+		}
+		latch.countDown();
+		assertTrue(this.writer.getDroppedCount() > 0);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.prometheus;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DefaultPrometheusNamingStrategy}.
+ *
+ * @author agent
+ */
+public class DefaultPrometheusNamingStrategyTests {
+
+	private final DefaultPrometheusNamingStrategy strategy = new DefaultPrometheusNamingStrategy();
+
+	@Test
+	public void plainName() {
+		PrometheusName name = this.strategy.getName("counter.foo-bar.spam");
+		assertEquals("counter_foo_bar_spam", name.getName());
+		assertTrue(name.getLabels().isEmpty());
+		assertEquals("counter_foo_bar_spam", name.getSeries());
+	}
+
+	@Test
+	public void requestCounter() {
+		PrometheusName name = this.strategy.getName("counter.status.200.metrics.foo");
+		assertEquals("counter_status", name.getName());
+		assertEquals("counter_status{path=\"metrics.foo\",status=\"200\"}",
+				name.getSeries());
+	}
+
+	@Test
+	public void requestGauge() {
+		PrometheusName name = this.strategy.getName("gauge.response.star-star");
+		assertEquals("gauge_response{path=\"star-star\"}", name.getSeries());
+		assertEquals("gauge_response_avg{path=\"star-star\"}", name.getSeries("_avg"));
+	}
+
+	@Test
+	public void tooShortForTemplate() {
+		PrometheusName name = this.strategy.getName("counter.status.200");
+		assertEquals("counter_status_200", name.getSeries());
+	}
+
+	@Test
+	public void customTemplateWithLabelInTheMiddle() {
+		this.strategy.setTemplates(Arrays.asList("cache.{name}.size"));
+		assertEquals("cache_size{name=\"users\"}",
+				this.strategy.getName("cache.users.size").getSeries());
+		assertEquals("cache_users_size_max",
+				this.strategy.getName("cache.users.size.max").getSeries());
+	}
+
+	@Test
+	public void commonLabels() {
+		this.strategy.setLabels(Collections.singletonMap("app", "foo"));
+		assertEquals("counter_status{app=\"foo\",path=\"bar\",status=\"404\"}",
+				this.strategy.getName("counter.status.404.bar").getSeries());
+		assertEquals("counter_spam{app=\"foo\"}",
+				this.strategy.getName("counter.spam").getSeries());
+	}
+
+	@Test
+	public void labelValuesAreEscaped() {
+		this.strategy.setLabels(Collections.singletonMap("app", "a\"b\\c"));
+		assertEquals("foo{app=\"a\\\"b\\\\c\"}", this.strategy.getName("foo")
+				.getSeries());
+	}
+
+	@Test
+	public void leadingDigit() {
+		assertEquals("_5xx", this.strategy.getName("5xx").getSeries());
+	}
+
+	@Test
+	public void namesAreCached() {
+		assertThat(this.strategy.getName("counter.foo"),
+				sameInstance(this.strategy.getName("counter.foo")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void templateWithOnlyLabels() {
+		this.strategy.setTemplates(Arrays.asList("{foo}.{bar}"));
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.prometheus;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
+import org.springframework.boot.actuate.metrics.rich.InMemoryRichGaugeRepository;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link PrometheusTextWriter}.
+ *
+ * @author agent
+ */
+public class PrometheusTextWriterTests {
+
+	private final CounterBuffers counters = new CounterBuffers();
+
+	private final GaugeBuffers gauges = new GaugeBuffers();
+
+	private final PrometheusTextWriter writer = new PrometheusTextWriter(this.counters,
+			this.gauges);
+
+	@Test
+	public void empty() throws Exception {
+		assertEquals("", write());
+	}
+
+	@Test
+	public void countersAndGauges() throws Exception {
+		this.counters.increment("counter.foo", 3);
+		this.gauges.set("gauge.bar", 1.5);
+		assertEquals("# TYPE counter_foo counter\ncounter_foo 3\n"
+				+ "# TYPE gauge_bar gauge\ngauge_bar 1.5\n", write());
+	}
+
+	@Test
+	public void seriesAreGroupedByName() throws Exception {
+		this.counters.increment("counter.status.200.foo", 1);
+		this.counters.increment("counter.spam", 1);
+		this.counters.increment("counter.status.404.bar", 2);
+		String result = write();
+		assertThat(result, containsString("# TYPE counter_status counter\n"
+				+ "counter_status{path=\""));
+		String[] lines = result.split("\n");
+		assertEquals(5, lines.length);
+		assertEquals("# TYPE counter_spam counter", lines[0]);
+		assertEquals("counter_spam 1", lines[1]);
+		assertEquals("# TYPE counter_status counter", lines[2]);
+	}
+
+	@Test
+	public void specialValues() throws Exception {
+		this.gauges.set("a", Double.NaN);
+		this.gauges.set("b", Double.POSITIVE_INFINITY);
+		String result = write();
+		assertThat(result, containsString("a NaN\n"));
+		assertThat(result, containsString("b +Inf\n"));
+	}
+
+	@Test
+	public void conflictingTypesAreUntyped() throws Exception {
+		this.counters.increment("foo", 1);
+		this.gauges.set("foo", 2);
+		assertThat(write(), containsString("# TYPE foo untyped\n"));
+	}
+
+	@Test
+	public void richGauges() throws Exception {
+		InMemoryRichGaugeRepository repository = new InMemoryRichGaugeRepository();
+		repository.set(new Metric<Double>("rich", 2.0));
+		repository.set(new Metric<Double>("rich", 6.0));
+		this.writer.setRichGaugeReader(repository);
+		String result = write();
+		assertThat(result, containsString("# TYPE rich gauge\nrich 6.0\n"));
+		assertThat(result, containsString("# TYPE rich_count counter\nrich_count 2\n"));
+		assertThat(result, containsString("rich_max 6.0\n"));
+	}
+
+	private String write() throws Exception {
+		StringWriter result = new StringWriter();
+		this.writer.write(result);
+		return result.toString();
+	}
+
+}
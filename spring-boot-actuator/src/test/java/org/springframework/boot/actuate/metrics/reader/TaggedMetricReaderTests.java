@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.reader;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.MetricName;
+import org.springframework.boot.actuate.metrics.MetricNameTemplate;
+import org.springframework.boot.actuate.metrics.MetricTags;
+import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link TaggedMetricReader}.
+ *
+ * @author agent
+ */
+public class TaggedMetricReaderTests {
+
+	private final InMemoryMetricRepository repository = new InMemoryMetricRepository();
+
+	private final TaggedMetricReader reader = new TaggedMetricReader(this.repository,
+			new MetricNameTemplate("counter.status.{status}.{path}"));
+
+	@Test
+	public void findOne() {
+		this.repository.set(new Metric<Integer>("counter.status.200.api.users", 3));
+		assertEquals(3, this.reader.findOne(MetricName.of("counter.status", "status",
+				"200", "path", "api.users")).getValue());
+		assertNull(this.reader.findOne(MetricName.of("counter.status", "status", "404",
+				"path", "api.users")));
+	}
+
+	@Test
+	public void findOneWithPrefixReader() {
+		PrefixMetricReader source = mock(PrefixMetricReader.class);
+		given(source.findAll("counter.status.200.home")).willReturn(
+				Arrays.<Metric<?>>asList(new Metric<Integer>("counter.status.200.homer",
+						1), new Metric<Integer>("counter.status.200.home", 2)));
+		TaggedMetricReader reader = new TaggedMetricReader(source,
+				this.reader.getTemplate());
+		assertEquals(2, reader.findOne(MetricName.of("counter.status", "status", "200",
+				"path", "home")).getValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void findOneWithWrongName() {
+		this.reader.findOne(MetricName.of("counter.foo", "status", "200"));
+	}
+
+	@Test
+	public void findAll() {
+		this.repository.set(new Metric<Integer>("counter.status.200.home", 1));
+		this.repository.set(new Metric<Integer>("counter.status.404.home", 2));
+		this.repository.set(new Metric<Integer>("counter.foo", 3));
+		Map<MetricName, Metric<?>> metrics = this.reader.findAll();
+		assertThat(metrics.keySet(), contains(
+				MetricName.of("counter.status", "status", "200", "path", "home"),
+				MetricName.of("counter.status", "status", "404", "path", "home")));
+	}
+
+	@Test
+	public void findAllWithTags() {
+		this.repository.set(new Metric<Integer>("counter.status.200.home", 1));
+		this.repository.set(new Metric<Integer>("counter.status.404.home", 2));
+		this.repository.set(new Metric<Integer>("counter.status.404.api.users", 3));
+		Map<MetricName, Metric<?>> metrics = this.reader.findAll(MetricTags.of("path",
+				"home"));
+		assertThat(metrics.keySet(), contains(
+				MetricName.of("counter.status", "status", "200", "path", "home"),
+				MetricName.of("counter.status", "status", "404", "path", "home")));
+		metrics = this.reader.findAll(MetricTags.of("status", "404", "path",
+				"api.users"));
+		assertEquals(3, metrics.get(
+				MetricName.of("counter.status", "status", "404", "path", "api.users"))
+				.getValue());
+		assertEquals(1, metrics.size());
+	}
+
+	@Test
+	public void findAllScansPrefixOfTags() {
+		PrefixMetricReader source = mock(PrefixMetricReader.class);
+		given(source.findAll("counter.status.404.")).willReturn(
+				Collections.<Metric<?>>singletonList(new Metric<Integer>(
+						"counter.status.404.home", 2)));
+		TaggedMetricReader reader = new TaggedMetricReader(source,
+				this.reader.getTemplate());
+		assertEquals(1, reader.findAll(MetricTags.of("status", "404")).size());
+		verify(source).findAll("counter.status.404.");
+	}
+
+	@Test
+	public void findAllReusesTaggedNames() {
+		this.repository.set(new Metric<Integer>("counter.status.200.home", 1));
+		MetricName name = this.reader.findAll().keySet().iterator().next();
+		this.repository.set(new Metric<Integer>("counter.status.200.home", 2));
+		assertThat(this.reader.findAll().keySet().iterator().next(),
+				sameInstance(name));
+	}
+
+}
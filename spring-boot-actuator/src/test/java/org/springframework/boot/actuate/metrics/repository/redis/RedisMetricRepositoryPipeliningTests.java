@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.repository.redis;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Iterables;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.data.redis.connection.DefaultTuple;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisZSetCommands.Tuple;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the number of redis round trips made by {@link RedisMetricRepository}.
+ *
+ * @author agent
+ */
+public class RedisMetricRepositoryPipeliningTests {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private RedisConnection connection = mock(RedisConnection.class);
+
+	private RedisMetricRepository repository;
+
+	@Before
+	public void init() {
+		RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+		given(connectionFactory.getConnection()).willReturn(this.connection);
+		this.repository = new RedisMetricRepository(connectionFactory, "spring.test");
+	}
+
+	@Test
+	public void findAllUsesConstantRoundTrips() {
+		Set<Tuple> tuples = new LinkedHashSet<Tuple>();
+		List<byte[]> timestamps = new ArrayList<byte[]>();
+		for (int i = 0; i < 1000; i++) {
+			tuples.add(new DefaultTuple(bytes("spring.test.foo" + i), (double) i));
+			timestamps.add(bytes("1000"));
+		}
+		given(this.connection.zRangeWithScores(bytes("keys.spring.test"), 0, -1))
+				.willReturn(tuples);
+		given(this.connection.mGet((byte[][]) anyVararg())).willReturn(timestamps);
+		List<Metric<?>> metrics = new ArrayList<Metric<?>>(
+				Iterables.collection(this.repository.findAll()));
+		assertEquals(1000, metrics.size());
+		assertEquals("foo999", metrics.get(999).getName());
+		assertEquals(999, metrics.get(999).getValue().intValue());
+		verify(this.connection, times(1)).mGet((byte[][]) anyVararg());
+		verify(this.connection, never()).zScore(any(byte[].class), any(byte[].class));
+	}
+
+	@Test
+	public void findOneUsesSinglePipeline() {
+		List<Object> results = new ArrayList<Object>();
+		results.add(bytes("1000"));
+		results.add(12.3);
+		given(this.connection.closePipeline()).willReturn(results);
+		Metric<?> metric = this.repository.findOne("foo");
+		assertEquals("foo", metric.getName());
+		assertEquals(12.3, metric.getValue().doubleValue(), 0.01);
+		verify(this.connection, times(1)).openPipeline();
+	}
+
+	@Test
+	public void bufferedWritesUseSinglePipeline() {
+		this.repository.setBufferSize(100);
+		for (int i = 0; i < 99; i++) {
+			this.repository.set(new Metric<Number>("foo" + i, i));
+		}
+		this.repository.increment(new Delta<Long>("bar", 3L));
+		verify(this.connection, times(1)).openPipeline();
+		verify(this.connection, times(99)).zAdd(any(byte[].class), anyDouble(),
+				any(byte[].class));
+		verify(this.connection, times(1)).zIncrBy(any(byte[].class), anyDouble(),
+				any(byte[].class));
+	}
+
+	@Test
+	public void flushWritesPartialBuffer() {
+		this.repository.setBufferSize(100);
+		this.repository.set(new Metric<Number>("foo", 12.3));
+		verify(this.connection, never()).openPipeline();
+		this.repository.flush();
+		verify(this.connection, times(1)).openPipeline();
+		verify(this.connection, times(1)).zAdd(any(byte[].class), anyDouble(),
+				any(byte[].class));
+	}
+
+	private byte[] bytes(String value) {
+		return value.getBytes(UTF_8);
+	}
+
+}
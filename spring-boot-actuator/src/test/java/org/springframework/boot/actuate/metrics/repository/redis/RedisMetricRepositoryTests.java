@@ -105,4 +105,15 @@ public class RedisMetricRepositoryTests {
 		assertEquals(2, this.repository.count());
 	}
 
+	@Test
+	public void bufferedWrites() {
+		this.repository.setBufferSize(3);
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.set(new Metric<Number>("bar", 12.3));
+		assertNull(this.repository.findOne("foo"));
+		this.repository.flush();
+		assertEquals(3, this.repository.findOne("foo").getValue().longValue());
+		assertEquals(2, this.repository.count());
+	}
+
 }
@@ -96,6 +96,28 @@ public class StatsdMetricWriterTests {
 		assertEquals("my.gauge.foo:3|g", this.server.messagesReceived().get(0));
 	}
 
+	@Test
+	public void multiMetricPacket() throws Exception {
+		this.writer.setMaxDelay(60000);
+		this.writer.set(new Metric<Long>("gauge.foo", 3L));
+		this.writer.increment(new Delta<Long>("counter.foo", 3L));
+		this.writer.flush();
+		this.server.waitForMessage();
+		assertEquals("me.gauge.foo:3|g\nme.counter.foo:3|c", this.server
+				.messagesReceived().get(0));
+	}
+
+	@Test
+	public void splitPacketsAtMaxPacketSize() throws Exception {
+		this.writer.setMaxDelay(60000);
+		this.writer.setMaxPacketSize(20);
+		this.writer.set(new Metric<Long>("gauge.foo", 3L));
+		this.writer.set(new Metric<Long>("gauge.bar", 4L));
+		this.writer.flush();
+		this.server.waitForMessage();
+		assertEquals("me.gauge.foo:3|g", this.server.messagesReceived().get(0));
+	}
+
 	private static final class DummyStatsDServer {
 
 		private final List<String> messagesReceived = new ArrayList<String>();
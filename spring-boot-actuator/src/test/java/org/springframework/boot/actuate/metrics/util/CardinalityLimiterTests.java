@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CardinalityLimiter}.
+ *
+ * @author agent
+ */
+public class CardinalityLimiterTests {
+
+	private final CardinalityLimiter limiter = new CardinalityLimiter(2);
+
+	@Test
+	public void acceptsUpToLimit() {
+		assertTrue(this.limiter.accept("a"));
+		assertTrue(this.limiter.accept("b"));
+		assertFalse(this.limiter.accept("c"));
+		assertEquals(2, this.limiter.getAcceptedCount());
+		assertEquals(1, this.limiter.getRejectedCount());
+	}
+
+	@Test
+	public void alwaysAcceptsKnownNames() {
+		this.limiter.accept("a");
+		this.limiter.accept("b");
+		assertTrue(this.limiter.accept("a"));
+		assertTrue(this.limiter.accept("b"));
+		assertEquals(0, this.limiter.getRejectedCount());
+	}
+
+	@Test
+	public void prefixLimits() {
+		this.limiter.setLimits(Collections.singletonMap("foo.", 1));
+		assertTrue(this.limiter.accept("foo.a"));
+		assertFalse(this.limiter.accept("foo.b"));
+		assertTrue(this.limiter.accept("bar.a"));
+		assertTrue(this.limiter.accept("bar.b"));
+		assertFalse(this.limiter.accept("bar.c"));
+	}
+
+	@Test
+	public void longestPrefixWins() {
+		Map<String, Integer> limits = new LinkedHashMap<String, Integer>();
+		limits.put("foo.", 0);
+		limits.put("foo.bar.", 1);
+		this.limiter.setLimits(limits);
+		assertTrue(this.limiter.accept("foo.bar.a"));
+		assertFalse(this.limiter.accept("foo.spam"));
+	}
+
+	@Test
+	public void prefixLimitsWithSeparator() {
+		CardinalityLimiter limiter = new CardinalityLimiter(2, "/");
+		limiter.setLimits(Collections.singletonMap("/api", 2));
+		assertTrue(limiter.accept("/api"));
+		assertTrue(limiter.accept("/api/a"));
+		assertFalse(limiter.accept("/api/b"));
+		assertTrue(limiter.accept("/apix"));
+		assertTrue(limiter.accept("/apiy/a"));
+		assertFalse(limiter.accept("/apiz"));
+	}
+
+	@Test
+	public void zeroLimit() {
+		CardinalityLimiter limiter = new CardinalityLimiter(0);
+		assertFalse(limiter.accept("a"));
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.writer.MetricBatchSender.BatchCallback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MetricBatchSender}.
+ *
+ * @author agent
+ */
+public class MetricBatchSenderTests {
+
+	private final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<List<String>>();
+
+	private final MetricBatchSender<String> sender = new MetricBatchSender<String>(
+			"test", new BatchCallback<String>() {
+
+				@Override
+				public void send(List<String> batch) {
+					MetricBatchSenderTests.this.batches.add(new ArrayList<String>(batch));
+				}
+
+			});
+
+	@After
+	public void close() {
+		this.sender.close();
+	}
+
+	@Test
+	public void sendWhenBatchIsFull() throws Exception {
+		this.sender.setMaxDelay(60000);
+		this.sender.setBatchSize(2);
+		this.sender.add("foo");
+		this.sender.add("bar");
+		this.sender.add("spam");
+		assertEquals(Arrays.asList("foo", "bar"), nextBatch());
+		assertNull(this.batches.poll(100, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void sendOnFlush() throws Exception {
+		this.sender.setMaxDelay(60000);
+		this.sender.add("foo");
+		this.sender.add("bar");
+		this.sender.flush();
+		assertEquals(Arrays.asList("foo", "bar"), nextBatch());
+	}
+
+	@Test
+	public void sendAfterMaxDelay() throws Exception {
+		this.sender.setMaxDelay(50);
+		this.sender.add("foo");
+		assertEquals(Arrays.asList("foo"), nextBatch());
+	}
+
+	@Test
+	public void waitWhenIdleWithoutMaxDelay() throws Exception {
+		this.sender.setMaxDelay(0);
+		this.sender.add("foo");
+		assertEquals(Arrays.asList("foo"), nextBatch());
+		Thread thread = getSenderThread();
+		long timeout = System.currentTimeMillis() + 5000;
+		while (thread.getState() != Thread.State.WAITING
+				&& System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+		assertEquals(Thread.State.WAITING, thread.getState());
+		this.sender.add("bar");
+		assertEquals(Arrays.asList("bar"), nextBatch());
+	}
+
+	@Test
+	public void sendOnClose() throws Exception {
+		this.sender.setMaxDelay(60000);
+		this.sender.add("foo");
+		this.sender.close();
+		assertEquals(Arrays.asList("foo"), this.batches.poll());
+		assertFalse(this.sender.add("bar"));
+	}
+
+	@Test
+	public void dropWhenQueueIsFull() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		MetricBatchSender<String> sender = new MetricBatchSender<String>("slow",
+				new BatchCallback<String>() {
+
+					@Override
+					public void send(List<String> batch) throws Exception {
+						latch.await();
+					}
+
+				});
+		sender.setBatchSize(1);
+		sender.setQueueCapacity(2);
+		try {
+			int added = 0;
+			for (int i = 0; i < 10; i++) {
+				added += (sender.add("foo") ? 1 : 0);
+			}
+			assertTrue(added <= 3);
+			assertEquals(10 - added, sender.getDroppedCount());
+		}
+		finally {
+			latch.countDown();
+			sender.close();
+		}
+	}
+
+	@Test
+	public void failedBatchIsDiscarded() throws Exception {
+		final BlockingQueue<List<String>> sent = new LinkedBlockingQueue<List<String>>();
+		MetricBatchSender<String> sender = new MetricBatchSender<String>("failing",
+				new BatchCallback<String>() {
+
+					@Override
+					public void send(List<String> batch) throws Exception {
+						sent.add(new ArrayList<String>(batch));
+						if (batch.contains("bad")) {
+							throw new IllegalStateException("Planned");
+						}
+					}
+
+				});
+		try {
+			sender.setBatchSize(1);
+			sender.add("bad");
+			sender.add("good");
+			assertEquals(Arrays.asList("bad"), sent.poll(5, TimeUnit.SECONDS));
+			assertEquals(Arrays.asList("good"), sent.poll(5, TimeUnit.SECONDS));
+		}
+		finally {
+			sender.close();
+		}
+	}
+
+	private Thread getSenderThread() {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if ("test-metric-sender".equals(thread.getName()) && thread.isAlive()) {
+				return thread;
+			}
+		}
+		throw new IllegalStateException("No sender thread");
+	}
+
+	private List<String> nextBatch() throws InterruptedException {
+		return this.batches.poll(5, TimeUnit.SECONDS);
+	}
+
+}
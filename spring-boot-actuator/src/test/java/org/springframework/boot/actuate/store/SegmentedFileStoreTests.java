@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.boot.actuate.store;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.actuate.store.SegmentedFileStore.RecordCallback;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SegmentedFileStore}.
+ *
+ * @author agent
+ */
+public class SegmentedFileStoreTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private File directory;
+
+	private SegmentedFileStore store;
+
+	@Before
+	public void setup() throws IOException {
+		this.directory = this.temporaryFolder.newFolder();
+		this.store = new SegmentedFileStore(this.directory, "test", 64, 3);
+	}
+
+	@After
+	public void close() throws IOException {
+		this.store.close();
+	}
+
+	@Test
+	public void readAfter() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			this.store.append(i * 10, new byte[] { (byte) i });
+		}
+		assertThat(read(this.store, 25), contains(3, 4));
+		assertThat(read(this.store, Long.MIN_VALUE), contains(0, 1, 2, 3, 4));
+	}
+
+	@Test
+	public void readReverse() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			this.store.append(i * 10, new byte[] { (byte) i });
+		}
+		final List<Integer> values = new ArrayList<Integer>();
+		this.store.readReverse(new RecordCallback() {
+
+			@Override
+			public boolean record(long timestamp, DataInput data) throws IOException {
+				values.add((int) data.readByte());
+				return values.size() < 3;
+			}
+
+		});
+		assertThat(values, contains(4, 3, 2));
+	}
+
+	@Test
+	public void rollsAndDeletesOldSegments() throws Exception {
+		// Each segment holds four 1 byte records
+		for (int i = 0; i < 14; i++) {
+			this.store.append(i, new byte[] { (byte) i });
+		}
+		assertThat(this.directory.list().length, equalTo(3));
+		assertThat(read(this.store, Long.MIN_VALUE),
+				contains(4, 5, 6, 7, 8, 9, 10, 11, 12, 13));
+	}
+
+	@Test
+	public void recoversExistingRecords() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			this.store.append(i, new byte[] { (byte) i });
+		}
+		this.store.close();
+		this.store = new SegmentedFileStore(this.directory, "test", 64, 3);
+		this.store.append(5, new byte[] { 5 });
+		assertThat(read(this.store, 2), contains(2, 3, 4, 5));
+	}
+
+	@Test
+	public void deletedSegmentFilesAreRemoved() throws Exception {
+		for (int i = 0; i < 14; i++) {
+			this.store.append(i, new byte[] { (byte) i });
+		}
+		assertThat(new File(this.directory, String.format("test-%019d.seg", 0))
+				.exists(), equalTo(false));
+		assertThat(new File(this.directory, String.format("test-%019d.seg", 1))
+				.exists(), equalTo(true));
+	}
+
+	@Test
+	public void directoryThatCannotBeListed() throws Exception {
+		this.thrown.expect(IOException.class);
+		this.thrown.expectMessage("Unable to list segment files");
+		new SegmentedFileStore(this.temporaryFolder.newFile(), "test", 64, 3);
+	}
+
+	@Test
+	public void readOutOfOrder() throws Exception {
+		this.store.append(10, new byte[] { 1 });
+		this.store.append(5, new byte[] { 2 });
+		this.store.append(20, new byte[] { 3 });
+		assertThat(read(this.store, 15), contains(1, 2, 3));
+	}
+
+	private List<Integer> read(SegmentedFileStore store, long after) throws IOException {
+		final List<Integer> values = new ArrayList<Integer>();
+		store.read(after, new RecordCallback() {
+
+			@Override
+			public boolean record(long timestamp, DataInput data) throws IOException {
+				values.add((int) data.readByte());
+				return true;
+			}
+
+		});
+		return values;
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.system;
+
+import java.io.File;
+import java.io.FileReader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.StartupTimeline;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.EnvironmentTestUtils;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.util.FileCopyUtils;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link StartupTimelineFileWriter}.
+ *
+ * @author agent
+ */
+public class StartupTimelineFileWriterTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void createTimelineFile() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "timeline.json");
+		StartupTimelineFileWriter listener = new StartupTimelineFileWriter(file);
+		listener.onApplicationEvent(createReadyEvent(true));
+		String content = FileCopyUtils.copyToString(new FileReader(file));
+		assertThat(content, containsString("\"steps\""));
+		assertThat(content, containsString("\"name\" : \"foo\""));
+	}
+
+	@Test
+	public void overrideTimelineFileWithSpring() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "timeline.json");
+		ApplicationReadyEvent event = createReadyEvent(true);
+		EnvironmentTestUtils.addEnvironment(event.getApplicationContext(),
+				"spring.startup-timeline.file:" + file.getAbsolutePath());
+		new StartupTimelineFileWriter().onApplicationEvent(event);
+		assertThat(FileCopyUtils.copyToString(new FileReader(file)),
+				containsString("\"steps\""));
+	}
+
+	@Test
+	public void noTimeline() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "timeline.json");
+		new StartupTimelineFileWriter(file).onApplicationEvent(createReadyEvent(false));
+		assertFalse(file.exists());
+	}
+
+	private ApplicationReadyEvent createReadyEvent(boolean withTimeline) {
+		StaticApplicationContext context = new StaticApplicationContext();
+		if (withTimeline) {
+			StartupTimeline timeline = new StartupTimeline();
+			timeline.record("test", "foo", System.nanoTime());
+			timeline.stop();
+			context.getBeanFactory().registerSingleton(StartupTimeline.BEAN_NAME,
+					timeline);
+		}
+		return new ApplicationReadyEvent(new SpringApplication(), new String[0],
+				context);
+	}
+
+}
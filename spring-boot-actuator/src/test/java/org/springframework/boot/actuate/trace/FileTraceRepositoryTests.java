@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.boot.actuate.trace;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link FileTraceRepository}.
+ *
+ * @author agent
+ */
+public class FileTraceRepositoryTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File directory;
+
+	private FileTraceRepository repository;
+
+	@Before
+	public void setup() throws Exception {
+		this.directory = this.temporaryFolder.newFolder();
+		this.repository = new FileTraceRepository(this.directory);
+	}
+
+	@After
+	public void close() throws Exception {
+		this.repository.close();
+	}
+
+	@Test
+	public void capacityLimited() {
+		this.repository.setCapacity(2);
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "foo"));
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "bar"));
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(2, traces.size());
+		assertEquals("bar", traces.get(0).getInfo().get("bar"));
+		assertEquals("foo", traces.get(1).getInfo().get("bar"));
+	}
+
+	@Test
+	public void reverseFalse() {
+		this.repository.setReverse(false);
+		this.repository.setCapacity(2);
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "foo"));
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "bar"));
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(2, traces.size());
+		assertEquals("bar", traces.get(1).getInfo().get("bar"));
+		assertEquals("foo", traces.get(0).getInfo().get("bar"));
+	}
+
+	@Test
+	public void findAfter() {
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		List<Trace> traces = this.repository.find(new Date(0), 10);
+		assertEquals(1, traces.size());
+		traces = this.repository.find(new Date(System.currentTimeMillis() + 10000), 10);
+		assertEquals(0, traces.size());
+	}
+
+	@Test
+	public void oversizedTraceIsDropped() throws Exception {
+		this.repository.close();
+		this.repository = new FileTraceRepository(this.directory, 128, 2);
+		this.repository.add(Collections.<String, Object> singletonMap("foo",
+				new String(new char[1000]).replace('\0', 'x')));
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(1, traces.size());
+		assertEquals("bar", traces.get(0).getInfo().get("foo"));
+		assertEquals(1, this.repository.getDroppedCount());
+	}
+
+	@Test
+	public void tracesSurviveRestart() throws Exception {
+		this.repository.add(Collections.<String, Object> singletonMap("foo",
+				Collections.singletonMap("bar", "baz")));
+		this.repository.close();
+		this.repository = new FileTraceRepository(this.directory);
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(1, traces.size());
+		assertEquals(Collections.singletonMap("bar", "baz"),
+				traces.get(0).getInfo().get("foo"));
+	}
+
+}
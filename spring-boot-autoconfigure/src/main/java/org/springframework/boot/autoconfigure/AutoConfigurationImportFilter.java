@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.ResourceLoaderAware;
+
+/**
+ * Filter that can be registered in {@code spring.factories} to quickly discard
+ * {@link EnableAutoConfiguration auto-configuration} candidates using
+ * {@link AutoConfigurationMetadata} before their class files are read.
+ * <p>
+ * A filter may implement any of the following {@code Aware} interfaces, and their
+ * respective methods will be called prior to {@link #match}:
+ * <ul>
+ * <li>{@link EnvironmentAware}</li>
+ * <li>{@link BeanFactoryAware}</li>
+ * <li>{@link BeanClassLoaderAware}</li>
+ * <li>{@link ResourceLoaderAware}</li>
+ * </ul>
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public interface AutoConfigurationImportFilter {
+
+	/**
+	 * Apply the filter to the given auto-configuration class candidates. Candidates
+	 * that have no meta-data should always match so that they are processed as usual.
+	 * @param autoConfigurationClasses the auto-configuration classes being considered
+	 * @param autoConfigurationMetadata access to the meta-data generated by the
+	 * auto-configure annotation processor
+	 * @return an array of the same size as {@code autoConfigurationClasses} indicating
+	 * which classes should be imported
+	 */
+	boolean[] match(String[] autoConfigurationClasses,
+			AutoConfigurationMetadata autoConfigurationMetadata);
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Internal utility used to load {@link AutoConfigurationMetadata}.
+ *
+ * @author agent
+ */
+final class AutoConfigurationMetadataLoader {
+
+	static final String PATH = "META-INF/"
+			+ "spring-autoconfigure-metadata.properties";
+
+	private static final Map<ClassLoader, AutoConfigurationMetadata> cache = new ConcurrentReferenceHashMap<ClassLoader, AutoConfigurationMetadata>();
+
+	private AutoConfigurationMetadataLoader() {
+	}
+
+	/**
+	 * Load the metadata from all {@link #PATH locations} visible to the given class
+	 * loader. The result is cached so the same instance is returned for the same class
+	 * loader.
+	 * @param classLoader the class loader or {@code null} to use the default
+	 * @return the metadata
+	 */
+	public static AutoConfigurationMetadata loadMetadata(ClassLoader classLoader) {
+		if (classLoader == null) {
+			classLoader = ClassUtils.getDefaultClassLoader();
+		}
+		AutoConfigurationMetadata metadata = cache.get(classLoader);
+		if (metadata == null) {
+			metadata = doLoadMetadata(classLoader);
+			cache.put(classLoader, metadata);
+		}
+		return metadata;
+	}
+
+	private static AutoConfigurationMetadata doLoadMetadata(ClassLoader classLoader) {
+		try {
+			return loadMetadata(PropertiesLoaderUtils.loadAllProperties(PATH,
+					classLoader));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load auto-configuration "
+					+ "meta-data from location [" + PATH + "]", ex);
+		}
+	}
+
+	static AutoConfigurationMetadata loadMetadata(Properties properties) {
+		return new PropertiesAutoConfigurationMetadata(properties);
+	}
+
+	/**
+	 * {@link AutoConfigurationMetadata} implementation backed by a properties file.
+	 */
+	private static class PropertiesAutoConfigurationMetadata implements
+			AutoConfigurationMetadata {
+
+		private final Properties properties;
+
+		PropertiesAutoConfigurationMetadata(Properties properties) {
+			this.properties = properties;
+		}
+
+		@Override
+		public boolean wasProcessed(String className) {
+			return this.properties.containsKey(className);
+		}
+
+		@Override
+		public Integer getInteger(String className, String key, Integer defaultValue) {
+			String value = get(className, key);
+			return (value == null ? defaultValue : Integer.valueOf(value));
+		}
+
+		@Override
+		public Set<String> getSet(String className, String key) {
+			String value = get(className, key);
+			return (value == null ? null : StringUtils.commaDelimitedListToSet(value));
+		}
+
+		private String get(String className, String key) {
+			return this.properties.getProperty(className + "." + key);
+		}
+
+	}
+
+}
@@ -25,15 +25,16 @@ import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import org.springframework.core.Ordered;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
-import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Sort {@link EnableAutoConfiguration auto-configuration} classes into priority order by
@@ -44,17 +45,50 @@ import org.springframework.util.Assert;
  */
 class AutoConfigurationSorter {
 
-	private final CachingMetadataReaderFactory metadataReaderFactory;
+	/**
+	 * Results are shared across contexts in the same JVM. The key includes the
+	 * metadata instance which is itself cached per class loader.
+	 */
+	private static final Map<SortKey, List<String>> sortCache = new ConcurrentReferenceHashMap<SortKey, List<String>>();
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+	private final AutoConfigurationMetadata autoConfigurationMetadata;
 
 	public AutoConfigurationSorter(ResourceLoader resourceLoader) {
-		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
-		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+		this(resourceLoader, AutoConfigurationMetadataLoader
+				.loadMetadata(new Properties()));
+	}
+
+	public AutoConfigurationSorter(ResourceLoader resourceLoader,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		this(new CachingMetadataReaderFactory(resourceLoader),
+				autoConfigurationMetadata);
+	}
+
+	public AutoConfigurationSorter(MetadataReaderFactory metadataReaderFactory,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		Assert.notNull(metadataReaderFactory, "MetadataReaderFactory must not be null");
+		Assert.notNull(autoConfigurationMetadata,
+				"AutoConfigurationMetadata must not be null");
+		this.metadataReaderFactory = metadataReaderFactory;
+		this.autoConfigurationMetadata = autoConfigurationMetadata;
 	}
 
 	public List<String> getInPriorityOrder(Collection<String> classNames)
 			throws IOException {
+		SortKey key = new SortKey(this.autoConfigurationMetadata, classNames);
+		List<String> sorted = sortCache.get(key);
+		if (sorted == null) {
+			sorted = sort(classNames);
+			sortCache.put(key, sorted);
+		}
+		return new ArrayList<String>(sorted);
+	}
+
+	private List<String> sort(Collection<String> classNames) throws IOException {
 		final AutoConfigurationClasses classes = new AutoConfigurationClasses(
-				this.metadataReaderFactory, classNames);
+				this.metadataReaderFactory, this.autoConfigurationMetadata, classNames);
 		List<String> orderedClassNames = new ArrayList<String>(classNames);
 		// Initially sort alphabetically
 		Collections.sort(orderedClassNames);
@@ -74,46 +108,127 @@ class AutoConfigurationSorter {
 
 	private List<String> sortByAnnotation(AutoConfigurationClasses classes,
 			List<String> classNames) {
-		List<String> tosort = new ArrayList<String>(classNames);
+		// Classes that are referenced but are not candidates take part in the sort so
+		// that chained constraints still apply, but they are not part of the result
+		Set<String> allClassNames = new LinkedHashSet<String>(classNames);
+		allClassNames.addAll(classes.getAllNames());
+		List<String> tosort = new ArrayList<String>(allClassNames);
 		Set<String> sorted = new LinkedHashSet<String>();
 		Set<String> processing = new LinkedHashSet<String>();
 		while (!tosort.isEmpty()) {
-			doSortByAfterAnnotation(classes, tosort, sorted, processing, null);
+			doSortByAfterAnnotation(classes, classNames, tosort, sorted, processing,
+					null);
 		}
+		sorted.retainAll(classNames);
 		return new ArrayList<String>(sorted);
 	}
 
 	private void doSortByAfterAnnotation(AutoConfigurationClasses classes,
-			List<String> tosort, Set<String> sorted, Set<String> processing,
-			String current) {
+			Collection<String> candidates, List<String> tosort, Set<String> sorted,
+			Set<String> processing, String current) {
 		if (current == null) {
 			current = tosort.remove(0);
 		}
 		processing.add(current);
 		for (String after : classes.getClassesRequestedAfter(current)) {
-			Assert.state(!processing.contains(after),
-					"AutoConfigure cycle detected between " + current + " and " + after);
-			if (!sorted.contains(after) && tosort.contains(after)) {
-				doSortByAfterAnnotation(classes, tosort, sorted, processing, after);
+			if (processing.contains(after)) {
+				// A cycle through a class that is not a candidate cannot be applied
+				// anyway so the constraint that closes it is ignored
+				Assert.state(!isCandidateCycle(candidates, processing, after),
+						"AutoConfigure cycle detected between " + current + " and "
+								+ after);
+			}
+			else if (!sorted.contains(after) && tosort.contains(after)) {
+				doSortByAfterAnnotation(classes, candidates, tosort, sorted,
+						processing, after);
 			}
 		}
 		processing.remove(current);
 		sorted.add(current);
 	}
 
+	private boolean isCandidateCycle(Collection<String> candidates,
+			Set<String> processing, String start) {
+		boolean inCycle = false;
+		for (String className : processing) {
+			inCycle = inCycle || className.equals(start);
+			if (inCycle && !candidates.contains(className)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Key used to cache sort results.
+	 */
+	private static class SortKey {
+
+		private final AutoConfigurationMetadata autoConfigurationMetadata;
+
+		private final List<String> classNames;
+
+		SortKey(AutoConfigurationMetadata autoConfigurationMetadata,
+				Collection<String> classNames) {
+			this.autoConfigurationMetadata = autoConfigurationMetadata;
+			this.classNames = new ArrayList<String>(classNames);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			SortKey other = (SortKey) obj;
+			return this.autoConfigurationMetadata == other.autoConfigurationMetadata
+					&& this.classNames.equals(other.classNames);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.autoConfigurationMetadata) * 31
+					+ this.classNames.hashCode();
+		}
+
+	}
+
 	private static class AutoConfigurationClasses {
 
 		private final Map<String, AutoConfigurationClass> classes = new HashMap<String, AutoConfigurationClass>();
 
 		public AutoConfigurationClasses(MetadataReaderFactory metadataReaderFactory,
+				AutoConfigurationMetadata autoConfigurationMetadata,
 				Collection<String> classNames) throws IOException {
+			addToClasses(metadataReaderFactory, autoConfigurationMetadata, classNames,
+					true);
+		}
+
+		private void addToClasses(MetadataReaderFactory metadataReaderFactory,
+				AutoConfigurationMetadata autoConfigurationMetadata,
+				Collection<String> classNames, boolean required) throws IOException {
 			for (String className : classNames) {
-				MetadataReader metadataReader = metadataReaderFactory
-						.getMetadataReader(className);
-				this.classes.put(className, new AutoConfigurationClass(metadataReader));
+				if (!this.classes.containsKey(className)) {
+					AutoConfigurationClass autoConfigurationClass = new AutoConfigurationClass(
+							className, metadataReaderFactory,
+							autoConfigurationMetadata, required);
+					if (autoConfigurationClass.isAvailable()) {
+						this.classes.put(className, autoConfigurationClass);
+						addToClasses(metadataReaderFactory, autoConfigurationMetadata,
+								autoConfigurationClass.getBefore(), false);
+						addToClasses(metadataReaderFactory, autoConfigurationMetadata,
+								autoConfigurationClass.getAfter(), false);
+					}
+				}
 			}
 		}
 
+		public Set<String> getAllNames() {
+			return this.classes.keySet();
+		}
+
 		public AutoConfigurationClass get(String className) {
 			return this.classes.get(className);
 		}
@@ -133,13 +248,52 @@ class AutoConfigurationSorter {
 
 	private static class AutoConfigurationClass {
 
+		private final String className;
+
+		private final AutoConfigurationMetadata autoConfigurationMetadata;
+
 		private final AnnotationMetadata metadata;
 
-		public AutoConfigurationClass(MetadataReader metadataReader) {
-			this.metadata = metadataReader.getAnnotationMetadata();
+		public AutoConfigurationClass(String className,
+				MetadataReaderFactory metadataReaderFactory,
+				AutoConfigurationMetadata autoConfigurationMetadata,
+				boolean required) throws IOException {
+			this.className = className;
+			this.autoConfigurationMetadata = autoConfigurationMetadata;
+			// Only read the class file when the annotation processor has not indexed it
+			this.metadata = (autoConfigurationMetadata.wasProcessed(className) ? null
+					: getAnnotationMetadata(metadataReaderFactory, className, required));
+		}
+
+		private static AnnotationMetadata getAnnotationMetadata(
+				MetadataReaderFactory metadataReaderFactory, String className,
+				boolean required) throws IOException {
+			try {
+				return metadataReaderFactory.getMetadataReader(className)
+						.getAnnotationMetadata();
+			}
+			catch (IOException ex) {
+				if (required) {
+					throw ex;
+				}
+				return null;
+			}
+		}
+
+		/**
+		 * Return if the class is indexed or its class file could be read.
+		 * @return if the class is available
+		 */
+		public boolean isAvailable() {
+			return (this.metadata != null || this.autoConfigurationMetadata
+					.wasProcessed(this.className));
 		}
 
 		public int getOrder() {
+			if (this.metadata == null) {
+				return this.autoConfigurationMetadata.getInteger(this.className,
+						"AutoConfigureOrder", Ordered.LOWEST_PRECEDENCE);
+			}
 			Map<String, Object> orderedAnnotation = this.metadata
 					.getAnnotationAttributes(AutoConfigureOrder.class.getName());
 			return (orderedAnnotation == null ? Ordered.LOWEST_PRECEDENCE
@@ -155,6 +309,11 @@ class AutoConfigurationSorter {
 		}
 
 		private Set<String> getAnnotationValue(Class<?> annotation) {
+			if (this.metadata == null) {
+				Set<String> value = this.autoConfigurationMetadata.getSet(
+						this.className, annotation.getSimpleName());
+				return (value == null ? Collections.<String>emptySet() : value);
+			}
 			Map<String, Object> attributes = this.metadata.getAnnotationAttributes(
 					annotation.getName(), true);
 			if (attributes == null) {
@@ -24,10 +24,13 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.Aware;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
 import org.springframework.boot.bind.RelaxedPropertyResolver;
@@ -41,6 +44,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
@@ -70,12 +75,15 @@ public class EnableAutoConfigurationImportSelector implements DeferredImportSele
 	@Override
 	public String[] selectImports(AnnotationMetadata metadata) {
 		try {
+			AutoConfigurationMetadata autoConfigurationMetadata = AutoConfigurationMetadataLoader
+					.loadMetadata(getBeanClassLoader());
 			AnnotationAttributes attributes = getAttributes(metadata);
 			List<String> configurations = getCandidateConfigurations(metadata, attributes);
 			configurations = removeDuplicates(configurations);
 			Set<String> exclusions = getExclusions(metadata, attributes);
 			configurations.removeAll(exclusions);
-			configurations = sort(configurations);
+			configurations = filter(configurations, autoConfigurationMetadata);
+			configurations = sort(configurations, autoConfigurationMetadata);
 			recordWithConditionEvaluationReport(configurations, exclusions);
 			return configurations.toArray(new String[configurations.size()]);
 		}
@@ -156,12 +164,87 @@ public class EnableAutoConfigurationImportSelector implements DeferredImportSele
 		return (Arrays.asList(exclude == null ? new String[0] : exclude));
 	}
 
-	private List<String> sort(List<String> configurations) throws IOException {
-		configurations = new AutoConfigurationSorter(getResourceLoader())
-				.getInPriorityOrder(configurations);
+	private List<String> filter(List<String> configurations,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		for (AutoConfigurationImportFilter filter : getAutoConfigurationImportFilters()) {
+			invokeAwareMethods(filter);
+			String[] candidates = configurations.toArray(new String[configurations
+					.size()]);
+			boolean[] match = filter.match(candidates, autoConfigurationMetadata);
+			List<String> result = new ArrayList<String>(candidates.length);
+			for (int i = 0; i < candidates.length; i++) {
+				if (match[i]) {
+					result.add(candidates[i]);
+				}
+			}
+			configurations = result;
+		}
 		return configurations;
 	}
 
+	/**
+	 * Return the {@link AutoConfigurationImportFilter filters} that should be applied to
+	 * the candidate configurations. By default this method will load filters using
+	 * {@link SpringFactoriesLoader}.
+	 * @return the filters to apply
+	 */
+	protected List<AutoConfigurationImportFilter> getAutoConfigurationImportFilters() {
+		ClassLoader classLoader = getBeanClassLoader();
+		List<String> names = SpringFactoriesLoader.loadFactoryNames(
+				AutoConfigurationImportFilter.class, classLoader);
+		List<AutoConfigurationImportFilter> filters = new ArrayList<AutoConfigurationImportFilter>(
+				names.size());
+		for (String name : names) {
+			try {
+				Class<?> filterClass = ClassUtils.forName(name, classLoader);
+				Assert.isAssignable(AutoConfigurationImportFilter.class, filterClass);
+				filters.add((AutoConfigurationImportFilter) BeanUtils
+						.instantiateClass(filterClass));
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException(
+						"Cannot instantiate AutoConfigurationImportFilter : " + name, ex);
+			}
+		}
+		return filters;
+	}
+
+	private void invokeAwareMethods(Object instance) {
+		if (instance instanceof Aware) {
+			if (instance instanceof BeanClassLoaderAware) {
+				((BeanClassLoaderAware) instance)
+						.setBeanClassLoader(getBeanClassLoader());
+			}
+			if (instance instanceof BeanFactoryAware) {
+				((BeanFactoryAware) instance).setBeanFactory(getBeanFactory());
+			}
+			if (instance instanceof EnvironmentAware) {
+				((EnvironmentAware) instance).setEnvironment(getEnvironment());
+			}
+			if (instance instanceof ResourceLoaderAware) {
+				((ResourceLoaderAware) instance).setResourceLoader(getResourceLoader());
+			}
+		}
+	}
+
+	private List<String> sort(List<String> configurations,
+			AutoConfigurationMetadata autoConfigurationMetadata) throws IOException {
+		configurations = new AutoConfigurationSorter(getMetadataReaderFactory(),
+				autoConfigurationMetadata).getInPriorityOrder(configurations);
+		return configurations;
+	}
+
+	private MetadataReaderFactory getMetadataReaderFactory() {
+		try {
+			return getBeanFactory().getBean(
+					SharedMetadataReaderFactoryContextInitializer.BEAN_NAME,
+					MetadataReaderFactory.class);
+		}
+		catch (NoSuchBeanDefinitionException ex) {
+			return new CachingMetadataReaderFactory(getResourceLoader());
+		}
+	}
+
 	private void recordWithConditionEvaluationReport(List<String> configurations,
 			Collection<String> exclusions) throws IOException {
 		ConditionEvaluationReport report = ConditionEvaluationReport
@@ -234,6 +234,12 @@ abstract class BeanTypeRegistry {
 
 		private final Map<String, Class<?>> beanTypes = new HashMap<String, Class<?>>();
 
+		/**
+		 * Index of the names matching each type that has been requested, kept up to
+		 * date as new bean types are added so that repeated lookups are cheap.
+		 */
+		private final Map<Class<?>, Set<String>> namesForType = new HashMap<Class<?>, Set<String>>();
+
 		private int lastBeanDefinitionCount = 0;
 
 		public OptimizedBeanTypeRegistry(DefaultListableBeanFactory beanFactory) {
@@ -244,11 +250,28 @@ abstract class BeanTypeRegistry {
 		public void afterSingletonsInstantiated() {
 			// We're done at this point, free up some memory
 			this.beanTypes.clear();
+			this.namesForType.clear();
 			this.lastBeanDefinitionCount = 0;
 		}
 
 		@Override
 		public Set<String> getNamesForType(Class<?> type) {
+			updateTypesIfNecessary();
+			Set<String> names = this.namesForType.get(type);
+			if (names == null) {
+				names = new LinkedHashSet<String>();
+				for (Map.Entry<String, Class<?>> entry : this.beanTypes.entrySet()) {
+					if (entry.getValue() != null
+							&& type.isAssignableFrom(entry.getValue())) {
+						names.add(entry.getKey());
+					}
+				}
+				this.namesForType.put(type, names);
+			}
+			return new LinkedHashSet<String>(names);
+		}
+
+		private void updateTypesIfNecessary() {
 			if (this.lastBeanDefinitionCount != this.beanFactory.getBeanDefinitionCount()) {
 				Iterator<String> names = this.beanFactory.getBeanNamesIterator();
 				while (names.hasNext()) {
@@ -259,18 +282,11 @@ abstract class BeanTypeRegistry {
 				}
 				this.lastBeanDefinitionCount = this.beanFactory.getBeanDefinitionCount();
 			}
-			Set<String> matches = new LinkedHashSet<String>();
-			for (Map.Entry<String, Class<?>> entry : this.beanTypes.entrySet()) {
-				if (entry.getValue() != null && type.isAssignableFrom(entry.getValue())) {
-					matches.add(entry.getKey());
-				}
-			}
-			return matches;
 		}
 
 		private void addBeanType(String name) {
 			if (this.beanFactory.containsSingleton(name)) {
-				this.beanTypes.put(name, this.beanFactory.getType(name));
+				putBeanType(name, this.beanFactory.getType(name));
 			}
 			else if (!this.beanFactory.isAlias(name)) {
 				addBeanTypeForNonAliasDefinition(name);
@@ -287,12 +303,11 @@ abstract class BeanTypeRegistry {
 					if (this.beanFactory.isFactoryBean(factoryName)) {
 						Class<?> factoryBeanGeneric = getFactoryBeanGeneric(
 								this.beanFactory, beanDefinition, name);
-						this.beanTypes.put(name, factoryBeanGeneric);
-						this.beanTypes.put(factoryName,
-								this.beanFactory.getType(factoryName));
+						putBeanType(name, factoryBeanGeneric);
+						putBeanType(factoryName, this.beanFactory.getType(factoryName));
 					}
 					else {
-						this.beanTypes.put(name, this.beanFactory.getType(name));
+						putBeanType(name, this.beanFactory.getType(name));
 					}
 				}
 			}
@@ -306,6 +321,18 @@ abstract class BeanTypeRegistry {
 			}
 		}
 
+		private void putBeanType(String name, Class<?> type) {
+			this.beanTypes.put(name, type);
+			if (type != null) {
+				for (Map.Entry<Class<?>, Set<String>> entry : this.namesForType
+						.entrySet()) {
+					if (entry.getKey().isAssignableFrom(type)) {
+						entry.getValue().add(name);
+					}
+				}
+			}
+		}
+
 		private void logIgnoredError(String message, String name, Exception ex) {
 			if (BeanTypeRegistry.logger.isDebugEnabled()) {
 				BeanTypeRegistry.logger.debug("Ignoring " + message + " '" + name + "'",
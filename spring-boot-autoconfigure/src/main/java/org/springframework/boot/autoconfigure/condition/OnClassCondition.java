@@ -16,83 +16,280 @@
 
 package org.springframework.boot.autoconfigure.condition;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
 import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 
 /**
- * {@link Condition} that checks for the presence or absence of specific classes.
+ * {@link Condition} that checks for the presence or absence of specific classes. Also
+ * used as an {@link AutoConfigurationImportFilter} so that auto-configuration candidates
+ * with indexed class conditions that cannot match are discarded early.
  *
  * @author Phillip Webb
  * @see ConditionalOnClass
  * @see ConditionalOnMissingClass
  */
 @Order(Ordered.HIGHEST_PRECEDENCE)
-class OnClassCondition extends SpringBootCondition {
+class OnClassCondition extends SpringBootCondition implements
+		AutoConfigurationImportFilter, BeanFactoryAware, BeanClassLoaderAware {
+
+	private static final long RESOLVE_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+	/**
+	 * Executor with a single daemon thread that stops when idle, used to resolve half
+	 * of the outcomes in the background. Work that cannot be accepted runs on the
+	 * calling thread.
+	 */
+	private static final ThreadPoolExecutor resolverExecutor = createResolverExecutor();
+
+	private BeanFactory beanFactory;
+
+	private ClassLoader beanClassLoader;
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		this.beanFactory = beanFactory;
+	}
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.beanClassLoader = classLoader;
+	}
+
+	@Override
+	public boolean[] match(String[] autoConfigurationClasses,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		ConditionEvaluationReport report = getConditionEvaluationReport();
+		ConditionOutcome[] outcomes = getOutcomes(autoConfigurationClasses,
+				autoConfigurationMetadata);
+		boolean[] match = new boolean[outcomes.length];
+		for (int i = 0; i < outcomes.length; i++) {
+			match[i] = outcomes[i].isMatch();
+			if (!match[i] && report != null) {
+				report.recordConditionEvaluation(autoConfigurationClasses[i], this,
+						outcomes[i]);
+			}
+		}
+		return match;
+	}
+
+	private ConditionOutcome[] getOutcomes(String[] autoConfigurationClasses,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		ClassPresenceResolver resolver = ClassPresenceResolver.get(getBeanFactory(),
+				this.beanClassLoader);
+		int split = 0;
+		Future<ConditionOutcome[]> firstHalf = null;
+		if (autoConfigurationClasses.length > 1
+				&& Runtime.getRuntime().availableProcessors() > 1) {
+			// Resolve the first half in the background, the second half here
+			split = autoConfigurationClasses.length / 2;
+			firstHalf = submit(autoConfigurationClasses, autoConfigurationMetadata,
+					resolver, split);
+		}
+		ConditionOutcome[] outcomes = new ConditionOutcome[autoConfigurationClasses.length];
+		resolveOutcomes(autoConfigurationClasses, autoConfigurationMetadata, resolver,
+				outcomes, split, autoConfigurationClasses.length);
+		ConditionOutcome[] resolved = getResult(firstHalf);
+		if (resolved != null) {
+			System.arraycopy(resolved, 0, outcomes, 0, split);
+		}
+		else {
+			resolveOutcomes(autoConfigurationClasses, autoConfigurationMetadata,
+					resolver, outcomes, 0, split);
+		}
+		return outcomes;
+	}
+
+	private Future<ConditionOutcome[]> submit(final String[] autoConfigurationClasses,
+			final AutoConfigurationMetadata autoConfigurationMetadata,
+			final ClassPresenceResolver resolver, final int end) {
+		try {
+			return resolverExecutor.submit(new Callable<ConditionOutcome[]>() {
+
+				@Override
+				public ConditionOutcome[] call() throws Exception {
+					ConditionOutcome[] outcomes = new ConditionOutcome[end];
+					resolveOutcomes(autoConfigurationClasses,
+							autoConfigurationMetadata, resolver, outcomes, 0, end);
+					return outcomes;
+				}
+
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			// Already busy, resolve everything on the calling thread
+			return null;
+		}
+	}
+
+	private ConditionOutcome[] getResult(Future<ConditionOutcome[]> future) {
+		if (future == null) {
+			return null;
+		}
+		try {
+			return future.get(RESOLVE_TIMEOUT, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException ex) {
+			// Resolve on the calling thread instead
+		}
+		catch (TimeoutException ex) {
+			// Resolve on the calling thread instead
+		}
+		future.cancel(true);
+		return null;
+	}
+
+	private void resolveOutcomes(String[] autoConfigurationClasses,
+			AutoConfigurationMetadata autoConfigurationMetadata,
+			ClassPresenceResolver resolver, ConditionOutcome[] outcomes, int start,
+			int end) {
+		for (int i = start; i < end; i++) {
+			outcomes[i] = getOutcome(autoConfigurationClasses[i],
+					autoConfigurationMetadata, resolver);
+		}
+	}
+
+	private ConditionEvaluationReport getConditionEvaluationReport() {
+		ConfigurableListableBeanFactory beanFactory = getBeanFactory();
+		return (beanFactory == null ? null : ConditionEvaluationReport.get(beanFactory));
+	}
+
+	private ConfigurableListableBeanFactory getBeanFactory() {
+		if (this.beanFactory instanceof ConfigurableListableBeanFactory) {
+			return (ConfigurableListableBeanFactory) this.beanFactory;
+		}
+		return null;
+	}
+
+	private ConditionOutcome getOutcome(String autoConfigurationClass,
+			AutoConfigurationMetadata autoConfigurationMetadata,
+			ClassPresenceResolver resolver) {
+		Set<String> onClasses = autoConfigurationMetadata.getSet(autoConfigurationClass,
+				"ConditionalOnClass");
+		if (onClasses != null) {
+			List<String> missing = new ArrayList<String>();
+			for (String onClass : onClasses) {
+				if (resolver.isMissing(onClass)) {
+					missing.add(onClass);
+				}
+			}
+			if (!missing.isEmpty()) {
+				return getMissingOutcome(missing);
+			}
+		}
+		Set<String> onMissingClasses = autoConfigurationMetadata.getSet(
+				autoConfigurationClass, "ConditionalOnMissingClass");
+		if (onMissingClasses != null) {
+			List<String> present = new ArrayList<String>();
+			for (String onMissingClass : onMissingClasses) {
+				if (resolver.isPresent(onMissingClass)) {
+					present.add(onMissingClass);
+				}
+			}
+			if (!present.isEmpty()) {
+				return getPresentOutcome(present);
+			}
+		}
+		// Anything else is left to the full condition evaluation
+		return ConditionOutcome.match();
+	}
 
 	@Override
 	public ConditionOutcome getMatchOutcome(ConditionContext context,
 			AnnotatedTypeMetadata metadata) {
 
 		StringBuffer matchMessage = new StringBuffer();
+		ClassPresenceResolver resolver = ClassPresenceResolver.get(
+				context.getBeanFactory(), context.getClassLoader());
 
 		MultiValueMap<String, Object> onClasses = getAttributes(metadata,
 				ConditionalOnClass.class);
 		if (onClasses != null) {
 			List<String> missing = getMatchingClasses(onClasses, MatchType.MISSING,
-					context);
+					resolver);
 			if (!missing.isEmpty()) {
-				return ConditionOutcome
-						.noMatch("required @ConditionalOnClass classes not found: "
-								+ StringUtils.collectionToCommaDelimitedString(missing));
+				return getMissingOutcome(missing);
 			}
 			matchMessage.append("@ConditionalOnClass classes found: "
 					+ StringUtils.collectionToCommaDelimitedString(getMatchingClasses(
-							onClasses, MatchType.PRESENT, context)));
+							onClasses, MatchType.PRESENT, resolver)));
 		}
 
 		MultiValueMap<String, Object> onMissingClasses = getAttributes(metadata,
 				ConditionalOnMissingClass.class);
 		if (onMissingClasses != null) {
 			List<String> present = getMatchingClasses(onMissingClasses,
-					MatchType.PRESENT, context);
+					MatchType.PRESENT, resolver);
 			if (!present.isEmpty()) {
-				return ConditionOutcome
-						.noMatch("required @ConditionalOnMissing classes found: "
-								+ StringUtils.collectionToCommaDelimitedString(present));
+				return getPresentOutcome(present);
 			}
 			matchMessage.append(matchMessage.length() == 0 ? "" : " ");
 			matchMessage.append("@ConditionalOnMissing classes not found: "
 					+ StringUtils.collectionToCommaDelimitedString(getMatchingClasses(
-							onMissingClasses, MatchType.MISSING, context)));
+							onMissingClasses, MatchType.MISSING, resolver)));
 		}
 
 		return ConditionOutcome.match(matchMessage.toString());
 	}
 
+	private ConditionOutcome getMissingOutcome(List<String> missing) {
+		return ConditionOutcome.noMatch("required @ConditionalOnClass classes not found: "
+				+ StringUtils.collectionToCommaDelimitedString(missing));
+	}
+
+	private ConditionOutcome getPresentOutcome(List<String> present) {
+		return ConditionOutcome.noMatch("required @ConditionalOnMissing classes found: "
+				+ StringUtils.collectionToCommaDelimitedString(present));
+	}
+
 	private MultiValueMap<String, Object> getAttributes(AnnotatedTypeMetadata metadata,
 			Class<?> annotationType) {
 		return metadata.getAllAnnotationAttributes(annotationType.getName(), true);
 	}
 
 	private List<String> getMatchingClasses(MultiValueMap<String, Object> attributes,
-			MatchType matchType, ConditionContext context) {
+			MatchType matchType, ClassPresenceResolver resolver) {
 		List<String> matches = new LinkedList<String>();
 		addAll(matches, attributes.get("value"));
 		addAll(matches, attributes.get("name"));
 		Iterator<String> iterator = matches.iterator();
 		while (iterator.hasNext()) {
-			if (!matchType.matches(iterator.next(), context)) {
+			if (!matchType.matches(iterator.next(), resolver)) {
 				iterator.remove();
 			}
 		}
@@ -107,23 +304,167 @@ class OnClassCondition extends SpringBootCondition {
 		}
 	}
 
+	private static ThreadPoolExecutor createResolverExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"OnClassCondition-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Resolves and caches the presence of classes for the startup of a bean factory, so
+	 * that the full condition evaluation reuses the outcomes of the filter. Class files
+	 * are looked up as resources so that classes do not need to be loaded. A class
+	 * without a class file is only loaded to confirm that it is missing if the class
+	 * loader might define classes in memory.
+	 */
+	private static class ClassPresenceResolver {
+
+		private static final String BEAN_NAME = OnClassCondition.class.getName()
+				+ ".classPresenceResolver";
+
+		/**
+		 * Class loaders that only load classes from class file resources.
+		 */
+		private static final Set<String> RESOURCE_CLASS_LOADERS = Collections
+				.unmodifiableSet(new HashSet<String>(Arrays.asList(
+						"java.net.URLClassLoader",
+						"sun.misc.Launcher$AppClassLoader",
+						"sun.misc.Launcher$ExtClassLoader",
+						"jdk.internal.loader.ClassLoaders$AppClassLoader",
+						"jdk.internal.loader.ClassLoaders$PlatformClassLoader",
+						"org.springframework.boot.loader.LaunchedURLClassLoader")));
+
+		private final ClassLoader classLoader;
+
+		private final boolean resourcesOnly;
+
+		private final Map<String, Boolean> classFiles = new ConcurrentHashMap<String, Boolean>();
+
+		private final Map<String, Boolean> present = new ConcurrentHashMap<String, Boolean>();
+
+		ClassPresenceResolver(ClassLoader classLoader) {
+			this.classLoader = classLoader;
+			this.resourcesOnly = (classLoader != null && isResourcesOnly(classLoader));
+		}
+
+		/**
+		 * Return if the class is certainly missing.
+		 * @param className the class name
+		 * @return {@code true} if the class is missing
+		 */
+		public boolean isMissing(String className) {
+			if (hasClassFile(className)) {
+				return false;
+			}
+			return this.resourcesOnly || !isPresent(className);
+		}
+
+		/**
+		 * Return if the class can be loaded.
+		 * @param className the class name
+		 * @return {@code true} if the class is present
+		 */
+		public boolean isPresent(String className) {
+			Boolean result = this.present.get(className);
+			if (result == null) {
+				if (this.resourcesOnly
+						&& Boolean.FALSE.equals(this.classFiles.get(className))) {
+					result = false;
+				}
+				else {
+					result = ClassUtils.isPresent(className, this.classLoader);
+				}
+				this.present.put(className, result);
+			}
+			return result;
+		}
+
+		private boolean hasClassFile(String className) {
+			if (this.classLoader == null) {
+				return false;
+			}
+			Boolean result = this.classFiles.get(className);
+			if (result == null) {
+				result = hasClassResource(className);
+				int lastDot = className.lastIndexOf('.');
+				if (!result && lastDot != -1) {
+					// Nested classes may be referred to by their canonical name
+					result = hasClassResource(className.substring(0, lastDot) + '$'
+							+ className.substring(lastDot + 1));
+				}
+				this.classFiles.put(className, result);
+			}
+			return result;
+		}
+
+		private boolean hasClassResource(String className) {
+			String path = ClassUtils.convertClassNameToResourcePath(className)
+					+ ClassUtils.CLASS_FILE_SUFFIX;
+			return this.classLoader.getResource(path) != null;
+		}
+
+		private static boolean isResourcesOnly(ClassLoader classLoader) {
+			while (classLoader != null) {
+				if (!RESOURCE_CLASS_LOADERS.contains(classLoader.getClass().getName())) {
+					return false;
+				}
+				classLoader = classLoader.getParent();
+			}
+			return true;
+		}
+
+		/**
+		 * Return the resolver for the given bean factory, creating and registering it
+		 * if necessary.
+		 * @param beanFactory the bean factory (may be {@code null})
+		 * @param classLoader the class loader used to resolve classes
+		 * @return the resolver
+		 */
+		public static ClassPresenceResolver get(
+				ConfigurableListableBeanFactory beanFactory, ClassLoader classLoader) {
+			if (classLoader == null) {
+				classLoader = ClassUtils.getDefaultClassLoader();
+			}
+			if (beanFactory == null) {
+				return new ClassPresenceResolver(classLoader);
+			}
+			synchronized (beanFactory) {
+				if (beanFactory.containsSingleton(BEAN_NAME)) {
+					ClassPresenceResolver resolver = (ClassPresenceResolver) beanFactory
+							.getSingleton(BEAN_NAME);
+					return (resolver.classLoader == classLoader ? resolver
+							: new ClassPresenceResolver(classLoader));
+				}
+				ClassPresenceResolver resolver = new ClassPresenceResolver(classLoader);
+				beanFactory.registerSingleton(BEAN_NAME, resolver);
+				return resolver;
+			}
+		}
+
+	}
+
 	private enum MatchType {
 
 		PRESENT {
 			@Override
-			public boolean matches(String className, ConditionContext context) {
-				return ClassUtils.isPresent(className, context.getClassLoader());
+			public boolean matches(String className, ClassPresenceResolver resolver) {
+				return resolver.isPresent(className);
 			}
 		},
 
 		MISSING {
 			@Override
-			public boolean matches(String className, ConditionContext context) {
-				return !ClassUtils.isPresent(className, context.getClassLoader());
+			public boolean matches(String className, ClassPresenceResolver resolver) {
+				return !resolver.isPresent(className);
 			}
 		};
 
-		public abstract boolean matches(String className, ConditionContext context);
+		public abstract boolean matches(String className,
+				ClassPresenceResolver resolver);
 
 	}
 
@@ -18,6 +18,7 @@ package org.springframework.boot.autoconfigure.condition;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.StartupTimeline;
 import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.type.AnnotatedTypeMetadata;
@@ -41,10 +42,12 @@ public abstract class SpringBootCondition implements Condition {
 	@Override
 	public final boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
 		String classOrMethodName = getClassOrMethodName(metadata);
+		long start = System.nanoTime();
 		try {
 			ConditionOutcome outcome = getMatchOutcome(context, metadata);
 			logOutcome(classOrMethodName, outcome);
 			recordEvaluation(context, classOrMethodName, outcome);
+			recordTime(context, classOrMethodName, start);
 			return outcome.isMatch();
 		}
 		catch (NoClassDefFoundError ex) {
@@ -110,6 +113,15 @@ public abstract class SpringBootCondition implements Condition {
 		}
 	}
 
+	private void recordTime(ConditionContext context, String classOrMethodName,
+			long start) {
+		StartupTimeline timeline = StartupTimeline.get(context.getBeanFactory());
+		if (timeline != null) {
+			timeline.record("condition", ClassUtils.getShortName(getClass()) + " on "
+					+ classOrMethodName, start);
+		}
+	}
+
 	/**
 	 * Determine the outcome of the match along with suitable log output.
 	 * @param context the condition context
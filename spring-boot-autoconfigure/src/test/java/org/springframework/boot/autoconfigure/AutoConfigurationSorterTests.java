@@ -19,6 +19,7 @@ package org.springframework.boot.autoconfigure;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -29,8 +30,11 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 /**
  * Tests for {@link AutoConfigurationSorter}.
@@ -123,6 +127,87 @@ public class AutoConfigurationSorterTests {
 		this.sorter.getInPriorityOrder(Arrays.asList(A, B, C, D));
 	}
 
+	@Test
+	public void byAutoConfigurationMetadata() throws Exception {
+		// The classes do not exist so the sorter must rely on the metadata alone
+		Properties properties = new Properties();
+		properties.put("com.example.A", "");
+		properties.put("com.example.A.AutoConfigureAfter", "com.example.B");
+		properties.put("com.example.B", "");
+		properties.put("com.example.B.AutoConfigureBefore", "com.example.C");
+		properties.put("com.example.C", "");
+		properties.put("com.example.D", "");
+		properties.put("com.example.D.AutoConfigureOrder",
+				String.valueOf(Ordered.HIGHEST_PRECEDENCE));
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(
+				"com.example.A", "com.example.B", "com.example.C", "com.example.D"));
+		assertThat(actual, nameMatcher("com.example.D", "com.example.B",
+				"com.example.A", "com.example.C"));
+	}
+
+	@Test
+	public void unprocessedClassesUseClassMetadata() throws Exception {
+		Properties properties = new Properties();
+		properties.put("com.example.Other", "");
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(LOWEST,
+				HIGHEST));
+		assertThat(actual, nameMatcher(HIGHEST, LOWEST));
+	}
+
+	@Test
+	public void byAutoConfigureAfterThroughClassThatIsNotACandidate()
+			throws Exception {
+		Properties properties = new Properties();
+		properties.put("com.example.A", "");
+		properties.put("com.example.A.AutoConfigureAfter", "com.example.B");
+		properties.put("com.example.B", "");
+		properties.put("com.example.B.AutoConfigureAfter", "com.example.C");
+		properties.put("com.example.C", "");
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(
+				"com.example.A", "com.example.C"));
+		assertThat(actual, nameMatcher("com.example.C", "com.example.A"));
+	}
+
+	@Test
+	public void byAutoConfigureAfterThroughClassFileThatIsNotACandidate()
+			throws Exception {
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(X, Z));
+		assertThat(actual, nameMatcher(Z, X));
+	}
+
+	@Test
+	public void unavailableReferencedClassesAreIgnored() throws Exception {
+		Properties properties = new Properties();
+		properties.put("com.example.A", "");
+		properties.put("com.example.A.AutoConfigureAfter", "com.example.Missing");
+		properties.put("com.example.B", "");
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(
+				"com.example.A", "com.example.B"));
+		assertThat(actual, nameMatcher("com.example.A", "com.example.B"));
+	}
+
+	@Test
+	public void sortIsCachedForSameMetadata() throws Exception {
+		AutoConfigurationMetadata metadata = AutoConfigurationMetadataLoader
+				.loadMetadata(new Properties());
+		List<String> classNames = Arrays.asList(LOWEST, HIGHEST);
+		new AutoConfigurationSorter(new DefaultResourceLoader(), metadata)
+				.getInPriorityOrder(classNames);
+		MetadataReaderFactory metadataReaderFactory = mock(MetadataReaderFactory.class);
+		this.sorter = new AutoConfigurationSorter(metadataReaderFactory, metadata);
+		List<String> actual = this.sorter.getInPriorityOrder(classNames);
+		assertThat(actual, nameMatcher(HIGHEST, LOWEST));
+		verifyZeroInteractions(metadataReaderFactory);
+	}
+
 	private Matcher<? super List<String>> nameMatcher(String... names) {
 
 		final List<String> list = Arrays.asList(names);
@@ -16,6 +16,8 @@
 
 package org.springframework.boot.autoconfigure;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.flywaydb.core.internal.util.StringUtils;
@@ -24,6 +26,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
@@ -39,8 +43,11 @@ import org.springframework.mock.env.MockEnvironment;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 
@@ -148,6 +155,37 @@ public class EnableAutoConfigurationImportSelectorTests {
 						ThymeleafAutoConfiguration.class.getName()));
 	}
 
+	@Test
+	public void filtersAreApplied() {
+		configureExclusions(new String[0], new String[0], new String[0]);
+		EnableAutoConfigurationImportSelector importSelector = new EnableAutoConfigurationImportSelector() {
+
+			@Override
+			protected List<AutoConfigurationImportFilter> getAutoConfigurationImportFilters() {
+				return Collections.<AutoConfigurationImportFilter> singletonList(
+						new TestAutoConfigurationImportFilter(
+								FreeMarkerAutoConfiguration.class.getName()));
+			}
+
+		};
+		importSelector.setBeanFactory(this.beanFactory);
+		importSelector.setEnvironment(this.environment);
+		importSelector.setResourceLoader(new DefaultResourceLoader());
+		String[] imports = importSelector.selectImports(this.annotationMetadata);
+		assertThat(imports.length,
+				is(equalTo(getAutoConfigurationClassNames().size() - 1)));
+		assertThat(Arrays.asList(imports),
+				not(hasItem(FreeMarkerAutoConfiguration.class.getName())));
+	}
+
+	@Test
+	public void onClassConditionFilterIsRegistered() {
+		List<String> filters = SpringFactoriesLoader.loadFactoryNames(
+				AutoConfigurationImportFilter.class, getClass().getClassLoader());
+		assertThat(filters, hasItem("org.springframework.boot.autoconfigure."
+				+ "condition.OnClassCondition"));
+	}
+
 	private void configureExclusions(String[] classExclusion, String[] nameExclusion,
 			String[] propertyExclusion) {
 		given(
@@ -169,4 +207,33 @@ public class EnableAutoConfigurationImportSelectorTests {
 				getClass().getClassLoader());
 	}
 
+	private static class TestAutoConfigurationImportFilter implements
+			AutoConfigurationImportFilter, BeanFactoryAware {
+
+		private final String nonMatching;
+
+		private BeanFactory beanFactory;
+
+		TestAutoConfigurationImportFilter(String nonMatching) {
+			this.nonMatching = nonMatching;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public boolean[] match(String[] autoConfigurationClasses,
+				AutoConfigurationMetadata autoConfigurationMetadata) {
+			assertThat(this.beanFactory, notNullValue());
+			boolean[] match = new boolean[autoConfigurationClasses.length];
+			for (int i = 0; i < autoConfigurationClasses.length; i++) {
+				match[i] = !this.nonMatching.equals(autoConfigurationClasses[i]);
+			}
+			return match;
+		}
+
+	}
+
 }
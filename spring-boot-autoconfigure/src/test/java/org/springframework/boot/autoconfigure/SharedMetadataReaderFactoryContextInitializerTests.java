@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.type.classreading.ConcurrentReferenceCachingMetadataReaderFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.Configuration;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SharedMetadataReaderFactoryContextInitializer}.
+ *
+ * @author agent
+ */
+public class SharedMetadataReaderFactoryContextInitializerTests {
+
+	private ConfigurableApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void configurationClassPostProcessorUsesSharedFactory() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		this.context = context;
+		new SharedMetadataReaderFactoryContextInitializer().initialize(context);
+		context.register(TestConfig.class);
+		context.refresh();
+		Object factory = context
+				.getBean(SharedMetadataReaderFactoryContextInitializer.BEAN_NAME);
+		assertThat(factory, instanceOf(ConcurrentReferenceCachingMetadataReaderFactory.class));
+		BeanDefinition definition = context.getBeanFactory().getBeanDefinition(
+				AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME);
+		Object value = definition.getPropertyValues()
+				.getPropertyValue("metadataReaderFactory").getValue();
+		assertThat(value, equalTo((Object) new RuntimeBeanReference(
+				SharedMetadataReaderFactoryContextInitializer.BEAN_NAME)));
+	}
+
+	@Test
+	public void initializerIsRegistered() {
+		SpringApplication application = new SpringApplication(TestConfig.class);
+		application.setWebEnvironment(false);
+		this.context = application.run();
+		assertTrue(this.context
+				.containsBean(SharedMetadataReaderFactoryContextInitializer.BEAN_NAME));
+	}
+
+	@Configuration
+	static class TestConfig {
+
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import org.junit.Test;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link BeanTypeRegistry}.
+ *
+ * @author agent
+ */
+public class BeanTypeRegistryTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	@Test
+	public void namesForTypeIncludeSubclasses() {
+		register("one", ExampleBean.class);
+		register("two", ExampleSubBean.class);
+		BeanTypeRegistry registry = BeanTypeRegistry.get(this.beanFactory);
+		assertThat(registry.getNamesForType(ExampleBean.class),
+				containsInAnyOrder("one", "two"));
+		assertThat(registry.getNamesForType(ExampleSubBean.class), contains("two"));
+		assertThat(registry.getNamesForType(String.class), empty());
+	}
+
+	@Test
+	public void indexIsUpdatedWhenDefinitionsAreAdded() {
+		register("one", ExampleBean.class);
+		BeanTypeRegistry registry = BeanTypeRegistry.get(this.beanFactory);
+		assertThat(registry.getNamesForType(ExampleBean.class), contains("one"));
+		assertThat(registry.getNamesForType(ExampleSubBean.class), empty());
+		register("two", ExampleSubBean.class);
+		assertThat(registry.getNamesForType(ExampleBean.class),
+				containsInAnyOrder("one", "two"));
+		assertThat(registry.getNamesForType(ExampleSubBean.class), contains("two"));
+	}
+
+	@Test
+	public void factoryBeansAreIndexedByObjectType() {
+		register("factory", ExampleFactoryBean.class);
+		BeanTypeRegistry registry = BeanTypeRegistry.get(this.beanFactory);
+		assertThat(registry.getNamesForType(ExampleBean.class), contains("factory"));
+		assertThat(registry.getNamesForType(ExampleFactoryBean.class),
+				contains("&factory"));
+	}
+
+	private void register(String name, Class<?> type) {
+		this.beanFactory.registerBeanDefinition(name, new RootBeanDefinition(type));
+	}
+
+	static class ExampleBean {
+
+	}
+
+	static class ExampleSubBean extends ExampleBean {
+
+	}
+
+	static class ExampleFactoryBean implements FactoryBean<ExampleBean> {
+
+		@Override
+		public ExampleBean getObject() {
+			return new ExampleBean();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return ExampleBean.class;
+		}
+
+		@Override
+		public boolean isSingleton() {
+			return true;
+		}
+
+	}
+
+}
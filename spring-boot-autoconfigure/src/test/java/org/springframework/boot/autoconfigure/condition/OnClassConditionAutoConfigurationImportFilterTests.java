@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport.ConditionAndOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport.ConditionAndOutcomes;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the {@link OnClassCondition} when used as an
+ * {@link org.springframework.boot.autoconfigure.AutoConfigurationImportFilter}.
+ *
+ * @author agent
+ */
+public class OnClassConditionAutoConfigurationImportFilterTests {
+
+	private final OnClassCondition filter = new OnClassCondition();
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final AutoConfigurationMetadata metadata = mock(AutoConfigurationMetadata.class);
+
+	@Before
+	public void setup() {
+		this.filter.setBeanClassLoader(getClass().getClassLoader());
+		this.filter.setBeanFactory(this.beanFactory);
+	}
+
+	@Test
+	public void presentClassesMatch() {
+		given(this.metadata.getSet("test.Present", "ConditionalOnClass")).willReturn(
+				Collections.singleton(String.class.getName()));
+		boolean[] match = this.filter.match(new String[] { "test.Present" },
+				this.metadata);
+		assertTrue(match[0]);
+		assertTrue(getReport().getConditionAndOutcomesBySource().isEmpty());
+	}
+
+	@Test
+	public void missingClassesDoNotMatch() {
+		given(this.metadata.getSet("test.Missing", "ConditionalOnClass")).willReturn(
+				Collections.singleton("com.example.DoesNotExist"));
+		boolean[] match = this.filter.match(new String[] { "test.Missing",
+				"test.Unknown" }, this.metadata);
+		assertFalse(match[0]);
+		assertTrue(match[1]);
+		ConditionAndOutcomes outcomes = getReport().getConditionAndOutcomesBySource()
+				.get("test.Missing");
+		ConditionAndOutcome outcome = outcomes.iterator().next();
+		assertThat(outcome.getCondition(), equalTo((Object) this.filter));
+		assertThat(outcome.getOutcome().getMessage(),
+				containsString("com.example.DoesNotExist"));
+	}
+
+	@Test
+	public void presentMissingClassesDoNotMatch() {
+		given(this.metadata.getSet("test.Present", "ConditionalOnMissingClass"))
+				.willReturn(Collections.singleton(String.class.getName()));
+		boolean[] match = this.filter.match(new String[] { "test.Present" },
+				this.metadata);
+		assertFalse(match[0]);
+	}
+
+	@Test
+	public void outcomesAreInCandidateOrder() {
+		String[] candidates = new String[20];
+		for (int i = 0; i < candidates.length; i++) {
+			candidates[i] = "test.Candidate" + i;
+			String onClass = (i % 3 == 0 ? "com.example.DoesNotExist"
+					: String.class.getName());
+			given(this.metadata.getSet(candidates[i], "ConditionalOnClass"))
+					.willReturn(Collections.singleton(onClass));
+		}
+		boolean[] match = this.filter.match(candidates, this.metadata);
+		for (int i = 0; i < candidates.length; i++) {
+			assertThat(candidates[i], match[i], equalTo(i % 3 != 0));
+		}
+	}
+
+	@Test
+	public void nestedClassesCanUseCanonicalNames() {
+		given(this.metadata.getSet("test.Nested", "ConditionalOnClass")).willReturn(
+				Collections.singleton("java.util.Map.Entry"));
+		boolean[] match = this.filter.match(new String[] { "test.Nested" },
+				this.metadata);
+		assertTrue(match[0]);
+	}
+
+	@Test
+	public void presentClassesAreNotLoaded() {
+		this.filter.setBeanClassLoader(new NonLoadingClassLoader(getClass()
+				.getClassLoader()));
+		given(this.metadata.getSet("test.Present", "ConditionalOnClass")).willReturn(
+				Collections.singleton(ExampleClass.class.getName()));
+		boolean[] match = this.filter.match(new String[] { "test.Present" },
+				this.metadata);
+		assertTrue(match[0]);
+	}
+
+	@Test
+	public void classesWithoutClassFilesAreLoaded() {
+		this.filter.setBeanClassLoader(new NoResourcesClassLoader(getClass()
+				.getClassLoader()));
+		given(this.metadata.getSet("test.Present", "ConditionalOnClass")).willReturn(
+				Collections.singleton(ExampleClass.class.getName()));
+		given(this.metadata.getSet("test.Missing", "ConditionalOnClass")).willReturn(
+				Collections.singleton("com.example.DoesNotExist"));
+		boolean[] match = this.filter.match(new String[] { "test.Present",
+				"test.Missing" }, this.metadata);
+		assertTrue(match[0]);
+		assertFalse(match[1]);
+	}
+
+	@Test
+	public void conditionReusesOutcomesOfFilter() {
+		CountingClassLoader classLoader = new CountingClassLoader(getClass()
+				.getClassLoader());
+		this.filter.setBeanClassLoader(classLoader);
+		given(this.metadata.getSet("test.Present", "ConditionalOnClass")).willReturn(
+				Collections.singleton(ExampleClass.class.getName()));
+		assertTrue(this.filter.match(new String[] { "test.Present" }, this.metadata)[0]);
+		assertThat(classLoader.getLoadCount(), equalTo(1));
+		ConditionContext context = mock(ConditionContext.class);
+		given(context.getBeanFactory()).willReturn(this.beanFactory);
+		given(context.getClassLoader()).willReturn(classLoader);
+		AnnotatedTypeMetadata metadata = mock(AnnotatedTypeMetadata.class);
+		MultiValueMap<String, Object> attributes = new LinkedMultiValueMap<String, Object>();
+		attributes.add("name", new String[] { ExampleClass.class.getName() });
+		given(
+				metadata.getAllAnnotationAttributes(ConditionalOnClass.class.getName(),
+						true)).willReturn(attributes);
+		assertTrue(new OnClassCondition().getMatchOutcome(context, metadata).isMatch());
+		assertThat(classLoader.getLoadCount(), equalTo(1));
+	}
+
+	private ConditionEvaluationReport getReport() {
+		return ConditionEvaluationReport.get(this.beanFactory);
+	}
+
+	static class ExampleClass {
+
+	}
+
+	/**
+	 * {@link ClassLoader} that can load classes but has no class file resources, like
+	 * one that defines classes in memory.
+	 */
+	private static class NoResourcesClassLoader extends ClassLoader {
+
+		NoResourcesClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		public URL getResource(String name) {
+			return null;
+		}
+
+	}
+
+	/**
+	 * {@link ClassLoader} without class file resources that counts how often the
+	 * {@link ExampleClass} is loaded.
+	 */
+	private static class CountingClassLoader extends NoResourcesClassLoader {
+
+		private final AtomicInteger loadCount = new AtomicInteger();
+
+		CountingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			if (name.equals(ExampleClass.class.getName())) {
+				this.loadCount.incrementAndGet();
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		public int getLoadCount() {
+			return this.loadCount.get();
+		}
+
+	}
+
+	/**
+	 * {@link ClassLoader} that can find resources but cannot load classes.
+	 */
+	private static class NonLoadingClassLoader extends ClassLoader {
+
+		NonLoadingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			throw new IllegalStateException("Unexpected load of " + name);
+		}
+
+	}
+
+}
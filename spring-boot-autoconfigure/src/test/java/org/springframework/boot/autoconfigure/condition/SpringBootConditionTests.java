@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,17 @@ package org.springframework.boot.autoconfigure.condition;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.springframework.boot.StartupTimeline;
+import org.springframework.boot.StartupTimeline.Step;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link SpringBootCondition}.
@@ -53,6 +58,31 @@ public class SpringBootConditionTests {
 		new AnnotationConfigApplicationContext(ErrorOnMethod.class);
 	}
 
+	@Test
+	public void conditionTimeRecorded() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		StartupTimeline timeline = new StartupTimeline();
+		context.getBeanFactory().registerSingleton(StartupTimeline.BEAN_NAME, timeline);
+		context.register(MatchOnClass.class);
+		context.refresh();
+		String name = ClassUtils.getShortName(AlwaysMatchesCondition.class) + " on "
+				+ MatchOnClass.class.getName();
+		boolean found = false;
+		for (Step step : timeline.getSteps()) {
+			if ("condition".equals(step.getCategory()) && name.equals(step.getName())) {
+				found = true;
+			}
+		}
+		assertTrue(found);
+		context.close();
+	}
+
+	@Configuration
+	@Conditional(AlwaysMatchesCondition.class)
+	public static class MatchOnClass {
+
+	}
+
 	@Configuration
 	@Conditional(AlwaysThrowsCondition.class)
 	public static class ErrorOnClass {
@@ -70,6 +100,16 @@ public class SpringBootConditionTests {
 
 	}
 
+	public static class AlwaysMatchesCondition extends SpringBootCondition {
+
+		@Override
+		public ConditionOutcome getMatchOutcome(ConditionContext context,
+				AnnotatedTypeMetadata metadata) {
+			return ConditionOutcome.match();
+		}
+
+	}
+
 	public static class AlwaysThrowsCondition extends SpringBootCondition {
 
 		@Override
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.configurationprocessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation {@link Processor} that writes an index of the class conditions and ordering
+ * constraints of top-level {@code @Configuration} classes so that auto-configuration
+ * candidates can be filtered and sorted without reading their class files.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+@SupportedAnnotationTypes({ "*" })
+public class AutoConfigureAnnotationProcessor extends AbstractProcessor {
+
+	static final String PROPERTIES_PATH = "META-INF/spring-autoconfigure-metadata.properties";
+
+	static final String CONFIGURATION_ANNOTATION = "org.springframework.context."
+			+ "annotation.Configuration";
+
+	private final Map<String, String> annotations;
+
+	private final Properties properties = new Properties();
+
+	public AutoConfigureAnnotationProcessor() {
+		Map<String, String> annotations = new LinkedHashMap<String, String>();
+		addAnnotations(annotations);
+		this.annotations = Collections.unmodifiableMap(annotations);
+	}
+
+	/**
+	 * Add the annotations that should be indexed, keyed by the name used in the index.
+	 * @param annotations the annotations to update
+	 */
+	protected void addAnnotations(Map<String, String> annotations) {
+		annotations.put("ConditionalOnClass", "org.springframework.boot.autoconfigure."
+				+ "condition.ConditionalOnClass");
+		annotations.put("ConditionalOnMissingClass", "org.springframework.boot."
+				+ "autoconfigure.condition.ConditionalOnMissingClass");
+		annotations.put("AutoConfigureBefore", "org.springframework.boot."
+				+ "autoconfigure.AutoConfigureBefore");
+		annotations.put("AutoConfigureAfter", "org.springframework.boot."
+				+ "autoconfigure.AutoConfigureAfter");
+		annotations.put("AutoConfigureOrder", "org.springframework.boot."
+				+ "autoconfigure.AutoConfigureOrder");
+	}
+
+	protected String configurationAnnotation() {
+		return CONFIGURATION_ANNOTATION;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv) {
+		Elements elementUtils = this.processingEnv.getElementUtils();
+		TypeElement annotationType = elementUtils
+				.getTypeElement(configurationAnnotation());
+		if (annotationType != null) { // Is @Configuration available
+			for (Element element : roundEnv.getRootElements()) {
+				Element enclosing = element.getEnclosingElement();
+				if (element.getKind() == ElementKind.CLASS
+						&& enclosing.getKind() == ElementKind.PACKAGE) {
+					processElement((TypeElement) element);
+				}
+			}
+		}
+		if (roundEnv.processingOver()) {
+			try {
+				writeProperties();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write metadata", ex);
+			}
+		}
+		return false;
+	}
+
+	private void processElement(TypeElement element) {
+		Map<String, List<AnnotationMirror>> found = new LinkedHashMap<String, List<AnnotationMirror>>();
+		collectAnnotations(element, found, new HashSet<Element>());
+		if (!found.containsKey(configurationAnnotation())) {
+			return;
+		}
+		String className = getBinaryName(element);
+		// An entry for the class itself shows that its annotations have been indexed
+		this.properties.put(className, "");
+		for (Map.Entry<String, String> entry : this.annotations.entrySet()) {
+			List<AnnotationMirror> mirrors = found.get(entry.getValue());
+			if (mirrors != null) {
+				Set<String> values = new LinkedHashSet<String>();
+				for (AnnotationMirror mirror : mirrors) {
+					collectValues(mirror, values);
+				}
+				this.properties.put(className + "." + entry.getKey(),
+						toCommaDelimitedString(values));
+			}
+		}
+	}
+
+	private void collectAnnotations(Element element,
+			Map<String, List<AnnotationMirror>> found, Set<Element> seen) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			Element annotationElement = mirror.getAnnotationType().asElement();
+			String name = mirror.getAnnotationType().toString();
+			if (name.equals(configurationAnnotation())
+					|| this.annotations.containsValue(name)) {
+				List<AnnotationMirror> mirrors = found.get(name);
+				if (mirrors == null) {
+					mirrors = new ArrayList<AnnotationMirror>();
+					found.put(name, mirrors);
+				}
+				mirrors.add(mirror);
+			}
+			else if (!name.startsWith("java.lang.annotation.")
+					&& seen.add(annotationElement)) {
+				// Meta-annotations are honored at runtime so they must be indexed too
+				collectAnnotations(annotationElement, found, seen);
+			}
+		}
+	}
+
+	private void collectValues(AnnotationMirror mirror, Set<String> values) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> elementValues = this.processingEnv
+				.getElementUtils().getElementValuesWithDefaults(mirror);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elementValues
+				.entrySet()) {
+			String attribute = entry.getKey().getSimpleName().toString();
+			if ("value".equals(attribute) || "name".equals(attribute)) {
+				collectValue(entry.getValue().getValue(), values);
+			}
+		}
+	}
+
+	private void collectValue(Object value, Set<String> values) {
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectValue(((AnnotationValue) element).getValue(), values);
+			}
+		}
+		else if (value instanceof DeclaredType) {
+			values.add(getBinaryName((TypeElement) ((DeclaredType) value).asElement()));
+		}
+		else if (value instanceof TypeMirror) {
+			values.add(value.toString());
+		}
+		else if (value != null && value.toString().length() > 0) {
+			values.add(value.toString());
+		}
+	}
+
+	private String getBinaryName(TypeElement element) {
+		return this.processingEnv.getElementUtils().getBinaryName(element).toString();
+	}
+
+	private String toCommaDelimitedString(Collection<String> values) {
+		StringBuilder result = new StringBuilder();
+		for (String value : values) {
+			result.append(result.length() == 0 ? "" : ",");
+			result.append(value);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Write the index. Classes that were not part of this compilation are not included
+	 * which is safe since unindexed classes are simply processed at runtime.
+	 * @throws IOException on write error
+	 */
+	protected void writeProperties() throws IOException {
+		if (!this.properties.isEmpty()) {
+			FileObject file = this.processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", PROPERTIES_PATH);
+			OutputStream outputStream = file.openOutputStream();
+			try {
+				this.properties.store(outputStream, null);
+			}
+			finally {
+				outputStream.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.configurationprocessor;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.configurationsample.autoconfigure.TestClassConfiguration;
+import org.springframework.boot.configurationsample.autoconfigure.TestComposedConfiguration;
+import org.springframework.boot.configurationsample.autoconfigure.TestConditionalOnClass;
+import org.springframework.boot.configurationsample.autoconfigure.TestNotConfiguration;
+import org.springframework.boot.configurationsample.autoconfigure.TestUnconditionalConfiguration;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link AutoConfigureAnnotationProcessor}.
+ *
+ * @author agent
+ */
+public class AutoConfigureAnnotationProcessorTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TestCompiler compiler;
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+	@Test
+	public void annotatedClass() throws Exception {
+		Properties properties = compile(TestClassConfiguration.class);
+		String name = TestClassConfiguration.class.getName();
+		assertThat(properties.getProperty(name), equalTo(""));
+		assertThat(properties.getProperty(name + ".ConditionalOnClass"),
+				equalTo("java.io.InputStream,java.util.Map$Entry,com.example.Bar"));
+		assertThat(properties.getProperty(name + ".AutoConfigureAfter"),
+				equalTo("com.example.OtherConfiguration"));
+		assertThat(properties.getProperty(name + ".AutoConfigureOrder"), equalTo("10"));
+	}
+
+	@Test
+	public void nestedClassesAreNotIndexed() throws Exception {
+		Properties properties = compile(TestClassConfiguration.class);
+		String name = TestClassConfiguration.Nested.class.getName();
+		assertFalse(properties.containsKey(name));
+		assertThat(properties.size(), equalTo(4));
+	}
+
+	@Test
+	public void metaAnnotatedClass() throws Exception {
+		Properties properties = compile(TestComposedConfiguration.class);
+		assertThat(properties.getProperty(TestComposedConfiguration.class.getName()
+				+ ".ConditionalOnClass"), equalTo("com.example.Foo"));
+	}
+
+	@Test
+	public void unconditionalClass() throws Exception {
+		Properties properties = compile(TestUnconditionalConfiguration.class);
+		assertThat(properties.getProperty(TestUnconditionalConfiguration.class
+				.getName()), equalTo(""));
+		assertThat(properties.size(), equalTo(1));
+	}
+
+	@Test
+	public void nothingWrittenWithoutConfiguration() throws Exception {
+		assertThat(compile(TestNotConfiguration.class, TestConditionalOnClass.class),
+				nullValue());
+	}
+
+	private Properties compile(Class<?>... types) throws IOException {
+		TestAutoConfigureAnnotationProcessor processor = new TestAutoConfigureAnnotationProcessor(
+				this.compiler.getOutputLocation());
+		this.compiler.getTask(types).call(processor);
+		return processor.getWrittenProperties();
+	}
+
+}
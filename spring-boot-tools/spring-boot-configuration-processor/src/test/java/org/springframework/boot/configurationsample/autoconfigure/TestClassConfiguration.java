@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.configurationsample.autoconfigure;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Configuration with class conditions and ordering constraints.
+ *
+ * @author agent
+ */
+@TestConfiguration
+@TestConditionalOnClass(value = { InputStream.class, Map.Entry.class },
+		name = "com.example.Bar")
+@TestAutoConfigureAfter(name = "com.example.OtherConfiguration")
+@TestAutoConfigureOrder(10)
+public class TestClassConfiguration {
+
+	@TestConfiguration
+	@TestConditionalOnClass(name = "com.example.Nested")
+	public static class Nested {
+
+	}
+
+}
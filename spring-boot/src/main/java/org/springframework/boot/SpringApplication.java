@@ -33,6 +33,7 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.groovy.GroovyBeanDefinitionReader;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanNameGenerator;
@@ -41,11 +42,13 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigUtils;
 import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
 import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.support.DefaultLifecycleProcessor;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
@@ -185,6 +188,10 @@ public class SpringApplication {
 
 	private boolean registerShutdownHook = true;
 
+	private boolean recordStartupTimeline;
+
+	private StartupTimeline startupTimeline;
+
 	private List<ApplicationContextInitializer<?>> initializers;
 
 	private List<ApplicationListener<?>> listeners;
@@ -265,6 +272,7 @@ public class SpringApplication {
 	public ConfigurableApplicationContext run(String... args) {
 		StopWatch stopWatch = new StopWatch();
 		stopWatch.start();
+		this.startupTimeline = new StartupTimeline();
 		ConfigurableApplicationContext context = null;
 		configureHeadlessProperty();
 		SpringApplicationRunListeners listeners = getRunListeners(args);
@@ -279,6 +287,7 @@ public class SpringApplication {
 			return context;
 		}
 		catch (Throwable ex) {
+			this.startupTimeline.stop();
 			try {
 				listeners.finished(context, ex);
 				this.log.error("Application startup failed", ex);
@@ -301,10 +310,16 @@ public class SpringApplication {
 	private ConfigurableApplicationContext doRun(SpringApplicationRunListeners listeners,
 			String... args) {
 		ConfigurableApplicationContext context;
+		StartupTimeline timeline = this.startupTimeline;
+		long start = System.nanoTime();
 		// Create and configure the environment
 		ConfigurableEnvironment environment = getOrCreateEnvironment();
 		configureEnvironment(environment, args);
 		listeners.environmentPrepared(environment);
+		timeline.record("phase", "prepare-environment", start);
+		if (!this.recordStartupTimeline) {
+			timeline.stop();
+		}
 		if (this.showBanner) {
 			printBanner(environment);
 		}
@@ -321,6 +336,9 @@ public class SpringApplication {
 		}
 		context.setEnvironment(environment);
 		postProcessApplicationContext(context);
+		if (timeline.isRecording()) {
+			registerStartupTimeline(context, timeline);
+		}
 		applyInitializers(context);
 		listeners.contextPrepared(context);
 		if (this.logStartupInfo) {
@@ -335,16 +353,38 @@ public class SpringApplication {
 		// Load the sources
 		Set<Object> sources = getSources();
 		Assert.notEmpty(sources, "Sources must not be empty");
+		start = System.nanoTime();
 		load(context, sources.toArray(new Object[sources.size()]));
+		timeline.record("phase", "load-sources", start);
 		listeners.contextLoaded(context);
 
 		// Refresh the context
+		start = System.nanoTime();
 		refresh(context);
+		timeline.record("phase", "refresh", start);
+		start = System.nanoTime();
 		afterRefresh(context, applicationArguments);
+		timeline.record("phase", "after-refresh", start);
+		timeline.stop();
 		listeners.finished(context, null);
 		return context;
 	}
 
+	private void registerStartupTimeline(ConfigurableApplicationContext context,
+			StartupTimeline timeline) {
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+		beanFactory.registerSingleton(StartupTimeline.BEAN_NAME, timeline);
+		beanFactory.addBeanPostProcessor(new StartupTimelineBeanPostProcessor(timeline));
+		String name = AbstractApplicationContext.LIFECYCLE_PROCESSOR_BEAN_NAME;
+		if (!beanFactory.containsBean(name)) {
+			// Any user defined processor will replace this one
+			DefaultLifecycleProcessor processor = new StartupTimelineLifecycleProcessor(
+					timeline);
+			processor.setBeanFactory(beanFactory);
+			beanFactory.registerSingleton(name, processor);
+		}
+	}
+
 	private void configureHeadlessProperty() {
 		System.setProperty(
 				SYSTEM_PROPERTY_JAVA_AWT_HEADLESS,
@@ -355,7 +395,8 @@ public class SpringApplication {
 	private SpringApplicationRunListeners getRunListeners(String[] args) {
 		Class<?>[] types = new Class<?>[] { SpringApplication.class, String[].class };
 		return new SpringApplicationRunListeners(this.log, getSpringFactoriesInstances(
-				SpringApplicationRunListener.class, types, this, args));
+				SpringApplicationRunListener.class, types, this, args),
+				this.startupTimeline);
 	}
 
 	private <T> Collection<? extends T> getSpringFactoriesInstances(Class<T> type) {
@@ -559,7 +600,10 @@ public class SpringApplication {
 			Class<?> requiredType = GenericTypeResolver.resolveTypeArgument(
 					initializer.getClass(), ApplicationContextInitializer.class);
 			Assert.isInstanceOf(requiredType, context, "Unable to call initializer.");
+			long start = System.nanoTime();
 			initializer.initialize(context);
+			this.startupTimeline.record("initializer", initializer.getClass().getName(),
+					start);
 		}
 	}
 
@@ -787,6 +831,27 @@ public class SpringApplication {
 		this.logStartupInfo = logStartupInfo;
 	}
 
+	/**
+	 * Sets if a detailed {@link StartupTimeline} should be recorded while the
+	 * application starts. When enabled, the timeline includes the time taken by each
+	 * condition, bean and {@link SmartLifecycle} and is registered in the context under
+	 * {@link StartupTimeline#BEAN_NAME}. Defaults to {@code false}.
+	 * @param recordStartupTimeline if the startup timeline should be recorded
+	 * @since 1.3.0
+	 */
+	public void setRecordStartupTimeline(boolean recordStartupTimeline) {
+		this.recordStartupTimeline = recordStartupTimeline;
+	}
+
+	/**
+	 * Returns the {@link StartupTimeline} of the current (or most recent) run.
+	 * @return the startup timeline or {@code null} if the application has not been run
+	 * @since 1.3.0
+	 */
+	public StartupTimeline getStartupTimeline() {
+		return this.startupTimeline;
+	}
+
 	/**
 	 * Sets if a {@link CommandLinePropertySource} should be added to the application
 	 * context in order to expose arguments. Defaults to {@code true}.
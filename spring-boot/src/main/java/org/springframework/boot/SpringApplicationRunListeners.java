@@ -36,42 +36,61 @@ class SpringApplicationRunListeners {
 
 	private final List<SpringApplicationRunListener> listeners;
 
+	private final StartupTimeline timeline;
+
 	public SpringApplicationRunListeners(Log log,
-			Collection<? extends SpringApplicationRunListener> listeners) {
+			Collection<? extends SpringApplicationRunListener> listeners,
+			StartupTimeline timeline) {
 		this.log = log;
 		this.listeners = new ArrayList<SpringApplicationRunListener>(listeners);
+		this.timeline = timeline;
 	}
 
 	public void started() {
 		for (SpringApplicationRunListener listener : this.listeners) {
+			long start = System.nanoTime();
 			listener.started();
+			record("started", listener, start);
 		}
 	}
 
 	public void environmentPrepared(ConfigurableEnvironment environment) {
 		for (SpringApplicationRunListener listener : this.listeners) {
+			long start = System.nanoTime();
 			listener.environmentPrepared(environment);
+			record("environmentPrepared", listener, start);
 		}
 	}
 
 	public void contextPrepared(ConfigurableApplicationContext context) {
 		for (SpringApplicationRunListener listener : this.listeners) {
+			long start = System.nanoTime();
 			listener.contextPrepared(context);
+			record("contextPrepared", listener, start);
 		}
 	}
 
 	public void contextLoaded(ConfigurableApplicationContext context) {
 		for (SpringApplicationRunListener listener : this.listeners) {
+			long start = System.nanoTime();
 			listener.contextLoaded(context);
+			record("contextLoaded", listener, start);
 		}
 	}
 
 	public void finished(ConfigurableApplicationContext context, Throwable exception) {
 		for (SpringApplicationRunListener listener : this.listeners) {
+			long start = System.nanoTime();
 			callFinishedListener(listener, context, exception);
+			record("finished", listener, start);
 		}
 	}
 
+	private void record(String phase, SpringApplicationRunListener listener, long start) {
+		this.timeline.record("run-listener", phase + " " + listener.getClass().getName(),
+				start);
+	}
+
 	private void callFinishedListener(SpringApplicationRunListener listener,
 			ConfigurableApplicationContext context, Throwable exception) {
 		try {
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+
+/**
+ * Records the steps taken while a {@link SpringApplication} starts. Each step has a
+ * category (for example "initializer" or "bean"), a name and the time it took. Steps are
+ * recorded until the application has started, after which the timeline is read-only.
+ * <p>
+ * When {@link SpringApplication#setRecordStartupTimeline(boolean) enabled} the timeline
+ * is registered in the application context under {@link #BEAN_NAME}.
+ *
+ * @author agent
+ * @since 1.3.0
+ */
+public class StartupTimeline {
+
+	/**
+	 * The name of the bean that holds the timeline.
+	 */
+	public static final String BEAN_NAME = "springApplicationStartupTimeline";
+
+	private final long startTime = System.currentTimeMillis();
+
+	private final long startNanos = System.nanoTime();
+
+	private final List<Step> steps = new ArrayList<Step>();
+
+	private volatile boolean recording = true;
+
+	private volatile long endNanos;
+
+	/**
+	 * Return the wall clock time (in milliseconds since the epoch) that the timeline was
+	 * started.
+	 * @return the start time
+	 */
+	public long getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Return the total duration of the timeline in milliseconds, or the time elapsed so
+	 * far if it is still being recorded.
+	 * @return the duration
+	 */
+	public double getDuration() {
+		long end = (this.recording ? System.nanoTime() : this.endNanos);
+		return toMillis(end - this.startNanos);
+	}
+
+	/**
+	 * Return if steps are still being recorded.
+	 * @return if the timeline is recording
+	 */
+	public boolean isRecording() {
+		return this.recording;
+	}
+
+	/**
+	 * Record a step that started at the given time (as returned from
+	 * {@link System#nanoTime()}) and ends now. Ignored if the timeline is no longer
+	 * recording.
+	 * @param category the category of the step
+	 * @param name the name of the step
+	 * @param startNanos the start time of the step
+	 */
+	public void record(String category, String name, long startNanos) {
+		if (this.recording) {
+			long endNanos = System.nanoTime();
+			Step step = new Step(category, name, toMillis(startNanos - this.startNanos),
+					toMillis(endNanos - startNanos));
+			synchronized (this.steps) {
+				this.steps.add(step);
+			}
+		}
+	}
+
+	/**
+	 * Stop recording. Any subsequent calls to {@link #record(String, String, long)} are
+	 * ignored.
+	 */
+	public void stop() {
+		if (this.recording) {
+			this.endNanos = System.nanoTime();
+			this.recording = false;
+		}
+	}
+
+	/**
+	 * Return the steps recorded so far, ordered by their start time.
+	 * @return the steps
+	 */
+	public List<Step> getSteps() {
+		List<Step> steps;
+		synchronized (this.steps) {
+			steps = new ArrayList<Step>(this.steps);
+		}
+		Collections.sort(steps, new Comparator<Step>() {
+
+			@Override
+			public int compare(Step o1, Step o2) {
+				return Double.compare(o1.getOffset(), o2.getOffset());
+			}
+
+		});
+		return steps;
+	}
+
+	private static double toMillis(long nanos) {
+		return Math.round(nanos / 1000.0) / 1000.0;
+	}
+
+	/**
+	 * Return the {@link StartupTimeline} registered with the given bean factory.
+	 * @param beanFactory the bean factory (may be {@code null})
+	 * @return the timeline or {@code null} if none has been registered
+	 */
+	public static StartupTimeline get(SingletonBeanRegistry beanFactory) {
+		if (beanFactory != null && beanFactory.containsSingleton(BEAN_NAME)) {
+			Object timeline = beanFactory.getSingleton(BEAN_NAME);
+			if (timeline instanceof StartupTimeline) {
+				return (StartupTimeline) timeline;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A single step in the timeline.
+	 */
+	public static final class Step {
+
+		private final String category;
+
+		private final String name;
+
+		private final double offset;
+
+		private final double duration;
+
+		Step(String category, String name, double offset, double duration) {
+			this.category = category;
+			this.name = name;
+			this.offset = offset;
+			this.duration = duration;
+		}
+
+		/**
+		 * Return the category of the step.
+		 * @return the category
+		 */
+		public String getCategory() {
+			return this.category;
+		}
+
+		/**
+		 * Return the name of the step.
+		 * @return the name
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the time in milliseconds from the start of the timeline that the step
+		 * started.
+		 * @return the offset
+		 */
+		public double getOffset() {
+			return this.offset;
+		}
+
+		/**
+		 * Return the time in milliseconds that the step took, including any nested
+		 * steps.
+		 * @return the duration
+		 */
+		public double getDuration() {
+			return this.duration;
+		}
+
+		@Override
+		public String toString() {
+			return this.category + " " + this.name + " (" + this.duration + "ms)";
+		}
+
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+
+/**
+ * Bean post processor that records the time taken to create each bean in a
+ * {@link StartupTimeline}. The time includes the creation of any dependencies that are
+ * created at the same time.
+ *
+ * @author agent
+ */
+class StartupTimelineBeanPostProcessor extends
+		InstantiationAwareBeanPostProcessorAdapter {
+
+	private final StartupTimeline timeline;
+
+	private final Map<String, Long> starts = new ConcurrentHashMap<String, Long>();
+
+	StartupTimelineBeanPostProcessor(StartupTimeline timeline) {
+		this.timeline = timeline;
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName)
+			throws BeansException {
+		if (beanName != null && this.timeline.isRecording()) {
+			this.starts.put(beanName, System.nanoTime());
+		}
+		return null;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName)
+			throws BeansException {
+		Long start = (beanName == null ? null : this.starts.remove(beanName));
+		if (start != null) {
+			this.timeline.record("bean", beanName, start);
+		}
+		return bean;
+	}
+
+}
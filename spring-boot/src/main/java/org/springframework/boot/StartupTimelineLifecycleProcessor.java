@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.context.Lifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.support.DefaultLifecycleProcessor;
+
+/**
+ * {@link DefaultLifecycleProcessor} that records the time taken to start each
+ * {@link SmartLifecycle} bean in a {@link StartupTimeline}.
+ *
+ * @author agent
+ */
+class StartupTimelineLifecycleProcessor extends DefaultLifecycleProcessor {
+
+	private final StartupTimeline timeline;
+
+	StartupTimelineLifecycleProcessor(StartupTimeline timeline) {
+		this.timeline = timeline;
+	}
+
+	@Override
+	protected Map<String, Lifecycle> getLifecycleBeans() {
+		Map<String, Lifecycle> beans = super.getLifecycleBeans();
+		if (!this.timeline.isRecording()) {
+			return beans;
+		}
+		Map<String, Lifecycle> result = new LinkedHashMap<String, Lifecycle>();
+		for (Map.Entry<String, Lifecycle> entry : beans.entrySet()) {
+			Lifecycle bean = entry.getValue();
+			if (bean instanceof SmartLifecycle) {
+				bean = new TimedLifecycle(entry.getKey(), (SmartLifecycle) bean);
+			}
+			result.put(entry.getKey(), bean);
+		}
+		return result;
+	}
+
+	/**
+	 * {@link SmartLifecycle} that records the time taken to start a delegate.
+	 */
+	private class TimedLifecycle implements SmartLifecycle {
+
+		private final String name;
+
+		private final SmartLifecycle delegate;
+
+		TimedLifecycle(String name, SmartLifecycle delegate) {
+			this.name = name;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void start() {
+			long start = System.nanoTime();
+			this.delegate.start();
+			StartupTimelineLifecycleProcessor.this.timeline.record("lifecycle",
+					this.name, start);
+		}
+
+		@Override
+		public void stop() {
+			this.delegate.stop();
+		}
+
+		@Override
+		public void stop(Runnable callback) {
+			this.delegate.stop(callback);
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.delegate.isRunning();
+		}
+
+		@Override
+		public boolean isAutoStartup() {
+			return this.delegate.isAutoStartup();
+		}
+
+		@Override
+		public int getPhase() {
+			return this.delegate.getPhase();
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -98,6 +98,23 @@ class DefaultPropertyNamePatternsMatcher implements PropertyNamePatternsMatcher
 		return false;
 	}
 
+	/**
+	 * Return the {@link RelaxedPropertyIndex#canonicalize(String) canonical form} of the
+	 * names. The canonical form of any matching property name starts with one of them.
+	 * @return the canonical names or {@code null} if the names cannot be used as
+	 * canonical prefixes
+	 */
+	public Set<String> getCanonicalNames() {
+		Set<String> canonicalNames = new HashSet<String>();
+		for (String name : this.names) {
+			if (!RelaxedPropertyIndex.isAscii(name)) {
+				return null;
+			}
+			canonicalNames.add(RelaxedPropertyIndex.canonicalize(name));
+		}
+		return canonicalNames;
+	}
+
 	private boolean isCharMatch(char c1, char c2) {
 		if (this.ignoreCase) {
 			return Character.toLowerCase(c1) == Character.toLowerCase(c2);
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.PropertyValue;
@@ -49,6 +50,10 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 
 	private final PropertyNamePatternsMatcher includes;
 
+	private final RelaxedPropertyIndex index;
+
+	private final Set<String> canonicalPrefixes;
+
 	/**
 	 * Create a new PropertyValues from the given PropertySources
 	 * @param propertySources a PropertySources instance
@@ -86,6 +91,9 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 		this.propertyNames = (propertyNames == null ? Collections.<String> emptySet()
 				: propertyNames);
 		this.includes = includes;
+		this.canonicalPrefixes = getCanonicalPrefixes(includes);
+		this.index = (this.canonicalPrefixes != null ? RelaxedPropertyIndex
+				.get(propertySources) : null);
 		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
 				propertySources);
 		for (PropertySource<?> source : propertySources) {
@@ -93,6 +101,13 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 		}
 	}
 
+	private Set<String> getCanonicalPrefixes(PropertyNamePatternsMatcher includes) {
+		if (includes instanceof DefaultPropertyNamePatternsMatcher) {
+			return ((DefaultPropertyNamePatternsMatcher) includes).getCanonicalNames();
+		}
+		return null;
+	}
+
 	private void processPropertySource(PropertySource<?> source,
 			PropertySourcesPropertyResolver resolver) {
 		if (source instanceof CompositePropertySource) {
@@ -116,16 +131,22 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 
 	private void processEnumerablePropertySource(EnumerablePropertySource<?> source,
 			PropertySourcesPropertyResolver resolver, PropertyNamePatternsMatcher includes) {
-		if (source.getPropertyNames().length > 0) {
-			for (String propertyName : source.getPropertyNames()) {
-				if (includes.matches(propertyName)) {
-					Object value = getEnumerableProperty(source, resolver, propertyName);
-					putIfAbsent(propertyName, value);
-				}
+		for (String propertyName : getPropertyNames(source)) {
+			if (includes.matches(propertyName)) {
+				Object value = getEnumerableProperty(source, resolver, propertyName);
+				putIfAbsent(propertyName, value);
 			}
 		}
 	}
 
+	private String[] getPropertyNames(EnumerablePropertySource<?> source) {
+		if (this.index != null) {
+			// Only visit the names that can possibly match
+			return this.index.getPropertyNames(source, this.canonicalPrefixes);
+		}
+		return source.getPropertyNames();
+	}
+
 	private Object getEnumerableProperty(EnumerablePropertySource<?> source,
 			PropertySourcesPropertyResolver resolver, String propertyName) {
 		try {
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.bind;
 
+import java.beans.PropertyDescriptor;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -26,13 +27,17 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
 import org.springframework.beans.InvalidPropertyException;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.PropertyValue;
 import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -51,6 +56,10 @@ public class RelaxedDataBinder extends DataBinder {
 
 	private static final Object BLANK = new Object();
 
+	private static final int MAX_PLANS_PER_TYPE = 256;
+
+	private static final Map<Class<?>, Map<String, PropertyNamePlan>> propertyNamePlans = new ConcurrentReferenceHashMap<Class<?>, Map<String, PropertyNamePlan>>();
+
 	private String namePrefix;
 
 	private boolean ignoreNestedProperties;
@@ -199,9 +208,10 @@ public class RelaxedDataBinder extends DataBinder {
 			return propertyValues;
 		}
 		MutablePropertyValues rtn = new MutablePropertyValues();
+		RelaxedNames prefixes = new RelaxedNames(this.namePrefix);
 		for (PropertyValue value : propertyValues.getPropertyValues()) {
 			String name = value.getName();
-			for (String candidate : new RelaxedNames(this.namePrefix)) {
+			for (String candidate : prefixes) {
 				if (name.startsWith(candidate)) {
 					name = name.substring(candidate.length());
 					if (!(this.ignoreNestedProperties && name.contains("."))) {
@@ -374,23 +384,63 @@ public class RelaxedDataBinder extends DataBinder {
 	}
 
 	private String resolvePropertyName(BeanWrapper target, String prefix, String name) {
+		Class<?> type = getPropertyOwnerType(target, prefix);
+		if (type != null) {
+			return getPropertyNamePlan(type, name).resolve(target, prefix);
+		}
 		Iterable<String> names = getNameAndAliases(name);
 		for (String nameOrAlias : names) {
 			for (String candidate : new RelaxedNames(nameOrAlias)) {
-				try {
-					if (target.getPropertyType(joinString(prefix, candidate)) != null) {
-						return candidate;
-					}
-				}
-				catch (InvalidPropertyException ex) {
-					// swallow and continue
+				if (hasPropertyType(target, joinString(prefix, candidate))) {
+					return candidate;
 				}
 			}
 		}
 		return null;
 	}
 
-	private String joinString(String prefix, String name) {
+	private Class<?> getPropertyOwnerType(BeanWrapper target, String prefix) {
+		if (!StringUtils.hasLength(prefix)) {
+			return target.getWrappedClass();
+		}
+		try {
+			Object owner = target.getPropertyValue(prefix);
+			return (owner == null ? null : owner.getClass());
+		}
+		catch (BeansException ex) {
+			return null;
+		}
+	}
+
+	private PropertyNamePlan getPropertyNamePlan(Class<?> type, String name) {
+		Map<String, PropertyNamePlan> plans = propertyNamePlans.get(type);
+		if (plans == null) {
+			plans = new ConcurrentHashMap<String, PropertyNamePlan>();
+			propertyNamePlans.put(type, plans);
+		}
+		List<String> aliases = this.nameAliases.get(name);
+		String key = (aliases == null ? name : name + "=" + aliases);
+		PropertyNamePlan plan = plans.get(key);
+		if (plan == null) {
+			plan = new PropertyNamePlan(type, getNameAndAliases(name));
+			if (plans.size() < MAX_PLANS_PER_TYPE) {
+				plans.put(key, plan);
+			}
+		}
+		return plan;
+	}
+
+	private static boolean hasPropertyType(BeanWrapper target, String path) {
+		try {
+			return target.getPropertyType(path) != null;
+		}
+		catch (InvalidPropertyException ex) {
+			// swallow and continue
+			return false;
+		}
+	}
+
+	private static String joinString(String prefix, String name) {
 		return (StringUtils.hasLength(prefix) ? prefix + "." + name : name);
 	}
 
@@ -414,6 +464,69 @@ public class RelaxedDataBinder extends DataBinder {
 		return target;
 	}
 
+	/**
+	 * The relaxed names that might be used for a property of a given owner type, worked
+	 * out once and reused for every bind. Candidates are kept in {@link RelaxedNames}
+	 * order so that precedence is unchanged. A simple name (without a period) can be
+	 * checked against the properties of the owner type up front, so the first one that
+	 * matches ends the plan. A nested name is only retained if the owner type has its
+	 * first segment and is then checked when resolved, since the outcome depends on the
+	 * values in the target.
+	 */
+	private static class PropertyNamePlan {
+
+		private final List<Candidate> candidates = new ArrayList<Candidate>();
+
+		PropertyNamePlan(Class<?> type, Iterable<String> names) {
+			for (String nameOrAlias : names) {
+				for (String candidate : new RelaxedNames(nameOrAlias)) {
+					int dot = candidate.indexOf('.');
+					if (dot >= 0) {
+						if (BeanUtils.getPropertyDescriptor(type,
+								candidate.substring(0, dot)) != null) {
+							this.candidates.add(new Candidate(candidate, false));
+						}
+					}
+					else {
+						PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(
+								type, candidate);
+						if (descriptor != null && descriptor.getPropertyType() != null) {
+							this.candidates.add(new Candidate(candidate, true));
+							return;
+						}
+					}
+				}
+			}
+		}
+
+		public String resolve(BeanWrapper target, String prefix) {
+			for (Candidate candidate : this.candidates) {
+				if (candidate.verified
+						|| hasPropertyType(target, joinString(prefix, candidate.name))) {
+					return candidate.name;
+				}
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * A single {@link PropertyNamePlan} candidate.
+	 */
+	private static class Candidate {
+
+		private final String name;
+
+		private final boolean verified;
+
+		Candidate(String name, boolean verified) {
+			this.name = name;
+			this.verified = verified;
+		}
+
+	}
+
 	/**
 	 * Holder to allow Map targets to be bound.
 	 */
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.bind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.springframework.core.env.CompositePropertySource;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySources;
+
+/**
+ * Index of the property names contained in a {@link PropertySources} instance, sorted
+ * by a canonical form (lower case with separators removed) so that every
+ * {@link RelaxedNames} variation of a prefix matches the same names. Used by
+ * {@link PropertySourcesPropertyValues} to visit only the names that start with a given
+ * prefix.
+ * <p>
+ * An index is shared by all users of the same {@link PropertySources} and is rebuilt
+ * whenever a source is added, removed or replaced. The names of a source can change in
+ * place without notice (for instance when it is backed by a {@link Map}), so they are
+ * compared with the indexed names whenever they are requested.
+ *
+ * @author agent
+ * @since 1.3.0
+ * @see PropertySourcesPropertyValues
+ */
+final class RelaxedPropertyIndex {
+
+	private static final Map<PropertySources, RelaxedPropertyIndex> cache = Collections
+			.synchronizedMap(new WeakHashMap<PropertySources, RelaxedPropertyIndex>());
+
+	private final List<PropertySource<?>> sources;
+
+	private final Map<PropertySource<?>, SortedNames> sortedNames;
+
+	private RelaxedPropertyIndex(List<PropertySource<?>> sources) {
+		this.sources = sources;
+		this.sortedNames = new IdentityHashMap<PropertySource<?>, SortedNames>();
+		for (PropertySource<?> source : sources) {
+			if (source instanceof EnumerablePropertySource) {
+				this.sortedNames.put(source, new SortedNames(
+						((EnumerablePropertySource<?>) source).getPropertyNames()));
+			}
+		}
+	}
+
+	/**
+	 * Return the names from the given source that start with one of the given canonical
+	 * prefixes when in canonical form. Names are returned in the same order as the
+	 * source lists them.
+	 * @param source the property source
+	 * @param canonicalPrefixes the prefixes in canonical form
+	 * @return the names
+	 * @see #canonicalize(String)
+	 */
+	public String[] getPropertyNames(EnumerablePropertySource<?> source,
+			Collection<String> canonicalPrefixes) {
+		SortedNames sortedNames = this.sortedNames.get(source);
+		String[] names = source.getPropertyNames();
+		if (sortedNames == null) {
+			return names;
+		}
+		if (!sortedNames.hasNames(names)) {
+			// The names have changed in place since the index was built
+			sortedNames = new SortedNames(names);
+		}
+		return sortedNames.getNamesStartingWith(canonicalPrefixes);
+	}
+
+	private boolean isCurrent(List<PropertySource<?>> sources) {
+		if (sources.size() != this.sources.size()) {
+			return false;
+		}
+		for (int i = 0; i < sources.size(); i++) {
+			if (sources.get(i) != this.sources.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return an up to date index for the given property sources.
+	 * @param propertySources the property sources
+	 * @return the index
+	 */
+	public static RelaxedPropertyIndex get(PropertySources propertySources) {
+		List<PropertySource<?>> sources = new ArrayList<PropertySource<?>>();
+		for (PropertySource<?> source : propertySources) {
+			collect(source, sources);
+		}
+		RelaxedPropertyIndex index = cache.get(propertySources);
+		if (index == null || !index.isCurrent(sources)) {
+			index = new RelaxedPropertyIndex(sources);
+			cache.put(propertySources, index);
+		}
+		return index;
+	}
+
+	private static void collect(PropertySource<?> source,
+			List<PropertySource<?>> sources) {
+		if (source instanceof CompositePropertySource) {
+			for (PropertySource<?> nested : ((CompositePropertySource) source)
+					.getPropertySources()) {
+				collect(nested, sources);
+			}
+		}
+		else {
+			sources.add(source);
+		}
+	}
+
+	/**
+	 * Return the canonical form of the given name. All {@link RelaxedNames} variations
+	 * of an ASCII name have the same canonical form.
+	 * @param name the name
+	 * @return the canonical name
+	 */
+	static String canonicalize(String name) {
+		StringBuilder canonical = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c != '-' && c != '_' && c != '.') {
+				canonical.append(Character.toLowerCase(Character.toUpperCase(c)));
+			}
+		}
+		return canonical.toString();
+	}
+
+	static boolean isAscii(String name) {
+		for (int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) > 127) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The names of a single source, sorted by their canonical form.
+	 */
+	private static class SortedNames {
+
+		private final String[] names;
+
+		private final String[] canonicalNames;
+
+		private final int[] positions;
+
+		SortedNames(String[] names) {
+			this.names = names;
+			final String[] canonicalNames = new String[names.length];
+			Integer[] order = new Integer[names.length];
+			for (int i = 0; i < names.length; i++) {
+				canonicalNames[i] = canonicalize(names[i]);
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+
+				@Override
+				public int compare(Integer o1, Integer o2) {
+					return canonicalNames[o1].compareTo(canonicalNames[o2]);
+				}
+
+			});
+			this.canonicalNames = new String[names.length];
+			this.positions = new int[names.length];
+			for (int i = 0; i < order.length; i++) {
+				this.canonicalNames[i] = canonicalNames[order[i]];
+				this.positions[i] = order[i];
+			}
+		}
+
+		public boolean hasNames(String[] names) {
+			return (names == this.names || Arrays.equals(names, this.names));
+		}
+
+		public String[] getNamesStartingWith(Collection<String> canonicalPrefixes) {
+			BitSet matches = new BitSet(this.names.length);
+			for (String prefix : canonicalPrefixes) {
+				int index = getFirstIndex(prefix);
+				while (index < this.canonicalNames.length
+						&& this.canonicalNames[index].startsWith(prefix)) {
+					matches.set(this.positions[index]);
+					index++;
+				}
+			}
+			String[] result = new String[matches.cardinality()];
+			int resultIndex = 0;
+			for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+				result[resultIndex++] = this.names[i];
+			}
+			return result;
+		}
+
+		private int getFirstIndex(String canonicalName) {
+			int low = 0;
+			int high = this.canonicalNames.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.canonicalNames[mid].compareTo(canonicalName) < 0) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+	}
+
+}
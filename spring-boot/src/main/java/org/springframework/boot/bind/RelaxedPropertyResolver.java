@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.PropertyResolver;
 import org.springframework.core.env.PropertySources;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import static java.lang.String.format;
 
@@ -33,6 +34,8 @@ import static java.lang.String.format;
  */
 public class RelaxedPropertyResolver implements PropertyResolver {
 
+	private static final Map<String, RelaxedNames> relaxedNamesCache = new ConcurrentReferenceHashMap<String, RelaxedNames>();
+
 	private final PropertyResolver resolver;
 
 	private final String prefix;
@@ -77,45 +80,45 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 
 	@Override
 	public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
-		RelaxedNames prefixes = new RelaxedNames(this.prefix);
-		RelaxedNames keys = new RelaxedNames(key);
-		for (String prefix : prefixes) {
-			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
-					return this.resolver.getProperty(prefix + relaxedKey, targetType);
-				}
-			}
+		String name = getRelaxedName(key);
+		if (name != null) {
+			return this.resolver.getProperty(name, targetType);
 		}
 		return defaultValue;
 	}
 
 	@Override
 	public <T> Class<T> getPropertyAsClass(String key, Class<T> targetType) {
-		RelaxedNames prefixes = new RelaxedNames(this.prefix);
-		RelaxedNames keys = new RelaxedNames(key);
-		for (String prefix : prefixes) {
-			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
-					return this.resolver.getPropertyAsClass(prefix + relaxedKey,
-							targetType);
-				}
-			}
+		String name = getRelaxedName(key);
+		if (name != null) {
+			return this.resolver.getPropertyAsClass(name, targetType);
 		}
 		return null;
 	}
 
 	@Override
 	public boolean containsProperty(String key) {
-		RelaxedNames prefixes = new RelaxedNames(this.prefix);
-		RelaxedNames keys = new RelaxedNames(key);
-		for (String prefix : prefixes) {
-			for (String relaxedKey : keys) {
+		return getRelaxedName(key) != null;
+	}
+
+	private String getRelaxedName(String key) {
+		for (String prefix : getRelaxedNames(this.prefix)) {
+			for (String relaxedKey : getRelaxedNames(key)) {
 				if (this.resolver.containsProperty(prefix + relaxedKey)) {
-					return true;
+					return prefix + relaxedKey;
 				}
 			}
 		}
-		return false;
+		return null;
+	}
+
+	private static RelaxedNames getRelaxedNames(String name) {
+		RelaxedNames names = relaxedNamesCache.get(name);
+		if (names == null) {
+			names = new RelaxedNames(name);
+			relaxedNamesCache.put(name, names);
+		}
+		return names;
 	}
 
 	@Override
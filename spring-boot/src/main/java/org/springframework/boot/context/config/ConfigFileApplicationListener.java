@@ -26,6 +26,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.springframework.beans.BeansException;
@@ -53,6 +63,7 @@ import org.springframework.core.env.PropertySource;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
@@ -110,6 +121,14 @@ public class ConfigFileApplicationListener implements
 
 	public static final int DEFAULT_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
 
+	/**
+	 * Executor with a few daemon threads that stop when idle, shared by all loads to
+	 * parse config files in the background ({@code null} on a single processor). Files
+	 * that have not been picked up when they are needed are parsed on the calling
+	 * thread.
+	 */
+	private static final ThreadPoolExecutor loaderExecutor = createLoaderExecutor();
+
 	private final DeferredLog logger = new DeferredLog();
 
 	private String searchLocations;
@@ -284,6 +303,8 @@ public class ConfigFileApplicationListener implements
 
 		private boolean activatedProfiles;
 
+		private ConcurrentMap<String, Future<Resource>> resources;
+
 		public Loader(ConfigurableEnvironment environment, ResourceLoader resourceLoader) {
 			this.environment = environment;
 			this.resourceLoader = resourceLoader == null ? new DefaultResourceLoader()
@@ -292,6 +313,7 @@ public class ConfigFileApplicationListener implements
 
 		public void load() throws IOException {
 			this.propertiesLoader = new PropertySourcesLoader();
+			this.resources = new ConcurrentHashMap<String, Future<Resource>>();
 			this.profiles = Collections.asLifoQueue(new LinkedList<String>());
 			this.activatedProfiles = false;
 			if (this.environment.containsProperty(ACTIVE_PROFILES_PROPERTY)) {
@@ -325,61 +347,73 @@ public class ConfigFileApplicationListener implements
 			// override any settings in the defaults when the list is reversed later).
 			this.profiles.add(null);
 
+			String[] extensions = this.propertiesLoader.getAllFileExtensions().toArray(
+					new String[0]);
 			while (!this.profiles.isEmpty()) {
 				String profile = this.profiles.poll();
+				List<ConfigFile> files = new ArrayList<ConfigFile>();
 				for (String location : getSearchLocations()) {
 					if (!location.endsWith("/")) {
 						// location is a filename already, so don't search for more
 						// filenames
-						load(location, null, profile);
+						addConfigFiles(files, extensions, location, null, profile);
 					}
 					else {
 						for (String name : getSearchNames()) {
-							load(location, name, profile);
+							addConfigFiles(files, extensions, location, name, profile);
 						}
 					}
 				}
+				// Files are parsed in the background but always added (and so activate
+				// profiles) in the order that they were found
+				for (ConfigFile file : files) {
+					file.start();
+				}
+				for (ConfigFile file : files) {
+					loadIntoGroup(file);
+				}
 			}
 
 			addConfigurationProperties(this.propertiesLoader.getPropertySources());
 		}
 
-		private void load(String location, String name, String profile)
-				throws IOException {
+		private void addConfigFiles(List<ConfigFile> files, String[] extensions,
+				String location, String name, String profile) {
 			String group = "profile=" + (profile == null ? "" : profile);
 			if (!StringUtils.hasText(name)) {
 				// Try to load directly from the location
-				loadIntoGroup(group, location, profile);
+				files.add(new ConfigFile(group, location, profile));
 			}
 			else {
 				// Search for a file with the given name
-				for (String ext : this.propertiesLoader.getAllFileExtensions()) {
+				for (String ext : extensions) {
 					if (profile != null) {
 						// Try the profile specific file
-						loadIntoGroup(group, location + name + "-" + profile + "." + ext,
-								null);
+						files.add(new ConfigFile(group, location + name + "-" + profile
+								+ "." + ext, null));
 						// Sometimes people put "spring.profiles: dev" in
 						// application-dev.yml (gh-340). Arguably we should try and error
 						// out on that, but we can be kind and load it anyway.
-						loadIntoGroup(group, location + name + "-" + profile + "." + ext,
-								profile);
+						files.add(new ConfigFile(group, location + name + "-" + profile
+								+ "." + ext, profile));
 					}
 					// Also try the profile specific section (if any) of the normal file
-					loadIntoGroup(group, location + name + "." + ext, profile);
+					files.add(new ConfigFile(group, location + name + "." + ext,
+							profile));
 				}
 			}
 		}
 
-		private PropertySource<?> loadIntoGroup(String identifier, String location,
-				String profile) throws IOException {
-			Resource resource = this.resourceLoader.getResource(location);
+		private PropertySource<?> loadIntoGroup(ConfigFile file) throws IOException {
+			String location = file.getLocation();
+			String profile = file.getProfile();
+			Resource resource = getResource(location);
 			PropertySource<?> propertySource = null;
 			StringBuilder msg = new StringBuilder();
-			if (resource != null && resource.exists()) {
-				String name = "applicationConfig: [" + location + "]";
-				String group = "applicationConfig: [" + identifier + "]";
-				propertySource = this.propertiesLoader.load(resource, group, name,
-						profile);
+			if (resource != null) {
+				propertySource = file.getPropertySource();
+				this.propertiesLoader.addPropertySource("applicationConfig: ["
+						+ file.getIdentifier() + "]", propertySource);
 				if (propertySource != null) {
 					msg.append("Loaded ");
 					maybeActivateProfiles(propertySource
@@ -399,7 +433,7 @@ public class ConfigFileApplicationListener implements
 			if (StringUtils.hasLength(profile)) {
 				msg.append(" for profile ").append(profile);
 			}
-			if (resource == null || !resource.exists()) {
+			if (resource == null) {
 				msg.append(" resource not found");
 				this.logger.trace(msg);
 			}
@@ -409,6 +443,59 @@ public class ConfigFileApplicationListener implements
 			return propertySource;
 		}
 
+		/**
+		 * Return the resource at the given location or {@code null} if it does not
+		 * exist. Results (including missing resources) are cached since the same
+		 * locations are probed for each profile.
+		 */
+		private Resource getResource(final String location) throws IOException {
+			Future<Resource> resource = this.resources.get(location);
+			if (resource == null) {
+				FutureTask<Resource> task = new FutureTask<Resource>(
+						new Callable<Resource>() {
+
+							@Override
+							public Resource call() throws Exception {
+								Resource resource = Loader.this.resourceLoader
+										.getResource(location);
+								return (resource != null && resource.exists() ? resource
+										: null);
+							}
+
+						});
+				resource = this.resources.putIfAbsent(location, task);
+				if (resource == null) {
+					resource = task;
+					task.run();
+				}
+			}
+			return getResult(resource);
+		}
+
+		private <T> T getResult(Future<T> future) throws IOException {
+			try {
+				return future.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while loading config files",
+						ex);
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+
 		private void maybeActivateProfiles(Object value) {
 			if (this.activatedProfiles) {
 				if (value != null) {
@@ -503,6 +590,86 @@ public class ConfigFileApplicationListener implements
 					new ConfigurationPropertySources(reorderedSources));
 		}
 
+		/**
+		 * A candidate config file that can be parsed in the background.
+		 */
+		private class ConfigFile implements Callable<PropertySource<?>> {
+
+			private final String identifier;
+
+			private final String location;
+
+			private final String profile;
+
+			private final FutureTask<PropertySource<?>> task;
+
+			ConfigFile(String identifier, String location, String profile) {
+				this.identifier = identifier;
+				this.location = location;
+				this.profile = profile;
+				this.task = new FutureTask<PropertySource<?>>(this);
+			}
+
+			public String getIdentifier() {
+				return this.identifier;
+			}
+
+			public String getLocation() {
+				return this.location;
+			}
+
+			public String getProfile() {
+				return this.profile;
+			}
+
+			public void start() {
+				// Custom loaders are not required to be thread-safe
+				if (loaderExecutor != null
+						&& Loader.this.propertiesLoader
+								.isConcurrentLoadingSupported(Loader.this.resourceLoader
+										.getResource(this.location))) {
+					try {
+						loaderExecutor.execute(this.task);
+					}
+					catch (RejectedExecutionException ex) {
+						// Busy, the file will be parsed on the calling thread
+					}
+				}
+			}
+
+			public PropertySource<?> getPropertySource() throws IOException {
+				// Run in the calling thread if the task hasn't already been picked up
+				this.task.run();
+				return getResult(this.task);
+			}
+
+			@Override
+			public PropertySource<?> call() throws Exception {
+				Resource resource = getResource(this.location);
+				if (resource == null) {
+					return null;
+				}
+				String name = "applicationConfig: [" + this.location + "]";
+				return Loader.this.propertiesLoader.loadPropertySource(resource, name,
+						this.profile);
+			}
+
+		}
+
+	}
+
+	private static ThreadPoolExecutor createLoaderExecutor() {
+		int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+		if (threads < 2) {
+			return null;
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"config-loader-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(256), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	/**
@@ -19,7 +19,9 @@ package org.springframework.boot.context.event;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.boot.StartupTimeline;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.event.ApplicationEventMulticaster;
@@ -27,6 +29,7 @@ import org.springframework.context.event.SimpleApplicationEventMulticaster;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.ClassUtils;
 
 /**
  * {@link SpringApplicationRunListener} to publish {@link SpringApplicationEvent}s.
@@ -44,12 +47,19 @@ public class EventPublishingRunListener implements SpringApplicationRunListener,
 	public EventPublishingRunListener(SpringApplication application, String[] args) {
 		this.application = application;
 		this.args = args;
-		this.multicaster = new SimpleApplicationEventMulticaster();
+		this.multicaster = createMulticaster(application.getStartupTimeline());
 		for (ApplicationListener<?> listener : application.getListeners()) {
 			this.multicaster.addApplicationListener(listener);
 		}
 	}
 
+	private ApplicationEventMulticaster createMulticaster(StartupTimeline timeline) {
+		if (timeline == null) {
+			return new SimpleApplicationEventMulticaster();
+		}
+		return new StartupTimelineApplicationEventMulticaster(timeline);
+	}
+
 	@Override
 	public int getOrder() {
 		return 0;
@@ -111,4 +121,33 @@ public class EventPublishingRunListener implements SpringApplicationRunListener,
 		this.multicaster.multicastEvent(event);
 	}
 
+	/**
+	 * {@link SimpleApplicationEventMulticaster} that records the time taken by each
+	 * listener in the {@link StartupTimeline}.
+	 */
+	private static class StartupTimelineApplicationEventMulticaster extends
+			SimpleApplicationEventMulticaster {
+
+		private final StartupTimeline timeline;
+
+		StartupTimelineApplicationEventMulticaster(StartupTimeline timeline) {
+			this.timeline = timeline;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		protected void invokeListener(ApplicationListener listener,
+				ApplicationEvent event) {
+			if (!this.timeline.isRecording()) {
+				super.invokeListener(listener, event);
+				return;
+			}
+			long start = System.nanoTime();
+			super.invokeListener(listener, event);
+			this.timeline.record("listener", ClassUtils.getShortName(event.getClass())
+					+ " " + listener.getClass().getName(), start);
+		}
+
+	}
+
 }
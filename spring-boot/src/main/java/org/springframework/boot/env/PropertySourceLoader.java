@@ -24,7 +24,8 @@ import org.springframework.core.io.support.SpringFactoriesLoader;
 
 /**
  * Strategy interface located via {@link SpringFactoriesLoader} and used to load a
- * {@link PropertySource}.
+ * {@link PropertySource}. Implementations do not need to be thread-safe: only Spring
+ * Boot's own loaders are ever called concurrently.
  *
  * @author Dave Syer
  * @author Phillip Webb
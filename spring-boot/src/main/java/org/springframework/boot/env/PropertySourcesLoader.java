@@ -119,20 +119,59 @@ public class PropertySourcesLoader {
 	 */
 	public PropertySource<?> load(Resource resource, String group, String name,
 			String profile) throws IOException {
+		PropertySource<?> specific = loadPropertySource(resource, name, profile);
+		addPropertySource(group, specific);
+		return specific;
+	}
+
+	/**
+	 * Load the profile-specific properties from the specified resource (if any) and give
+	 * them the name provided, without adding them to the property sources. Unlike the
+	 * other {@code load} methods, this method can be called concurrently for resources
+	 * that {@link #isConcurrentLoadingSupported(Resource) support it}.
+	 * @param resource the source resource (may be {@code null}).
+	 * @param name the root property name (may be {@code null}).
+	 * @param profile a specific profile to load or {@code null} to load the default.
+	 * @return the loaded property source or {@code null}
+	 * @throws IOException if the source cannot be loaded
+	 * @since 1.3.0
+	 * @see #addPropertySource(String, PropertySource)
+	 */
+	public PropertySource<?> loadPropertySource(Resource resource, String name,
+			String profile) throws IOException {
 		if (isFile(resource)) {
 			String sourceName = generatePropertySourceName(name, profile);
 			for (PropertySourceLoader loader : this.loaders) {
 				if (canLoadFileExtension(loader, resource)) {
-					PropertySource<?> specific = loader.load(sourceName, resource,
-							profile);
-					addPropertySource(group, specific, profile);
-					return specific;
+					return loader.load(sourceName, resource, profile);
 				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Return if the specified resource can be loaded concurrently with other resources,
+	 * i.e. if it would be loaded by one of Spring Boot's own {@link PropertySourceLoader}
+	 * implementations (other implementations are not required to be thread-safe).
+	 * @param resource the source resource
+	 * @return if the resource can be loaded concurrently
+	 * @since 1.3.0
+	 * @see #loadPropertySource(Resource, String, String)
+	 */
+	public boolean isConcurrentLoadingSupported(Resource resource) {
+		if (resource != null && resource.getFilename() != null) {
+			for (PropertySourceLoader loader : this.loaders) {
+				if (canLoadFileExtension(loader, resource)) {
+					Class<?> type = loader.getClass();
+					return (type == PropertiesPropertySourceLoader.class
+							|| type == YamlPropertySourceLoader.class);
+				}
+			}
+		}
+		return false;
+	}
+
 	private boolean isFile(Resource resource) {
 		return resource != null
 				&& resource.exists()
@@ -154,28 +193,33 @@ public class PropertySourcesLoader {
 		return false;
 	}
 
-	private void addPropertySource(String basename, PropertySource<?> source,
-			String profile) {
-
+	/**
+	 * Add a property source, typically obtained from
+	 * {@link #loadPropertySource(Resource, String, String)}, to the group of property
+	 * sources identified by the group name. Groups are handled in the same way as
+	 * {@link #load(Resource, String, String, String)}.
+	 * @param group an identifier for the group that the source belongs to (may be
+	 * {@code null} to add the source last)
+	 * @param source the property source (may be {@code null})
+	 * @since 1.3.0
+	 */
+	public void addPropertySource(String group, PropertySource<?> source) {
 		if (source == null) {
 			return;
 		}
-
-		if (basename == null) {
+		if (group == null) {
 			this.propertySources.addLast(source);
 			return;
 		}
-
-		EnumerableCompositePropertySource group = getGeneric(basename);
-		group.add(source);
-		logger.trace("Adding PropertySource: " + source + " in group: " + basename);
-		if (this.propertySources.contains(group.getName())) {
-			this.propertySources.replace(group.getName(), group);
+		EnumerableCompositePropertySource composite = getGeneric(group);
+		composite.add(source);
+		logger.trace("Adding PropertySource: " + source + " in group: " + group);
+		if (this.propertySources.contains(composite.getName())) {
+			this.propertySources.replace(composite.getName(), composite);
 		}
 		else {
-			this.propertySources.addFirst(group);
+			this.propertySources.addFirst(composite);
 		}
-
 	}
 
 	private EnumerableCompositePropertySource getGeneric(String name) {
@@ -16,8 +16,11 @@
 
 package org.springframework.boot.env;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Pattern;
@@ -29,14 +32,25 @@ import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.io.Resource;
 import org.springframework.util.ClassUtils;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.constructor.BaseConstructor;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.Tag;
-import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
 import org.yaml.snakeyaml.resolver.Resolver;
 
 /**
- * Strategy to load '.yml' (or '.yaml') files into a {@link PropertySource}.
+ * Strategy to load '.yml' (or '.yaml') files into a {@link PropertySource}. Documents
+ * that cannot match the requested profile are skipped before they are constructed and
+ * the result is cached against the content of the resource.
  *
  * @author Dave Syer
  * @author Phillip Webb
@@ -44,6 +58,8 @@ import org.yaml.snakeyaml.resolver.Resolver;
  */
 public class YamlPropertySourceLoader implements PropertySourceLoader {
 
+	private static final Map<String, Map<String, Object>> cache = new ConcurrentReferenceHashMap<String, Map<String, Object>>();
+
 	@Override
 	public String[] getFileExtensions() {
 		return new String[] { "yml", "yaml" };
@@ -53,10 +69,16 @@ public class YamlPropertySourceLoader implements PropertySourceLoader {
 	public PropertySource<?> load(String name, Resource resource, String profile)
 			throws IOException {
 		if (ClassUtils.isPresent("org.yaml.snakeyaml.Yaml", null)) {
-			Processor processor = new Processor(resource, profile);
-			Map<String, Object> source = processor.process();
+			byte[] content = FileCopyUtils.copyToByteArray(resource.getInputStream());
+			String key = DigestUtils.md5DigestAsHex(content) + ":" + profile;
+			Map<String, Object> source = cache.get(key);
+			if (source == null) {
+				source = new Processor(profile).process(content);
+				cache.put(key, source);
+			}
 			if (!source.isEmpty()) {
-				return new MapPropertySource(name, source);
+				return new MapPropertySource(name, new LinkedHashMap<String, Object>(
+						source));
 			}
 		}
 		return null;
@@ -68,42 +90,171 @@ public class YamlPropertySourceLoader implements PropertySourceLoader {
 	 */
 	private static class Processor extends YamlProcessor {
 
-		public Processor(Resource resource, String profile) {
-			if (profile == null) {
-				setMatchDefault(true);
-				setDocumentMatchers(new SpringProfileDocumentMatcher());
+		private static final String PROFILES = "spring.profiles";
+
+		private final String profile;
+
+		private final SpringProfileDocumentMatcher matcher;
+
+		public Processor(String profile) {
+			this.profile = profile;
+			this.matcher = (profile == null ? new SpringProfileDocumentMatcher()
+					: new SpringProfileDocumentMatcher(profile));
+		}
+
+		public Map<String, Object> process(byte[] content) {
+			Map<String, Object> result = new LinkedHashMap<String, Object>();
+			StreamReader reader = new StreamReader(new UnicodeReader(
+					new ByteArrayInputStream(content)));
+			BaseConstructor constructor = new StrictMapAppenderConstructor();
+			constructor.setComposer(new DocumentFilteringComposer(new ParserImpl(reader),
+					createResolver()));
+			while (constructor.checkData()) {
+				Object object = constructor.getData();
+				if (object != null) {
+					Map<String, Object> flattened = getFlattenedMap(asMap(object));
+					Properties properties = new Properties();
+					properties.putAll(flattened);
+					if (isIncluded(this.matcher.matches(properties))) {
+						result.putAll(flattened);
+					}
+				}
 			}
-			else {
-				setMatchDefault(false);
-				setDocumentMatchers(new SpringProfileDocumentMatcher(profile));
+			return result;
+		}
+
+		private Resolver createResolver() {
+			return new Resolver() {
+				@Override
+				public void addImplicitResolver(Tag tag, Pattern regexp, String first) {
+					if (tag == Tag.TIMESTAMP) {
+						return;
+					}
+					super.addImplicitResolver(tag, regexp, first);
+				}
+			};
+		}
+
+		private boolean isIncluded(MatchStatus status) {
+			return (status == MatchStatus.FOUND || (status == MatchStatus.ABSTAIN
+					&& this.profile == null));
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<String, Object> asMap(Object object) {
+			Map<String, Object> result = new LinkedHashMap<String, Object>();
+			if (!(object instanceof Map)) {
+				// A document can be a text literal
+				result.put("document", object);
+				return result;
 			}
-			setResources(new Resource[] { resource });
+			for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) object)
+					.entrySet()) {
+				Object value = entry.getValue();
+				if (value instanceof Map) {
+					value = asMap(value);
+				}
+				Object key = entry.getKey();
+				if (key instanceof CharSequence) {
+					result.put(key.toString(), value);
+				}
+				else {
+					// It has to be a map key in this case
+					result.put("[" + key.toString() + "]", value);
+				}
+			}
+			return result;
 		}
 
-		@Override
-		protected Yaml createYaml() {
-			return new Yaml(new StrictMapAppenderConstructor(), new Representer(),
-					new DumperOptions(), new Resolver() {
-						@Override
-						public void addImplicitResolver(Tag tag, Pattern regexp,
-								String first) {
-							if (tag == Tag.TIMESTAMP) {
-								return;
+		/**
+		 * {@link Composer} that drops documents that will not be included before they
+		 * are constructed. A document is only dropped when its 'spring.profiles' value
+		 * can be read directly from the node tree, anything more complex (merge keys,
+		 * explicit tags and so on) is left to the matcher.
+		 */
+		private class DocumentFilteringComposer extends Composer {
+
+			private Node next;
+
+			DocumentFilteringComposer(ParserImpl parser, Resolver resolver) {
+				super(parser, resolver);
+			}
+
+			@Override
+			public boolean checkNode() {
+				while (this.next == null && super.checkNode()) {
+					Node node = super.getNode();
+					if (!isSkipped(node)) {
+						this.next = node;
+					}
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public Node getNode() {
+				checkNode();
+				Node node = this.next;
+				this.next = null;
+				return node;
+			}
+
+			private boolean isSkipped(Node node) {
+				if (!isPlainMapping(node)) {
+					return false;
+				}
+				List<Node> values = new ArrayList<Node>();
+				for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+					String key = getPlainString(tuple.getKeyNode());
+					Node value = tuple.getValueNode();
+					if (PROFILES.equals(key)) {
+						values.add(value);
+					}
+					else if ("spring".equals(key)) {
+						if (isPlainMapping(value)) {
+							for (NodeTuple nested : ((MappingNode) value).getValue()) {
+								String nestedKey = getPlainString(nested.getKeyNode());
+								if ("profiles".equals(nestedKey)) {
+									values.add(nested.getValueNode());
+								}
 							}
-							super.addImplicitResolver(tag, regexp, first);
 						}
-					});
-		}
+						else if (!(value instanceof ScalarNode)) {
+							return false;
+						}
+					}
+				}
+				Properties properties = new Properties();
+				if (!values.isEmpty()) {
+					String profiles = getPlainString(values.get(0));
+					if (values.size() > 1 || profiles == null) {
+						return false;
+					}
+					properties.put(PROFILES, profiles);
+				}
+				return !isIncluded(Processor.this.matcher.matches(properties));
+			}
 
-		public Map<String, Object> process() {
-			final Map<String, Object> result = new LinkedHashMap<String, Object>();
-			process(new MatchCallback() {
-				@Override
-				public void process(Properties properties, Map<String, Object> map) {
-					result.putAll(getFlattenedMap(map));
+			private boolean isPlainMapping(Node node) {
+				if (!(node instanceof MappingNode) || !Tag.MAP.equals(node.getTag())
+						|| ((MappingNode) node).isMerged()) {
+					return false;
 				}
-			});
-			return result;
+				for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+					if (Tag.MERGE.equals(tuple.getKeyNode().getTag())) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			private String getPlainString(Node node) {
+				if (node instanceof ScalarNode && Tag.STR.equals(node.getTag())) {
+					return ((ScalarNode) node).getValue();
+				}
+				return null;
+			}
+
 		}
 
 	}
@@ -19,6 +19,7 @@ package org.springframework.boot;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -46,6 +47,7 @@ import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigUtils;
 import org.springframework.context.annotation.Bean;
@@ -67,6 +69,7 @@ import org.springframework.util.StringUtils;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isA;
@@ -76,6 +79,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
@@ -579,6 +583,32 @@ public class SpringApplicationTests {
 				.registerShutdownHook();
 	}
 
+	@Test
+	public void startupTimelineNotRecordedByDefault() throws Exception {
+		SpringApplication application = new SpringApplication(ExampleConfig.class);
+		application.setWebEnvironment(false);
+		this.context = application.run();
+		assertFalse(this.context.containsBean(StartupTimeline.BEAN_NAME));
+		assertFalse(application.getStartupTimeline().isRecording());
+	}
+
+	@Test
+	public void recordStartupTimeline() throws Exception {
+		SpringApplication application = new SpringApplication(LifecycleConfig.class);
+		application.setWebEnvironment(false);
+		this.context = application.run("--spring.main.record-startup-timeline=true");
+		StartupTimeline timeline = this.context.getBean(StartupTimeline.class);
+		assertSame(application.getStartupTimeline(), timeline);
+		assertFalse(timeline.isRecording());
+		Set<String> categories = new HashSet<String>();
+		for (StartupTimeline.Step step : timeline.getSteps()) {
+			categories.add(step.getCategory());
+		}
+		assertThat(categories, hasItems("phase", "run-listener", "initializer",
+				"listener", "bean", "lifecycle"));
+		assertTrue(this.context.getBean(TestLifecycle.class).isRunning());
+	}
+
 	@Test
 	public void headless() throws Exception {
 		TestSpringApplication application = new TestSpringApplication(ExampleConfig.class);
@@ -702,6 +732,53 @@ public class SpringApplicationTests {
 
 	}
 
+	@Configuration
+	static class LifecycleConfig {
+
+		@Bean
+		public TestLifecycle testLifecycle() {
+			return new TestLifecycle();
+		}
+
+	}
+
+	static class TestLifecycle implements SmartLifecycle {
+
+		private boolean running;
+
+		@Override
+		public void start() {
+			this.running = true;
+		}
+
+		@Override
+		public void stop() {
+			this.running = false;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.running;
+		}
+
+		@Override
+		public int getPhase() {
+			return 0;
+		}
+
+		@Override
+		public boolean isAutoStartup() {
+			return true;
+		}
+
+		@Override
+		public void stop(Runnable callback) {
+			stop();
+			callback.run();
+		}
+
+	}
+
 	@Configuration
 	static class Multicaster {
 
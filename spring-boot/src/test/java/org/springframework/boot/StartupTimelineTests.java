@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link StartupTimeline}.
+ *
+ * @author agent
+ */
+public class StartupTimelineTests {
+
+	private final StartupTimeline timeline = new StartupTimeline();
+
+	@Test
+	public void recordSteps() throws Exception {
+		long outer = System.nanoTime();
+		this.timeline.record("test", "inner", System.nanoTime());
+		this.timeline.record("test", "outer", outer);
+		List<StartupTimeline.Step> steps = this.timeline.getSteps();
+		assertEquals(2, steps.size());
+		assertEquals("outer", steps.get(0).getName());
+		assertEquals("test", steps.get(0).getCategory());
+		assertEquals("inner", steps.get(1).getName());
+		assertTrue(steps.get(0).getDuration() >= steps.get(1).getDuration());
+	}
+
+	@Test
+	public void stopIgnoresLaterSteps() throws Exception {
+		this.timeline.record("test", "before", System.nanoTime());
+		this.timeline.stop();
+		double duration = this.timeline.getDuration();
+		this.timeline.record("test", "after", System.nanoTime());
+		assertFalse(this.timeline.isRecording());
+		assertEquals(1, this.timeline.getSteps().size());
+		assertEquals(duration, this.timeline.getDuration(), 0);
+	}
+
+	@Test
+	public void getFromBeanFactory() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		assertNull(StartupTimeline.get(beanFactory));
+		assertNull(StartupTimeline.get(null));
+		beanFactory.registerSingleton(StartupTimeline.BEAN_NAME, this.timeline);
+		assertSame(this.timeline, StartupTimeline.get(beanFactory));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,12 @@
 
 package org.springframework.boot.bind;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -77,4 +81,12 @@ public class DefaultPropertyNamePatternsMatcherTests {
 		assertFalse(matcher.matches("bbb[4]"));
 	}
 
+	@Test
+	public void canonicalNames() throws Exception {
+		DefaultPropertyNamePatternsMatcher matcher = new DefaultPropertyNamePatternsMatcher(
+				DELIMITERS, true, "foo.bar-baz", "FOO_BAR_BAZ", "spam");
+		assertEquals(new HashSet<String>(Arrays.asList("foobarbaz", "spam")),
+				matcher.getCanonicalNames());
+	}
+
 }
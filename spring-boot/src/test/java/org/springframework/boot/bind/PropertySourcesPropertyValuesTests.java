@@ -192,6 +192,34 @@ public class PropertySourcesPropertyValuesTests {
 		assertEquals(null, target.getName());
 	}
 
+	@Test
+	public void testOnlyMatchingNamesVisited() {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("foo.one", 1);
+		map.put("bar.two", 2);
+		map.put("FOO_THREE", 3);
+		map.put("foobar", 4);
+		this.propertySources.addFirst(new MapPropertySource("ordered", map) {
+
+			@Override
+			public Object getProperty(String name) {
+				if (name.startsWith("bar")) {
+					throw new IllegalStateException("Unexpected property " + name);
+				}
+				return super.getProperty(name);
+			}
+
+		});
+		PropertySourcesPropertyValues propertyValues = new PropertySourcesPropertyValues(
+				this.propertySources, null, new DefaultPropertyNamePatternsMatcher(
+						new char[] { '.', '_' }, true, "foo"));
+		Collection<String> names = new ArrayList<String>();
+		for (PropertyValue value : propertyValues.getPropertyValues()) {
+			names.add(value.getName());
+		}
+		assertEquals("[foo.one, FOO_THREE]", names.toString());
+	}
+
 	public static class TestBean {
 		private String name;
 
@@ -233,6 +233,18 @@ public class RelaxedDataBinderTests {
 		assertEquals(123, target.getAnotherNested().getValue());
 	}
 
+	@Test
+	public void testBindRelaxedNestedValueRepeatedly() throws Exception {
+		TargetWithNestedObject target = new TargetWithNestedObject();
+		bind(target, "nested_value: 123");
+		assertEquals(123, target.getNested().getValue());
+		target = new TargetWithNestedObject();
+		target.setNested(new VanillaTarget());
+		bind(target, "nested_foo_Baz: bar\n" + "NESTED_VALUE: 456");
+		assertEquals("bar", target.getNested().getFooBaz());
+		assertEquals(456, target.getNested().getValue());
+	}
+
 	@Test
 	public void testBindNestedWithEnviromentStyle() throws Exception {
 		TargetWithNestedObject target = new TargetWithNestedObject();
@@ -595,6 +607,30 @@ public class RelaxedDataBinderTests {
 		assertThat(target.getFoo(), equalTo("b"));
 	}
 
+	@Test
+	public void testBindWithAliasNotReusedWithoutAlias() throws Exception {
+		VanillaTarget target = new VanillaTarget();
+		MutablePropertyValues properties = new MutablePropertyValues();
+		properties.add("flub", "a");
+		new RelaxedDataBinder(target).withAlias("flub", "fooBaz").bind(properties);
+		assertThat(target.getFooBaz(), equalTo("a"));
+		target = new VanillaTarget();
+		RelaxedDataBinder binder = new RelaxedDataBinder(target);
+		binder.setIgnoreUnknownFields(false);
+		this.expected.expect(NotWritablePropertyException.class);
+		binder.bind(properties);
+	}
+
+	@Test
+	public void testBindSimpleAndNestedNamesInRelaxedNamesOrder() throws Exception {
+		TargetWithSimpleAndNestedName target = new TargetWithSimpleAndNestedName();
+		BindingResult result = bind(target, "foo-bar: a\nfoo_bar: b");
+		assertThat(result.getErrorCount(), equalTo(0));
+		// 'foo-bar' reaches 'fooBar' before 'foo.bar', 'foo_bar' the other way round
+		assertThat(target.getFooBar(), equalTo("a"));
+		assertThat(target.getFoo().getBar(), equalTo("b"));
+	}
+
 	@Test
 	public void testMixed() throws Exception {
 		// gh-3385
@@ -927,6 +963,44 @@ public class RelaxedDataBinderTests {
 
 	}
 
+	public static class TargetWithSimpleAndNestedName {
+
+		private String fooBar;
+
+		private SimpleTarget foo = new SimpleTarget();
+
+		public String getFooBar() {
+			return this.fooBar;
+		}
+
+		public void setFooBar(String fooBar) {
+			this.fooBar = fooBar;
+		}
+
+		public SimpleTarget getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(SimpleTarget foo) {
+			this.foo = foo;
+		}
+
+	}
+
+	public static class SimpleTarget {
+
+		private String bar;
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+
+	}
+
 	public static class VanillaTarget {
 
 		private String foo;
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.bind;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.env.CompositePropertySource;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link RelaxedPropertyIndex}.
+ *
+ * @author agent
+ */
+public class RelaxedPropertyIndexTests {
+
+	private MutablePropertySources sources = new MutablePropertySources();
+
+	private Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+	@Before
+	public void setup() {
+		this.map.put("foo.bar-baz", "spam");
+		this.sources.addFirst(new MapPropertySource("test", this.map));
+		this.sources.addLast(new SimpleCommandLinePropertySource("--foo.spam=bucket"));
+	}
+
+	@Test
+	public void relaxedNamesHaveSameCanonicalForm() throws Exception {
+		for (String name : new String[] { "foo.bar-baz", "fooBar.baz_spam",
+				"FOO_BAR", "my-property-name" }) {
+			String canonical = RelaxedPropertyIndex.canonicalize(name);
+			for (String variation : new RelaxedNames(name)) {
+				assertThat(variation, RelaxedPropertyIndex.canonicalize(variation),
+						equalTo(canonical));
+			}
+		}
+	}
+
+	@Test
+	public void reusedWhileUnchanged() throws Exception {
+		RelaxedPropertyIndex index = RelaxedPropertyIndex.get(this.sources);
+		this.map.put("foo.bar-baz", "changed");
+		assertThat(RelaxedPropertyIndex.get(this.sources), sameInstance(index));
+	}
+
+	@Test
+	public void rebuiltWhenSourcesChange() throws Exception {
+		RelaxedPropertyIndex index = RelaxedPropertyIndex.get(this.sources);
+		SimpleCommandLinePropertySource source = new SimpleCommandLinePropertySource(
+				"other", "--spam=bucket");
+		this.sources.addLast(source);
+		RelaxedPropertyIndex rebuilt = RelaxedPropertyIndex.get(this.sources);
+		assertThat(rebuilt, not(sameInstance(index)));
+		assertThat(Arrays.asList(rebuilt.getPropertyNames(source,
+				Collections.singleton("spam"))), equalTo(Arrays.asList("spam")));
+	}
+
+	@Test
+	public void propertyNamesFollowChangesInPlace() throws Exception {
+		String[] names = { "foo" };
+		ArrayPropertySource source = new ArrayPropertySource("array", names);
+		this.sources.addLast(source);
+		RelaxedPropertyIndex index = RelaxedPropertyIndex.get(this.sources);
+		assertThat(index.getPropertyNames(source, Collections.singleton("spam")).length,
+				equalTo(0));
+		names[0] = "spam";
+		assertThat(Arrays.asList(index.getPropertyNames(source,
+				Collections.singleton("spam"))), equalTo(Arrays.asList("spam")));
+	}
+
+	@Test
+	public void propertyNamesFollowMapChangesWithSameHash() throws Exception {
+		// "Aa" and "BB" have the same hash code
+		this.map.clear();
+		this.map.put("Aa", "value");
+		RelaxedPropertyIndex index = RelaxedPropertyIndex.get(this.sources);
+		MapPropertySource source = (MapPropertySource) this.sources.get("test");
+		assertThat(Arrays.asList(index.getPropertyNames(source,
+				Collections.singleton("aa"))), equalTo(Arrays.asList("Aa")));
+		this.map.remove("Aa");
+		this.map.put("BB", "value");
+		index = RelaxedPropertyIndex.get(this.sources);
+		assertThat(Arrays.asList(index.getPropertyNames(source,
+				Collections.singleton("bb"))), equalTo(Arrays.asList("BB")));
+	}
+
+	@Test
+	public void compositeSource() throws Exception {
+		CompositePropertySource composite = new CompositePropertySource("composite");
+		MapPropertySource nested = new MapPropertySource("nested",
+				Collections.<String, Object>singletonMap("spam", "bucket"));
+		composite.addPropertySource(nested);
+		composite.addPropertySource(new NonEnumerablePropertySource());
+		this.sources.addLast(composite);
+		RelaxedPropertyIndex index = RelaxedPropertyIndex.get(this.sources);
+		assertThat(Arrays.asList(index.getPropertyNames(nested,
+				Collections.singleton("spam"))), equalTo(Arrays.asList("spam")));
+		SimpleCommandLinePropertySource args = new SimpleCommandLinePropertySource(
+				"nestedArgs", "--bucket=spam");
+		composite.addPropertySource(args);
+		index = RelaxedPropertyIndex.get(this.sources);
+		assertThat(Arrays.asList(index.getPropertyNames(args,
+				Collections.singleton("bucket"))), equalTo(Arrays.asList("bucket")));
+	}
+
+	@Test
+	public void propertyNamesWithPrefix() throws Exception {
+		this.map.put("spam", "bucket");
+		this.map.put("FOO_SPAM", "bucket");
+		this.map.put("foo", "bar");
+		RelaxedPropertyIndex index = RelaxedPropertyIndex.get(this.sources);
+		MapPropertySource source = (MapPropertySource) this.sources.get("test");
+		assertThat(Arrays.asList(index.getPropertyNames(source,
+				Collections.singleton("foo"))), equalTo(Arrays.asList("foo.bar-baz",
+				"FOO_SPAM", "foo")));
+		assertThat(Arrays.asList(index.getPropertyNames(source,
+				Arrays.asList("foospam", "spam"))), equalTo(Arrays.asList("spam",
+				"FOO_SPAM")));
+		assertThat(index.getPropertyNames(source, Collections.singleton("bar")).length,
+				equalTo(0));
+	}
+
+	private static class ArrayPropertySource extends
+			EnumerablePropertySource<String[]> {
+
+		ArrayPropertySource(String name, String[] names) {
+			super(name, names);
+		}
+
+		@Override
+		public String[] getPropertyNames() {
+			return getSource().clone();
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return (Arrays.asList(getSource()).contains(name) ? "value" : null);
+		}
+
+	}
+
+	private static class NonEnumerablePropertySource extends PropertySource<Object> {
+
+		NonEnumerablePropertySource() {
+			super("nonEnumerable", new Object());
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return ("random".equals(name) ? "value" : null);
+		}
+
+	}
+
+}
@@ -27,6 +27,7 @@ import org.junit.rules.ExpectedException;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.StandardEnvironment;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -63,6 +64,17 @@ public class RelaxedPropertyResolverTests {
 		this.resolver = new RelaxedPropertyResolver(this.environment);
 	}
 
+	@Test
+	public void propertyAddedInPlaceWithSameHashIsFound() throws Exception {
+		// "Aa" and "BB" have the same hash code
+		this.source.clear();
+		this.source.put("Aa", "first");
+		assertThat(this.resolver.getProperty("Aa"), equalTo("first"));
+		this.source.remove("Aa");
+		this.source.put("BB", "second");
+		assertThat(this.resolver.getProperty("BB"), equalTo("second"));
+	}
+
 	@Test
 	public void needsPropertyResolver() throws Exception {
 		this.thrown.expect(IllegalArgumentException.class);
@@ -165,6 +177,31 @@ public class RelaxedPropertyResolverTests {
 		assertThat(this.resolver.getProperty("foo-bar"), equalTo("spam"));
 	}
 
+	@Test
+	public void propertyAddedAfterLookup() throws Exception {
+		assertThat(this.resolver.containsProperty("my-added"), equalTo(false));
+		this.source.put("MY_ADDED", "added");
+		assertThat(this.resolver.getProperty("my-added"), equalTo("added"));
+	}
+
+	@Test
+	public void nonEnumerableSource() throws Exception {
+		this.environment.getPropertySources().addLast(
+				new PropertySource<Object>("nonEnumerable", new Object()) {
+
+					@Override
+					public Object getProperty(String name) {
+						return ("my.other".equals(name) ? "other" : null);
+					}
+
+				});
+		this.source.put("my.thing", "thing");
+		this.resolver = new RelaxedPropertyResolver(this.environment, "my.");
+		assertThat(this.resolver.getProperty("other"), equalTo("other"));
+		assertThat(this.resolver.getProperty("thing"), equalTo("thing"));
+		assertThat(this.resolver.getProperty("missing"), nullValue());
+	}
+
 	@Test
 	public void subProperties() throws Exception {
 		this.source.put("x.y.my-sub.a.b", "1");
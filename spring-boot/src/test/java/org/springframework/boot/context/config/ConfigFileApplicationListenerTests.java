@@ -18,6 +18,7 @@ package org.springframework.boot.context.config;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -38,6 +39,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.context.config.ConfigFileApplicationListener.ConfigurationPropertySources;
 import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
 import org.springframework.boot.env.EnumerableCompositePropertySource;
+import org.springframework.boot.env.PropertySourceLoader;
 import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Configuration;
@@ -46,11 +48,15 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertiesPropertySource;
 import org.springframework.core.env.SimpleCommandLinePropertySource;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -651,6 +657,89 @@ public class ConfigFileApplicationListenerTests {
 		assertThat((Boolean) field.get(application), equalTo(false));
 	}
 
+	@Test
+	public void concurrentlyParsedFilesKeepTheirOrder() throws Exception {
+		List<String> expected = Arrays.asList(
+				"applicationConfig: [classpath:/enableprofile-myprofile.properties]",
+				"applicationConfig: [classpath:/enableprofile.properties]",
+				"applicationConfig: [classpath:/testprofiles.yml]",
+				"applicationConfig: [classpath:/testproperties.properties]");
+		for (int i = 0; i < 20; i++) {
+			StandardEnvironment environment = new StandardEnvironment();
+			ConfigFileApplicationListener listener = new ConfigFileApplicationListener();
+			listener.setSearchNames("testproperties,testprofiles,enableprofile");
+			listener.onApplicationEvent(new ApplicationEnvironmentPreparedEvent(
+					new SpringApplication(), new String[0], environment));
+			assertThat(Arrays.asList(environment.getActiveProfiles()),
+					contains("myprofile"));
+			assertThat(environment.getProperty("the.property"),
+					equalTo("fromprofilepropertiesfile"));
+			assertThat(getConfigurationSourceNames(environment), equalTo(expected));
+		}
+	}
+
+	@Test
+	public void missingLocationIsProbedOnceAcrossProfiles() throws Exception {
+		final List<String> probes = Collections
+				.synchronizedList(new ArrayList<String>());
+		this.event.getSpringApplication().setResourceLoader(new DefaultResourceLoader() {
+			@Override
+			public Resource getResource(final String location) {
+				if (!location.startsWith(CLASSPATH_URL_PREFIX)) {
+					return super.getResource(location);
+				}
+				return new ClassPathResource(location.substring(CLASSPATH_URL_PREFIX
+						.length()), getClassLoader()) {
+					@Override
+					public boolean exists() {
+						probes.add(location);
+						return super.exists();
+					}
+				};
+			}
+		});
+		this.environment.setActiveProfiles("a", "b");
+		this.initializer.setSearchNames("missing");
+		this.initializer.onApplicationEvent(this.event);
+		assertThat(Collections.frequency(probes, "classpath:/missing.properties"),
+				equalTo(1));
+		assertThat(Collections.frequency(probes, "classpath:/missing-a.properties"),
+				equalTo(1));
+		assertThat(Collections.frequency(probes, "classpath:/missing-b.yml"),
+				equalTo(1));
+	}
+
+	@Test
+	public void customPropertySourceLoaderRunsOnCallingThread() throws Exception {
+		ThreadRecordingPropertySourceLoader.thread = null;
+		this.initializer.setSearchNames("threadrecording,testproperties");
+		this.initializer.onApplicationEvent(this.event);
+		assertThat(this.environment.getProperty("recorded.property"),
+				equalTo("fromthreadrecording"));
+		assertThat(ThreadRecordingPropertySourceLoader.thread,
+				equalTo(Thread.currentThread()));
+	}
+
+	private List<String> getConfigurationSourceNames(
+			ConfigurableEnvironment environment) {
+		ConfigurationPropertySources propertySource = (ConfigurationPropertySources) environment
+				.getPropertySources().get("applicationConfigurationProperties");
+		List<String> names = new ArrayList<String>();
+		for (org.springframework.core.env.PropertySource<?> source : propertySource
+				.getSource()) {
+			if (source instanceof EnumerableCompositePropertySource) {
+				for (org.springframework.core.env.PropertySource<?> nested : ((EnumerableCompositePropertySource) source)
+						.getSource()) {
+					names.add(nested.getName());
+				}
+			}
+			else {
+				names.add(source.getName());
+			}
+		}
+		return names;
+	}
+
 	private static Matcher<? super ConfigurableEnvironment> containsPropertySource(
 			final String sourceName) {
 		return new TypeSafeDiagnosingMatcher<ConfigurableEnvironment>() {
@@ -742,4 +831,31 @@ public class ConfigFileApplicationListenerTests {
 
 	}
 
+	/**
+	 * {@link PropertySourceLoader} registered in {@code META-INF/spring.factories}
+	 * that records the thread it was called on.
+	 */
+	public static class ThreadRecordingPropertySourceLoader implements
+			PropertySourceLoader {
+
+		static volatile Thread thread;
+
+		@Override
+		public String[] getFileExtensions() {
+			return new String[] { "threadrecording" };
+		}
+
+		@Override
+		public org.springframework.core.env.PropertySource<?> load(String name,
+				Resource resource, String profile) throws IOException {
+			thread = Thread.currentThread();
+			if (profile == null) {
+				return new PropertiesPropertySource(name,
+						PropertiesLoaderUtils.loadProperties(resource));
+			}
+			return null;
+		}
+
+	}
+
 }
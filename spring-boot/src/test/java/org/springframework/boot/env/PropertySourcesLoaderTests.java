@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2015 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,13 @@
 package org.springframework.boot.env;
 
 import org.junit.Test;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -37,4 +43,41 @@ public class PropertySourcesLoaderTests {
 		assertTrue(this.loader.getAllFileExtensions().contains("xml"));
 	}
 
+	@Test
+	public void loadPropertySourceDoesNotAddSource() throws Exception {
+		PropertySource<?> source = this.loader.loadPropertySource(new ClassPathResource(
+				"application.properties"), "foo", null);
+		assertEquals("bucket", source.getProperty("foo"));
+		assertFalse(this.loader.getPropertySources().iterator().hasNext());
+	}
+
+	@Test
+	public void loadPropertySourceNotFile() throws Exception {
+		assertNull(this.loader.loadPropertySource(new ByteArrayResource(new byte[0]),
+				"foo", null));
+	}
+
+	@Test
+	public void addPropertySourceToGroup() throws Exception {
+		PropertySource<?> source = this.loader.loadPropertySource(new ClassPathResource(
+				"application.properties"), "foo", null);
+		this.loader.addPropertySource("group", source);
+		this.loader.addPropertySource("group", null);
+		assertTrue(this.loader.getPropertySources().contains("group"));
+		assertEquals("bucket", this.loader.getPropertySources().get("group")
+				.getProperty("foo"));
+	}
+
+	@Test
+	public void concurrentLoadingSupportedByBootLoaders() throws Exception {
+		assertTrue(this.loader.isConcurrentLoadingSupported(new ClassPathResource(
+				"application.properties")));
+		assertTrue(this.loader.isConcurrentLoadingSupported(new ClassPathResource(
+				"application.yml")));
+		assertFalse(this.loader.isConcurrentLoadingSupported(new ClassPathResource(
+				"application.txt")));
+		assertFalse(this.loader.isConcurrentLoadingSupported(new ByteArrayResource(
+				new byte[0])));
+	}
+
 }
@@ -16,17 +16,24 @@
 
 package org.springframework.boot.env;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.ByteArrayResource;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -48,6 +55,33 @@ public class YamlPropertySourceLoaderTests {
 		assertEquals("spam", source.getProperty("foo.bar"));
 	}
 
+	@Test
+	public void loadClosesInputStream() throws Exception {
+		final AtomicBoolean closed = new AtomicBoolean();
+		AbstractResource resource = new AbstractResource() {
+
+			@Override
+			public String getDescription() {
+				return "test";
+			}
+
+			@Override
+			public InputStream getInputStream() throws IOException {
+				return new ByteArrayInputStream("foo: bar".getBytes()) {
+
+					@Override
+					public void close() throws IOException {
+						closed.set(true);
+					}
+
+				};
+			}
+
+		};
+		this.loader.load("resource", resource, null);
+		assertThat(closed.get(), equalTo(true));
+	}
+
 	@Test
 	public void orderedItems() throws Exception {
 		StringBuilder yaml = new StringBuilder();
@@ -84,4 +118,55 @@ public class YamlPropertySourceLoaderTests {
 		assertEquals("2015-01-28", source.getProperty("foo"));
 	}
 
+	@Test
+	public void profileDocuments() throws Exception {
+		StringBuilder yaml = new StringBuilder();
+		yaml.append("foo: bar\n");
+		yaml.append("---\n");
+		yaml.append("spring.profiles: dev\nfoo: dev\n");
+		yaml.append("---\n");
+		yaml.append("spring:\n  profiles: other,prod\nfoo: prod\n");
+		ByteArrayResource resource = new ByteArrayResource(yaml.toString().getBytes());
+		assertEquals("bar", this.loader.load("resource", resource, null)
+				.getProperty("foo"));
+		assertEquals("dev", this.loader.load("resource", resource, "dev")
+				.getProperty("foo"));
+		assertEquals("prod", this.loader.load("resource", resource, "prod")
+				.getProperty("foo"));
+		assertNull(this.loader.load("resource", resource, "missing"));
+	}
+
+	@Test
+	public void profileDocumentWithMergeKey() throws Exception {
+		StringBuilder yaml = new StringBuilder();
+		yaml.append("defaults: &defaults\n  spring.profiles: dev\n");
+		yaml.append("---\n");
+		yaml.append("<<: {spring.profiles: dev}\nfoo: dev\n");
+		ByteArrayResource resource = new ByteArrayResource(yaml.toString().getBytes());
+		assertEquals("dev", this.loader.load("resource", resource, "dev")
+				.getProperty("foo"));
+		assertNull(this.loader.load("resource", resource, null).getProperty("foo"));
+	}
+
+	@Test
+	public void documentsForOtherProfilesAreNotConstructed() throws Exception {
+		StringBuilder yaml = new StringBuilder();
+		yaml.append("foo: bar\n");
+		yaml.append("---\n");
+		yaml.append("spring.profiles: other\nfoo: !!does.not.Exist {}\n");
+		ByteArrayResource resource = new ByteArrayResource(yaml.toString().getBytes());
+		assertEquals("bar", this.loader.load("resource", resource, null)
+				.getProperty("foo"));
+	}
+
+	@Test
+	public void cachedContentIsNotShared() throws Exception {
+		ByteArrayResource resource = new ByteArrayResource("foo: bar".getBytes());
+		PropertySource<?> first = this.loader.load("first", resource, null);
+		PropertySource<?> second = this.loader.load("second", resource, null);
+		assertEquals("second", second.getName());
+		assertEquals("bar", second.getProperty("foo"));
+		assertNotSame(first.getSource(), second.getSource());
+	}
+
 }
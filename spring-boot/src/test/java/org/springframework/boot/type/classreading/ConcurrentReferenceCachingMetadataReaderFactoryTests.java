@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.type.classreading;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.classreading.MetadataReader;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ConcurrentReferenceCachingMetadataReaderFactory}.
+ *
+ * @author agent
+ */
+public class ConcurrentReferenceCachingMetadataReaderFactoryTests {
+
+	@Test
+	public void getMetadataReaderUsesCache() throws Exception {
+		TestConcurrentReferenceCachingMetadataReaderFactory factory = spy(
+				new TestConcurrentReferenceCachingMetadataReaderFactory());
+		String name = getClass().getName();
+		MetadataReader metadataReader1 = factory.getMetadataReader(name);
+		MetadataReader metadataReader2 = factory.getMetadataReader(name);
+		assertThat(metadataReader1, sameInstance(metadataReader2));
+		verify(factory, times(1)).createMetadataReader((Resource) any());
+	}
+
+	@Test
+	public void clearResetsCache() throws Exception {
+		TestConcurrentReferenceCachingMetadataReaderFactory factory = spy(
+				new TestConcurrentReferenceCachingMetadataReaderFactory());
+		String name = getClass().getName();
+		MetadataReader metadataReader1 = factory.getMetadataReader(name);
+		factory.clearCache();
+		MetadataReader metadataReader2 = factory.getMetadataReader(name);
+		assertThat(metadataReader1, notNullValue());
+		assertThat(metadataReader1, not(equalTo(metadataReader2)));
+		verify(factory, times(2)).createMetadataReader((Resource) any());
+	}
+
+	private static class TestConcurrentReferenceCachingMetadataReaderFactory extends
+			ConcurrentReferenceCachingMetadataReaderFactory {
+
+		@Override
+		public MetadataReader createMetadataReader(Resource resource) throws IOException {
+			return mock(MetadataReader.class);
+		}
+
+	}
+
+}